@@ -0,0 +1,393 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.cfg;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.github.fge.jackson.JacksonUtils;
+import com.github.fge.jsonschema.core.exceptions.JsonReferenceException;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.load.SchemaLoader;
+import com.github.fge.jsonschema.core.load.configuration.LoadingConfiguration;
+import com.github.fge.jsonschema.core.load.configuration.LoadingConfigurationBuilder;
+import com.github.fge.jsonschema.core.messages.JsonSchemaCoreMessageBundle;
+import com.github.fge.jsonschema.core.ref.JsonRef;
+import com.github.fge.jsonschema.core.report.ProcessingMessage;
+import com.github.fge.jsonschema.core.tree.SchemaTree;
+import com.github.fge.jsonschema.messages.JsonSchemaConfigurationBundle;
+import com.github.fge.jsonschema.processors.validation.SchemaLinker;
+import com.github.fge.msgsimple.bundle.MessageBundle;
+import com.github.fge.msgsimple.load.MessageBundles;
+import com.google.common.base.Joiner;
+import com.google.common.base.Objects;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.hash.Hashing;
+
+import javax.annotation.concurrent.Immutable;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A schema together with all the schemas it references
+ *
+ * <p>A bundle is built from the URI of a schema: all JSON References reachable
+ * from this schema are followed (see {@link SchemaLinker}), and all documents
+ * they point to are kept in the bundle, keyed by their URI.</p>
+ *
+ * <p>A bundle can be written as JSON, and read back. The format is as
+ * follows:</p>
+ *
+ * <pre>
+ *     {
+ *         "root": "the URI of the schema",
+ *         "documents": {
+ *             "uri": { "sha256": "checksum", "schema": { ... } },
+ *             ...
+ *         }
+ *     }
+ * </pre>
+ *
+ * <p>In this form, URIs with the same scheme and authority as the schema are
+ * written relative to it; other URIs, such as {@code http} URIs of remote
+ * documents, are written as is. When reading a bundle back, relative URIs are
+ * resolved against a base URI, which is normally where the schema is found on
+ * the reading side: a bundle of local files can therefore be moved along with
+ * these files, or used on another machine.</p>
+ *
+ * <p>Each document comes with the SHA-256 checksum of its canonical form,
+ * which is checked when the bundle is read. In this canonical form, object
+ * members are sorted by name, and numbers are written in the shortest form of
+ * their decimal value: the checksum does not depend on how the document was
+ * parsed, or on the order of its members.</p>
+ *
+ * <p>Once read, a bundle is used by preloading its documents into a loading
+ * configuration (see {@link #preloadInto(LoadingConfigurationBuilder)}):
+ * schemas are then never downloaded, which makes it possible to validate
+ * against schemas with remote references without any network access.</p>
+ */
+@Immutable
+public final class SchemaBundle
+{
+    private static final MessageBundle BUNDLE
+        = MessageBundles.getBundle(JsonSchemaConfigurationBundle.class);
+    private static final MessageBundle CORE_BUNDLE
+        = MessageBundles.getBundle(JsonSchemaCoreMessageBundle.class);
+    private static final JsonNodeFactory FACTORY = JacksonUtils.nodeFactory();
+    private static final Splitter SLASH = Splitter.on('/');
+    private static final Joiner SLASH_JOINER = Joiner.on('/');
+
+    /*
+     * Documents which all loading configurations preload
+     */
+    private static final Set<URI> DEFAULT_PRELOADED
+        = LoadingConfiguration.byDefault().getPreloadedSchemas().keySet();
+
+    private final String root;
+    private final Map<URI, JsonNode> documents;
+
+    private SchemaBundle(final String root, final Map<URI, JsonNode> documents)
+    {
+        this.root = root;
+        this.documents = ImmutableMap.copyOf(documents);
+    }
+
+    /**
+     * Build a bundle from a schema URI
+     *
+     * <p>Documents which are preloaded in the loading configuration are not
+     * included in the bundle.</p>
+     *
+     * @param loadingCfg the loading configuration
+     * @param validationCfg the validation configuration (its libraries are
+     * used to find subschemas)
+     * @param uri the URI of the schema
+     * @return a new bundle
+     * @throws ProcessingException the URI is invalid, or a schema failed to
+     * load, or a JSON Reference is dangling, or there is a reference loop
+     */
+    public static SchemaBundle create(final LoadingConfiguration loadingCfg,
+        final ValidationConfiguration validationCfg, final String uri)
+        throws ProcessingException
+    {
+        BUNDLE.checkNotNull(loadingCfg, "nullLoadingCfg");
+        BUNDLE.checkNotNull(validationCfg, "nullValidationCfg");
+        CORE_BUNDLE.checkNotNull(uri, "nullURI");
+
+        final JsonRef ref = JsonRef.fromString(uri);
+        if (!ref.isLegal())
+            throw new JsonReferenceException(new ProcessingMessage()
+                .setMessage(CORE_BUNDLE.getMessage("illegalJsonRef")));
+
+        final SchemaLoader loader = new SchemaLoader(loadingCfg);
+        final SchemaTree tree
+            = loader.get(ref.getLocator()).setPointer(ref.getPointer());
+        final Map<URI, JsonNode> documents = new SchemaLinker(loader,
+            validationCfg).link(tree).getDocuments();
+
+        final ImmutableMap.Builder<URI, JsonNode> builder
+            = ImmutableMap.builder();
+        final Map<URI, JsonNode> preloaded = loadingCfg.getPreloadedSchemas();
+
+        for (final Map.Entry<URI, JsonNode> entry: documents.entrySet())
+            if (!preloaded.containsKey(entry.getKey()))
+                builder.put(entry);
+
+        return new SchemaBundle(uri, builder.build());
+    }
+
+    /**
+     * Build a bundle from a schema URI, with the default configurations
+     *
+     * @param uri the URI of the schema
+     * @return a new bundle
+     * @throws ProcessingException see {@link #create(LoadingConfiguration,
+     * ValidationConfiguration, String)}
+     */
+    public static SchemaBundle create(final String uri)
+        throws ProcessingException
+    {
+        return create(LoadingConfiguration.byDefault(),
+            ValidationConfiguration.byDefault(), uri);
+    }
+
+    /**
+     * Read a bundle from its JSON form
+     *
+     * <p>Relative URIs of the bundle are resolved against the base URI. For
+     * instance, if a bundle was built from {@code file:/a/s/schema.json},
+     * with a document at {@code file:/a/common.json}, reading it with base
+     * URI {@code file:/b/s/schema.json} yields a bundle for this URI, with
+     * the document at {@code file:/b/common.json}.</p>
+     *
+     * @param node the JSON form of the bundle
+     * @param base the base URI
+     * @return the bundle
+     * @throws IllegalArgumentException the JSON is not a bundle, or a checksum
+     * does not match its document, or the base URI is not absolute
+     * @see #toJson()
+     */
+    public static SchemaBundle fromJson(final JsonNode node, final String base)
+    {
+        BUNDLE.checkNotNull(node, "nullSchemaBundle");
+        CORE_BUNDLE.checkNotNull(base, "nullURI");
+        final URI baseURI = URI.create(base).normalize();
+        BUNDLE.checkArgumentPrintf(baseURI.isAbsolute(),
+            "relativeSchemaBundleBase", base);
+
+        final JsonNode rootNode = node.path("root");
+        final JsonNode documentsNode = node.path("documents");
+        BUNDLE.checkArgument(rootNode.isTextual()
+            && documentsNode.isObject(), "invalidSchemaBundle");
+
+        final ImmutableMap.Builder<URI, JsonNode> builder
+            = ImmutableMap.builder();
+        final Iterator<Map.Entry<String, JsonNode>> iterator
+            = documentsNode.fields();
+
+        Map.Entry<String, JsonNode> entry;
+        JsonNode schema, checksum;
+
+        while (iterator.hasNext()) {
+            entry = iterator.next();
+            schema = entry.getValue().path("schema");
+            checksum = entry.getValue().path("sha256");
+            BUNDLE.checkArgument(schema.isObject() && checksum.isTextual(),
+                "invalidSchemaBundle");
+            BUNDLE.checkArgumentPrintf(
+                checksum(schema).equals(checksum.textValue()),
+                "schemaBundleChecksum", entry.getKey());
+            builder.put(baseURI.resolve(entry.getKey()), schema);
+        }
+
+        return new SchemaBundle(
+            baseURI.resolve(rootNode.textValue()).toString(), builder.build());
+    }
+
+    /**
+     * Return the URI of the schema this bundle was built from
+     *
+     * @return the URI, as a string
+     */
+    public String getRoot()
+    {
+        return root;
+    }
+
+    /**
+     * Return the documents of this bundle
+     *
+     * @return an immutable map of documents, keyed by URI
+     */
+    public Map<URI, JsonNode> getDocuments()
+    {
+        return documents;
+    }
+
+    /**
+     * Preload all documents of this bundle into a loading configuration
+     *
+     * <p>Documents which all loading configurations preload by default (the
+     * core meta-schemas) are skipped.</p>
+     *
+     * @param builder the loading configuration builder
+     * @return the builder
+     * @throws IllegalArgumentException a document of this bundle was already
+     * preloaded into the builder
+     */
+    public LoadingConfigurationBuilder preloadInto(
+        final LoadingConfigurationBuilder builder)
+    {
+        BUNDLE.checkNotNull(builder, "nullLoadingCfg");
+
+        for (final Map.Entry<URI, JsonNode> entry: documents.entrySet())
+            if (!DEFAULT_PRELOADED.contains(entry.getKey()))
+                builder.preloadSchema(entry.getKey().toString(),
+                    entry.getValue());
+
+        return builder;
+    }
+
+    /**
+     * Return the JSON form of this bundle
+     *
+     * @return a new JSON object
+     */
+    public JsonNode toJson()
+    {
+        final URI rootURI = URI.create(root);
+        final ObjectNode ret = FACTORY.objectNode();
+        ret.put("root", relativize(rootURI, rootURI));
+        final ObjectNode documentsNode = ret.putObject("documents");
+
+        for (final Map.Entry<URI, JsonNode> entry: documents.entrySet())
+            documentsNode.putObject(relativize(rootURI, entry.getKey()))
+                .put("sha256", checksum(entry.getValue()))
+                .set("schema", entry.getValue().deepCopy());
+
+        return ret;
+    }
+
+    /*
+     * Write a URI relative to a base URI, if both have the same scheme and
+     * authority; otherwise, write it as is. As with URI resolution, the last
+     * path segment of the base URI is not taken into account.
+     */
+    private static String relativize(final URI base, final URI uri)
+    {
+        final String basePath = base.getRawPath();
+        final String path = uri.getRawPath();
+
+        if (base.isOpaque() || uri.isOpaque()
+            || !Objects.equal(base.getScheme(), uri.getScheme())
+            || !Objects.equal(base.getRawAuthority(), uri.getRawAuthority())
+            || !basePath.startsWith("/") || !path.startsWith("/"))
+            return uri.toString();
+
+        final List<String> from = SLASH.splitToList(basePath);
+        final List<String> to = SLASH.splitToList(path);
+        final List<String> directories = from.subList(1, from.size() - 1);
+        final List<String> segments = to.subList(1, to.size());
+
+        int common = 0;
+        while (common < directories.size() && common < segments.size() - 1
+            && directories.get(common).equals(segments.get(common)))
+            common++;
+
+        final StringBuilder sb = new StringBuilder();
+        for (int i = common; i < directories.size(); i++)
+            sb.append("../");
+
+        final String rest
+            = SLASH_JOINER.join(segments.subList(common, segments.size()));
+        /*
+         * A first segment with a colon would be read as a scheme
+         */
+        if (sb.length() == 0 && (rest.isEmpty() || rest.split("/", 2)[0]
+            .contains(":")))
+            sb.append("./");
+        sb.append(rest);
+
+        if (uri.getRawQuery() != null)
+            sb.append('?').append(uri.getRawQuery());
+        if (uri.getRawFragment() != null)
+            sb.append('#').append(uri.getRawFragment());
+        return sb.toString();
+    }
+
+    private static String checksum(final JsonNode schema)
+    {
+        final StringBuilder sb = new StringBuilder();
+        canonicalize(schema, sb);
+        return Hashing.sha256().hashString(sb, StandardCharsets.UTF_8)
+            .toString();
+    }
+
+    private static void canonicalize(final JsonNode node,
+        final StringBuilder sb)
+    {
+        if (node.isObject()) {
+            final List<String> names = Lists.newArrayList(node.fieldNames());
+            Collections.sort(names);
+            sb.append('{');
+            for (int i = 0; i < names.size(); i++) {
+                if (i > 0)
+                    sb.append(',');
+                sb.append(TextNode.valueOf(names.get(i))).append(':');
+                canonicalize(node.get(names.get(i)), sb);
+            }
+            sb.append('}');
+            return;
+        }
+
+        if (node.isArray()) {
+            sb.append('[');
+            for (int i = 0; i < node.size(); i++) {
+                if (i > 0)
+                    sb.append(',');
+                canonicalize(node.get(i), sb);
+            }
+            sb.append(']');
+            return;
+        }
+
+        if (!node.isNumber()) {
+            sb.append(node);
+            return;
+        }
+
+        /*
+         * BigDecimal.stripTrailingZeros() does not strip zeros from zero
+         * itself before Java 8
+         */
+        final BigDecimal decimal = node.decimalValue();
+        sb.append(decimal.signum() == 0 ? "0"
+            : decimal.stripTrailingZeros().toString());
+    }
+}
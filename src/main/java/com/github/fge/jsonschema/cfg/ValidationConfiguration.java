@@ -23,6 +23,7 @@ import com.github.fge.Frozen;
 import com.github.fge.jsonschema.core.ref.JsonRef;
 import com.github.fge.jsonschema.library.Keyword;
 import com.github.fge.jsonschema.library.Library;
+import com.github.fge.jsonschema.metrics.ValidationMetrics;
 import com.github.fge.msgsimple.bundle.MessageBundle;
 import com.google.common.collect.ImmutableMap;
 
@@ -37,6 +38,7 @@ import java.util.Map;
  *     <li>add your own schema keywords via libraries, with an associated {@code
  *     $schema} value;</li>
  *     <li>whether to use {@code format};</li>
+ *     <li>where to send validation metrics, if anywhere;</li>
  *     <li>what default keyword library should be used.</li>
  * </ul>
  *
@@ -76,6 +78,32 @@ public final class ValidationConfiguration
      */
     final int cacheSize;
 
+    /**
+     * Validation metrics collector
+     */
+    final ValidationMetrics metrics;
+
+    /**
+     * Maximum number of subschema results memoized per validation
+     */
+    final int memoSize;
+
+    /**
+     * Maximum number of valid string values cached by format attribute
+     * validation
+     */
+    final int formatCacheSize;
+
+    /**
+     * Whether each schema keeps a validator table
+     */
+    final boolean useValidatorTables;
+
+    /**
+     * Number of threads used to link JSON References
+     */
+    final int refLinkingThreads;
+
     /**
      * The set of syntax messages
      */
@@ -119,6 +147,11 @@ public final class ValidationConfiguration
         defaultLibrary = builder.defaultLibrary;
         useFormat = builder.useFormat;
         cacheSize = builder.cacheSize;
+        metrics = builder.metrics;
+        memoSize = builder.memoSize;
+        formatCacheSize = builder.formatCacheSize;
+        useValidatorTables = builder.useValidatorTables;
+        refLinkingThreads = builder.refLinkingThreads;
         syntaxMessages = builder.syntaxMessages;
         validationMessages = builder.validationMessages;
     }
@@ -158,6 +191,59 @@ public final class ValidationConfiguration
     	return cacheSize;
     }
 
+    /**
+     * Return the validation metrics collector
+     *
+     * @return the collector; a no-op implementation by default
+     */
+    public ValidationMetrics getValidationMetrics()
+    {
+        return metrics;
+    }
+
+    /**
+     * Return the maximum number of subschema results memoized per validation
+     *
+     * @return the memo size; 0 if memoization is disabled
+     */
+    public int getMemoSize()
+    {
+        return memoSize;
+    }
+
+    /**
+     * Return the maximum number of valid string values cached by format
+     * attribute validation
+     *
+     * @return the cache size; 0 if the cache is disabled
+     */
+    public int getFormatCacheSize()
+    {
+        return formatCacheSize;
+    }
+
+    /**
+     * Whether each schema should keep a table of its validators
+     *
+     * @return {@code true} if the answer is yes
+     * @see ValidationConfigurationBuilder#setUseValidatorTables(boolean)
+     */
+    public boolean getUseValidatorTables()
+    {
+        return useValidatorTables;
+    }
+
+    /**
+     * Return the number of threads used to link JSON References
+     *
+     * @return the number of threads; 0 if linking is disabled
+     * @see ValidationConfigurationBuilder#setRefLinkingThreads(int)
+     */
+    public int getRefLinkingThreads()
+    {
+        return refLinkingThreads;
+    }
+
     public MessageBundle getSyntaxMessages()
     {
         return syntaxMessages;
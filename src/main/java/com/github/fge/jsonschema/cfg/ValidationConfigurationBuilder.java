@@ -30,6 +30,9 @@ import com.github.fge.jsonschema.library.DraftV4Library;
 import com.github.fge.jsonschema.library.Library;
 import com.github.fge.jsonschema.messages.JsonSchemaConfigurationBundle;
 import com.github.fge.jsonschema.messages.JsonSchemaValidationBundle;
+import com.github.fge.jsonschema.metrics.NoOpValidationMetrics;
+import com.github.fge.jsonschema.metrics.ValidationMetrics;
+import com.github.fge.jsonschema.processors.format.FormatProcessor;
 import com.github.fge.msgsimple.bundle.MessageBundle;
 import com.github.fge.msgsimple.load.MessageBundles;
 import com.google.common.collect.Maps;
@@ -86,6 +89,35 @@ public final class ValidationConfigurationBuilder
      */
     int cacheSize = 512;
 
+    /**
+     * Validation metrics collector (none by default)
+     */
+    ValidationMetrics metrics = NoOpValidationMetrics.getInstance();
+
+    /**
+     * Maximum number of subschema results memoized per validation (none by
+     * default)
+     */
+    int memoSize = 0;
+
+    /**
+     * Maximum number of valid string values cached by format attribute
+     * validation (none by default)
+     */
+    int formatCacheSize = 0;
+
+    /**
+     * Whether each schema keeps a validator table ({@code false} by
+     * default)
+     */
+    boolean useValidatorTables = false;
+
+    /**
+     * Number of threads loading referenced schemas when linking JSON
+     * References (0, which disables linking, by default)
+     */
+    int refLinkingThreads = 0;
+
     /**
      * The set of syntax messages
      */
@@ -125,6 +157,11 @@ public final class ValidationConfigurationBuilder
         defaultLibrary = cfg.defaultLibrary;
         useFormat = cfg.useFormat;
         cacheSize = cfg.cacheSize;
+        metrics = cfg.metrics;
+        memoSize = cfg.memoSize;
+        formatCacheSize = cfg.formatCacheSize;
+        useValidatorTables = cfg.useValidatorTables;
+        refLinkingThreads = cfg.refLinkingThreads;
         syntaxMessages = cfg.syntaxMessages;
         validationMessages = cfg.validationMessages;
     }
@@ -231,6 +268,144 @@ public final class ValidationConfigurationBuilder
         return this;
     }
 
+    /**
+     * Set the validation metrics collector
+     *
+     * <p>By default, no metrics are collected.</p>
+     *
+     * @param metrics the collector
+     * @return this
+     * @throws NullPointerException collector is null
+     * @see NoOpValidationMetrics
+     */
+    public ValidationConfigurationBuilder setValidationMetrics(
+        final ValidationMetrics metrics)
+    {
+        BUNDLE.checkNotNull(metrics, "nullMetrics");
+        this.metrics = metrics;
+        return this;
+    }
+
+    /**
+     * Set the maximum number of subschema results memoized per validation
+     *
+     * <p>When validating an instance, the same subschema may be validated
+     * against the same instance node several times, for instance with shared
+     * definitions used in several branches of {@code anyOf} or {@code oneOf}.
+     * With a non zero size, the report of each such validation is memoized
+     * and reused for the rest of the validation. The least recently used
+     * results are evicted first.</p>
+     *
+     * <p>By default, the size is 0, which disables memoization.</p>
+     *
+     * @param memoSize the memo size
+     * @return this
+     * @throws IllegalArgumentException size is negative
+     */
+    public ValidationConfigurationBuilder setMemoSize(final int memoSize)
+    {
+        BUNDLE.checkArgument(memoSize >= 0, "invalidMemoSize");
+        this.memoSize = memoSize;
+        return this;
+    }
+
+    /**
+     * Set the maximum number of string values cached by format attribute
+     * validation
+     *
+     * <p>The same string values (dates, host names, email addresses...) tend
+     * to be validated over and over against the same format attribute. With a
+     * non zero size, the format attribute names and string values which
+     * yielded no message at all are cached, and these values are not
+     * validated again. Values yielding messages are never cached, and neither
+     * are values longer than {@link FormatProcessor#MAX_CACHED_LENGTH}
+     * characters. The cache is shared by all validations, and the least
+     * recently used values are evicted first.</p>
+     *
+     * <p>When validation metrics are collected, lookups in this cache are
+     * reported under the name {@code format}.</p>
+     *
+     * <p>By default, the size is 0, which disables the cache.</p>
+     *
+     * @param formatCacheSize the cache size
+     * @return this
+     * @throws IllegalArgumentException size is negative
+     * @see #setValidationMetrics(ValidationMetrics)
+     */
+    public ValidationConfigurationBuilder setFormatCacheSize(
+        final int formatCacheSize)
+    {
+        BUNDLE.checkArgument(formatCacheSize >= 0, "invalidFormatCacheSize");
+        this.formatCacheSize = formatCacheSize;
+        return this;
+    }
+
+    /**
+     * Tell whether each schema should keep a table of its validators
+     *
+     * <p>When validating an instance, each subschema is normally looked up in
+     * caches shared by all validations, which requires hashing and comparing
+     * the subschema, and the subschema is analyzed again for each object or
+     * array instance in order to find the schemas applying to its children.
+     * </p>
+     *
+     * <p>With validator tables, each {@link
+     * com.github.fge.jsonschema.main.JsonSchema} keeps its own table of what
+     * the subschemas it meets need: the keyword validators for each instance
+     * type, the schemas for children of array and object instances, and all
+     * child schema trees. Entries are looked up by identity, and are reused by
+     * all subsequent validations against this schema. Validation results are
+     * the same.</p>
+     *
+     * <p>Note that this is only a lookup table, no code is generated: keyword
+     * validators are invoked in the same way as without it, only the lookups
+     * are cheaper.</p>
+     *
+     * <p>This is only useful for schemas used to validate many instances. By
+     * default, schemas do not keep validator tables.</p>
+     *
+     * @param useValidatorTables {@code true} if schemas must keep validator
+     * tables
+     * @return this
+     */
+    public ValidationConfigurationBuilder setUseValidatorTables(
+        final boolean useValidatorTables)
+    {
+        this.useValidatorTables = useValidatorTables;
+        return this;
+    }
+
+    /**
+     * Set the number of threads used to link JSON References
+     *
+     * <p>JSON References are normally resolved when validation first meets
+     * them, and the schemas they point to are loaded at that time. Errors
+     * (unreachable schemas, dangling references, reference loops) are
+     * therefore only known when an instance happens to need these
+     * references.</p>
+     *
+     * <p>With a non zero number of threads, each {@link
+     * com.github.fge.jsonschema.main.JsonSchema} links its references when it
+     * is built instead: all references reachable from the schema are
+     * discovered, the schemas they point to are loaded using this number of
+     * threads, and errors are raised at that time. Validation then goes
+     * directly from references to their targets.</p>
+     *
+     * <p>By default, the number of threads is 0, which disables linking.</p>
+     *
+     * @param refLinkingThreads the number of threads
+     * @return this
+     * @throws IllegalArgumentException number of threads is negative
+     */
+    public ValidationConfigurationBuilder setRefLinkingThreads(
+        final int refLinkingThreads)
+    {
+        BUNDLE.checkArgument(refLinkingThreads >= 0,
+            "invalidRefLinkingThreads");
+        this.refLinkingThreads = refLinkingThreads;
+        return this;
+    }
+
     /**
      * Return a frozen version of this configuration
      *
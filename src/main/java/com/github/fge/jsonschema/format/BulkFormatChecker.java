@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.format;
+
+import com.github.fge.jackson.JacksonUtils;
+import com.github.fge.jackson.NodeType;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.DevNullProcessingReport;
+import com.github.fge.jsonschema.core.report.LogLevel;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.core.tree.CanonicalSchemaTree;
+import com.github.fge.jsonschema.core.tree.SchemaTree;
+import com.github.fge.jsonschema.core.tree.SimpleJsonTree;
+import com.github.fge.jsonschema.core.tree.key.SchemaKey;
+import com.github.fge.jsonschema.messages.JsonSchemaConfigurationBundle;
+import com.github.fge.jsonschema.messages.JsonSchemaValidationBundle;
+import com.github.fge.jsonschema.processors.data.FullData;
+import com.github.fge.msgsimple.bundle.MessageBundle;
+import com.github.fge.msgsimple.load.MessageBundles;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Check a batch of strings against a single format attribute
+ *
+ * <p>The result of a check is a {@link BitSet} in which bit {@code n} is set
+ * if and only if the value at index {@code n} fails to validate. Null values
+ * are never reported as failures, in the same way that format attributes
+ * ignore instances of types they do not support.</p>
+ *
+ * <p>If the attribute implements {@link StringFormatAttribute}, values are
+ * checked using {@link StringFormatAttribute#isValid(String)}, and no
+ * validation data nor report is ever built. Other attributes are validated
+ * the regular way, with the same outcome but at a greater cost.</p>
+ *
+ * <p>Instances of this class are thread safe if the underlying attribute
+ * is.</p>
+ */
+public final class BulkFormatChecker
+{
+    private static final MessageBundle CONFIG_BUNDLE
+        = MessageBundles.getBundle(JsonSchemaConfigurationBundle.class);
+    private static final MessageBundle BUNDLE
+        = MessageBundles.getBundle(JsonSchemaValidationBundle.class);
+    private static final SchemaTree SCHEMA_TREE = new CanonicalSchemaTree(
+        SchemaKey.anonymousKey(), JacksonUtils.nodeFactory().objectNode());
+
+    private final FormatAttribute attribute;
+
+    private BulkFormatChecker(final FormatAttribute attribute)
+    {
+        this.attribute = attribute;
+    }
+
+    /**
+     * Build a checker for a format attribute
+     *
+     * @param attribute the format attribute
+     * @return a new checker
+     * @throws NullPointerException attribute is null
+     * @throws IllegalArgumentException attribute does not apply to strings
+     */
+    public static BulkFormatChecker forAttribute(
+        final FormatAttribute attribute)
+    {
+        CONFIG_BUNDLE.checkNotNull(attribute, "nullAttribute");
+        CONFIG_BUNDLE.checkArgumentPrintf(
+            attribute.supportedTypes().contains(NodeType.STRING),
+            "nonStringFormat", attribute.getClass().getName());
+        return new BulkFormatChecker(attribute);
+    }
+
+    /**
+     * Check an array of values
+     *
+     * @param values the values
+     * @return the set of indices of values which failed to validate
+     * @throws ProcessingException the attribute raised an exception (this can
+     * only happen with attributes not implementing {@link
+     * StringFormatAttribute})
+     */
+    public BitSet failures(final String... values)
+        throws ProcessingException
+    {
+        final BitSet ret = new BitSet(values.length);
+
+        for (int i = 0; i < values.length; i++)
+            if (values[i] != null && !isValid(values[i]))
+                ret.set(i);
+
+        return ret;
+    }
+
+    /**
+     * Check a list of values
+     *
+     * <p>Values are converted to strings using their {@link
+     * Object#toString()} method.</p>
+     *
+     * @param values the values
+     * @return the set of indices of values which failed to validate
+     * @throws ProcessingException the attribute raised an exception (this can
+     * only happen with attributes not implementing {@link
+     * StringFormatAttribute})
+     */
+    public BitSet failures(final List<? extends CharSequence> values)
+        throws ProcessingException
+    {
+        final int size = values.size();
+        final BitSet ret = new BitSet(size);
+
+        int i = 0;
+        for (final CharSequence value: values) {
+            if (value != null && !isValid(value.toString()))
+                ret.set(i);
+            i++;
+        }
+
+        return ret;
+    }
+
+    private boolean isValid(final String value)
+        throws ProcessingException
+    {
+        if (attribute instanceof StringFormatAttribute)
+            return ((StringFormatAttribute) attribute).isValid(value);
+
+        final FullData data = new FullData(SCHEMA_TREE,
+            new SimpleJsonTree(JacksonUtils.nodeFactory().textNode(value)));
+        final ProcessingReport report
+            = new DevNullProcessingReport(LogLevel.DEBUG, LogLevel.NONE);
+        attribute.validate(report, BUNDLE, data);
+        return report.isSuccess();
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.format;
+
+/**
+ * Interface for a format attribute which only applies to strings
+ *
+ * <p>Implementations of this interface can tell whether a string value is
+ * valid on its own, without building any validation data or report. This is
+ * what {@link BulkFormatChecker} uses to check large numbers of values.</p>
+ *
+ * <p>For a given value, {@link #isValid(String)} must return false if and only
+ * if {@link #validate(com.github.fge.jsonschema.core.report.ProcessingReport,
+ * com.github.fge.msgsimple.bundle.MessageBundle,
+ * com.github.fge.jsonschema.processors.data.FullData)} reports an error.</p>
+ */
+public interface StringFormatAttribute
+    extends FormatAttribute
+{
+    /**
+     * Tell whether a string value is valid against this format attribute
+     *
+     * @param value the value
+     * @return true if the value is valid
+     */
+    boolean isValid(String value);
+}
@@ -24,49 +24,24 @@ import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
 import com.github.fge.jsonschema.format.AbstractFormatAttribute;
 import com.github.fge.jsonschema.format.FormatAttribute;
+import com.github.fge.jsonschema.format.StringFormatAttribute;
+import com.github.fge.jsonschema.format.helpers.DateTimeScanner;
 import com.github.fge.jsonschema.processors.data.FullData;
 import com.github.fge.msgsimple.bundle.MessageBundle;
 import com.google.common.collect.ImmutableList;
-import org.joda.time.format.DateTimeFormatter;
-import org.joda.time.format.DateTimeFormatterBuilder;
-import org.joda.time.format.DateTimeParser;
-
-import static org.joda.time.DateTimeFieldType.*;
 
 /**
  * Validator for the {@code date-time} format attribute
+ *
+ * @see DateTimeScanner#isDateTime(String)
  */
 public final class DateTimeAttribute
     extends AbstractFormatAttribute
+    implements StringFormatAttribute
 {
     private static final ImmutableList<String> FORMATS = ImmutableList.of(
         "yyyy-MM-dd'T'HH:mm:ssZ", "yyyy-MM-dd'T'HH:mm:ss.[0-9]{1,12}Z"
     );
-    private static final DateTimeFormatter FORMATTER;
-
-    static {
-        final DateTimeParser secFracsParser = new DateTimeFormatterBuilder()
-            .appendLiteral('.').appendFractionOfSecond(1,12)
-            .toParser();
-
-        DateTimeFormatterBuilder builder = new DateTimeFormatterBuilder();
-
-        builder = builder.appendFixedDecimal(year(), 4)
-            .appendLiteral('-')
-            .appendFixedDecimal(monthOfYear(), 2)
-            .appendLiteral('-')
-            .appendFixedDecimal(dayOfMonth(), 2)
-            .appendLiteral('T')
-            .appendFixedDecimal(hourOfDay(), 2)
-            .appendLiteral(':')
-            .appendFixedDecimal(minuteOfHour(), 2)
-            .appendLiteral(':')
-            .appendFixedDecimal(secondOfMinute(), 2)
-            .appendOptional(secFracsParser)
-            .appendTimeZoneOffset("Z", false, 2, 2);
-
-        FORMATTER = builder.toFormatter();
-    }
 
     private static final FormatAttribute INSTANCE = new DateTimeAttribute();
 
@@ -80,6 +55,12 @@ public final class DateTimeAttribute
         super("date-time", NodeType.STRING);
     }
 
+    @Override
+    public boolean isValid(final String value)
+    {
+        return DateTimeScanner.isDateTime(value);
+    }
+
     @Override
     public void validate(final ProcessingReport report,
         final MessageBundle bundle, final FullData data)
@@ -87,11 +68,8 @@ public final class DateTimeAttribute
     {
         final String value = data.getInstance().getNode().textValue();
 
-        try {
-            FORMATTER.parseDateTime(value);
-        } catch (IllegalArgumentException ignored) {
+        if (!isValid(value))
             report.error(newMsg(data, bundle, "err.format.invalidDate")
                 .putArgument("value", value).putArgument("expected", FORMATS));
-        }
     }
 }
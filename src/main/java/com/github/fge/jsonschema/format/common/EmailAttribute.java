@@ -24,12 +24,11 @@ import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
 import com.github.fge.jsonschema.format.AbstractFormatAttribute;
 import com.github.fge.jsonschema.format.FormatAttribute;
+import com.github.fge.jsonschema.format.StringFormatAttribute;
+import com.github.fge.jsonschema.format.helpers.EmailScanner;
 import com.github.fge.jsonschema.processors.data.FullData;
 import com.github.fge.msgsimple.bundle.MessageBundle;
 
-import javax.mail.internet.AddressException;
-import javax.mail.internet.InternetAddress;
-
 /**
  * Validator for the {@code email} format attribute.
  *
@@ -38,9 +37,12 @@ import javax.mail.internet.InternetAddress;
  * email addresses have a domain part. However, that domain part may consist of
  * a single domain name component. As such, {@code foo@bar} is considered valid.
  * </p>
+ *
+ * <p>{@link EmailScanner} is used for validation.</p>
  */
 public final class EmailAttribute
     extends AbstractFormatAttribute
+    implements StringFormatAttribute
 {
     private static final FormatAttribute INSTANCE = new EmailAttribute();
 
@@ -54,6 +56,12 @@ public final class EmailAttribute
         super("email", NodeType.STRING);
     }
 
+    @Override
+    public boolean isValid(final String value)
+    {
+        return EmailScanner.isEmail(value);
+    }
+
     @Override
     public void validate(final ProcessingReport report,
         final MessageBundle bundle, final FullData data)
@@ -61,11 +69,8 @@ public final class EmailAttribute
     {
         final String value = data.getInstance().getNode().textValue();
 
-        try {
-            new InternetAddress(value, true);
-        } catch (AddressException ignored) {
+        if (!isValid(value))
             report.error(newMsg(data, bundle, "err.format.invalidEmail")
                 .putArgument("value", value));
-        }
     }
 }
@@ -25,20 +25,20 @@ import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
 import com.github.fge.jsonschema.format.AbstractFormatAttribute;
 import com.github.fge.jsonschema.format.FormatAttribute;
+import com.github.fge.jsonschema.format.StringFormatAttribute;
+import com.github.fge.jsonschema.format.helpers.InetAddressScanner;
 import com.github.fge.jsonschema.processors.data.FullData;
 import com.github.fge.msgsimple.bundle.MessageBundle;
-import com.google.common.net.InetAddresses;
 
 /**
  * Validator for the {@code ipv6} format attribute.
  *
- * <p>This uses Guava's {@link InetAddresses} to do the job.</p>
+ * <p>This uses {@link InetAddressScanner} to do the job.</p>
  */
 public final class IPv6Attribute
     extends AbstractFormatAttribute
+    implements StringFormatAttribute
 {
-    private static final int IPV6_LENGTH = 16;
-
     private static final FormatAttribute INSTANCE = new IPv6Attribute();
 
     public static FormatAttribute getInstance()
@@ -51,6 +51,12 @@ public final class IPv6Attribute
         super("ipv6", NodeType.STRING);
     }
 
+    @Override
+    public boolean isValid(final String value)
+    {
+        return InetAddressScanner.isIPv6(value);
+    }
+
     @Override
     public void validate(final ProcessingReport report,
         final MessageBundle bundle, final FullData data)
@@ -59,8 +65,7 @@ public final class IPv6Attribute
         final JsonNode instance = data.getInstance().getNode();
         final String ipaddr = instance.textValue();
 
-        if (InetAddresses.isInetAddress(ipaddr) && InetAddresses
-            .forString(ipaddr).getAddress().length == IPV6_LENGTH)
+        if (isValid(ipaddr))
             return;
 
         report.error(newMsg(data, bundle, "err.format.invalidIPV6Address")
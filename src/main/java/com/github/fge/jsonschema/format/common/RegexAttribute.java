@@ -25,6 +25,7 @@ import com.github.fge.jsonschema.core.report.ProcessingReport;
 import com.github.fge.jsonschema.core.util.RegexECMA262Helper;
 import com.github.fge.jsonschema.format.AbstractFormatAttribute;
 import com.github.fge.jsonschema.format.FormatAttribute;
+import com.github.fge.jsonschema.format.StringFormatAttribute;
 import com.github.fge.jsonschema.processors.data.FullData;
 import com.github.fge.msgsimple.bundle.MessageBundle;
 
@@ -38,6 +39,7 @@ import com.github.fge.msgsimple.bundle.MessageBundle;
  */
 public final class RegexAttribute
     extends AbstractFormatAttribute
+    implements StringFormatAttribute
 {
     private static final FormatAttribute INSTANCE = new RegexAttribute();
 
@@ -51,6 +53,12 @@ public final class RegexAttribute
         super("regex", NodeType.STRING);
     }
 
+    @Override
+    public boolean isValid(final String value)
+    {
+        return RegexECMA262Helper.regexIsValid(value);
+    }
+
     @Override
     public void validate(final ProcessingReport report,
         final MessageBundle bundle, final FullData data)
@@ -58,7 +66,7 @@ public final class RegexAttribute
     {
         final String value = data.getInstance().getNode().textValue();
 
-        if (!RegexECMA262Helper.regexIsValid(value))
+        if (!isValid(value))
             report.error(newMsg(data, bundle, "err.format.invalidRegex")
                 .putArgument("value", value));
     }
@@ -24,20 +24,22 @@ import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
 import com.github.fge.jsonschema.format.AbstractFormatAttribute;
 import com.github.fge.jsonschema.format.FormatAttribute;
+import com.github.fge.jsonschema.format.StringFormatAttribute;
+import com.github.fge.jsonschema.format.helpers.URIScanner;
 import com.github.fge.jsonschema.processors.data.FullData;
 import com.github.fge.msgsimple.bundle.MessageBundle;
 
-import java.net.URI;
-import java.net.URISyntaxException;
-
 /**
  * Validator for the {@code uri} format attribute.
  *
  * <p>Note that each and any URI is allowed. In particular, it is not required
  * that the URI be absolute or normalized.</p>
+ *
+ * <p>{@link URIScanner} is used for validation.</p>
  */
 public final class URIAttribute
     extends AbstractFormatAttribute
+    implements StringFormatAttribute
 {
     private static final FormatAttribute INSTANCE = new URIAttribute();
 
@@ -51,6 +53,12 @@ public final class URIAttribute
         super("uri", NodeType.STRING);
     }
 
+    @Override
+    public boolean isValid(final String value)
+    {
+        return URIScanner.isURI(value);
+    }
+
     @Override
     public void validate(final ProcessingReport report,
         final MessageBundle bundle, final FullData data)
@@ -58,11 +66,8 @@ public final class URIAttribute
     {
         final String value = data.getInstance().getNode().textValue();
 
-        try {
-            new URI(value);
-        } catch (URISyntaxException ignored) {
+        if (!isValid(value))
             report.error(newMsg(data, bundle, "err.format.invalidURI")
                 .putArgument("value", value));
-        }
     }
 }
@@ -21,6 +21,7 @@ package com.github.fge.jsonschema.format.draftv3;
 
 import com.github.fge.jsonschema.format.FormatAttribute;
 import com.github.fge.jsonschema.format.helpers.AbstractDateFormatAttribute;
+import com.github.fge.jsonschema.format.helpers.DateTimeScanner;
 import org.joda.time.format.DateTimeFormatter;
 import org.joda.time.format.DateTimeFormatterBuilder;
 
@@ -54,4 +55,10 @@ public final class DateAttribute
 
         return builder.toFormatter();
     }
+
+    @Override
+    public boolean isValid(final String value)
+    {
+        return DateTimeScanner.isDate(value);
+    }
 }
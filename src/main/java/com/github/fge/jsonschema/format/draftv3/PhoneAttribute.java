@@ -24,8 +24,13 @@ import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
 import com.github.fge.jsonschema.format.AbstractFormatAttribute;
 import com.github.fge.jsonschema.format.FormatAttribute;
+import com.github.fge.jsonschema.format.StringFormatAttribute;
+import com.github.fge.jsonschema.messages.JsonSchemaConfigurationBundle;
 import com.github.fge.jsonschema.processors.data.FullData;
 import com.github.fge.msgsimple.bundle.MessageBundle;
+import com.github.fge.msgsimple.load.MessageBundles;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.i18n.phonenumbers.NumberParseException;
 import com.google.i18n.phonenumbers.PhoneNumberUtil;
 
@@ -39,23 +44,69 @@ import com.google.i18n.phonenumbers.PhoneNumberUtil;
  * <p>It will only chek if this is a potential phone number, not whether it is
  * actually valid for your country! If you really want that, you will probably
  * want to write your own {@link FormatAttribute}.</p>
+ *
+ * <p>National phone numbers (that is, numbers which do not start with a {@code
+ * +}) are parsed for region {@code FR} by default; use {@link
+ * #forRegion(String)} to obtain an attribute for another region, and register
+ * it in your library in place of the default one.</p>
+ *
+ * <p>As parsing is costly, and phone numbers tend to be validated over and over
+ * again, the outcomes of the most recent parses are cached. Strings which are
+ * too long, or which do not have at least two digits, are rejected without
+ * even calling the parser, and are not cached.</p>
  */
-//TODO: more tests?
 public final class PhoneAttribute
     extends AbstractFormatAttribute
+    implements StringFormatAttribute
 {
+    private static final MessageBundle BUNDLE
+        = MessageBundles.getBundle(JsonSchemaConfigurationBundle.class);
+
     private static final PhoneNumberUtil PARSER = PhoneNumberUtil.getInstance();
 
-    private static final FormatAttribute INSTANCE = new PhoneAttribute();
+    private static final String DEFAULT_REGION = "FR";
+
+    /*
+     * Limits enforced by libphonenumber, see PhoneNumberUtil
+     */
+    private static final int MAX_LENGTH = 250;
+    private static final int MIN_DIGITS = 2;
+
+    private static final int CACHE_SIZE = 1024;
+
+    private static final FormatAttribute INSTANCE
+        = new PhoneAttribute(DEFAULT_REGION);
+
+    private final String region;
+    private final Cache<String, Boolean> outcomes;
 
     public static FormatAttribute getInstance()
     {
         return INSTANCE;
     }
 
-    private PhoneAttribute()
+    /**
+     * Return a phone attribute parsing national numbers for a given region
+     *
+     * @param region the region, as a two-letter ISO country code
+     * @return a new attribute
+     * @throws NullPointerException region is null
+     * @throws IllegalArgumentException region is not supported by
+     * libphonenumber
+     */
+    public static FormatAttribute forRegion(final String region)
+    {
+        BUNDLE.checkNotNull(region, "nullRegion");
+        BUNDLE.checkArgumentPrintf(PARSER.getSupportedRegions()
+            .contains(region), "unsupportedRegion", region);
+        return new PhoneAttribute(region);
+    }
+
+    private PhoneAttribute(final String region)
     {
         super("phone", NodeType.STRING);
+        this.region = region;
+        outcomes = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
     }
 
     @Override
@@ -64,6 +115,38 @@ public final class PhoneAttribute
         throws ProcessingException
     {
         final String input = data.getInstance().getNode().textValue();
+
+        if (!isValid(input))
+            report.error(newMsg(data, bundle, "err.format.invalidPhoneNumber")
+                .putArgument("value", input));
+    }
+
+    @Override
+    public boolean isValid(final String value)
+    {
+        if (!isViable(value))
+            return false;
+
+        Boolean valid = outcomes.getIfPresent(value);
+        if (valid == null) {
+            valid = isPhoneNumber(value);
+            outcomes.put(value, valid);
+        }
+        return valid;
+    }
+
+    /**
+     * Return the number of cached outcomes
+     *
+     * @return the number of cached outcomes
+     */
+    long cachedOutcomes()
+    {
+        return outcomes.size();
+    }
+
+    private boolean isPhoneNumber(final String input)
+    {
         /*
          * The libphonenumber API doc says that no matter what region you put
          * when validating national phone numbers, the number is not actually
@@ -79,10 +162,33 @@ public final class PhoneAttribute
             if (input.startsWith("+"))
                 PARSER.parse(input, "ZZ");
             else
-                PARSER.parse(input, "FR");
+                PARSER.parse(input, region);
+            return true;
         } catch (NumberParseException ignored) {
-            report.error(newMsg(data, bundle, "err.format.invalidPhoneNumber")
-                .putArgument("value", input));
+            return false;
+        }
+    }
+
+    /*
+     * libphonenumber rejects strings longer than 250 characters; and whatever
+     * it extracts from the string must have at least two digits, in the sense
+     * of Character#isDigit().
+     */
+    private static boolean isViable(final String input)
+    {
+        final int length = input.length();
+        if (length > MAX_LENGTH)
+            return false;
+
+        int digits = 0;
+        int codePoint;
+
+        for (int i = 0; i < length; i += Character.charCount(codePoint)) {
+            codePoint = input.codePointAt(i);
+            if (Character.isDigit(codePoint) && ++digits == MIN_DIGITS)
+                return true;
         }
+
+        return false;
     }
 }
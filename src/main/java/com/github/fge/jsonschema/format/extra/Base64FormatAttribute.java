@@ -24,11 +24,10 @@ import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
 import com.github.fge.jsonschema.format.AbstractFormatAttribute;
 import com.github.fge.jsonschema.format.FormatAttribute;
+import com.github.fge.jsonschema.format.StringFormatAttribute;
+import com.github.fge.jsonschema.format.helpers.Base64Scanner;
 import com.github.fge.jsonschema.processors.data.FullData;
 import com.github.fge.msgsimple.bundle.MessageBundle;
-import com.google.common.base.CharMatcher;
-
-import java.util.regex.Pattern;
 
 /**
  * Format specifier for an hypothetical {@code base64} format attribute
@@ -37,9 +36,12 @@ import java.util.regex.Pattern;
  * the RFC states that excess padding characters ({@code =}) MAY be ignored, it
  * is chosen here to require that there be at most two, as per Base64 encoding
  * rules.</p>
+ *
+ * @see Base64UrlFormatAttribute
  */
 public final class Base64FormatAttribute
     extends AbstractFormatAttribute
+    implements StringFormatAttribute
 {
     /*
      * The algorithm is as follows:
@@ -47,28 +49,11 @@ public final class Base64FormatAttribute
      * * first and foremost, check whether the total length of the input string
      *   is a multiple of 4: even though the RFC does not state this explicitly,
      *   it is obvious enough that this must be the case anyway;
-     * * if this check succeeds, remove _at most two_ trailing '=' characters;
-     * * check that, after this removal, all remaining characters are within the
-     *   Base64 alphabet, as defined by the RFC.
+     * * then check, in a single pass, that all characters are within the
+     *   Base64 alphabet, as defined by the RFC, except for _at most two_
+     *   trailing '=' characters.
      */
 
-    /*
-     * Regex to accurately remove _at most two_ '=' characters from the end of
-     * the input.
-     */
-    private static final Pattern PATTERN = Pattern.compile("==?$");
-
-    /*
-     * Negation of the Base64 alphabet. We try and find one character, if any,
-     * matching this "negated" character matcher.
-     *
-     * FIXME: use .precomputed()?
-     */
-    private static final CharMatcher NOT_BASE64
-        = CharMatcher.inRange('a', 'z').or(CharMatcher.inRange('A', 'Z'))
-            .or(CharMatcher.inRange('0', '9')).or(CharMatcher.anyOf("+/"))
-            .negate();
-
     private static final FormatAttribute instance
         = new Base64FormatAttribute();
 
@@ -82,6 +67,13 @@ public final class Base64FormatAttribute
         super("base64", NodeType.STRING);
     }
 
+    @Override
+    public boolean isValid(final String value)
+    {
+        return value.length() % 4 == 0
+            && Base64Scanner.illegalBase64Index(value) == -1;
+    }
+
     @Override
     public void validate(final ProcessingReport report,
         final MessageBundle bundle, final FullData data)
@@ -100,8 +92,7 @@ public final class Base64FormatAttribute
             return;
         }
 
-        final int index
-            = NOT_BASE64.indexIn(PATTERN.matcher(input).replaceFirst(""));
+        final int index = Base64Scanner.illegalBase64Index(input);
 
         if (index == -1)
             return;
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.format.extra;
+
+import com.github.fge.jackson.NodeType;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.format.AbstractFormatAttribute;
+import com.github.fge.jsonschema.format.FormatAttribute;
+import com.github.fge.jsonschema.format.StringFormatAttribute;
+import com.github.fge.jsonschema.format.helpers.Base64Scanner;
+import com.github.fge.jsonschema.processors.data.FullData;
+import com.github.fge.msgsimple.bundle.MessageBundle;
+
+/**
+ * Format specifier for an hypothetical {@code base64url} format attribute
+ *
+ * <p>This implements the URL and file name safe variant of Base64 defined in
+ * RFC 4648, section 5, where {@code -} and {@code _} replace {@code +} and
+ * {@code /}. As this variant is mostly used where the length of data is known
+ * implicitly, padding is optional; however, as with {@link
+ * Base64FormatAttribute}, if there is padding, it must be complete.</p>
+ */
+public final class Base64UrlFormatAttribute
+    extends AbstractFormatAttribute
+    implements StringFormatAttribute
+{
+    /*
+     * Without padding, the last group of characters must have at least two
+     * characters, so the length cannot be 4n+1.
+     */
+
+    private static final FormatAttribute instance
+        = new Base64UrlFormatAttribute();
+
+    public static FormatAttribute getInstance()
+    {
+        return instance;
+    }
+
+    private Base64UrlFormatAttribute()
+    {
+        super("base64url", NodeType.STRING);
+    }
+
+    @Override
+    public boolean isValid(final String value)
+    {
+        return !isBadLength(value)
+            && Base64Scanner.illegalBase64UrlIndex(value) == -1;
+    }
+
+    @Override
+    public void validate(final ProcessingReport report,
+        final MessageBundle bundle, final FullData data)
+        throws ProcessingException
+    {
+        final String input = data.getInstance().getNode().textValue();
+        if (isBadLength(input)) {
+            report.error(newMsg(data, bundle, "err.format.base64url.badLength")
+                .putArgument("length", input.length()));
+            return;
+        }
+
+        final int index = Base64Scanner.illegalBase64UrlIndex(input);
+
+        if (index == -1)
+            return;
+
+        report.error(newMsg(data, bundle, "err.format.base64url.illegalChars")
+            .putArgument("character", Character.toString(input.charAt(index)))
+            .putArgument("index", index));
+    }
+
+    private static boolean isBadLength(final String input)
+    {
+        final int length = input.length();
+        return input.endsWith("=") ? length % 4 != 0 : length % 4 == 1;
+    }
+}
@@ -26,11 +26,13 @@ import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
 import com.github.fge.jsonschema.format.AbstractFormatAttribute;
 import com.github.fge.jsonschema.format.FormatAttribute;
+import com.github.fge.jsonschema.format.StringFormatAttribute;
 import com.github.fge.jsonschema.processors.data.FullData;
 import com.github.fge.msgsimple.bundle.MessageBundle;
 
 public final class JsonPointerFormatAttribute
     extends AbstractFormatAttribute
+    implements StringFormatAttribute
 {
     private static final FormatAttribute INSTANCE
         = new JsonPointerFormatAttribute();
@@ -45,6 +47,17 @@ public final class JsonPointerFormatAttribute
         return INSTANCE;
     }
 
+    @Override
+    public boolean isValid(final String value)
+    {
+        try {
+            new JsonPointer(value);
+            return true;
+        } catch (JsonPointerException ignored) {
+            return false;
+        }
+    }
+
     @Override
     public void validate(final ProcessingReport report,
         final MessageBundle bundle, final FullData data)
@@ -52,11 +65,8 @@ public final class JsonPointerFormatAttribute
     {
         final String value = data.getInstance().getNode().textValue();
 
-        try {
-            new JsonPointer(value);
-        } catch (JsonPointerException ignored) {
+        if (!isValid(value))
             report.error(newMsg(data, bundle, "err.format.jsonpointer.invalid")
                 .putArgument("value", value));
-        }
     }
 }
@@ -24,6 +24,7 @@ import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
 import com.github.fge.jsonschema.format.AbstractFormatAttribute;
 import com.github.fge.jsonschema.format.FormatAttribute;
+import com.github.fge.jsonschema.format.StringFormatAttribute;
 import com.github.fge.jsonschema.processors.data.FullData;
 import com.github.fge.msgsimple.bundle.MessageBundle;
 
@@ -36,6 +37,7 @@ import java.util.regex.Pattern;
  */
 public final class MacAddressFormatAttribute
     extends AbstractFormatAttribute
+    implements StringFormatAttribute
 {
     private static final FormatAttribute instance
         = new MacAddressFormatAttribute();
@@ -54,6 +56,12 @@ public final class MacAddressFormatAttribute
         super("mac", NodeType.STRING);
     }
 
+    @Override
+    public boolean isValid(final String value)
+    {
+        return MACADDR.matcher(value).matches();
+    }
+
     @Override
     public void validate(final ProcessingReport report,
         final MessageBundle bundle, final FullData data)
@@ -61,7 +69,7 @@ public final class MacAddressFormatAttribute
     {
         final String input = data.getInstance().getNode().textValue();
 
-        if (!MACADDR.matcher(input).matches())
+        if (!isValid(input))
             report.error(newMsg(data, bundle, "err.format.macAddr.invalid")
                 .putArgument("value", input));
     }
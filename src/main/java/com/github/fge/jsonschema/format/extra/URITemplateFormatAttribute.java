@@ -24,6 +24,7 @@ import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
 import com.github.fge.jsonschema.format.AbstractFormatAttribute;
 import com.github.fge.jsonschema.format.FormatAttribute;
+import com.github.fge.jsonschema.format.StringFormatAttribute;
 import com.github.fge.jsonschema.processors.data.FullData;
 import com.github.fge.msgsimple.bundle.MessageBundle;
 import com.github.fge.uritemplate.URITemplate;
@@ -31,6 +32,7 @@ import com.github.fge.uritemplate.URITemplateParseException;
 
 public final class URITemplateFormatAttribute
     extends AbstractFormatAttribute
+    implements StringFormatAttribute
 {
     private static final FormatAttribute INSTANCE
         = new URITemplateFormatAttribute();
@@ -45,17 +47,25 @@ public final class URITemplateFormatAttribute
         return INSTANCE;
     }
 
+    @Override
+    public boolean isValid(final String value)
+    {
+        try {
+            new URITemplate(value);
+            return true;
+        } catch (URITemplateParseException ignored) {
+            return false;
+        }
+    }
+
     @Override
     public void validate(final ProcessingReport report,
         final MessageBundle bundle, final FullData data)
         throws ProcessingException
     {
         final String value = data.getInstance().getNode().textValue();
-        try {
-            new URITemplate(value);
-        } catch (URITemplateParseException ignored) {
+        if (!isValid(value))
             report.error(newMsg(data, bundle, "err.format.uriTemplate.invalid")
                 .putArgument("value", value));
-        }
     }
 }
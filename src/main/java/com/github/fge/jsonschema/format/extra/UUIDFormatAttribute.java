@@ -24,6 +24,7 @@ import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
 import com.github.fge.jsonschema.format.AbstractFormatAttribute;
 import com.github.fge.jsonschema.format.FormatAttribute;
+import com.github.fge.jsonschema.format.StringFormatAttribute;
 import com.github.fge.jsonschema.processors.data.FullData;
 import com.github.fge.msgsimple.bundle.MessageBundle;
 
@@ -36,6 +37,7 @@ import java.util.UUID;
  */
 public final class UUIDFormatAttribute
     extends AbstractFormatAttribute
+    implements StringFormatAttribute
 {
     private static final FormatAttribute instance = new UUIDFormatAttribute();
 
@@ -49,6 +51,17 @@ public final class UUIDFormatAttribute
         return instance;
     }
 
+    @Override
+    public boolean isValid(final String value)
+    {
+        try {
+            UUID.fromString(value);
+            return true;
+        } catch (IllegalArgumentException ignored) {
+            return false;
+        }
+    }
+
     @Override
     public void validate(final ProcessingReport report,
         final MessageBundle bundle, final FullData data)
@@ -56,11 +69,8 @@ public final class UUIDFormatAttribute
     {
         final String input = data.getInstance().getNode().textValue();
 
-        try {
-            UUID.fromString(input);
-        } catch (IllegalArgumentException ignored) {
+        if (!isValid(input))
             report.error(newMsg(data, bundle, "err.format.UUID.invalid")
                 .putArgument("value", input));
-        }
     }
 }
@@ -23,6 +23,7 @@ import com.github.fge.jackson.NodeType;
 import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
 import com.github.fge.jsonschema.format.AbstractFormatAttribute;
+import com.github.fge.jsonschema.format.StringFormatAttribute;
 import com.github.fge.jsonschema.processors.data.FullData;
 import com.github.fge.msgsimple.bundle.MessageBundle;
 import org.joda.time.format.DateTimeFormatter;
@@ -38,9 +39,13 @@ import java.text.SimpleDateFormat;
  *
  * <p>Furthermore (and more importantly), unlike {@link SimpleDateFormat}, Joda
  * Time's {@link DateTimeFormatter} is thread-safe!</p>
+ *
+ * <p>Implementations may override {@link #isValid(String)} with a faster
+ * check, provided it accepts the same values as the formatter.</p>
  */
 public abstract class AbstractDateFormatAttribute
     extends AbstractFormatAttribute
+    implements StringFormatAttribute
 {
     private final String format;
 
@@ -52,19 +57,35 @@ public abstract class AbstractDateFormatAttribute
 
     protected abstract DateTimeFormatter getFormatter();
 
+    /**
+     * Tell whether a value is valid
+     *
+     * <p>The default implementation parses the value using the formatter
+     * returned by {@link #getFormatter()}.</p>
+     *
+     * @param value the value
+     * @return true if the value is valid
+     */
+    @Override
+    public boolean isValid(final String value)
+    {
+        try {
+            getFormatter().parseLocalDate(value);
+            return true;
+        } catch (IllegalArgumentException ignored) {
+            return false;
+        }
+    }
+
     @Override
     public final void validate(final ProcessingReport report,
         final MessageBundle bundle, final FullData data)
         throws ProcessingException
     {
-        final DateTimeFormatter formatter = getFormatter();
         final String value = data.getInstance().getNode().textValue();
 
-        try {
-            formatter.parseLocalDate(value);
-        } catch (IllegalArgumentException ignored) {
+        if (!isValid(value))
             report.error(newMsg(data, bundle, "err.format.invalidDate")
                 .putArgument("value", value).putArgument("expected", format));
-        }
     }
 }
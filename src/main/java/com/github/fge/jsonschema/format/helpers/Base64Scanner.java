@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.format.helpers;
+
+import com.github.fge.jsonschema.format.extra.Base64FormatAttribute;
+import com.github.fge.jsonschema.format.extra.Base64UrlFormatAttribute;
+
+/**
+ * Character scanners for Base64 encoded data
+ *
+ * <p>These methods check characters against a lookup table, in a single pass
+ * over the input and without copying it. They accept any {@link CharSequence},
+ * which means that a {@link java.nio.CharBuffer} wrapping a parser's character
+ * buffer can be scanned as well as a {@link String}.</p>
+ *
+ * <p>At most two padding characters ({@code =}) are allowed at the end of the
+ * input. Note that the length of the input is not checked.</p>
+ */
+public final class Base64Scanner
+{
+    private static final boolean[] BASE64 = alphabet('+', '/');
+    private static final boolean[] BASE64URL = alphabet('-', '_');
+
+    private static final char PAD = '=';
+    private static final int MAX_PADDING = 2;
+
+    private Base64Scanner()
+    {
+    }
+
+    /**
+     * Return the index of the first character not in the Base64 alphabet
+     *
+     * @param input the input
+     * @return the index, or -1 if all characters are legal
+     * @see Base64FormatAttribute
+     */
+    public static int illegalBase64Index(final CharSequence input)
+    {
+        return illegalIndex(input, BASE64);
+    }
+
+    /**
+     * Return the index of the first character not in the URL and file name
+     * safe Base64 alphabet
+     *
+     * @param input the input
+     * @return the index, or -1 if all characters are legal
+     * @see Base64UrlFormatAttribute
+     */
+    public static int illegalBase64UrlIndex(final CharSequence input)
+    {
+        return illegalIndex(input, BASE64URL);
+    }
+
+    private static int illegalIndex(final CharSequence input,
+        final boolean[] table)
+    {
+        int end = input.length();
+        for (int i = 0; i < MAX_PADDING && end > 0; i++)
+            if (input.charAt(end - 1) == PAD)
+                end--;
+
+        char c;
+        for (int i = 0; i < end; i++) {
+            c = input.charAt(i);
+            if (c >= table.length || !table[c])
+                return i;
+        }
+        return -1;
+    }
+
+    /*
+     * Alphabets only differ by their last two characters (values 62 and 63)
+     */
+    private static boolean[] alphabet(final char c62, final char c63)
+    {
+        final boolean[] ret = new boolean[128];
+        for (char c = 'A'; c <= 'Z'; c++)
+            ret[c] = true;
+        for (char c = 'a'; c <= 'z'; c++)
+            ret[c] = true;
+        for (char c = '0'; c <= '9'; c++)
+            ret[c] = true;
+        ret[c62] = true;
+        ret[c63] = true;
+        return ret;
+    }
+}
@@ -0,0 +1,470 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.format.helpers;
+
+import com.github.fge.jsonschema.format.common.DateTimeAttribute;
+import com.github.fge.jsonschema.format.common.RFC3339DateTimeAttribute;
+import com.github.fge.jsonschema.format.draftv3.DateAttribute;
+import com.github.fge.jsonschema.format.draftv3.TimeAttribute;
+
+/**
+ * Character scanners for date and time format attributes
+ *
+ * <p>These methods accept exactly the same strings as the <a
+ * href="http://joda-time.sourceforge.net/">Joda Time</a> formatters which were
+ * originally used by the corresponding format attributes, but they neither
+ * allocate objects nor use exceptions to report failures. This notably means
+ * that:</p>
+ *
+ * <ul>
+ *     <li>the {@code T} separator and the {@code Z} zero offset are case
+ *     insensitive;</li>
+ *     <li>fields are checked against the ISO (proleptic Gregorian) calendar,
+ *     with no leap seconds;</li>
+ *     <li>the fraction of second, if any, has between 1 and 12 digits.</li>
+ * </ul>
+ *
+ * <p>Only ASCII digits are accepted as digits. Note that years are limited to
+ * the range supported by Joda Time's ISO chronology.</p>
+ */
+public final class DateTimeScanner
+{
+    private static final int[] DAYS_IN_MONTH = {
+        31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31
+    };
+
+    /*
+     * ISO chronology year bounds; Joda Time accepts some dates in the years
+     * just outside these bounds, but only because instant computations then
+     * overflow.
+     */
+    private static final int MIN_YEAR = -292275054;
+    private static final int MAX_YEAR = 292278993;
+
+    /*
+     * Maximum number of digits of a fraction of second
+     */
+    private static final int FRACTION_DIGITS = 12;
+
+    /*
+     * Length of yyyy-MM-ddTHH:mm:ss, when all fields have their full width
+     */
+    private static final int RFC3339_PREFIX_LENGTH = 19;
+
+    private DateTimeScanner()
+    {
+    }
+
+    /**
+     * Scan a value according to the {@code date-time} format attribute
+     *
+     * <p>The format is {@code yyyy-MM-dd'T'HH:mm:ss}, followed by an optional
+     * fraction of second, followed by a mandatory offset; the offset is
+     * either {@code Z}, or a sign followed by hours, and then optionally by
+     * minutes, seconds and milliseconds, separated by colons (and a dot or a
+     * comma before milliseconds) or not separated at all.</p>
+     *
+     * @param value the value
+     * @return true if the value is valid
+     * @see DateTimeAttribute
+     */
+    public static boolean isDateTime(final String value)
+    {
+        final int length = value.length();
+
+        if (length < RFC3339_PREFIX_LENGTH)
+            return false;
+        if (value.charAt(4) != '-' || value.charAt(7) != '-'
+            || !isT(value.charAt(10)) || value.charAt(13) != ':'
+            || value.charAt(16) != ':')
+            return false;
+
+        final int year = fixedNumber(value, 0, 4);
+        final int month = fixedNumber(value, 5, 2);
+        final int day = fixedNumber(value, 8, 2);
+        final int hour = fixedNumber(value, 11, 2);
+        final int minute = fixedNumber(value, 14, 2);
+        final int second = fixedNumber(value, 17, 2);
+
+        if (year < 0 || !isDate(year, month, day)
+            || !isTime(hour, minute, second))
+            return false;
+
+        final int index = fraction(value, RFC3339_PREFIX_LENGTH);
+        return offset(value, index) == length;
+    }
+
+    /**
+     * Scan a value according to the {@code date-time} format attribute, as
+     * defined by RFC 3339
+     *
+     * <p>This is the format accepted by {@link #isDateTime(String)}, except
+     * that the year may be signed and have up to 9 digits, other numeric
+     * fields may have one or two digits, and the offset is further checked
+     * to be either {@code Z} or six characters including a colon (that check
+     * assumes numeric fields have their full width).</p>
+     *
+     * @param value the value
+     * @return true if the value is valid
+     * @see RFC3339DateTimeAttribute
+     */
+    public static boolean isRFC3339DateTime(final String value)
+    {
+        final int length = value.length();
+
+        /*
+         * Numeric fields are encoded as (value << 32 | end index), or -1
+         */
+        long field;
+        int index;
+
+        field = number(value, 0, 9, true);
+        if (field == -1L)
+            return false;
+        final int year = (int) (field >> 32);
+        index = (int) field;
+        if (!isChar(value, index++, '-'))
+            return false;
+
+        field = number(value, index, 2, false);
+        if (field == -1L)
+            return false;
+        final int month = (int) (field >> 32);
+        index = (int) field;
+        if (!isChar(value, index++, '-'))
+            return false;
+
+        field = number(value, index, 2, false);
+        if (field == -1L)
+            return false;
+        final int day = (int) (field >> 32);
+        index = (int) field;
+        if (index >= length || !isT(value.charAt(index++)))
+            return false;
+
+        field = number(value, index, 2, false);
+        if (field == -1L)
+            return false;
+        final int hour = (int) (field >> 32);
+        index = (int) field;
+        if (!isChar(value, index++, ':'))
+            return false;
+
+        field = number(value, index, 2, false);
+        if (field == -1L)
+            return false;
+        final int minute = (int) (field >> 32);
+        index = (int) field;
+        if (!isChar(value, index++, ':'))
+            return false;
+
+        field = number(value, index, 2, false);
+        if (field == -1L)
+            return false;
+        final int second = (int) (field >> 32);
+        index = (int) field;
+
+        index = fraction(value, index);
+        if (offset(value, index) != length)
+            return false;
+
+        if (year < MIN_YEAR || year > MAX_YEAR || !isDate(year, month, day)
+            || !isTime(hour, minute, second))
+            return false;
+
+        return isStrictOffset(value);
+    }
+
+    /**
+     * Scan a value according to the {@code date} format attribute
+     *
+     * @param value the value
+     * @return true if the value is valid
+     * @see DateAttribute
+     */
+    public static boolean isDate(final String value)
+    {
+        if (value.length() != 10)
+            return false;
+        if (value.charAt(4) != '-' || value.charAt(7) != '-')
+            return false;
+
+        final int year = fixedNumber(value, 0, 4);
+        return year >= 0 && isDate(year, fixedNumber(value, 5, 2),
+            fixedNumber(value, 8, 2));
+    }
+
+    /**
+     * Scan a value according to the {@code time} format attribute
+     *
+     * @param value the value
+     * @return true if the value is valid
+     * @see TimeAttribute
+     */
+    public static boolean isTime(final String value)
+    {
+        if (value.length() != 8)
+            return false;
+        if (value.charAt(2) != ':' || value.charAt(5) != ':')
+            return false;
+
+        return isTime(fixedNumber(value, 0, 2), fixedNumber(value, 3, 2),
+            fixedNumber(value, 6, 2));
+    }
+
+    private static boolean isDate(final int year, final int month,
+        final int day)
+    {
+        if (month < 1 || month > 12 || day < 1)
+            return false;
+        if (month == 2 && isLeapYear(year))
+            return day <= 29;
+        return day <= DAYS_IN_MONTH[month - 1];
+    }
+
+    private static boolean isTime(final int hour, final int minute,
+        final int second)
+    {
+        return hour >= 0 && hour <= 23 && minute >= 0 && minute <= 59
+            && second >= 0 && second <= 59;
+    }
+
+    private static boolean isLeapYear(final int year)
+    {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    private static boolean isT(final char c)
+    {
+        return c == 'T' || c == 't';
+    }
+
+    private static boolean isChar(final String value, final int index,
+        final char c)
+    {
+        return index < value.length() && value.charAt(index) == c;
+    }
+
+    private static boolean isDigit(final char c)
+    {
+        return c >= '0' && c <= '9';
+    }
+
+    /*
+     * Parse exactly the given number of digits; return -1 on failure
+     */
+    private static int fixedNumber(final String value, final int index,
+        final int digits)
+    {
+        if (index + digits > value.length())
+            return -1;
+
+        int ret = 0;
+        char c;
+
+        for (int i = index; i < index + digits; i++) {
+            c = value.charAt(i);
+            if (!isDigit(c))
+                return -1;
+            ret = ret * 10 + c - '0';
+        }
+
+        return ret;
+    }
+
+    /*
+     * Parse between one and the given number of digits, preceded by an
+     * optional sign if signed; return the value and end index (value << 32 |
+     * index), or -1 on failure.
+     */
+    private static long number(final String value, final int index,
+        final int maxDigits, final boolean signed)
+    {
+        final int length = value.length();
+        int i = index;
+        boolean negative = false;
+
+        if (signed && i + 1 < length) {
+            final char c = value.charAt(i);
+            if ((c == '-' || c == '+') && isDigit(value.charAt(i + 1))) {
+                negative = c == '-';
+                i++;
+            }
+        }
+
+        final int limit = Math.min(i + maxDigits, length);
+        final int start = i;
+        int ret = 0;
+        char c;
+
+        while (i < limit) {
+            c = value.charAt(i);
+            if (!isDigit(c))
+                break;
+            ret = ret * 10 + c - '0';
+            i++;
+        }
+
+        if (i == start)
+            return -1L;
+
+        if (negative)
+            ret = -ret;
+
+        return (long) ret << 32 | i;
+    }
+
+    /*
+     * Skip an optional fraction of second; return the index after it
+     */
+    private static int fraction(final String value, final int index)
+    {
+        final int length = value.length();
+
+        if (index >= length || value.charAt(index) != '.')
+            return index;
+
+        final int limit = Math.min(index + 1 + FRACTION_DIGITS, length);
+        int i = index + 1;
+
+        while (i < limit && isDigit(value.charAt(i)))
+            i++;
+
+        return i == index + 1 ? index : i;
+    }
+
+    /*
+     * Parse a mandatory offset; return the index after it, or -1 on failure
+     */
+    private static int offset(final String value, final int index)
+    {
+        final int length = value.length();
+
+        if (index >= length)
+            return -1;
+
+        char c = value.charAt(index);
+
+        if (c == 'Z' || c == 'z')
+            return index + 1;
+        if (c != '+' && c != '-')
+            return -1;
+
+        int i = index + 1;
+
+        /*
+         * Hours: two digits are required
+         */
+        final int hours = fixedNumber(value, i, 2);
+        if (hours < 0 || hours > 23)
+            return -1;
+        i += 2;
+        if (i == length)
+            return i;
+
+        /*
+         * Minutes: two digits, after a colon or directly after the hours
+         */
+        c = value.charAt(i);
+        final boolean separators = c == ':';
+        if (separators)
+            i++;
+        else if (!isDigit(c))
+            return i;
+
+        final int minutes = fixedNumber(value, i, 2);
+        if (minutes < 0 || minutes > 59)
+            return -1;
+        i += 2;
+        if (i == length)
+            return i;
+
+        /*
+         * Seconds: same as minutes
+         */
+        if (separators) {
+            if (value.charAt(i) != ':')
+                return i;
+            i++;
+        } else if (!isDigit(value.charAt(i))) {
+            return i;
+        }
+
+        final int seconds = fixedNumber(value, i, 2);
+        if (seconds < 0 || seconds > 59)
+            return -1;
+        i += 2;
+        if (i == length)
+            return i;
+
+        /*
+         * Milliseconds: one to three digits, after a dot or comma if
+         * separators are used
+         */
+        if (separators) {
+            c = value.charAt(i);
+            if (c != '.' && c != ',')
+                return i;
+            i++;
+        }
+
+        final int limit = Math.min(i + 3, length);
+        final int start = i;
+
+        while (i < limit && isDigit(value.charAt(i)))
+            i++;
+
+        if (i == start)
+            return separators ? -1 : i;
+
+        return i;
+    }
+
+    /*
+     * The offset is what follows the first 19 characters; if these are
+     * followed by a fraction of second, the offset starts at the first "Z",
+     * or failing that the first "+", or failing that the first "-". It must
+     * either end with "Z", or be six characters long and contain a colon.
+     */
+    private static boolean isStrictOffset(final String value)
+    {
+        final int length = value.length();
+
+        if (length <= RFC3339_PREFIX_LENGTH)
+            return false;
+
+        int start = RFC3339_PREFIX_LENGTH;
+
+        if (value.charAt(start) == '.') {
+            start = value.indexOf('Z', RFC3339_PREFIX_LENGTH);
+            if (start == -1)
+                start = value.indexOf('+', RFC3339_PREFIX_LENGTH);
+            if (start == -1)
+                start = value.indexOf('-', RFC3339_PREFIX_LENGTH);
+            if (start == -1)
+                return false;
+        }
+
+        if (value.charAt(length - 1) == 'Z')
+            return true;
+
+        return length - start == 6 && value.indexOf(':', start) != -1;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.format.helpers;
+
+import com.github.fge.jsonschema.format.common.EmailAttribute;
+
+import javax.mail.internet.AddressException;
+import javax.mail.internet.InternetAddress;
+
+/**
+ * Character scanner for the {@code email} format attribute
+ *
+ * <p>This scanner accepts exactly the same strings as a strict {@link
+ * InternetAddress}, which {@link EmailAttribute} originally used.</p>
+ *
+ * <p>Values which contain none of the RFC 822 special characters other than
+ * {@code @} and {@code .} (that is, no comments, quoted strings, route
+ * addresses, groups or domain literals) are scanned in a single pass, without
+ * any object allocation; this covers nearly all values seen in practice,
+ * whether valid or not. Other values are handed over to {@link
+ * InternetAddress}.</p>
+ */
+public final class EmailScanner
+{
+    private static final String SPECIALS = "()<>\",;:[]\\";
+
+    private static final char DEL = '\u007f';
+
+    private EmailScanner()
+    {
+    }
+
+    /**
+     * Scan a value as an email address
+     *
+     * @param value the value
+     * @return true if the value is valid
+     */
+    public static boolean isEmail(final String value)
+    {
+        final int length = value.length();
+
+        for (int i = 0; i < length; i++)
+            if (SPECIALS.indexOf(value.charAt(i)) != -1)
+                return parse(value);
+
+        /*
+         * Leading and trailing whitespace is ignored, as by String#trim()
+         */
+        int start = 0;
+        int end = length;
+        while (start < end && value.charAt(start) <= ' ')
+            start++;
+        while (end > start && value.charAt(end - 1) <= ' ')
+            end--;
+
+        final int at = localPartEnd(value, start, end);
+        return at != -1 && isDomain(value, at + 1, end);
+    }
+
+    /*
+     * Return the index of the "@" ending a valid local part, or -1
+     */
+    private static int localPartEnd(final String value, final int start,
+        final int end)
+    {
+        char lastc = 0;
+        char c;
+
+        for (int i = start; i < end; i++) {
+            c = value.charAt(i);
+            if (c == '.' && (i == start || lastc == '.'))
+                return -1;
+            if (c == '@')
+                return i == start || lastc == '.' ? -1 : i;
+            if (c <= ' ' || c == DEL)
+                return -1;
+            lastc = c;
+        }
+
+        return -1;
+    }
+
+    private static boolean isDomain(final String value, final int start,
+        final int end)
+    {
+        if (start >= end || value.charAt(start) == '.')
+            return false;
+
+        char lastc = 0;
+        char c;
+
+        for (int i = start; i < end; i++) {
+            c = value.charAt(i);
+            if (c == '.') {
+                if (lastc == '.')
+                    return false;
+            } else if (c != '-' && !Character.isLetterOrDigit(c))
+                return false;
+            lastc = c;
+        }
+
+        return lastc != '.';
+    }
+
+    private static boolean parse(final String value)
+    {
+        try {
+            new InternetAddress(value, true);
+            return true;
+        } catch (AddressException ignored) {
+            return false;
+        }
+    }
+}
@@ -23,9 +23,9 @@ import com.github.fge.jackson.NodeType;
 import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
 import com.github.fge.jsonschema.format.AbstractFormatAttribute;
+import com.github.fge.jsonschema.format.StringFormatAttribute;
 import com.github.fge.jsonschema.processors.data.FullData;
 import com.github.fge.msgsimple.bundle.MessageBundle;
-import com.google.common.base.CharMatcher;
 
 /**
  * Base class for hexadecimal string-based representations
@@ -40,11 +40,14 @@ import com.google.common.base.CharMatcher;
  */
 public abstract class HexStringFormatAttribute
     extends AbstractFormatAttribute
+    implements StringFormatAttribute
 {
-    // FIXME: maybe there is a better way to do that? CharMatcher does not seem
-    // to have the following predefined...
-    private static final CharMatcher HEX_CHARS
-        = CharMatcher.anyOf("0123456789abcdefABCDEF").precomputed();
+    private static final boolean[] HEX_CHARS = new boolean[128];
+
+    static {
+        for (final char c: "0123456789abcdefABCDEF".toCharArray())
+            HEX_CHARS[c] = true;
+    }
 
     protected final int length;
 
@@ -54,6 +57,12 @@ public abstract class HexStringFormatAttribute
         this.length = length;
     }
 
+    @Override
+    public final boolean isValid(final String value)
+    {
+        return value.length() == length && illegalCharIndex(value) == -1;
+    }
+
     @Override
     public final void validate(final ProcessingReport report,
         final MessageBundle bundle, final FullData data)
@@ -68,13 +77,26 @@ public abstract class HexStringFormatAttribute
             return;
         }
 
-        if (HEX_CHARS.matchesAllOf(input))
-            return;
+        final int index = illegalCharIndex(input);
 
-        final int index = HEX_CHARS.negate().indexIn(input);
+        if (index == -1)
+            return;
 
         report.error(newMsg(data, bundle, "err.format.hexString.illegalChar")
             .putArgument("character", Character.toString(input.charAt(index)))
             .putArgument("index", index));
     }
+
+    private static int illegalCharIndex(final String input)
+    {
+        final int len = input.length();
+        char c;
+
+        for (int i = 0; i < len; i++) {
+            c = input.charAt(i);
+            if (c >= HEX_CHARS.length || !HEX_CHARS[c])
+                return i;
+        }
+        return -1;
+    }
 }
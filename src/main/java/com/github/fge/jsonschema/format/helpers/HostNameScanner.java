@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.format.helpers;
+
+import com.google.common.net.InternetDomainName;
+
+/**
+ * Character scanner for host name format attributes
+ *
+ * <p>This scanner accepts exactly the same strings as Guava's {@link
+ * InternetDomainName#from(String)}, which {@link SharedHostNameAttribute}
+ * originally used, but it neither normalizes nor splits the input, and does
+ * not rely on exceptions to report failures. This notably means that:</p>
+ *
+ * <ul>
+ *     <li>the ideographic and fullwidth full stops are accepted as dots, and a
+ *     single trailing dot is ignored;</li>
+ *     <li>underscores are accepted like dashes;</li>
+ *     <li>non ASCII characters are accepted anywhere;</li>
+ *     <li>the last component may not start with an ASCII digit.</li>
+ * </ul>
+ */
+public final class HostNameScanner
+{
+    private static final int MAX_LENGTH = 253;
+    private static final int MAX_PARTS = 127;
+    private static final int MAX_PART_LENGTH = 63;
+
+    private HostNameScanner()
+    {
+    }
+
+    /**
+     * Scan a value as a host name
+     *
+     * @param value the value
+     * @return true if the value is valid
+     */
+    public static boolean isHostName(final String value)
+    {
+        int end = value.length();
+
+        if (end > 0 && isDot(value.charAt(end - 1)))
+            end--;
+        if (end > MAX_LENGTH)
+            return false;
+
+        int parts = 1;
+        int start = 0;
+        char c;
+
+        for (int i = 0; i < end; i++) {
+            c = value.charAt(i);
+            if (isDot(c)) {
+                if (!isPart(value, start, i, false) || ++parts > MAX_PARTS)
+                    return false;
+                start = i + 1;
+            } else if (c < 128 && !isPartChar(c))
+                return false;
+        }
+
+        return isPart(value, start, end, true);
+    }
+
+    /*
+     * Characters have already been checked; only check the length and the
+     * first and last characters.
+     */
+    private static boolean isPart(final String value, final int start,
+        final int end, final boolean last)
+    {
+        final int length = end - start;
+        if (length < 1 || length > MAX_PART_LENGTH)
+            return false;
+
+        final char first = value.charAt(start);
+        if (isDash(first) || isDash(value.charAt(end - 1)))
+            return false;
+        return !(last && first >= '0' && first <= '9');
+    }
+
+    private static boolean isDot(final char c)
+    {
+        return c == '.' || c == '\u3002' || c == '\uff0e' || c == '\uff61';
+    }
+
+    private static boolean isDash(final char c)
+    {
+        return c == '-' || c == '_';
+    }
+
+    private static boolean isPartChar(final char c)
+    {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z'
+            || c >= '0' && c <= '9' || isDash(c);
+    }
+}
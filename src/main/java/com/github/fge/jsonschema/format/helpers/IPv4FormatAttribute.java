@@ -23,26 +23,31 @@ import com.github.fge.jackson.NodeType;
 import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
 import com.github.fge.jsonschema.format.AbstractFormatAttribute;
+import com.github.fge.jsonschema.format.StringFormatAttribute;
 import com.github.fge.jsonschema.processors.data.FullData;
 import com.github.fge.msgsimple.bundle.MessageBundle;
-import com.google.common.net.InetAddresses;
 
 /**
  * Validator for both the {@code ip-address} (draft v3) and {@code ipv4} (draft
  * v4) format attributes.
  *
- * <p>This uses Guava's {@link InetAddresses} to do the job.</p>
+ * <p>This uses {@link InetAddressScanner} to do the job.</p>
  */
 public final class IPv4FormatAttribute
     extends AbstractFormatAttribute
+    implements StringFormatAttribute
 {
-    private static final int IPV4_LENGTH = 4;
-
     public IPv4FormatAttribute(final String fmt)
     {
         super(fmt, NodeType.STRING);
     }
 
+    @Override
+    public boolean isValid(final String value)
+    {
+        return InetAddressScanner.isIPv4(value);
+    }
+
     @Override
     public void validate(final ProcessingReport report,
         final MessageBundle bundle, final FullData data)
@@ -50,8 +55,7 @@ public final class IPv4FormatAttribute
     {
         final String ipaddr = data.getInstance().getNode().textValue();
 
-        if (InetAddresses.isInetAddress(ipaddr) && InetAddresses
-            .forString(ipaddr).getAddress().length == IPV4_LENGTH)
+        if (isValid(ipaddr))
             return;
 
         report.error(newMsg(data, bundle, "err.format.invalidIPv4Address")
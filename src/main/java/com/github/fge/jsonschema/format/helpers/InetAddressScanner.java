@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.format.helpers;
+
+import com.github.fge.jsonschema.format.common.IPv6Attribute;
+import com.google.common.net.InetAddresses;
+
+/**
+ * Character scanners for IP address format attributes
+ *
+ * <p>These methods accept exactly the same strings as Guava's {@link
+ * InetAddresses#isInetAddress(String)}, restricted to the relevant address
+ * family, which the corresponding format attributes originally used; unlike
+ * Guava, they neither split the input nor rely on {@link
+ * NumberFormatException}s to reject invalid numbers. This notably means
+ * that:</p>
+ *
+ * <ul>
+ *     <li>digits are those recognized by {@link Character#digit(char, int)},
+ *     which is not limited to ASCII digits;</li>
+ *     <li>leading zeroes are forbidden in IPv4 address components, except for
+ *     ASCII zero itself;</li>
+ *     <li>IPv6 addresses may be followed by a scope identifier (a {@code %}
+ *     followed by any characters), except if they end with an embedded IPv4
+ *     address;</li>
+ *     <li>IPv4 mapped IPv6 addresses ({@code ::ffff:0:0/96}) are not IPv6
+ *     addresses.</li>
+ * </ul>
+ */
+public final class InetAddressScanner
+{
+    private static final int IPV4_PARTS = 4;
+    private static final int IPV6_PARTS = 8;
+    private static final int MAX_OCTET = 255;
+    private static final int MAX_HEXTET = 0xffff;
+    private static final int MAPPED_PREFIX_PARTS = 5;
+
+    private InetAddressScanner()
+    {
+    }
+
+    /**
+     * Scan a value as an IPv4 address in dotted quad notation
+     *
+     * @param value the value
+     * @return true if the value is valid
+     * @see IPv4FormatAttribute
+     */
+    public static boolean isIPv4(final String value)
+    {
+        return isIPv4(value, 0, value.length());
+    }
+
+    /**
+     * Scan a value as an IPv6 address
+     *
+     * @param value the value
+     * @return true if the value is valid
+     * @see IPv6Attribute
+     */
+    public static boolean isIPv6(final String value)
+    {
+        final int length = value.length();
+        int end = length;
+        int colons = 0;
+        int lastColon = -1;
+        boolean hasDot = false;
+        char c;
+
+        for (int i = 0; i < length; i++) {
+            c = value.charAt(i);
+            if (c == '.') {
+                hasDot = true;
+            } else if (c == ':') {
+                if (hasDot)
+                    return false;
+                colons++;
+                lastColon = i;
+            } else if (c == '%') {
+                end = i;
+                break;
+            } else if (Character.digit(c, 16) == -1)
+                return false;
+        }
+
+        if (colons == 0)
+            return false;
+
+        if (!hasDot)
+            return isHextets(value, end, colons + 1);
+
+        /*
+         * An embedded IPv4 address stands for the last two hextets; Guava
+         * never accepts it along with a scope identifier.
+         */
+        return end == length && isIPv4(value, lastColon + 1, length)
+            && isHextets(value, lastColon, colons + 2);
+    }
+
+    /*
+     * Check hextets up to the given index; parts are separated by colons and
+     * there are "parts" of them in total, the last two of which may come from
+     * an embedded IPv4 address after this index.
+     */
+    private static boolean isHextets(final String value, final int end,
+        final int parts)
+    {
+        if (parts < 3 || parts > IPV6_PARTS + 1)
+            return false;
+
+        int skipIndex = -1;
+        boolean firstEmpty = false;
+        boolean lastEmpty = false;
+        int part = 0;
+        int start = 0;
+
+        for (int i = 0; i <= end; i++) {
+            if (i < end && value.charAt(i) != ':')
+                continue;
+            if (i > start) {
+                if (hextet(value, start, i) == -1)
+                    return false;
+            } else if (part == 0) {
+                firstEmpty = true;
+            } else if (part == parts - 1) {
+                lastEmpty = true;
+            } else {
+                if (skipIndex != -1)
+                    return false;
+                skipIndex = part;
+            }
+            part++;
+            start = i + 1;
+        }
+
+        if (skipIndex == -1) {
+            if (firstEmpty || lastEmpty || parts != IPV6_PARTS)
+                return false;
+        } else {
+            if (firstEmpty && skipIndex != 1)
+                return false;
+            if (lastEmpty && skipIndex != parts - 2)
+                return false;
+            int written = parts - 1;
+            if (firstEmpty)
+                written--;
+            if (lastEmpty)
+                written--;
+            if (written >= IPV6_PARTS)
+                return false;
+        }
+
+        return !isIPv4Mapped(value, end, parts, skipIndex, lastEmpty);
+    }
+
+    /*
+     * Guava turns IPv4 mapped addresses (::ffff:0:0/96) into IPv4 addresses.
+     * Compute the position of each hextet in the address, and check the first
+     * six.
+     */
+    private static boolean isIPv4Mapped(final String value, final int end,
+        final int parts, final int skipIndex, final boolean lastEmpty)
+    {
+        int part = 0;
+        int start = 0;
+        int position;
+        int hextet;
+
+        for (int i = 0; i <= end; i++) {
+            if (i < end && value.charAt(i) != ':')
+                continue;
+            if (i > start) {
+                position = skipIndex == -1 || part < skipIndex ? part
+                    : IPV6_PARTS - parts + part + (lastEmpty ? 1 : 0);
+                if (position > MAPPED_PREFIX_PARTS)
+                    break;
+                hextet = hextet(value, start, i);
+                if (position == MAPPED_PREFIX_PARTS)
+                    return hextet == MAX_HEXTET;
+                if (hextet != 0)
+                    return false;
+            }
+            part++;
+            start = i + 1;
+        }
+
+        /*
+         * The sixth hextet, if any, is either skipped or an IPv4 address
+         */
+        return false;
+    }
+
+    /*
+     * Digits have already been checked to be hexadecimal; leading zeroes are
+     * allowed, but the value must fit in 16 bits. Return -1 if it does not.
+     */
+    private static int hextet(final String value, final int start,
+        final int end)
+    {
+        int ret = 0;
+        for (int i = start; i < end; i++) {
+            ret = (ret << 4) + Character.digit(value.charAt(i), 16);
+            if (ret > MAX_HEXTET)
+                return -1;
+        }
+        return ret;
+    }
+
+    private static boolean isIPv4(final String value, final int start,
+        final int end)
+    {
+        int parts = 1;
+        int partStart = start;
+        int octet = 0;
+        int digit;
+        char c;
+
+        for (int i = start; i < end; i++) {
+            c = value.charAt(i);
+            if (c == '.') {
+                if (!isOctetEnd(value, partStart, i) || ++parts > IPV4_PARTS)
+                    return false;
+                partStart = i + 1;
+                octet = 0;
+                continue;
+            }
+            digit = Character.digit(c, 10);
+            if (digit == -1)
+                return false;
+            octet = octet * 10 + digit;
+            if (octet > MAX_OCTET)
+                return false;
+        }
+
+        return parts == IPV4_PARTS && isOctetEnd(value, partStart, end);
+    }
+
+    /*
+     * An octet must not be empty, and its first character may only be the
+     * ASCII digit zero if it is the only character.
+     */
+    private static boolean isOctetEnd(final String value, final int start,
+        final int end)
+    {
+        return end > start && (end - start == 1 || value.charAt(start) != '0');
+    }
+}
@@ -23,9 +23,9 @@ import com.github.fge.jackson.NodeType;
 import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
 import com.github.fge.jsonschema.format.AbstractFormatAttribute;
+import com.github.fge.jsonschema.format.StringFormatAttribute;
 import com.github.fge.jsonschema.processors.data.FullData;
 import com.github.fge.msgsimple.bundle.MessageBundle;
-import com.google.common.net.InternetDomainName;
 
 /**
  * Validator for the {@code host-name} format attribute.
@@ -35,16 +35,23 @@ import com.google.common.net.InternetDomainName;
  * </b> require that a host name have more than one domain name component. As
  * such, {@code foo} <b>is</b> a valid hostname.</p>
  *
- * <p>Guava's {@link InternetDomainName} is used for validation.</p>
+ * <p>{@link HostNameScanner} is used for validation.</p>
  */
 public final class SharedHostNameAttribute
     extends AbstractFormatAttribute
+    implements StringFormatAttribute
 {
     public SharedHostNameAttribute(final String fmt)
     {
         super(fmt, NodeType.STRING);
     }
 
+    @Override
+    public boolean isValid(final String value)
+    {
+        return HostNameScanner.isHostName(value);
+    }
+
     @Override
     public void validate(final ProcessingReport report,
         final MessageBundle bundle, final FullData data)
@@ -52,11 +59,8 @@ public final class SharedHostNameAttribute
     {
         final String value = data.getInstance().getNode().textValue();
 
-        try {
-            InternetDomainName.from(value);
-        } catch (IllegalArgumentException ignored) {
+        if (!isValid(value))
             report.error(newMsg(data, bundle, "err.format.invalidHostname")
                 .putArgument("value", value));
-        }
     }
 }
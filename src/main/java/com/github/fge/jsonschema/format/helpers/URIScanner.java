@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.format.helpers;
+
+import com.github.fge.jsonschema.format.common.URIAttribute;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+
+/**
+ * Character scanner for the {@code uri} format attribute
+ *
+ * <p>This scanner accepts exactly the same strings as the {@link URI}
+ * constructor, which {@link URIAttribute} originally used.</p>
+ *
+ * <p>Values which contain no square brackets are scanned in a single pass,
+ * without any object allocation. This relies on the fact that {@link URI}
+ * falls back to a registry based authority when an authority cannot be
+ * parsed as a server, which means that such values are only rejected if they
+ * contain an illegal character or an invalid escape sequence, or if their
+ * overall structure is wrong (no scheme name before a colon, invalid scheme
+ * name, empty scheme specific part, empty authority with nothing after it, or
+ * a number sign in the fragment). Values with square brackets, which may
+ * contain IPv6 addresses, are handed over to {@link URI}.</p>
+ */
+public final class URIScanner
+{
+    /*
+     * ASCII characters allowed somewhere in a URI: alphanumerics, marks,
+     * reserved characters, the escape character and the fragment separator
+     */
+    private static final boolean[] LEGAL = new boolean[128];
+
+    static {
+        for (char c = '0'; c <= '9'; c++)
+            LEGAL[c] = true;
+        for (char c = 'a'; c <= 'z'; c++)
+            LEGAL[c] = true;
+        for (char c = 'A'; c <= 'Z'; c++)
+            LEGAL[c] = true;
+        for (final char c: "-_.!~*'();/?:@&=+$,%#".toCharArray())
+            LEGAL[c] = true;
+    }
+
+    private URIScanner()
+    {
+    }
+
+    /**
+     * Scan a value as a URI
+     *
+     * @param value the value
+     * @return true if the value is valid
+     */
+    public static boolean isURI(final String value)
+    {
+        if (value.indexOf('[') != -1 || value.indexOf(']') != -1)
+            return parse(value);
+
+        final int length = value.length();
+        int schemeEnd = -1;
+        int fragment = -1;
+        char c;
+
+        for (int i = 0; i < length; i++) {
+            c = value.charAt(i);
+            if (c >= 128) {
+                if (Character.isSpaceChar(c) || Character.isISOControl(c))
+                    return false;
+                continue;
+            }
+            if (!LEGAL[c])
+                return false;
+            switch (c) {
+                case '%':
+                    if (!isHexDigit(value, i + 1) || !isHexDigit(value, i + 2))
+                        return false;
+                    i += 2;
+                    break;
+                case '#':
+                    if (fragment != -1)
+                        return false;
+                    fragment = i;
+                    break;
+                case ':':
+                    if (schemeEnd == -1)
+                        schemeEnd = i;
+                    break;
+                case '/': case '?':
+                    if (schemeEnd == -1)
+                        schemeEnd = length;
+                    break;
+            }
+            if (fragment != -1 && schemeEnd == -1)
+                schemeEnd = length;
+        }
+
+        final int sspEnd = fragment == -1 ? length : fragment;
+        int start = 0;
+
+        if (schemeEnd != -1 && schemeEnd < length) {
+            if (!isScheme(value, schemeEnd))
+                return false;
+            start = schemeEnd + 1;
+            if (start >= sspEnd)
+                return false;
+            /*
+             * Opaque URI: every legal character is allowed
+             */
+            if (value.charAt(start) != '/')
+                return true;
+        }
+
+        /*
+         * Hierarchical URI: an empty authority must be followed by something
+         */
+        return !value.startsWith("//", start) || start + 2 < length;
+    }
+
+    private static boolean isScheme(final String value, final int end)
+    {
+        if (end == 0 || !isAlpha(value.charAt(0)))
+            return false;
+
+        char c;
+        for (int i = 1; i < end; i++) {
+            c = value.charAt(i);
+            if (!(isAlpha(c) || c >= '0' && c <= '9' || c == '+' || c == '-'
+                || c == '.'))
+                return false;
+        }
+        return true;
+    }
+
+    private static boolean isAlpha(final char c)
+    {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isHexDigit(final String value, final int index)
+    {
+        if (index >= value.length())
+            return false;
+        final char c = value.charAt(index);
+        return c >= '0' && c <= '9' || c >= 'a' && c <= 'f'
+            || c >= 'A' && c <= 'F';
+    }
+
+    private static boolean parse(final String value)
+    {
+        try {
+            new URI(value);
+            return true;
+        } catch (URISyntaxException ignored) {
+            return false;
+        }
+    }
+}
@@ -19,17 +19,16 @@
 
 package com.github.fge.jsonschema.keyword.digest.draftv3;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.github.fge.jsonschema.keyword.digest.Digester;
-import com.github.fge.jsonschema.keyword.digest.helpers.NumericDigester;
+import com.github.fge.jsonschema.keyword.digest.helpers.DivisorDigester;
 
 /**
  * Digester for {@code divisibleBy}
  *
- * @see NumericDigester
+ * @see DivisorDigester
  */
 public final class DivisibleByDigester
-    extends NumericDigester
+    extends DivisorDigester
 {
     private static final Digester INSTANCE = new DivisibleByDigester();
 
@@ -42,10 +41,4 @@ public final class DivisibleByDigester
     {
         super("divisibleBy");
     }
-
-    @Override
-    public JsonNode digest(final JsonNode schema)
-    {
-        return digestedNumberNode(schema);
-    }
 }
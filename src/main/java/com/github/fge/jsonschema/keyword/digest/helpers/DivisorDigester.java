@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.keyword.digest.helpers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.fge.jsonschema.keyword.validator.helpers.DivisorValidator;
+
+import java.math.BigDecimal;
+
+/**
+ * Helper digester for draft v4's {@code multipleOf} and draft v3's {@code
+ * divisibleBy}
+ *
+ * <p>In addition to what {@link NumericDigester} produces, this digester
+ * stores the scale of decimal divisors, provided that the divisor, once
+ * multiplied by ten to the power of this scale, fits into a {@code long}. For
+ * instance, the scale of {@code 0.01} is 2. This allows the validator to
+ * compute remainders using {@code long} arithmetic, instead of resorting to
+ * {@link BigDecimal}.</p>
+ *
+ * @see DivisorValidator
+ */
+public abstract class DivisorDigester
+    extends NumericDigester
+{
+    /**
+     * Maximum scale of a divisor (ten to the power of this fits into a {@code
+     * long})
+     */
+    public static final int MAX_SCALE = 18;
+
+    protected DivisorDigester(final String keyword)
+    {
+        super(keyword);
+    }
+
+    @Override
+    public final JsonNode digest(final JsonNode schema)
+    {
+        final ObjectNode ret = digestedNumberNode(schema);
+
+        if (ret.get("valueIsLong").booleanValue())
+            return ret;
+
+        final BigDecimal divisor
+            = schema.get(keyword).decimalValue().stripTrailingZeros();
+        final int scale = divisor.scale();
+
+        if (scale > 0 && scale <= MAX_SCALE && divisor.precision() <= MAX_SCALE)
+            ret.put("scale", scale);
+
+        return ret;
+    }
+}
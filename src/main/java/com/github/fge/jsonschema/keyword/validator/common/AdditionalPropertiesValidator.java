@@ -27,17 +27,21 @@ import com.github.fge.jsonschema.core.processing.Processor;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
 import com.github.fge.jsonschema.core.util.RegexECMA262Helper;
 import com.github.fge.jsonschema.keyword.validator.AbstractKeywordValidator;
+import com.github.fge.jsonschema.keyword.validator.helpers.NameSet;
 import com.github.fge.jsonschema.processors.data.FullData;
 import com.github.fge.msgsimple.bundle.MessageBundle;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Ordering;
 import com.google.common.collect.Sets;
 
+import java.util.Iterator;
 import java.util.Set;
 
 /**
  * Keyword validator for {@code additionalProperties}
+ *
+ * <p>Declared property names are looked up using a {@link NameSet}, and no
+ * set is built unless additional properties are found.</p>
  */
 public final class AdditionalPropertiesValidator
     extends AbstractKeywordValidator
@@ -45,7 +49,7 @@ public final class AdditionalPropertiesValidator
     private static final Joiner TOSTRING_JOINER = Joiner.on("; or ");
 
     private final boolean additionalOK;
-    private final Set<String> properties;
+    private final NameSet properties;
     private final Set<String> patternProperties;
 
     public AdditionalPropertiesValidator(final JsonNode digest)
@@ -58,7 +62,7 @@ public final class AdditionalPropertiesValidator
         builder = ImmutableSet.builder();
         for (final JsonNode node: digest.get("properties"))
             builder.add(node.textValue());
-        properties = builder.build();
+        properties = NameSet.of(builder.build());
 
         builder = ImmutableSet.builder();
         for (final JsonNode node: digest.get("patternProperties"))
@@ -76,33 +80,42 @@ public final class AdditionalPropertiesValidator
             return;
 
         final JsonNode instance = data.getInstance().getNode();
-        final Set<String> fields = Sets.newHashSet(instance.fieldNames());
-
-        fields.removeAll(properties);
-
-        final Set<String> tmp = Sets.newHashSet();
-
-        for (final String field: fields)
-            for (final String regex: patternProperties)
-                if (RegexECMA262Helper.regMatch(regex, field))
-                    tmp.add(field);
-
-        fields.removeAll(tmp);
-
-        if (fields.isEmpty())
-            return;
+        final Iterator<String> iterator = instance.fieldNames();
 
         /*
          * Display extra properties in order in the report
          */
+        Set<String> unwanted = null;
+        String field;
+
+        while (iterator.hasNext()) {
+            field = iterator.next();
+            if (properties.contains(field) || matchesPattern(field))
+                continue;
+            if (unwanted == null)
+                unwanted = Sets.newTreeSet();
+            unwanted.add(field);
+        }
+
+        if (unwanted == null)
+            return;
+
         final ArrayNode node = JacksonUtils.nodeFactory().arrayNode();
-        for (final String field: Ordering.natural().sortedCopy(fields))
-            node.add(field);
+        for (final String name: unwanted)
+            node.add(name);
         report.error(newMsg(data, bundle,
             "err.common.additionalProperties.notAllowed")
             .putArgument("unwanted", node));
     }
 
+    private boolean matchesPattern(final String field)
+    {
+        for (final String regex: patternProperties)
+            if (RegexECMA262Helper.regMatch(regex, field))
+                return true;
+        return false;
+    }
+
     @Override
     public String toString()
     {
@@ -113,15 +126,15 @@ public final class AdditionalPropertiesValidator
 
         sb.append("none");
 
-        if (properties.isEmpty() && patternProperties.isEmpty())
+        if (properties.asSet().isEmpty() && patternProperties.isEmpty())
             return sb.toString();
 
         sb.append(", unless: ");
 
         final Set<String> further = Sets.newLinkedHashSet();
 
-        if (!properties.isEmpty())
-            further.add("one property is any of: " + properties);
+        if (!properties.asSet().isEmpty())
+            further.add("one property is any of: " + properties.asSet());
 
         if (!patternProperties.isEmpty())
             further.add("a property matches any regex among: "
@@ -47,6 +47,9 @@ import java.util.Set;
  *
  * <p>In spite of syntax differences, the digested data used to build the
  * validator is the same, which is why this validator is located here.</p>
+ *
+ * <p>Dependencies are checked by probing the instance for each property name,
+ * and no set is built unless dependencies are found to be missing.</p>
  */
 public final class DependenciesValidator
     extends AbstractKeywordValidator
@@ -54,6 +57,13 @@ public final class DependenciesValidator
     private final Multimap<String, String> propertyDeps;
     private final Set<String> schemaDeps;
 
+    /*
+     * Property dependencies, as arrays: depending properties, and for each
+     * depending property, the properties it requires
+     */
+    private final String[] propertyDepKeys;
+    private final String[][] propertyDepValues;
+
     public DependenciesValidator(final JsonNode digest)
     {
         super("dependencies");
@@ -75,6 +85,16 @@ public final class DependenciesValidator
 
         propertyDeps = mapBuilder.build();
 
+        final Set<String> keys = propertyDeps.keySet();
+        propertyDepKeys = keys.toArray(new String[keys.size()]);
+        propertyDepValues = new String[propertyDepKeys.length][];
+
+        Collection<String> values;
+        for (int i = 0; i < propertyDepKeys.length; i++) {
+            values = propertyDeps.get(propertyDepKeys[i]);
+            propertyDepValues[i] = values.toArray(new String[values.size()]);
+        }
+
         /*
          * Schema dependencies
          */
@@ -94,22 +114,28 @@ public final class DependenciesValidator
         throws ProcessingException
     {
         final JsonNode instance = data.getInstance().getNode();
-        final Set<String> fields = Sets.newHashSet(instance.fieldNames());
 
-        Collection<String> collection;
+        String field;
         Set<String> set;
 
-        for (final String field: propertyDeps.keySet()) {
-            if (!fields.contains(field))
+        for (int i = 0; i < propertyDepKeys.length; i++) {
+            field = propertyDepKeys[i];
+            if (!instance.has(field))
                 continue;
-            collection = propertyDeps.get(field);
-            set = Sets.newLinkedHashSet(collection);
-            set.removeAll(fields);
-            if (!set.isEmpty())
+            set = null;
+            for (final String name: propertyDepValues[i]) {
+                if (instance.has(name))
+                    continue;
+                if (set == null)
+                    set = Sets.newLinkedHashSet();
+                set.add(name);
+            }
+            if (set != null)
                 report.error(newMsg(data, bundle,
                     "err.common.dependencies.missingPropertyDeps")
                     .putArgument("property", field)
-                    .putArgument("required", toArrayNode(collection))
+                    .putArgument("required",
+                        toArrayNode(propertyDeps.get(field)))
                     .putArgument("missing", toArrayNode(set)));
         }
 
@@ -120,10 +146,10 @@ public final class DependenciesValidator
         FullData newData;
         JsonPointer pointer;
 
-        for (final String field: schemaDeps) {
-            if (!fields.contains(field))
+        for (final String name: schemaDeps) {
+            if (!instance.has(name))
                 continue;
-            pointer = JsonPointer.of(keyword, field);
+            pointer = JsonPointer.of(keyword, name);
             newData = data.withSchema(tree.append(pointer));
             processor.process(report, newData);
         }
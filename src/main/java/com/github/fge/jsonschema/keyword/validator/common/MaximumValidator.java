@@ -27,8 +27,6 @@ import com.github.fge.jsonschema.keyword.validator.helpers.NumericValidator;
 import com.github.fge.jsonschema.processors.data.FullData;
 import com.github.fge.msgsimple.bundle.MessageBundle;
 
-import java.math.BigDecimal;
-
 /**
  * Keyword validator for {@code maximum}
  */
@@ -75,10 +73,7 @@ public final class MaximumValidator
         throws ProcessingException
     {
         final JsonNode instance = data.getInstance().getNode();
-        final BigDecimal instanceValue = instance.decimalValue();
-        final BigDecimal decimalValue = number.decimalValue();
-
-        final int cmp = instanceValue.compareTo(decimalValue);
+        final int cmp = compareWith(instance);
 
         if (cmp < 0)
             return;
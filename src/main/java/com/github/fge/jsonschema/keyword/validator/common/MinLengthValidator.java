@@ -23,6 +23,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.processing.Processor;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.keyword.validator.helpers.CodePointCounter;
 import com.github.fge.jsonschema.keyword.validator.helpers.PositiveIntegerValidator;
 import com.github.fge.jsonschema.processors.data.FullData;
 import com.github.fge.msgsimple.bundle.MessageBundle;
@@ -44,11 +45,36 @@ public final class MinLengthValidator
         throws ProcessingException
     {
         final String value = data.getInstance().getNode().textValue();
+        final int length = value.length();
+
+        /*
+         * A string has at most as many code points as it has chars, and at
+         * least half as many: we only count code points when this does not
+         * decide, and then only until we reach the limit.
+         */
+        if (length - length / 2 >= intValue)
+            return;
+
+        if (length >= intValue
+            && CodePointCounter.countUpTo(value, intValue - 1) >= intValue)
+            return;
+
+        reportFailure(report, bundle, data, value);
+    }
+
+    int getLimit()
+    {
+        return intValue;
+    }
+
+    void reportFailure(final ProcessingReport report,
+        final MessageBundle bundle, final FullData data, final String value)
+        throws ProcessingException
+    {
         final int size = value.codePointCount(0, value.length());
 
-        if (size < intValue)
-            report.error(newMsg(data, bundle, "err.common.minLength.tooShort")
-                .putArgument("value", value).putArgument("found", size)
-                .putArgument(keyword, intValue));
+        report.error(newMsg(data, bundle, "err.common.minLength.tooShort")
+            .putArgument("value", value).putArgument("found", size)
+            .putArgument(keyword, intValue));
     }
 }
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.keyword.validator.common;
+
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.processing.Processor;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.keyword.validator.KeywordValidator;
+import com.github.fge.jsonschema.keyword.validator.helpers.CodePointCounter;
+import com.github.fge.jsonschema.processors.data.FullData;
+import com.github.fge.msgsimple.bundle.MessageBundle;
+
+/**
+ * Fused keyword validator for {@code maxLength} and {@code minLength}
+ *
+ * <p>This validator replaces both validators when a schema has both keywords:
+ * the length of the instance is then only computed once. Messages are the
+ * same, and issued in the same order, as with both validators.</p>
+ */
+public final class StringLengthValidator
+    implements KeywordValidator
+{
+    private final MaxLengthValidator maxLength;
+    private final MinLengthValidator minLength;
+    private final int max;
+    private final int min;
+
+    public StringLengthValidator(final MaxLengthValidator maxLength,
+        final MinLengthValidator minLength)
+    {
+        this.maxLength = maxLength;
+        this.minLength = minLength;
+        max = maxLength.getLimit();
+        min = minLength.getLimit();
+    }
+
+    @Override
+    public void validate(final Processor<FullData, FullData> processor,
+        final ProcessingReport report, final MessageBundle bundle,
+        final FullData data)
+        throws ProcessingException
+    {
+        final String value = data.getInstance().getNode().textValue();
+        final int length = value.length();
+
+        /*
+         * See MaxLengthValidator and MinLengthValidator: the number of chars
+         * bounds the number of code points on both sides.
+         */
+        if (length <= max && length - length / 2 >= min)
+            return;
+
+        /*
+         * Counting up to the greater of both limits decides both keywords
+         */
+        final int count = CodePointCounter.countUpTo(value, Math.max(max, min));
+
+        if (count > max)
+            maxLength.reportFailure(report, bundle, data, value);
+        if (count < min)
+            minLength.reportFailure(report, bundle, data, value);
+    }
+
+    @Override
+    public String toString()
+    {
+        return maxLength + ", " + minLength;
+    }
+}
@@ -22,13 +22,11 @@ package com.github.fge.jsonschema.keyword.validator.draftv3;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.github.fge.jackson.NodeType;
-import com.github.fge.jackson.jsonpointer.JsonPointer;
 import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.processing.Processor;
 import com.github.fge.jsonschema.core.report.ListProcessingReport;
-import com.github.fge.jsonschema.core.report.LogLevel;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
-import com.github.fge.jsonschema.core.tree.SchemaTree;
+import com.github.fge.jsonschema.keyword.validator.helpers.BranchSelector;
 import com.github.fge.jsonschema.keyword.validator.helpers.DraftV3TypeKeywordValidator;
 import com.github.fge.jsonschema.processors.data.FullData;
 import com.github.fge.msgsimple.bundle.MessageBundle;
@@ -60,30 +58,44 @@ public final class DisallowKeywordValidator
             return;
         }
 
-        final SchemaTree tree = data.getSchema();
-        final JsonPointer schemaPointer = tree.getPointer();
-        final ObjectNode fullReport = FACTORY.objectNode();
+        if (schemas.isEmpty())
+            return;
+
+        final BranchSelector selector = getSelector(data.getSchema());
+        final int size = selector.size();
+        final ListProcessingReport[] reports = new ListProcessingReport[size];
 
-        JsonPointer ptr;
-        ListProcessingReport subReport;
-        FullData newData;
+        /*
+         * Schemas which do not admit the instance type cannot match; their
+         * report is only needed if another schema does.
+         */
         int nrSuccess = 0;
 
-        for (final int index: schemas) {
-            subReport = new ListProcessingReport(report.getLogLevel(),
-                LogLevel.FATAL);
-            ptr = schemaPointer.append(JsonPointer.of(keyword, index));
-            newData = data.withSchema(tree.setPointer(ptr));
-            processor.process(subReport, newData);
-            fullReport.set(ptr.toString(), subReport.asJson());
-            if (subReport.isSuccess())
+        for (int index = 0; index < size; index++) {
+            if (!selector.admits(index, type))
+                continue;
+            reports[index] = validateSchema(processor, report, bundle, data,
+                selector, index);
+            if (reports[index].isSuccess())
                 nrSuccess++;
         }
 
-        if (nrSuccess != 0)
-            report.error(newMsg(data, bundle, "err.draftv3.disallow.schema")
-                .putArgument("matched", nrSuccess)
-                .putArgument("nrSchemas", schemas.size())
-                .put("reports", fullReport));
+        if (nrSuccess == 0)
+            return;
+
+        final ObjectNode fullReport = FACTORY.objectNode();
+
+        for (int index = 0; index < size; index++) {
+            if (reports[index] == null)
+                reports[index] = selector.typeFailure(index, report, bundle,
+                    data);
+            fullReport.set(selector.getPointer(index).toString(),
+                reports[index].asJson());
+        }
+
+        report.error(newMsg(data, bundle, "err.draftv3.disallow.schema")
+            .putArgument("matched", nrSuccess)
+            .putArgument("nrSchemas", schemas.size())
+            .put("reports", fullReport));
     }
 }
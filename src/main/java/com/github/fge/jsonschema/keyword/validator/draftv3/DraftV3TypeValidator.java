@@ -22,13 +22,11 @@ package com.github.fge.jsonschema.keyword.validator.draftv3;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.github.fge.jackson.NodeType;
-import com.github.fge.jackson.jsonpointer.JsonPointer;
 import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.processing.Processor;
 import com.github.fge.jsonschema.core.report.ListProcessingReport;
-import com.github.fge.jsonschema.core.report.LogLevel;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
-import com.github.fge.jsonschema.core.tree.SchemaTree;
+import com.github.fge.jsonschema.keyword.validator.helpers.BranchSelector;
 import com.github.fge.jsonschema.keyword.validator.helpers.DraftV3TypeKeywordValidator;
 import com.github.fge.jsonschema.processors.data.FullData;
 import com.github.fge.msgsimple.bundle.MessageBundle;
@@ -44,6 +42,18 @@ public final class DraftV3TypeValidator
         super("type", digest);
     }
 
+    /**
+     * Tell whether all instances of a given type are valid against this
+     * keyword
+     *
+     * @param type the instance type
+     * @return true if the type is one of the primitive types of this keyword
+     */
+    public boolean acceptsType(final NodeType type)
+    {
+        return types.contains(type);
+    }
+
     @Override
     public void validate(final Processor<FullData, FullData> processor,
         final ProcessingReport report, final MessageBundle bundle,
@@ -65,23 +75,21 @@ public final class DraftV3TypeValidator
          * If not OK, check the subschemas
          */
         final ObjectNode fullReport = FACTORY.objectNode();
-        final SchemaTree tree = data.getSchema();
-        final JsonPointer schemaPointer = tree.getPointer();
-
-        ListProcessingReport subReport;
-        JsonPointer ptr;
-        FullData newData;
         int nrSuccess = 0;
 
-        for (final int index: schemas) {
-            subReport = new ListProcessingReport(report.getLogLevel(),
-                LogLevel.FATAL);
-            ptr = schemaPointer.append(JsonPointer.of(keyword, index));
-            newData = data.withSchema(tree.setPointer(ptr));
-            processor.process(subReport, newData);
-            fullReport.set(ptr.toString(), subReport.asJson());
-            if (subReport.isSuccess())
-                nrSuccess++;
+        if (!schemas.isEmpty()) {
+            final BranchSelector selector = getSelector(data.getSchema());
+            final int size = selector.size();
+            ListProcessingReport subReport;
+
+            for (int index = 0; index < size; index++) {
+                subReport = validateSchema(processor, report, bundle, data,
+                    selector, index);
+                fullReport.set(selector.getPointer(index).toString(),
+                    subReport.asJson());
+                if (subReport.isSuccess())
+                    nrSuccess++;
+            }
         }
 
         /*
@@ -38,6 +38,7 @@ public final class PropertiesValidator
     extends AbstractKeywordValidator
 {
     private final Set<String> required;
+    private final String[] requiredArray;
 
     public PropertiesValidator(final JsonNode digest)
     {
@@ -48,6 +49,7 @@ public final class PropertiesValidator
             builder.add(element.textValue());
 
         required = builder.build();
+        requiredArray = required.toArray(new String[required.size()]);
     }
 
     @Override
@@ -56,11 +58,22 @@ public final class PropertiesValidator
         final FullData data)
         throws ProcessingException
     {
-        final Set<String> set = Sets.newLinkedHashSet(required);
-        set.removeAll(Sets.newHashSet(data.getInstance().getNode()
-            .fieldNames()));
+        final JsonNode instance = data.getInstance().getNode();
 
-        if (!set.isEmpty())
+        /*
+         * Only build the set of missing members if there are any
+         */
+        Set<String> set = null;
+
+        for (final String name: requiredArray) {
+            if (instance.has(name))
+                continue;
+            if (set == null)
+                set = Sets.newLinkedHashSet();
+            set.add(name);
+        }
+
+        if (set != null)
             report.error(newMsg(data, bundle, "err.common.object.missingMembers")
                 .put("required", required)
                 .putArgument("missing", toArrayNode(set)));
@@ -20,20 +20,24 @@
 package com.github.fge.jsonschema.keyword.validator.draftv4;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.github.fge.jackson.jsonpointer.JsonPointer;
 import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.processing.Processor;
 import com.github.fge.jsonschema.core.report.ListProcessingReport;
-import com.github.fge.jsonschema.core.report.LogLevel;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
-import com.github.fge.jsonschema.core.tree.SchemaTree;
+import com.github.fge.jsonschema.keyword.validator.helpers.BranchSelector;
 import com.github.fge.jsonschema.keyword.validator.helpers.SchemaArrayValidator;
 import com.github.fge.jsonschema.processors.data.FullData;
 import com.github.fge.msgsimple.bundle.MessageBundle;
 
 /**
  * Keyword validator for draft v4's {@code allOf}
+ *
+ * <p>All branches are validated, so that the report includes all of them on
+ * failure, unless the report raises an exception on the first validation
+ * error (see {@link ProcessingReport#getExceptionThreshold()}). In this
+ * case, validation stops at the first failing branch: the {@code matched}
+ * count and the {@code reports} of the error message then only cover the
+ * branches tried so far.</p>
  */
 public final class AllOfValidator
     extends SchemaArrayValidator
@@ -49,32 +53,26 @@ public final class AllOfValidator
         final FullData data)
         throws ProcessingException
     {
-        final SchemaTree tree = data.getSchema();
-        final JsonPointer schemaPointer = tree.getPointer();
-        final JsonNode schemas = tree.getNode().get(keyword);
-        final int size = schemas.size();
-        final ObjectNode fullReport = FACTORY.objectNode();
+        final BranchSelector selector = getSelector(data.getSchema());
+        final int size = selector.size();
+        final ListProcessingReport[] reports = new ListProcessingReport[size];
+        final boolean failFast = isFailFast(report);
 
         int nrSuccess = 0;
-        ListProcessingReport subReport;
-        JsonPointer ptr;
-        FullData newData;
 
         for (int index = 0; index < size; index++) {
-            subReport = new ListProcessingReport(report.getLogLevel(),
-                LogLevel.FATAL);
-            ptr = schemaPointer.append(JsonPointer.of(keyword, index));
-            newData = data.withSchema(tree.setPointer(ptr));
-            processor.process(subReport, newData);
-            fullReport.set(ptr.toString(), subReport.asJson());
-            if (subReport.isSuccess())
+            reports[index] = validateBranch(processor, report, bundle, data,
+                selector, index);
+            if (reports[index].isSuccess())
                 nrSuccess++;
+            else if (failFast)
+                break;
         }
 
         if (nrSuccess != size)
             report.error(newMsg(data, bundle, "err.draftv4.allOf.fail")
                 .putArgument("matched", nrSuccess)
                 .putArgument("nrSchemas", size)
-                .put("reports", fullReport));
+                .put("reports", fullReport(selector, reports)));
     }
 }
@@ -20,20 +20,20 @@
 package com.github.fge.jsonschema.keyword.validator.draftv4;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.github.fge.jackson.jsonpointer.JsonPointer;
 import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.processing.Processor;
 import com.github.fge.jsonschema.core.report.ListProcessingReport;
-import com.github.fge.jsonschema.core.report.LogLevel;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
-import com.github.fge.jsonschema.core.tree.SchemaTree;
+import com.github.fge.jsonschema.keyword.validator.helpers.BranchSelector;
 import com.github.fge.jsonschema.keyword.validator.helpers.SchemaArrayValidator;
 import com.github.fge.jsonschema.processors.data.FullData;
 import com.github.fge.msgsimple.bundle.MessageBundle;
 
 /**
  * Keyword validator for draft v4's {@code anyOf}
+ *
+ * <p>Validation stops at the first matching branch. Branches are tried in the
+ * order computed by a {@link BranchSelector}.</p>
  */
 public final class AnyOfValidator
     extends SchemaArrayValidator
@@ -49,30 +49,26 @@ public final class AnyOfValidator
         final FullData data)
         throws ProcessingException
     {
-        final SchemaTree tree = data.getSchema();
-        final JsonPointer schemaPointer = tree.getPointer();
-        final JsonNode schemas = tree.getNode().get(keyword);
-        final int size = schemas.size();
-        final ObjectNode fullReport = FACTORY.objectNode();
+        final BranchSelector selector = getSelector(data.getSchema());
+        final int size = selector.size();
+        final int[] order = new int[size];
+        final ListProcessingReport[] reports = new ListProcessingReport[size];
 
-        int nrSuccess = 0;
-        ListProcessingReport subReport;
-        JsonPointer ptr;
-        FullData newData;
+        selector.sort(data.getInstance().getNode(), order);
 
-        for (int index = 0; index < size; index++) {
-            subReport = new ListProcessingReport(report.getLogLevel(),
-                LogLevel.FATAL);
-            ptr = schemaPointer.append(JsonPointer.of(keyword, index));
-            newData = data.withSchema(tree.setPointer(ptr));
-            processor.process(subReport, newData);
-            fullReport.set(ptr.toString(), subReport.asJson());
-            if (subReport.isSuccess())
-                nrSuccess++;
+        /*
+         * Branches are tried most likely first; we stop at the first success.
+         * Otherwise, all branches will have been tried when we report.
+         */
+        for (final int index: order) {
+            reports[index] = validateBranch(processor, report, bundle, data,
+                selector, index);
+            if (reports[index].isSuccess())
+                return;
         }
 
-        if (nrSuccess == 0)
-            report.error(newMsg(data, bundle, "err.common.schema.noMatch")
-                .putArgument("nrSchemas", size).put("reports", fullReport));
+        report.error(newMsg(data, bundle, "err.common.schema.noMatch")
+            .putArgument("nrSchemas", size)
+            .put("reports", fullReport(selector, reports)));
     }
 }
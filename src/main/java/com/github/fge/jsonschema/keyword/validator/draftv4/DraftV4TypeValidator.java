@@ -45,6 +45,18 @@ public final class DraftV4TypeValidator
             types.add(NodeType.fromName(node.textValue()));
     }
 
+    /**
+     * Tell whether all instances of a given type are valid against this
+     * keyword
+     *
+     * @param type the instance type
+     * @return true if the type is one of the primitive types of this keyword
+     */
+    public boolean acceptsType(final NodeType type)
+    {
+        return types.contains(type);
+    }
+
     @Override
     public void validate(final Processor<FullData, FullData> processor,
         final ProcessingReport report, final MessageBundle bundle,
@@ -20,7 +20,6 @@
 package com.github.fge.jsonschema.keyword.validator.draftv4;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.github.fge.jackson.jsonpointer.JsonPointer;
 import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.processing.Processor;
 import com.github.fge.jsonschema.core.report.ListProcessingReport;
@@ -28,17 +27,19 @@ import com.github.fge.jsonschema.core.report.LogLevel;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
 import com.github.fge.jsonschema.core.tree.SchemaTree;
 import com.github.fge.jsonschema.keyword.validator.AbstractKeywordValidator;
+import com.github.fge.jsonschema.keyword.validator.helpers.BranchSelector;
 import com.github.fge.jsonschema.processors.data.FullData;
 import com.github.fge.msgsimple.bundle.MessageBundle;
 
 /**
  * Keyword validator for draft v4's {@code not}
+ *
+ * <p>The subschema is not even tried if a {@link BranchSelector} can prove
+ * that the instance does not match it.</p>
  */
 public final class NotValidator
     extends AbstractKeywordValidator
 {
-    private static final JsonPointer PTR = JsonPointer.of("not");
-
     public NotValidator(final JsonNode digest)
     {
         super("not");
@@ -51,10 +52,16 @@ public final class NotValidator
         throws ProcessingException
     {
         final SchemaTree tree = data.getSchema();
+        final BranchSelector branch = BranchSelector.ofSchema(tree, keyword);
+
+        if (branch.excludes(0, data.getInstance().getNode()))
+            return;
+
         final ProcessingReport subReport
             = new ListProcessingReport(report.getLogLevel(), LogLevel.FATAL);
 
-        processor.process(subReport, data.withSchema(tree.append(PTR)));
+        processor.process(subReport,
+            data.withSchema(tree.setPointer(branch.getPointer(0))));
 
         if (subReport.isSuccess())
             report.error(newMsg(data, bundle, "err.draftv4.not.fail"));
@@ -20,20 +20,22 @@
 package com.github.fge.jsonschema.keyword.validator.draftv4;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.github.fge.jackson.jsonpointer.JsonPointer;
 import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.processing.Processor;
 import com.github.fge.jsonschema.core.report.ListProcessingReport;
-import com.github.fge.jsonschema.core.report.LogLevel;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
-import com.github.fge.jsonschema.core.tree.SchemaTree;
+import com.github.fge.jsonschema.keyword.validator.helpers.BranchSelector;
 import com.github.fge.jsonschema.keyword.validator.helpers.SchemaArrayValidator;
 import com.github.fge.jsonschema.processors.data.FullData;
 import com.github.fge.msgsimple.bundle.MessageBundle;
 
 /**
  * Keyword validator for draft v4's {@code oneOf}
+ *
+ * <p>Branches are tried in the order computed by a {@link BranchSelector};
+ * branches which cannot match are only tried if validation fails, since the
+ * report then requires them. Branches which do not admit the type of the
+ * instance are never tried.</p>
  */
 public final class OneOfValidator
     extends SchemaArrayValidator
@@ -49,32 +51,47 @@ public final class OneOfValidator
         final FullData data)
         throws ProcessingException
     {
-        final SchemaTree tree = data.getSchema();
-        final JsonPointer schemaPointer = tree.getPointer();
-        final JsonNode schemas = tree.getNode().get(keyword);
-        final int size = schemas.size();
-        final ObjectNode fullReport = FACTORY.objectNode();
+        final BranchSelector selector = getSelector(data.getSchema());
+        final int size = selector.size();
+        final int[] order = new int[size];
+        final ListProcessingReport[] reports = new ListProcessingReport[size];
+
+        final int nrCandidates
+            = selector.sort(data.getInstance().getNode(), order);
 
+        /*
+         * Excluded branches cannot match: if exactly one of the other branches
+         * matches, we are done. We stop at the second match.
+         */
         int nrSuccess = 0;
-        ListProcessingReport subReport;
-        JsonPointer ptr;
-        FullData newData;
+        int index;
+
+        for (int i = 0; i < nrCandidates; i++) {
+            index = order[i];
+            reports[index] = validateBranch(processor, report, bundle, data,
+                selector, index);
+            if (reports[index].isSuccess() && ++nrSuccess == 2)
+                break;
+        }
+
+        if (nrSuccess == 1)
+            return;
 
-        for (int index = 0; index < size; index++) {
-            subReport = new ListProcessingReport(report.getLogLevel(),
-                LogLevel.FATAL);
-            ptr = schemaPointer.append(JsonPointer.of(keyword, index));
-            newData = data.withSchema(tree.setPointer(ptr));
-            processor.process(subReport, newData);
-            fullReport.set(ptr.toString(), subReport.asJson());
-            if (subReport.isSuccess())
+        /*
+         * Validation fails: the report requires all branches.
+         */
+        nrSuccess = 0;
+        for (index = 0; index < size; index++) {
+            if (reports[index] == null)
+                reports[index] = validateBranch(processor, report, bundle,
+                    data, selector, index);
+            if (reports[index].isSuccess())
                 nrSuccess++;
         }
 
-        if (nrSuccess != 1)
-            report.error(newMsg(data, bundle, "err.draftv4.oneOf.fail")
-                .putArgument("matched", nrSuccess)
-                .putArgument("nrSchemas", size)
-                .put("reports", fullReport));
+        report.error(newMsg(data, bundle, "err.draftv4.oneOf.fail")
+            .putArgument("matched", nrSuccess)
+            .putArgument("nrSchemas", size)
+            .put("reports", fullReport(selector, reports)));
     }
 }
@@ -0,0 +1,740 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.keyword.validator.helpers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.github.fge.jackson.JacksonUtils;
+import com.github.fge.jackson.JsonNumEquivalence;
+import com.github.fge.jackson.NodeType;
+import com.github.fge.jackson.jsonpointer.JsonPointer;
+import com.github.fge.jsonschema.core.exceptions.JsonReferenceException;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.ref.JsonRef;
+import com.github.fge.jsonschema.core.report.ListProcessingReport;
+import com.github.fge.jsonschema.core.report.LogLevel;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.core.tree.SchemaTree;
+import com.github.fge.jsonschema.processors.data.FullData;
+import com.github.fge.msgsimple.bundle.MessageBundle;
+import com.google.common.base.Equivalence;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.lang.ref.WeakReference;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Branch selector for keywords validating an instance against subschemas
+ *
+ * <p>This class inspects the branches of such keywords ({@code anyOf}, {@code
+ * oneOf}, {@code not}...) for discriminators, once per schema, and uses them
+ * at validation time to decide in which order branches should be tried. The
+ * discriminators are:</p>
+ *
+ * <ul>
+ *     <li>{@code enum} at the branch level;</li>
+ *     <li>{@code required};</li>
+ *     <li>{@code enum} in a subschema of {@code properties};</li>
+ *     <li>the set of types admitted by the branch, computed from {@code
+ *     type}, the values of {@code enum} and, for draft v3 schemas, {@code
+ *     disallow}.</li>
+ * </ul>
+ *
+ * <p>All of these can prove that an instance will fail to validate against a
+ * branch: such branches are "excluded" and are tried last. The property whose
+ * {@code enum} is defined in most branches is used as a lookup key: branches
+ * allowing the value of this property in the instance are tried first.</p>
+ *
+ * <p>A branch which does not admit the type of the instance need not be
+ * tried at all: when a report is needed for it, validators can use {@link
+ * #typeFailure(int, ProcessingReport, MessageBundle, FullData)} instead.</p>
+ *
+ * <p>JSON References are followed if they point into the same document;
+ * a branch whose reference cannot be resolved this way is never excluded.
+ * Note that {@code const} is not a draft v4 keyword, and is therefore not
+ * considered.</p>
+ *
+ * <p>Keyword validators only depend on their digest, and may be shared between
+ * schemas; they must therefore not retain selectors themselves. Instead, they
+ * should obtain them using {@link #ofSchemaArray(SchemaTree, String)}, {@link
+ * #ofSchema(SchemaTree, String)} or {@link #ofDraftV3Schemas(SchemaTree,
+ * String, List)}, which cache selectors by the identity of the keyword's value
+ * in the schema. This cache holds its keys weakly, and selectors do not
+ * reference the schema strongly: entries go away along with their schemas.
+ * </p>
+ */
+@Immutable
+public final class BranchSelector
+{
+    private static final Equivalence<JsonNode> EQUIVALENCE
+        = JsonNumEquivalence.getInstance();
+
+    /*
+     * Note: weak keys imply identity comparison of keys
+     */
+    private static final Cache<JsonNode, BranchSelector> CACHE
+        = CacheBuilder.newBuilder().weakKeys().build();
+
+    private final String keyword;
+    private final JsonPointer pointer;
+    private final WeakReference<JsonNode> node;
+    private final WeakReference<JsonNode> baseNode;
+    private final List<JsonPointer> pointers;
+    private final List<Branch> branches;
+
+    @Nullable
+    private final String discriminator;
+    private final Map<Equivalence.Wrapper<JsonNode>, int[]> lookup;
+
+    /**
+     * Return the selector for a keyword whose value is an array of schemas,
+     * building it if needed
+     *
+     * @param tree the schema tree
+     * @param keyword the keyword
+     * @return the selector
+     * @see #forSchemaArray(SchemaTree, String)
+     */
+    public static BranchSelector ofSchemaArray(final SchemaTree tree,
+        final String keyword)
+    {
+        final BranchSelector ret = cached(tree, keyword);
+        return ret != null ? ret : cache(tree, forSchemaArray(tree, keyword));
+    }
+
+    /**
+     * Return the selector for the schemas of draft v3's {@code type} or
+     * {@code disallow}, building it if needed
+     *
+     * @param tree the schema tree
+     * @param keyword the keyword
+     * @param schemas the indices of schemas in the keyword's array
+     * @return the selector
+     * @see #forDraftV3Schemas(SchemaTree, String, List)
+     */
+    public static BranchSelector ofDraftV3Schemas(final SchemaTree tree,
+        final String keyword, final List<Integer> schemas)
+    {
+        final BranchSelector ret = cached(tree, keyword);
+        return ret != null ? ret
+            : cache(tree, forDraftV3Schemas(tree, keyword, schemas));
+    }
+
+    /**
+     * Return the selector for a keyword whose value is a schema, building it
+     * if needed
+     *
+     * @param tree the schema tree
+     * @param keyword the keyword
+     * @return the selector
+     * @see #forSchema(SchemaTree, String)
+     */
+    public static BranchSelector ofSchema(final SchemaTree tree,
+        final String keyword)
+    {
+        final BranchSelector ret = cached(tree, keyword);
+        return ret != null ? ret : cache(tree, forSchema(tree, keyword));
+    }
+
+    @Nullable
+    private static BranchSelector cached(final SchemaTree tree,
+        final String keyword)
+    {
+        final BranchSelector ret
+            = CACHE.getIfPresent(tree.getNode().get(keyword));
+        return ret != null && ret.isFor(tree, keyword) ? ret : null;
+    }
+
+    private static BranchSelector cache(final SchemaTree tree,
+        final BranchSelector selector)
+    {
+        CACHE.put(tree.getNode().get(selector.keyword), selector);
+        return selector;
+    }
+
+    /**
+     * Build a selector for a keyword whose value is an array of schemas
+     *
+     * @param tree the schema tree
+     * @param keyword the keyword
+     * @return a new selector
+     */
+    public static BranchSelector forSchemaArray(final SchemaTree tree,
+        final String keyword)
+    {
+        final JsonPointer base = tree.getPointer();
+        final int size = tree.getNode().get(keyword).size();
+        final ImmutableList.Builder<JsonPointer> builder
+            = ImmutableList.builder();
+        for (int index = 0; index < size; index++)
+            builder.add(base.append(JsonPointer.of(keyword, index)));
+        return new BranchSelector(tree, keyword, builder.build(), false);
+    }
+
+    /**
+     * Build a selector for the schemas of draft v3's {@code type} or {@code
+     * disallow}
+     *
+     * <p>Branch {@code i} of the selector is the schema at index {@code
+     * schemas.get(i)} in the keyword's array.</p>
+     *
+     * @param tree the schema tree
+     * @param keyword the keyword
+     * @param schemas the indices of schemas in the keyword's array
+     * @return a new selector
+     */
+    public static BranchSelector forDraftV3Schemas(final SchemaTree tree,
+        final String keyword, final List<Integer> schemas)
+    {
+        final JsonPointer base = tree.getPointer();
+        final ImmutableList.Builder<JsonPointer> builder
+            = ImmutableList.builder();
+        for (final int index: schemas)
+            builder.add(base.append(JsonPointer.of(keyword, index)));
+        return new BranchSelector(tree, keyword, builder.build(), true);
+    }
+
+    /**
+     * Build a selector for a keyword whose value is a schema
+     *
+     * @param tree the schema tree
+     * @param keyword the keyword
+     * @return a new selector
+     */
+    public static BranchSelector forSchema(final SchemaTree tree,
+        final String keyword)
+    {
+        final JsonPointer ptr = tree.getPointer().append(keyword);
+        return new BranchSelector(tree, keyword, ImmutableList.of(ptr),
+            false);
+    }
+
+    private BranchSelector(final SchemaTree tree, final String keyword,
+        final List<JsonPointer> pointers, final boolean draftV3)
+    {
+        this.keyword = keyword;
+        pointer = tree.getPointer();
+        node = new WeakReference<JsonNode>(tree.getNode());
+        baseNode = new WeakReference<JsonNode>(tree.getBaseNode());
+        this.pointers = pointers;
+
+        final ImmutableList.Builder<Branch> builder = ImmutableList.builder();
+        for (final JsonPointer ptr: pointers)
+            builder.add(new Branch(tree, ptr, draftV3));
+        branches = builder.build();
+
+        discriminator = findDiscriminator(branches);
+        lookup = discriminator == null
+            ? ImmutableMap.<Equivalence.Wrapper<JsonNode>, int[]>of()
+            : buildLookup(branches, discriminator);
+    }
+
+    /**
+     * Tell whether this selector was built for the given schema tree
+     *
+     * @param tree the schema tree
+     * @return true if this is the case
+     */
+    public boolean isFor(final SchemaTree tree)
+    {
+        return node.get() == tree.getNode()
+            && baseNode.get() == tree.getBaseNode()
+            && pointer.equals(tree.getPointer());
+    }
+
+    private boolean isFor(final SchemaTree tree, final String keyword)
+    {
+        return this.keyword.equals(keyword) && isFor(tree);
+    }
+
+    /**
+     * Return the number of branches
+     *
+     * @return the number of branches
+     */
+    public int size()
+    {
+        return pointers.size();
+    }
+
+    /**
+     * Return the schema pointer of a branch
+     *
+     * @param index the branch index
+     * @return the pointer
+     */
+    public JsonPointer getPointer(final int index)
+    {
+        return pointers.get(index);
+    }
+
+    /**
+     * Tell whether an instance is guaranteed to fail validation against a
+     * branch
+     *
+     * @param index the branch index
+     * @param instance the instance
+     * @return true if this is the case
+     */
+    public boolean excludes(final int index, final JsonNode instance)
+    {
+        final Branch branch = branches.get(index);
+        return !branch.admits(NodeType.getNodeType(instance))
+            || branch.excludes(instance);
+    }
+
+    /**
+     * Tell whether a branch admits an instance type
+     *
+     * @param index the branch index
+     * @param type the instance type
+     * @return false if an instance of this type is guaranteed to fail
+     * validation against this branch
+     */
+    public boolean admits(final int index, final NodeType type)
+    {
+        return branches.get(index).admits(type);
+    }
+
+    /**
+     * Build a report for a branch which does not admit the instance type
+     *
+     * <p>The report contains a single {@code type} error, where the expected
+     * types are the types admitted by the branch, and the schema is the
+     * branch itself (after JSON Reference resolution). This is the only
+     * error reported, even though validating the instance against the branch
+     * may have raised others.</p>
+     *
+     * @param index the branch index
+     * @param report the main report
+     * @param bundle the message bundle to use
+     * @param data the validation data
+     * @return the report for this branch
+     * @throws ProcessingException cannot happen (the report never throws)
+     * @see #admits(int, NodeType)
+     */
+    public ListProcessingReport typeFailure(final int index,
+        final ProcessingReport report, final MessageBundle bundle,
+        final FullData data)
+        throws ProcessingException
+    {
+        final Branch branch = branches.get(index);
+        final NodeType type
+            = NodeType.getNodeType(data.getInstance().getNode());
+        final ArrayNode expected = JacksonUtils.nodeFactory().arrayNode();
+        for (final NodeType admitted: branch.admitted)
+            expected.add(admitted.toString());
+
+        final FullData newData
+            = data.withSchema(data.getSchema().setPointer(branch.target));
+        final ListProcessingReport ret
+            = new ListProcessingReport(report.getLogLevel(), LogLevel.FATAL);
+        ret.error(newData.newMessage().put("domain", "validation")
+            .put("keyword", "type")
+            .setMessage(bundle.getMessage("err.common.typeNoMatch"))
+            .putArgument("found", type).putArgument("expected", expected));
+        return ret;
+    }
+
+    /**
+     * Compute the order in which to try branches for a given instance
+     *
+     * <p>The array is filled with all branch indices. Non excluded branches
+     * come first; their number is returned.</p>
+     *
+     * @param instance the instance
+     * @param order the array to fill; its length must be equal to {@link
+     * #size()}
+     * @return the number of non excluded branches
+     */
+    public int sort(final JsonNode instance, final int[] order)
+    {
+        final int size = order.length;
+        final boolean[] placed = new boolean[size];
+
+        int head = 0;
+        int tail = size;
+
+        /*
+         * First, branches selected by the discriminator, if any
+         */
+        final JsonNode value = discriminator == null ? null
+            : instance.get(discriminator);
+        if (value != null) {
+            final int[] selected = lookup.get(EQUIVALENCE.wrap(value));
+            if (selected != null)
+                for (final int index: selected) {
+                    placed[index] = true;
+                    if (excludes(index, instance))
+                        order[--tail] = index;
+                    else
+                        order[head++] = index;
+                }
+        }
+
+        /*
+         * Then all other branches; the excluded branches are put at the end.
+         */
+        for (int index = 0; index < size; index++) {
+            if (placed[index])
+                continue;
+            if (excludes(index, instance))
+                order[--tail] = index;
+            else
+                order[head++] = index;
+        }
+
+        return head;
+    }
+
+    @Nullable
+    private static String findDiscriminator(final List<Branch> branches)
+    {
+        final Map<String, Integer> counts = Maps.newTreeMap();
+        Integer count;
+
+        for (final Branch branch: branches)
+            for (final String name: branch.propertyValues.keySet()) {
+                count = counts.get(name);
+                counts.put(name, count == null ? 1 : count + 1);
+            }
+
+        String ret = null;
+        int max = 1;
+
+        for (final Map.Entry<String, Integer> entry: counts.entrySet())
+            if (entry.getValue() > max) {
+                ret = entry.getKey();
+                max = entry.getValue();
+            }
+
+        return ret;
+    }
+
+    private static Map<Equivalence.Wrapper<JsonNode>, int[]> buildLookup(
+        final List<Branch> branches, final String discriminator)
+    {
+        final Map<Equivalence.Wrapper<JsonNode>, int[]> map
+            = Maps.newHashMap();
+        final int size = branches.size();
+
+        Set<Equivalence.Wrapper<JsonNode>> values;
+        int[] indices;
+        int[] newIndices;
+
+        for (int index = 0; index < size; index++) {
+            values = branches.get(index).propertyValues.get(discriminator);
+            if (values == null)
+                continue;
+            for (final Equivalence.Wrapper<JsonNode> value: values) {
+                indices = map.get(value);
+                if (indices == null) {
+                    newIndices = new int[] { index };
+                } else {
+                    newIndices = new int[indices.length + 1];
+                    System.arraycopy(indices, 0, newIndices, 0,
+                        indices.length);
+                    newIndices[indices.length] = index;
+                }
+                map.put(value, newIndices);
+            }
+        }
+
+        return ImmutableMap.copyOf(map);
+    }
+
+    /**
+     * Resolve a schema, following JSON References within the same document
+     *
+     * @param tree the schema tree, pointing to the schema
+     * @return the schema tree pointing to the resolved schema, or null if it
+     * cannot be resolved
+     */
+    @Nullable
+    private static SchemaTree resolve(final SchemaTree tree)
+    {
+        final Set<JsonPointer> seen = Sets.newHashSet();
+        SchemaTree current = tree;
+        JsonNode refNode;
+        JsonRef ref;
+        JsonPointer target;
+
+        while (true) {
+            refNode = current.getNode().path("$ref");
+            if (!refNode.isTextual())
+                return current.getNode().isObject() ? current : null;
+            try {
+                ref = current.resolve(JsonRef.fromString(refNode.textValue()));
+            } catch (JsonReferenceException ignored) {
+                return null;
+            }
+            if (!current.containsRef(ref))
+                return null;
+            target = current.matchingPointer(ref);
+            if (target == null || !seen.add(target))
+                return null;
+            current = current.setPointer(target);
+        }
+    }
+
+    @Immutable
+    private static final class Branch
+    {
+        private static final Set<NodeType> NUMERIC_TYPES
+            = Sets.immutableEnumSet(NodeType.INTEGER, NodeType.NUMBER);
+
+        /*
+         * The pointer to the branch after JSON Reference resolution, or the
+         * pointer to the branch itself if references cannot be resolved
+         */
+        private final JsonPointer target;
+
+        /*
+         * The types admitted by this branch; always contains INTEGER if it
+         * contains NUMBER
+         */
+        private final Set<NodeType> admitted;
+
+        /*
+         * Null if there is no such constraint
+         */
+        @Nullable
+        private final Set<Equivalence.Wrapper<JsonNode>> values;
+        @Nullable
+        private final Set<String> required;
+
+        private final Map<String, Set<Equivalence.Wrapper<JsonNode>>>
+            propertyValues;
+
+        private Branch(final SchemaTree tree, final JsonPointer ptr,
+            final boolean draftV3)
+        {
+            final SchemaTree resolved = resolve(tree.setPointer(ptr));
+
+            if (resolved == null) {
+                target = ptr;
+                admitted = Sets.immutableEnumSet(EnumSet.allOf(NodeType.class));
+                values = null;
+                required = null;
+                propertyValues = ImmutableMap.of();
+                return;
+            }
+
+            final JsonNode schema = resolved.getNode();
+            target = resolved.getPointer();
+            values = valuesFrom(schema.get("enum"));
+            required = requiredFrom(schema.get("required"));
+
+            final ImmutableMap.Builder<String,
+                Set<Equivalence.Wrapper<JsonNode>>> builder
+                = ImmutableMap.builder();
+            final JsonNode properties = schema.path("properties");
+
+            if (properties.isObject()) {
+                final JsonPointer base = resolved.getPointer()
+                    .append("properties");
+                final Iterator<String> iterator = properties.fieldNames();
+                String name;
+                SchemaTree subTree;
+                Set<Equivalence.Wrapper<JsonNode>> set;
+                while (iterator.hasNext()) {
+                    name = iterator.next();
+                    subTree = resolve(resolved.setPointer(base.append(name)));
+                    if (subTree == null)
+                        continue;
+                    set = valuesFrom(subTree.getNode().get("enum"));
+                    if (set != null)
+                        builder.put(name, set);
+                }
+            }
+
+            propertyValues = builder.build();
+
+            final EnumSet<NodeType> set = EnumSet.allOf(NodeType.class);
+            Set<NodeType> constraint;
+
+            constraint = typesFrom(schema.get("type"));
+            if (constraint != null)
+                set.retainAll(constraint);
+            constraint = enumTypesFrom(schema.get("enum"));
+            if (constraint != null)
+                set.retainAll(constraint);
+            if (draftV3)
+                set.removeAll(disallowedFrom(schema.get("disallow")));
+            admitted = Sets.immutableEnumSet(set);
+        }
+
+        private boolean admits(final NodeType type)
+        {
+            return admitted.contains(type);
+        }
+
+        private boolean excludes(final JsonNode instance)
+        {
+            if (values != null && !values.contains(EQUIVALENCE.wrap(instance)))
+                return true;
+            if (!instance.isObject())
+                return false;
+            if (required != null)
+                for (final String name: required)
+                    if (!instance.has(name))
+                        return true;
+
+            JsonNode value;
+            for (final Map.Entry<String, Set<Equivalence.Wrapper<JsonNode>>>
+                entry: propertyValues.entrySet()) {
+                value = instance.get(entry.getKey());
+                if (value != null
+                    && !entry.getValue().contains(EQUIVALENCE.wrap(value)))
+                    return true;
+            }
+            return false;
+        }
+
+        @Nullable
+        private static Set<NodeType> typesFrom(@Nullable final JsonNode node)
+        {
+            if (node == null)
+                return null;
+            final Set<NodeType> set = EnumSet.noneOf(NodeType.class);
+            NodeType type;
+            if (node.isTextual()) {
+                type = NodeType.fromName(node.textValue());
+                if (type == null)
+                    return null;
+                addType(set, type);
+                return set;
+            }
+            if (!node.isArray())
+                return null;
+            for (final JsonNode element: node) {
+                if (!element.isTextual())
+                    return null;
+                type = NodeType.fromName(element.textValue());
+                if (type == null)
+                    return null;
+                addType(set, type);
+            }
+            return set;
+        }
+
+        /*
+         * Numeric values are compared using their mathematical value, which
+         * means 1 and 1.0 are the same value: a numeric enum value therefore
+         * admits both numeric types.
+         */
+        @Nullable
+        private static Set<NodeType> enumTypesFrom(
+            @Nullable final JsonNode node)
+        {
+            if (node == null || !node.isArray())
+                return null;
+            final Set<NodeType> set = EnumSet.noneOf(NodeType.class);
+            NodeType type;
+            for (final JsonNode element: node) {
+                type = NodeType.getNodeType(element);
+                if (NUMERIC_TYPES.contains(type))
+                    set.addAll(NUMERIC_TYPES);
+                else
+                    set.add(type);
+            }
+            return set;
+        }
+
+        /*
+         * Only simple types are considered here; draft v3 disallows all types
+         * if "any" is one of them. Schemas are ignored.
+         */
+        private static Set<NodeType> disallowedFrom(
+            @Nullable final JsonNode node)
+        {
+            final Set<NodeType> set = EnumSet.noneOf(NodeType.class);
+            if (node == null)
+                return set;
+            if (node.isTextual()) {
+                addDisallowed(set, node.textValue());
+                return set;
+            }
+            for (final JsonNode element: node)
+                if (element.isTextual())
+                    addDisallowed(set, element.textValue());
+            return set;
+        }
+
+        private static void addDisallowed(final Set<NodeType> set,
+            final String name)
+        {
+            if ("any".equals(name)) {
+                set.addAll(EnumSet.allOf(NodeType.class));
+                return;
+            }
+            final NodeType type = NodeType.fromName(name);
+            if (type != null)
+                addType(set, type);
+        }
+
+        private static void addType(final Set<NodeType> set,
+            final NodeType type)
+        {
+            set.add(type);
+            if (type == NodeType.NUMBER)
+                set.add(NodeType.INTEGER);
+        }
+
+        @Nullable
+        private static Set<Equivalence.Wrapper<JsonNode>> valuesFrom(
+            @Nullable final JsonNode node)
+        {
+            if (node == null || !node.isArray())
+                return null;
+            final ImmutableSet.Builder<Equivalence.Wrapper<JsonNode>> builder
+                = ImmutableSet.builder();
+            for (final JsonNode element: node)
+                builder.add(EQUIVALENCE.wrap(element));
+            return builder.build();
+        }
+
+        @Nullable
+        private static Set<String> requiredFrom(@Nullable final JsonNode node)
+        {
+            if (node == null || !node.isArray())
+                return null;
+            final ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+            for (final JsonNode element: node) {
+                if (!element.isTextual())
+                    return null;
+                builder.add(element.textValue());
+            }
+            return builder.build();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.keyword.validator.helpers;
+
+/**
+ * Code point counter with a limit
+ *
+ * <p>String lengths in JSON Schema are counted in Unicode code points, not in
+ * Java {@code char}s. Counting code points requires a full scan, but keywords
+ * such as {@code maxLength} and {@code minLength} only need to know whether
+ * the count exceeds a given limit: this class stops counting as soon as it
+ * does.</p>
+ *
+ * <p>Code points are counted the same way as {@link
+ * String#codePointCount(int, int)} does: a high surrogate followed by a low
+ * surrogate counts as one code point, unpaired surrogates count as one code
+ * point each.</p>
+ *
+ * <p>An instance of this class can also count code points incrementally, for
+ * text delivered in several chunks (for instance, the character buffers of a
+ * streaming parser); surrogate pairs split across two chunks are correctly
+ * accounted for. Instances are not thread safe.</p>
+ */
+public final class CodePointCounter
+{
+    private final int limit;
+
+    private int count = 0;
+    private boolean afterHighSurrogate = false;
+
+    /**
+     * Constructor
+     *
+     * @param limit the limit after which to stop counting
+     */
+    public CodePointCounter(final int limit)
+    {
+        this.limit = limit;
+    }
+
+    /**
+     * Count the code points of a sequence of chars, up to a limit
+     *
+     * @param seq the sequence of chars
+     * @param limit the limit
+     * @return the number of code points, or {@code limit + 1} if there are
+     * more code points than the limit
+     */
+    public static int countUpTo(final CharSequence seq, final int limit)
+    {
+        final int length = seq.length();
+        int ret = 0;
+        boolean afterHighSurrogate = false;
+        char c;
+
+        for (int i = 0; i < length; i++) {
+            c = seq.charAt(i);
+            if (afterHighSurrogate && Character.isLowSurrogate(c)) {
+                afterHighSurrogate = false;
+                continue;
+            }
+            if (++ret > limit)
+                return ret;
+            afterHighSurrogate = Character.isHighSurrogate(c);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Count the code points of a chunk of chars
+     *
+     * @param buf the buffer
+     * @param offset the offset of the first char in the buffer
+     * @param length the number of chars
+     * @return false if the limit has been exceeded
+     */
+    public boolean append(final char[] buf, final int offset, final int length)
+    {
+        final int end = offset + length;
+        char c;
+
+        for (int i = offset; i < end; i++) {
+            c = buf[i];
+            if (afterHighSurrogate && Character.isLowSurrogate(c)) {
+                afterHighSurrogate = false;
+                continue;
+            }
+            if (++count > limit)
+                return false;
+            afterHighSurrogate = Character.isHighSurrogate(c);
+        }
+
+        return count <= limit;
+    }
+
+    /**
+     * Return the number of code points counted so far
+     *
+     * <p>If the limit has been exceeded, this is {@code limit + 1}.</p>
+     *
+     * @return the number of code points
+     */
+    public int getCount()
+    {
+        return count;
+    }
+
+    /**
+     * Tell whether the limit has been exceeded
+     *
+     * @return true if more code points than the limit have been seen
+     */
+    public boolean limitExceeded()
+    {
+        return count > limit;
+    }
+}
@@ -22,6 +22,7 @@ package com.github.fge.jsonschema.keyword.validator.helpers;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.keyword.digest.helpers.DivisorDigester;
 import com.github.fge.jsonschema.processors.data.FullData;
 import com.github.fge.msgsimple.bundle.MessageBundle;
 
@@ -30,13 +31,67 @@ import java.math.BigDecimal;
 /**
  * Helper keyword validator for draft v4's {@code multipleOf} and draft v3's
  * {@code divisibleBy}
+ *
+ * <p>When either the divisor or the instance is not a {@code long}, the
+ * divisor and instance are first scaled by the same power of ten (the scale
+ * of the divisor, as computed by {@link DivisorDigester}); if both the divisor
+ * and the instance then fit exactly into a {@code long}, the remainder is
+ * computed using {@code long} arithmetic. This is the case for instance of
+ * prices with {@code 0.01} as a divisor. {@link BigDecimal} is only used when
+ * this is not possible.</p>
  */
 public abstract class DivisorValidator
     extends NumericValidator
 {
+    /*
+     * Returned by scaledInstance() when the instance cannot be scaled
+     */
+    private static final long NOT_SCALABLE = Long.MIN_VALUE;
+
+    private static final long[] LONG_POWERS
+        = new long[DivisorDigester.MAX_SCALE + 1];
+    private static final double[] DOUBLE_POWERS
+        = new double[DivisorDigester.MAX_SCALE + 1];
+
+    /*
+     * Doubles whose absolute value, once scaled, is lower than this are such
+     * that at most one decimal number with the divisor's scale rounds to them
+     */
+    private static final long MAX_SCALED_DOUBLE = 1L << 52;
+
+    static {
+        long power = 1L;
+        for (int i = 0; i <= DivisorDigester.MAX_SCALE; i++) {
+            LONG_POWERS[i] = power;
+            DOUBLE_POWERS[i] = power;
+            power *= 10L;
+        }
+    }
+
+    /**
+     * Scale of the divisor, or -1 if it cannot be scaled
+     */
+    private final int scale;
+
+    /**
+     * Divisor multiplied by ten to the power of {@link #scale}
+     */
+    private final long scaledDivisor;
+
     protected DivisorValidator(final String keyword, final JsonNode digest)
     {
         super(keyword, digest);
+        if (digest.get("valueIsLong").booleanValue()) {
+            scale = 0;
+            scaledDivisor = number.longValue();
+        } else if (digest.has("scale")) {
+            scale = digest.get("scale").intValue();
+            scaledDivisor = decimalValue.movePointRight(scale)
+                .longValueExact();
+        } else {
+            scale = -1;
+            scaledDivisor = 0L;
+        }
     }
 
     @Override
@@ -63,9 +118,23 @@ public abstract class DivisorValidator
         throws ProcessingException
     {
         final JsonNode node = data.getInstance().getNode();
-        final BigDecimal instanceValue = node.decimalValue();
-        final BigDecimal decimalValue = number.decimalValue();
 
+        if (isMultiple(node))
+            return;
+
+        report.error(newMsg(data, bundle, "err.common.divisor.nonZeroRemainder")
+            .putArgument("value", node).putArgument("divisor", number));
+    }
+
+    private boolean isMultiple(final JsonNode node)
+    {
+        if (scale != -1) {
+            final long scaledInstance = scaledInstance(node);
+            if (scaledInstance != NOT_SCALABLE)
+                return scaledInstance % scaledDivisor == 0L;
+        }
+
+        final BigDecimal instanceValue = node.decimalValue();
         final BigDecimal remainder = instanceValue.remainder(decimalValue);
 
         /*
@@ -73,10 +142,61 @@ public abstract class DivisorValidator
          * "0" and "0.0" are NOT equal. But .compareTo() returns the correct
          * result.
          */
-        if (remainder.compareTo(BigDecimal.ZERO) == 0)
-            return;
+        return remainder.compareTo(BigDecimal.ZERO) == 0;
+    }
 
-        report.error(newMsg(data, bundle, "err.common.divisor.nonZeroRemainder")
-            .putArgument("value", node).putArgument("divisor", number));
+    /*
+     * Multiply the instance by ten to the power of the divisor's scale, and
+     * return the result if it is an exact long; return NOT_SCALABLE otherwise.
+     */
+    private long scaledInstance(final JsonNode node)
+    {
+        if (node.isIntegralNumber())
+            return node.canConvertToLong()
+                ? scale(node.longValue(), scale) : NOT_SCALABLE;
+
+        if (node.isBigDecimal())
+            return scaledDecimal(node.decimalValue());
+
+        /*
+         * Doubles (or floats): their value is that of their shortest decimal
+         * representation (see BigDecimal.valueOf(double)). If the scaled
+         * value is small enough, there is only one decimal number with the
+         * divisor's scale rounding to the double: if the scaled value rounds
+         * back to the double, this is it.
+         */
+        final double value = node.doubleValue();
+        final double power = DOUBLE_POWERS[scale];
+        final long ret = Math.round(value * power);
+
+        if (Math.abs(ret) >= MAX_SCALED_DOUBLE || ret / power != value)
+            return NOT_SCALABLE;
+
+        return ret;
+    }
+
+    private long scaledDecimal(final BigDecimal value)
+    {
+        int valueScale = value.scale();
+
+        if (valueScale < 0 || value.precision() > DivisorDigester.MAX_SCALE)
+            return NOT_SCALABLE;
+
+        long unscaled = value.unscaledValue().longValue();
+
+        while (valueScale > scale && unscaled % 10L == 0L) {
+            unscaled /= 10L;
+            valueScale--;
+        }
+
+        return valueScale > scale ? NOT_SCALABLE
+            : scale(unscaled, scale - valueScale);
+    }
+
+    private static long scale(final long value, final int scale)
+    {
+        final long max = Long.MAX_VALUE / LONG_POWERS[scale];
+        return value > max || value < -max ? NOT_SCALABLE
+            : value * LONG_POWERS[scale];
     }
 }
@@ -23,7 +23,14 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.github.fge.jackson.JacksonUtils;
 import com.github.fge.jackson.NodeType;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.processing.Processor;
+import com.github.fge.jsonschema.core.report.ListProcessingReport;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.core.tree.SchemaTree;
 import com.github.fge.jsonschema.keyword.validator.AbstractKeywordValidator;
+import com.github.fge.jsonschema.processors.data.FullData;
+import com.github.fge.msgsimple.bundle.MessageBundle;
 import com.google.common.collect.Lists;
 
 import java.util.EnumSet;
@@ -53,6 +60,49 @@ public abstract class DraftV3TypeKeywordValidator
             schemas.add(element.intValue());
     }
 
+    /**
+     * Return the branch selector for the schemas of this keyword
+     *
+     * <p>The selector is computed once per schema, and is not retained by
+     * this validator, which may be shared between schemas.</p>
+     *
+     * @param tree the schema tree
+     * @return the branch selector
+     * @see BranchSelector#ofDraftV3Schemas(SchemaTree, String, List)
+     */
+    protected final BranchSelector getSelector(final SchemaTree tree)
+    {
+        return BranchSelector.ofDraftV3Schemas(tree, keyword, schemas);
+    }
+
+    /**
+     * Validate an instance against one of the schemas of this keyword
+     *
+     * <p>This is the same as validating a branch of a schema array (see
+     * {@link SchemaArrayValidator#validateBranch(Processor, ProcessingReport,
+     * MessageBundle, FullData, BranchSelector, int)}): if the schema does not
+     * admit the type of the instance, it is not tried, and the report only
+     * contains a type mismatch error.</p>
+     *
+     * @param processor the processor to use
+     * @param report the main report
+     * @param bundle the message bundle to use
+     * @param data the validation data
+     * @param selector the branch selector
+     * @param index the branch index in the selector
+     * @return the report for this schema
+     * @throws ProcessingException processing failed
+     */
+    protected static ListProcessingReport validateSchema(
+        final Processor<FullData, FullData> processor,
+        final ProcessingReport report, final MessageBundle bundle,
+        final FullData data, final BranchSelector selector, final int index)
+        throws ProcessingException
+    {
+        return SchemaArrayValidator.validateBranch(processor, report, bundle,
+            data, selector, index);
+    }
+
     @Override
     public final String toString()
     {
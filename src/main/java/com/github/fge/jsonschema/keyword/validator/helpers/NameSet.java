@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.keyword.validator.helpers;
+
+import com.google.common.collect.ImmutableSet;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * An immutable set of property names with collision free lookups
+ *
+ * <p>Given the set of names, this class looks for a multiplicative hash
+ * function, and a table size, such that all names end up in a different slot
+ * of the table (in other words, a perfect hash). Looking up a name then only
+ * requires one multiplication, one shift and at most one string comparison.
+ * </p>
+ *
+ * <p>The table size is bounded relative to the number of names; if no perfect
+ * hash can be found within that bound (for large sets of names, or names with
+ * the same hash code), lookups are delegated to an {@link ImmutableSet}
+ * instead.</p>
+ */
+public final class NameSet
+{
+    /*
+     * Number of multipliers tried for each table size
+     */
+    private static final int TRIES = 32;
+
+    /*
+     * Minimum and maximum table sizes; the maximum is also bounded by the
+     * number of names (see below)
+     */
+    private static final int MIN_BITS = 1;
+    private static final int MAX_BITS = 16;
+
+    /*
+     * Table size to number of names ratio we are willing to pay for
+     */
+    private static final int MAX_RATIO = 16;
+
+    private static final int[] MULTIPLIERS = new int[TRIES];
+
+    static {
+        /*
+         * Odd multipliers derived from the golden ratio
+         */
+        int multiplier = 0x9e3779b9;
+        for (int i = 0; i < TRIES; i++) {
+            MULTIPLIERS[i] = multiplier | 1;
+            multiplier = multiplier * 0x01000193 + 0x7f4a7c15;
+        }
+    }
+
+    private final Set<String> names;
+    private final String[] table;
+    private final int multiplier;
+    private final int shift;
+
+    private NameSet(final Set<String> names, final String[] table,
+        final int multiplier, final int shift)
+    {
+        this.names = names;
+        this.table = table;
+        this.multiplier = multiplier;
+        this.shift = shift;
+    }
+
+    /**
+     * Build a set of names
+     *
+     * @param names the names
+     * @return a new set
+     */
+    public static NameSet of(final Collection<String> names)
+    {
+        final Set<String> set = ImmutableSet.copyOf(names);
+        final int size = set.size();
+        final long maxSize = Math.max(1L << 4, (long) size * MAX_RATIO);
+
+        String[] table;
+
+        for (int bits = MIN_BITS; bits <= MAX_BITS; bits++) {
+            if (1L << bits > maxSize)
+                break;
+            if (1 << bits < size)
+                continue;
+            table = new String[1 << bits];
+            for (final int multiplier: MULTIPLIERS)
+                if (fill(table, set, multiplier, 32 - bits))
+                    return new NameSet(set, table, multiplier, 32 - bits);
+        }
+
+        return new NameSet(set, null, 0, 0);
+    }
+
+    /**
+     * Tell whether a name belongs to this set
+     *
+     * @param name the name
+     * @return true if it does
+     */
+    public boolean contains(final String name)
+    {
+        if (table == null)
+            return names.contains(name);
+
+        final String candidate = table[name.hashCode() * multiplier >>> shift];
+        return candidate != null && candidate.equals(name);
+    }
+
+    /**
+     * Return the names in this set
+     *
+     * @return an immutable set
+     */
+    public Set<String> asSet()
+    {
+        return names;
+    }
+
+    private static boolean fill(final String[] table, final Set<String> names,
+        final int multiplier, final int shift)
+    {
+        Arrays.fill(table, null);
+
+        int index;
+        for (final String name: names) {
+            index = name.hashCode() * multiplier >>> shift;
+            if (table[index] != null)
+                return false;
+            table[index] = name;
+        }
+
+        return true;
+    }
+}
@@ -28,6 +28,8 @@ import com.github.fge.jsonschema.keyword.validator.AbstractKeywordValidator;
 import com.github.fge.jsonschema.processors.data.FullData;
 import com.github.fge.msgsimple.bundle.MessageBundle;
 
+import java.math.BigDecimal;
+
 /**
  * Helper class for keywords validating numeric values
  *
@@ -36,15 +38,36 @@ import com.github.fge.msgsimple.bundle.MessageBundle;
  * keyword value and instance fit exactly into a {@code long} (for performance
  * reasons), {@link #validateDecimal(ProcessingReport, MessageBundle, FullData)}
  * otherwise (for accuracy reasons).</p>
+ *
+ * <p>For the latter case, implementations should use {@link
+ * #compareWith(JsonNode)}, which avoids {@link BigDecimal} computations
+ * whenever the instance is a floating point number, or a reasonably sized
+ * integer, which compares unambiguously to the keyword value.</p>
  */
 public abstract class NumericValidator
     extends AbstractKeywordValidator
 {
+    /**
+     * Longs whose absolute value is lower than or equal to this are exact
+     * doubles
+     */
+    private static final long MAX_EXACT_LONG = 1L << 53;
+
     /**
      * The keyword value
      */
     protected final JsonNode number;
 
+    /**
+     * The keyword value, as a {@link BigDecimal}
+     */
+    protected final BigDecimal decimalValue;
+
+    /**
+     * The keyword value, rounded to the nearest {@code double}
+     */
+    private final double doubleValue;
+
     /**
      * Does the keyword value fits into a {@code long}?
      */
@@ -55,6 +78,8 @@ public abstract class NumericValidator
         super(keyword);
         number = digest.get(keyword);
         isLong = digest.get("valueIsLong").booleanValue();
+        decimalValue = number.decimalValue();
+        doubleValue = decimalValue.doubleValue();
     }
 
     @Override
@@ -96,6 +121,46 @@ public abstract class NumericValidator
         final MessageBundle bundle, final FullData data)
         throws ProcessingException;
 
+    /**
+     * Compare a numeric instance with the keyword value
+     *
+     * <p>The result is the same as comparing the {@link
+     * JsonNode#decimalValue()} of the instance with the keyword value.</p>
+     *
+     * <p>This first tries to compare both values as {@code double}s: as long
+     * as the instance is exactly a {@code double}, and as long as it is not
+     * equal to the keyword value rounded to the nearest {@code double}, the
+     * comparison of {@code double}s gives the correct result. {@link
+     * BigDecimal} is only used otherwise.</p>
+     *
+     * @param instance the instance
+     * @return a negative integer, zero or a positive integer if the instance
+     * is lower than, equal to or greater than the keyword value
+     */
+    protected final int compareWith(final JsonNode instance)
+    {
+        final double value;
+
+        if (instance.isDouble() || instance.isFloat())
+            value = instance.doubleValue();
+        else if (instance.canConvertToLong() && instance.isIntegralNumber()
+            && Math.abs(instance.longValue()) <= MAX_EXACT_LONG)
+            value = instance.longValue();
+        else
+            value = Double.NaN;
+
+        /*
+         * This will also fail if the instance value is NaN or infinite, or if
+         * the keyword value is too large for a double
+         */
+        if (value < doubleValue && !Double.isInfinite(value))
+            return -1;
+        if (value > doubleValue && !Double.isInfinite(value))
+            return 1;
+
+        return instance.decimalValue().compareTo(decimalValue);
+    }
+
     @Override
     public final String toString()
     {
@@ -105,7 +170,8 @@ public abstract class NumericValidator
     /**
      * Test whether a numeric instance is a long
      *
-     * <p>We use both a test on the instance type and Jackson's {@link
+     * <p>We use both a test on the instance type (which is cheaper than
+     * computing its {@link NodeType}) and Jackson's {@link
      * JsonNode#canConvertToLong()}. The first test is needed since the
      * latter method will also return true if the value is a decimal which
      * integral part fits into a long, and we don't want that.</p>
@@ -115,7 +181,6 @@ public abstract class NumericValidator
      */
     private static boolean valueIsLong(final JsonNode node)
     {
-        return NodeType.getNodeType(node) == NodeType.INTEGER
-            && node.canConvertToLong();
+        return node.isIntegralNumber() && node.canConvertToLong();
     }
 }
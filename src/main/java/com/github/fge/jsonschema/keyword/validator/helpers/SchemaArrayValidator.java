@@ -20,22 +20,133 @@
 package com.github.fge.jsonschema.keyword.validator.helpers;
 
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.github.fge.jackson.JacksonUtils;
+import com.github.fge.jackson.NodeType;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.processing.Processor;
+import com.github.fge.jsonschema.core.report.ListProcessingReport;
+import com.github.fge.jsonschema.core.report.LogLevel;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.core.tree.SchemaTree;
 import com.github.fge.jsonschema.keyword.validator.AbstractKeywordValidator;
+import com.github.fge.jsonschema.processors.data.FullData;
+import com.github.fge.msgsimple.bundle.MessageBundle;
+
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Helper validator class for keywords whose value is a schema array
+ *
+ * <p>This class provides a {@link BranchSelector} for the validated schema,
+ * and methods to validate one branch and to build the report of all branches
+ * (which is only needed on failure).</p>
  */
 public abstract class SchemaArrayValidator
     extends AbstractKeywordValidator
 {
     protected static final JsonNodeFactory FACTORY = JacksonUtils.nodeFactory();
 
+    /*
+     * Exception thresholds for which the first validation error aborts
+     * validation
+     */
+    private static final Set<LogLevel> FAIL_FAST_THRESHOLDS
+        = EnumSet.of(LogLevel.DEBUG, LogLevel.INFO, LogLevel.WARNING,
+            LogLevel.ERROR);
+
     protected SchemaArrayValidator(final String keyword)
     {
         super(keyword);
     }
 
+    /**
+     * Return the branch selector for a schema
+     *
+     * <p>The selector is computed once per schema, and is not retained by
+     * this validator, which may be shared between schemas.</p>
+     *
+     * @param tree the schema tree
+     * @return the branch selector
+     * @see BranchSelector#ofSchemaArray(SchemaTree, String)
+     */
+    protected final BranchSelector getSelector(final SchemaTree tree)
+    {
+        return BranchSelector.ofSchemaArray(tree, keyword);
+    }
+
+    /**
+     * Validate an instance against one branch
+     *
+     * <p>If the branch does not admit the type of the instance, it is not
+     * tried: the report then only contains a type mismatch error (see {@link
+     * BranchSelector#typeFailure(int, ProcessingReport, MessageBundle,
+     * FullData)}).</p>
+     *
+     * @param processor the processor to use
+     * @param report the main report
+     * @param bundle the message bundle to use
+     * @param data the validation data
+     * @param selector the branch selector
+     * @param index the branch index
+     * @return the report for this branch
+     * @throws ProcessingException processing failed
+     */
+    protected static ListProcessingReport validateBranch(
+        final Processor<FullData, FullData> processor,
+        final ProcessingReport report, final MessageBundle bundle,
+        final FullData data, final BranchSelector selector, final int index)
+        throws ProcessingException
+    {
+        final NodeType type
+            = NodeType.getNodeType(data.getInstance().getNode());
+        if (!selector.admits(index, type))
+            return selector.typeFailure(index, report, bundle, data);
+
+        final ListProcessingReport subReport
+            = new ListProcessingReport(report.getLogLevel(), LogLevel.FATAL);
+        processor.process(subReport,
+            data.withSchema(data.getSchema().setPointer(
+                selector.getPointer(index))));
+        return subReport;
+    }
+
+    /**
+     * Tell whether the first validation error aborts validation
+     *
+     * <p>This is the case if the exception threshold of the report is at or
+     * below {@link LogLevel#ERROR}.</p>
+     *
+     * @param report the report
+     * @return true if the first validation error raises an exception
+     */
+    protected static boolean isFailFast(final ProcessingReport report)
+    {
+        return FAIL_FAST_THRESHOLDS.contains(report.getExceptionThreshold());
+    }
+
+    /**
+     * Build the report of all validated branches, in branch order
+     *
+     * @param selector the branch selector
+     * @param reports the branch reports; null for branches not validated
+     * @return the full report
+     */
+    protected static ObjectNode fullReport(final BranchSelector selector,
+        final ListProcessingReport[] reports)
+    {
+        final ObjectNode ret = FACTORY.objectNode();
+        final int size = reports.length;
+
+        for (int index = 0; index < size; index++)
+            if (reports[index] != null)
+                ret.set(selector.getPointer(index).toString(),
+                    reports[index].asJson());
+
+        return ret;
+    }
+
     @Override
     public final String toString()
     {
@@ -23,6 +23,7 @@ import com.github.fge.jsonschema.core.util.Dictionary;
 import com.github.fge.jsonschema.core.util.DictionaryBuilder;
 import com.github.fge.jsonschema.format.FormatAttribute;
 import com.github.fge.jsonschema.format.extra.Base64FormatAttribute;
+import com.github.fge.jsonschema.format.extra.Base64UrlFormatAttribute;
 import com.github.fge.jsonschema.format.extra.JsonPointerFormatAttribute;
 import com.github.fge.jsonschema.format.extra.MD5FormatAttribute;
 import com.github.fge.jsonschema.format.extra.MacAddressFormatAttribute;
@@ -50,6 +51,10 @@ public final class ExtraFormatsDictionary
         attribute = Base64FormatAttribute.getInstance();
         builder.addEntry(name, attribute);
 
+        name = "base64url";
+        attribute = Base64UrlFormatAttribute.getInstance();
+        builder.addEntry(name, attribute);
+
         name = "json-pointer";
         attribute = JsonPointerFormatAttribute.getInstance();
         builder.addEntry(name, attribute);
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.main;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.github.fge.jackson.JacksonUtils;
+import com.github.fge.jsonschema.messages.JsonSchemaConfigurationBundle;
+import com.github.fge.msgsimple.bundle.MessageBundle;
+import com.github.fge.msgsimple.load.MessageBundles;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reader of newline delimited JSON (NDJSON, or JSON Lines) records
+ *
+ * <p>A record is a non blank line of the input. Blank lines are skipped, but
+ * are counted in line numbers. The input is streamed, and is never held in
+ * memory as a whole.</p>
+ *
+ * <p>Records are read as text; {@link #parse(String)} reads a record as a
+ * JSON value. This is left to the caller, so that records may be parsed
+ * concurrently.</p>
+ *
+ * <p>This is the reader used both by {@link JsonLinesValidator} and by the
+ * command line for {@code .ndjson} and {@code .jsonl} inputs.</p>
+ */
+@NotThreadSafe
+public final class JsonLinesReader
+    implements Closeable
+{
+    private static final MessageBundle BUNDLE
+        = MessageBundles.getBundle(JsonSchemaConfigurationBundle.class);
+
+    /*
+     * Unlike ObjectMapper.readTree(), this reader fails if a value is
+     * followed by anything else than whitespace
+     */
+    private static final ObjectReader READER = JacksonUtils.newMapper()
+        .reader().with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final BufferedReader reader;
+    private long lineNumber = 0L;
+
+    /**
+     * Constructor for an UTF-8 encoded input
+     *
+     * @param in the input
+     * @throws NullPointerException input is null
+     */
+    public JsonLinesReader(final InputStream in)
+    {
+        this(new InputStreamReader(BUNDLE.checkNotNull(in, "nullInput"),
+            StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Constructor
+     *
+     * <p>The reader is buffered if it isn't already.</p>
+     *
+     * @param in the input
+     * @throws NullPointerException input is null
+     */
+    public JsonLinesReader(final Reader in)
+    {
+        BUNDLE.checkNotNull(in, "nullInput");
+        reader = in instanceof BufferedReader ? (BufferedReader) in
+            : new BufferedReader(in, BUFFER_SIZE);
+    }
+
+    /**
+     * Read the next record
+     *
+     * @return the record, or null if the input is exhausted
+     * @throws IOException failed to read from the input
+     */
+    @Nullable
+    public String nextRecord()
+        throws IOException
+    {
+        String line;
+
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (!line.trim().isEmpty())
+                return line;
+        }
+
+        return null;
+    }
+
+    /**
+     * Return the line number of the last record read
+     *
+     * <p>Line numbers start at 1; this returns 0 if no line was read yet.</p>
+     *
+     * @return the line number
+     */
+    public long getLineNumber()
+    {
+        return lineNumber;
+    }
+
+    /**
+     * Read a record as a JSON value
+     *
+     * <p>The record must contain exactly one JSON value, optionally
+     * surrounded with whitespace.</p>
+     *
+     * @param record the record
+     * @return the JSON value
+     * @throws JsonProcessingException the record is not a single JSON value
+     * @throws NullPointerException record is null
+     */
+    public static JsonNode parse(final String record)
+        throws JsonProcessingException
+    {
+        BUNDLE.checkNotNull(record, "nullInput");
+        return READER.readTree(record);
+    }
+
+    /**
+     * Close the underlying input
+     *
+     * @throws IOException failed to close the input
+     */
+    @Override
+    public void close()
+        throws IOException
+    {
+        reader.close();
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.main;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.fge.jackson.JacksonUtils;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summary of a run of a {@link JsonLinesValidator}
+ *
+ * <p>Blank lines are not counted as records.</p>
+ */
+@Immutable
+public final class JsonLinesSummary
+{
+    private final long records;
+    private final long valid;
+    private final long nanos;
+
+    JsonLinesSummary(final long records, final long valid, final long nanos)
+    {
+        this.records = records;
+        this.valid = valid;
+        this.nanos = nanos;
+    }
+
+    /**
+     * Return the number of records read
+     *
+     * @return the number of records
+     */
+    public long getRecords()
+    {
+        return records;
+    }
+
+    /**
+     * Return the number of valid records
+     *
+     * @return the number of valid records
+     */
+    public long getValid()
+    {
+        return valid;
+    }
+
+    /**
+     * Return the number of invalid records
+     *
+     * @return the number of invalid records, including malformed lines
+     */
+    public long getInvalid()
+    {
+        return records - valid;
+    }
+
+    /**
+     * Return the duration of the run
+     *
+     * @param unit the time unit
+     * @return the duration, in this time unit
+     */
+    public long getDuration(final TimeUnit unit)
+    {
+        return unit.convert(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Return the throughput of the run
+     *
+     * @return the number of records validated per second
+     */
+    public double getRecordsPerSecond()
+    {
+        return nanos == 0L ? 0.0
+            : (double) records * TimeUnit.SECONDS.toNanos(1L) / nanos;
+    }
+
+    /**
+     * Return this summary as JSON
+     *
+     * @return a JSON object
+     */
+    public JsonNode asJson()
+    {
+        final ObjectNode ret = JacksonUtils.nodeFactory().objectNode();
+        ret.put("records", records);
+        ret.put("valid", valid);
+        ret.put("invalid", getInvalid());
+        ret.put("millis", getDuration(TimeUnit.MILLISECONDS));
+        ret.put("recordsPerSecond", Math.round(getRecordsPerSecond()));
+        return ret;
+    }
+
+    @Override
+    public String toString()
+    {
+        return asJson().toString();
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.main;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.fge.jackson.JacksonUtils;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.LogLevel;
+import com.github.fge.jsonschema.core.report.ProcessingMessage;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.messages.JsonSchemaConfigurationBundle;
+import com.github.fge.jsonschema.messages.JsonSchemaValidationBundle;
+import com.github.fge.msgsimple.bundle.MessageBundle;
+import com.github.fge.msgsimple.load.MessageBundles;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Bulk validation of newline delimited JSON (NDJSON, or JSON Lines)
+ *
+ * <p>Each record of the input, as read by a {@link JsonLinesReader}, is
+ * validated against a single {@link JsonSchema}. For each record, a compact
+ * JSON object is written to the output, on a line of its own:</p>
+ *
+ * <pre>
+ *     {"line":3,"valid":false,"errors":[...]}
+ * </pre>
+ *
+ * <p>where {@code errors} holds at most the first {@code maxErrors} messages
+ * with level {@link LogLevel#ERROR} or higher; it is empty for valid lines.
+ * A line which is not a single JSON value is reported as invalid, with a
+ * single fatal message.</p>
+ *
+ * <p>Once the input is exhausted, a {@link JsonLinesSummary} is returned.</p>
+ */
+@ThreadSafe
+public final class JsonLinesValidator
+{
+    private static final MessageBundle BUNDLE
+        = MessageBundles.getBundle(JsonSchemaConfigurationBundle.class);
+    private static final MessageBundle VALIDATION_BUNDLE
+        = MessageBundles.getBundle(JsonSchemaValidationBundle.class);
+
+    private static final JsonNodeFactory FACTORY = JacksonUtils.nodeFactory();
+
+    private final JsonSchema schema;
+    private final int maxErrors;
+
+    /**
+     * Constructor
+     *
+     * @param schema the schema to validate lines against
+     * @param maxErrors the maximum number of errors reported per line
+     * @throws NullPointerException schema is null
+     * @throws IllegalArgumentException maxErrors is negative
+     */
+    public JsonLinesValidator(final JsonSchema schema, final int maxErrors)
+    {
+        BUNDLE.checkNotNull(schema, "nullSchema");
+        BUNDLE.checkArgument(maxErrors >= 0, "invalidMaxErrors");
+        this.schema = schema;
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Validate an UTF-8 encoded input
+     *
+     * @param in the input
+     * @param out where per line results are written
+     * @return the summary of this run
+     * @throws IOException failed to read from the input or write the output
+     * @throws ProcessingException validation failed with an exception
+     * @see #validate(Reader, Appendable)
+     */
+    public JsonLinesSummary validate(final InputStream in,
+        final Appendable out)
+        throws IOException, ProcessingException
+    {
+        BUNDLE.checkNotNull(in, "nullInput");
+        return validate(new InputStreamReader(in, StandardCharsets.UTF_8),
+            out);
+    }
+
+    /**
+     * Validate an input
+     *
+     * <p>The reader is buffered if it isn't already. It is not closed.</p>
+     *
+     * @see JsonLinesReader
+     *
+     * @param in the input
+     * @param out where per line results are written
+     * @return the summary of this run
+     * @throws IOException failed to read from the input or write the output
+     * @throws ProcessingException validation failed with an exception
+     */
+    public JsonLinesSummary validate(final Reader in, final Appendable out)
+        throws IOException, ProcessingException
+    {
+        BUNDLE.checkNotNull(in, "nullInput");
+        BUNDLE.checkNotNull(out, "nullOutput");
+
+        final JsonLinesReader reader = new JsonLinesReader(in);
+        final long start = System.nanoTime();
+
+        long records = 0L, valid = 0L;
+        String record;
+        ObjectNode result;
+
+        while ((record = reader.nextRecord()) != null) {
+            records++;
+            result = validateRecord(record)
+                .put("line", reader.getLineNumber());
+            if (result.get("valid").booleanValue())
+                valid++;
+            out.append(result.toString()).append('\n');
+        }
+
+        return new JsonLinesSummary(records, valid,
+            System.nanoTime() - start);
+    }
+
+    private ObjectNode validateRecord(final String record)
+        throws ProcessingException
+    {
+        final ObjectNode ret = FACTORY.objectNode();
+        /*
+         * Make "line" the first member
+         */
+        ret.putNull("line");
+        final ArrayNode errors = FACTORY.arrayNode();
+
+        final JsonNode node;
+        try {
+            node = JsonLinesReader.parse(record);
+        } catch (JsonProcessingException e) {
+            if (maxErrors > 0)
+                errors.add(new ProcessingMessage()
+                    .setLogLevel(LogLevel.FATAL)
+                    .setMessage(VALIDATION_BUNDLE.printf(
+                        "err.lines.invalidJson", e.getOriginalMessage()))
+                    .asJson());
+            ret.put("valid", false);
+            ret.set("errors", errors);
+            return ret;
+        }
+
+        final ProcessingReport report = schema.validate(node);
+        for (final ProcessingMessage message: report) {
+            if (errors.size() >= maxErrors)
+                break;
+            if (message.getLogLevel().compareTo(LogLevel.ERROR) >= 0)
+                errors.add(message.asJson());
+        }
+        ret.put("valid", report.isSuccess());
+        ret.set("errors", errors);
+        return ret;
+    }
+}
@@ -37,11 +37,15 @@ import com.github.fge.jsonschema.core.ref.JsonRef;
 import com.github.fge.jsonschema.core.report.ReportProvider;
 import com.github.fge.jsonschema.library.Library;
 import com.github.fge.jsonschema.messages.JsonSchemaConfigurationBundle;
+import com.github.fge.jsonschema.metrics.MeteredProcessors;
+import com.github.fge.jsonschema.metrics.NoOpValidationMetrics;
+import com.github.fge.jsonschema.metrics.ValidationMetrics;
 import com.github.fge.jsonschema.processors.data.FullData;
 import com.github.fge.jsonschema.processors.data.SchemaContext;
 import com.github.fge.jsonschema.processors.data.ValidatorList;
 import com.github.fge.jsonschema.processors.syntax.SyntaxValidator;
 import com.github.fge.jsonschema.processors.validation.SchemaContextEquivalence;
+import com.github.fge.jsonschema.processors.validation.SchemaLinker;
 import com.github.fge.jsonschema.processors.validation.ValidationChain;
 import com.github.fge.jsonschema.processors.validation.ValidationProcessor;
 import com.github.fge.msgsimple.bundle.MessageBundle;
@@ -138,8 +142,11 @@ public final class JsonSchemaFactory
         loader = new SchemaLoader(loadingCfg);
         final Processor<SchemaContext, ValidatorList> processor
             = buildProcessor();
+        final SchemaLinker linker = validationCfg.getRefLinkingThreads() == 0
+            ? null : new SchemaLinker(loader, validationCfg);
         validator = new JsonValidator(loader,
-            new ValidationProcessor(validationCfg, processor), reportProvider);
+            new ValidationProcessor(validationCfg, processor), reportProvider,
+            linker);
         syntaxValidator = new SyntaxValidator(validationCfg);
     }
 
@@ -171,7 +178,8 @@ public final class JsonSchemaFactory
      *
      * @param schema the schema
      * @return a {@link JsonSchema}
-     * @throws ProcessingException schema is a {@link MissingNode}
+     * @throws ProcessingException schema is a {@link MissingNode}, or linking
+     * JSON References failed
      * @throws NullPointerException schema is null
      */
     public JsonSchema getJsonSchema(final JsonNode schema)
@@ -191,7 +199,8 @@ public final class JsonSchemaFactory
      * @param ptr a JSON Pointer as a string
      * @return a {@link JsonSchema}
      * @throws ProcessingException {@code ptr} is not a valid JSON Pointer, or
-     * resolving the pointer against the schema leads to a {@link MissingNode}
+     * resolving the pointer against the schema leads to a {@link MissingNode},
+     * or linking JSON References failed
      * @throws NullPointerException schema is null, or pointer is null
      */
     public JsonSchema getJsonSchema(final JsonNode schema, final String ptr)
@@ -214,7 +223,8 @@ public final class JsonSchemaFactory
      *
      * @param uri the URI
      * @return a {@link JsonSchema}
-     * @throws ProcessingException failed to load from this URI
+     * @throws ProcessingException failed to load from this URI, or linking
+     * JSON References failed
      * @throws NullPointerException URI is null
      */
     public JsonSchema getJsonSchema(final String uri)
@@ -272,9 +282,18 @@ public final class JsonSchemaFactory
             map.addEntry(ref, chain);
         }
 
-        final Processor<SchemaContext, ValidatorList> processor
-            = map.getProcessor();
-        return new CachingProcessor<SchemaContext, ValidatorList>(processor,
+        final ValidationMetrics metrics = validationCfg.getValidationMetrics();
+        final boolean metered
+            = metrics != NoOpValidationMetrics.getInstance();
+
+        Processor<SchemaContext, ValidatorList> processor = map.getProcessor();
+        if (metered)
+            processor = MeteredProcessors.countMisses(processor, "validators",
+                metrics);
+        processor = new CachingProcessor<SchemaContext, ValidatorList>(processor,
             SchemaContextEquivalence.getInstance(), validationCfg.getCacheSize());
+        return metered
+            ? MeteredProcessors.countLookups(processor, "validators", metrics)
+            : processor;
     }
 }
@@ -29,8 +29,12 @@ import com.github.fge.jsonschema.core.report.ProcessingReport;
 import com.github.fge.jsonschema.core.report.ReportProvider;
 import com.github.fge.jsonschema.core.tree.SchemaTree;
 import com.github.fge.jsonschema.core.tree.SimpleJsonTree;
+import com.github.fge.jsonschema.messages.JsonSchemaConfigurationBundle;
 import com.github.fge.jsonschema.processors.data.FullData;
+import com.github.fge.jsonschema.processors.validation.ValidationMemo;
 import com.github.fge.jsonschema.processors.validation.ValidationProcessor;
+import com.github.fge.msgsimple.bundle.MessageBundle;
+import com.github.fge.msgsimple.load.MessageBundles;
 
 import javax.annotation.concurrent.Immutable;
 
@@ -45,8 +49,11 @@ import javax.annotation.concurrent.Immutable;
  * {@link JsonSchemaFactory} to obtain an instance of this class.</p>
  */
 @Immutable
-final class JsonSchemaImpl implements JsonSchema
+final class JsonSchemaImpl implements RevalidatingJsonSchema
 {
+    private static final MessageBundle BUNDLE
+        = MessageBundles.getBundle(JsonSchemaConfigurationBundle.class);
+
     private final ValidationProcessor processor;
     private final SchemaTree schema;
     private final ReportProvider reportProvider;
@@ -78,6 +85,17 @@ final class JsonSchemaImpl implements JsonSchema
         return result.getReport();
     }
 
+    private ValidationState doValidate(final JsonNode node,
+        final boolean deepCheck, final ValidationMemo memo)
+        throws ProcessingException
+    {
+        final FullData data = new FullData(schema, new SimpleJsonTree(node),
+            deepCheck);
+        final ProcessingReport report = reportProvider.newReport();
+        processor.process(report, data, memo);
+        return new ValidationState(schema, deepCheck, memo, report);
+    }
+
     private ProcessingReport doValidateUnchecked(final JsonNode node,
         final boolean deepCheck)
     {
@@ -147,4 +165,30 @@ final class JsonSchemaImpl implements JsonSchema
     {
         return doValidateUnchecked(instance, false).isSuccess();
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ValidationState validateWithState(final JsonNode instance,
+        final boolean deepCheck)
+        throws ProcessingException
+    {
+        return doValidate(instance, deepCheck, new ValidationMemo());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ValidationState revalidate(final ValidationState previous,
+        final JsonNode instance, final JsonNode patch)
+        throws ProcessingException
+    {
+        BUNDLE.checkArgument(previous.getSchema() == schema,
+            "foreignValidationState");
+        final ValidationMemo memo
+            = previous.getMemo().afterPatch(patch, instance);
+        return doValidate(instance, previous.isDeepCheck(), memo);
+    }
 }
@@ -36,10 +36,12 @@ import com.github.fge.jsonschema.core.tree.JsonTree;
 import com.github.fge.jsonschema.core.tree.SchemaTree;
 import com.github.fge.jsonschema.core.tree.SimpleJsonTree;
 import com.github.fge.jsonschema.processors.data.FullData;
+import com.github.fge.jsonschema.processors.validation.SchemaLinker;
 import com.github.fge.jsonschema.processors.validation.ValidationProcessor;
 import com.github.fge.msgsimple.bundle.MessageBundle;
 import com.github.fge.msgsimple.load.MessageBundles;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 
 /**
@@ -62,6 +64,8 @@ public final class JsonValidator
     private final SchemaLoader loader;
     private final ValidationProcessor processor;
     private final ReportProvider reportProvider;
+    @Nullable
+    private final SchemaLinker linker;
 
     /**
      * Package private (and only) constructor
@@ -69,14 +73,17 @@ public final class JsonValidator
      * @param loader the schema loader
      * @param processor the validation processor
      * @param reportProvider the report provider
+     * @param linker the JSON Reference linker, if references are linked
      */
     JsonValidator(final SchemaLoader loader,
         final ValidationProcessor processor,
-        final ReportProvider reportProvider)
+        final ReportProvider reportProvider,
+        @Nullable final SchemaLinker linker)
     {
         this.loader = loader;
         this.processor = processor;
         this.reportProvider = reportProvider;
+        this.linker = linker;
     }
 
     /**
@@ -178,7 +185,7 @@ public final class JsonValidator
      * @param pointer the pointer into the schema
      * @return a new {@link JsonSchema}
      * @throws ProcessingException resolving the pointer against the schema
-     * leads to a {@link MissingNode}
+     * leads to a {@link MissingNode}, or linking JSON References failed
      * @throws NullPointerException the schema or pointer is null
      */
     JsonSchema buildJsonSchema(final JsonNode schema, final JsonPointer pointer)
@@ -188,7 +195,7 @@ public final class JsonValidator
         if (tree.getNode().isMissingNode())
             throw new JsonReferenceException(new ProcessingMessage()
                 .setMessage(BUNDLE.getMessage("danglingRef")));
-        return new JsonSchemaImpl(processor, tree, reportProvider);
+        return newJsonSchema(tree);
     }
 
     /**
@@ -197,7 +204,7 @@ public final class JsonValidator
      * @param uri the URI to load the schema from
      * @return a {@link JsonSchema}
      * @throws ProcessingException invalid URI, or URI did not resolve to a
-     * JSON Schema
+     * JSON Schema, or linking JSON References failed
      * @throws NullPointerException URI is null
      */
     JsonSchema buildJsonSchema(final String uri)
@@ -212,7 +219,16 @@ public final class JsonValidator
         if (tree.getNode().isMissingNode())
             throw new JsonReferenceException(new ProcessingMessage()
                 .setMessage(BUNDLE.getMessage("danglingRef")));
-        return new JsonSchemaImpl(processor, tree, reportProvider);
+        return newJsonSchema(tree);
+    }
+
+    private JsonSchema newJsonSchema(final SchemaTree tree)
+        throws ProcessingException
+    {
+        final ValidationProcessor schemaProcessor = linker == null
+            ? processor.newSchemaProcessor()
+            : processor.newSchemaProcessor(linker.link(tree));
+        return new JsonSchemaImpl(schemaProcessor, tree, reportProvider);
     }
 
     /**
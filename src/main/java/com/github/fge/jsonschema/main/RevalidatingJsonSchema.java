@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.main;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+
+/**
+ * Single-schema instance validator able to validate patched instances again
+ *
+ * <p>All {@link JsonSchema} instances returned by {@link JsonSchemaFactory}
+ * implement this interface; cast them to use it. It is kept separate from
+ * {@link JsonSchema} so that existing implementations of that interface need
+ * not change.</p>
+ */
+public interface RevalidatingJsonSchema
+    extends JsonSchema
+{
+    /**
+     * Validate an instance, and retain what is needed to validate it again
+     *
+     * @param instance the instance to validate
+     * @param deepCheck validate children even if container (array, object) is
+     * invalid
+     * @return the validation state, including the report
+     * @throws ProcessingException a processing error occurred during validation
+     *
+     * @see #revalidate(ValidationState, JsonNode, JsonNode)
+     */
+    ValidationState validateWithState(JsonNode instance, boolean deepCheck)
+            throws ProcessingException;
+
+    /**
+     * Validate again an instance modified by a JSON Patch
+     *
+     * <p>The patch must already have been applied to the instance; it is only
+     * used to find out which parts of the instance need to be validated
+     * again. The report in the returned state is the same as what {@link
+     * #validate(JsonNode, boolean)} would have produced for the patched
+     * instance.</p>
+     *
+     * @param previous the state of the previous validation of the instance
+     * @param instance the instance, after the patch has been applied
+     * @param patch the JSON Patch (RFC 6902)
+     * @return the new validation state
+     * @throws ProcessingException a processing error occurred during validation
+     * @throws IllegalArgumentException the previous state was not produced by
+     * this schema, or the patch is not a valid JSON Patch
+     */
+    ValidationState revalidate(ValidationState previous, JsonNode instance,
+        JsonNode patch)
+            throws ProcessingException;
+}
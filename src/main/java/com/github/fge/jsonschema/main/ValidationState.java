@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.main;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.core.tree.SchemaTree;
+import com.github.fge.jsonschema.processors.validation.ValidationMemo;
+
+/**
+ * The outcome of a validation, retaining what is needed to validate again
+ *
+ * <p>Instances of this class are produced by {@link
+ * RevalidatingJsonSchema#validateWithState(JsonNode, boolean)}, and can then
+ * be handed to {@link RevalidatingJsonSchema#revalidate(ValidationState,
+ * JsonNode, JsonNode)} once the instance has been modified by a JSON Patch:
+ * only the parts of the instance which the patch has touched are then
+ * validated again.</p>
+ *
+ * <p>A state can be handed to {@link
+ * RevalidatingJsonSchema#revalidate(ValidationState, JsonNode, JsonNode)} more
+ * than once; however, it cannot be shared between threads.</p>
+ */
+public final class ValidationState
+{
+    private final SchemaTree schema;
+    private final boolean deepCheck;
+    private final ValidationMemo memo;
+    private final ProcessingReport report;
+
+    ValidationState(final SchemaTree schema, final boolean deepCheck,
+        final ValidationMemo memo, final ProcessingReport report)
+    {
+        this.schema = schema;
+        this.deepCheck = deepCheck;
+        this.memo = memo;
+        this.report = report;
+    }
+
+    /**
+     * Return the report of this validation
+     *
+     * @return a processing report
+     */
+    public ProcessingReport getReport()
+    {
+        return report;
+    }
+
+    SchemaTree getSchema()
+    {
+        return schema;
+    }
+
+    boolean isDeepCheck()
+    {
+        return deepCheck;
+    }
+
+    ValidationMemo getMemo()
+    {
+        return memo;
+    }
+}
@@ -38,6 +38,8 @@ final class CustomHelpFormatter
         "Syntax:",
         "    java -jar jsonschema.jar [options] schema file [file...]",
         "    java -jar jsonschema.jar --syntax [options] schema [schema...]",
+        "    java -jar jsonschema.jar --bundle file [options] schema",
+        "    java -jar jsonschema.jar --lines file [options] schema",
         "",
         "Options: "
     );
@@ -57,6 +59,21 @@ final class CustomHelpFormatter
         .add("current working directory plus the filename. If your schemas")
         .add("all have a common URI prefix in a top level \"id\", you can fake")
         .add("that the current directory is that prefix using --fakeroot.")
+        .add("")
+        .add("A schema and all schemas it references can be written to a")
+        .add("bundle file using --bundle; use --preload with this file to")
+        .add("validate without downloading any schema.")
+        .add("")
+        .add("Files to check may also be directories, which are searched")
+        .add("recursively for .json, .ndjson and .jsonl files, or quoted glob")
+        .add("patterns. Files with a .ndjson or .jsonl extension contain one")
+        .add("JSON value per line; each line is checked separately. Output is")
+        .add("in argument order whatever the number of --jobs.")
+        .add("")
+        .add("With --lines, each line of the file is validated against the")
+        .add("schema and a JSON object with the line number, the validation")
+        .add("status and the first errors is written per line; a summary,")
+        .add("including throughput, is written to stderr at the end.")
         .build();
 
     private static final String LINE_SEPARATOR
@@ -85,7 +102,8 @@ final class CustomHelpFormatter
             sb = new StringBuilder().append("    ")
                 .append(optionsToString(names));
             if (descriptor.requiresArgument())
-                sb.append(" uri");
+                sb.append(' ').append(descriptor.argumentDescription()
+                    .isEmpty() ? "uri" : descriptor.argumentDescription());
             sb.append(": ").append(descriptor.description());
             if (names.contains("help"))
                 lines.add(helpIndex, sb.toString());
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.main.cli;
+
+import com.google.common.base.CharMatcher;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Expansion of command line arguments into input files
+ *
+ * <p>An argument may be a plain file, a directory or a glob pattern (for
+ * shells which do not expand them, or when the expansion would exceed the
+ * command line length limit). Directories are walked recursively, and all
+ * files with a {@code .json}, {@code .ndjson} or {@code .jsonl} extension are
+ * retained; glob patterns are matched using {@link PathMatcher} syntax.</p>
+ *
+ * <p>In all cases, the expanded file list is sorted so that the output of the
+ * command line is the same from one run to the next.</p>
+ */
+final class Inputs
+{
+    private static final CharMatcher GLOB_CHARS = CharMatcher.anyOf("*?[{");
+
+    private static final Set<String> RECORD_EXTENSIONS
+        = ImmutableSet.of(".ndjson", ".jsonl");
+
+    private static final Set<String> EXTENSIONS
+        = ImmutableSet.<String>builder().add(".json")
+        .addAll(RECORD_EXTENSIONS).build();
+
+    private Inputs()
+    {
+    }
+
+    /**
+     * Expand all command line arguments
+     *
+     * <p>If the first argument is a schema, it is kept as is; all other
+     * arguments are expanded. Note that the result may hold no input at all,
+     * for instance if an argument is an empty directory.</p>
+     *
+     * @param arguments the arguments
+     * @param firstIsSchema whether the first argument is a schema
+     * @return the list of files, in argument order
+     * @throws IOException failed to walk a directory
+     * @see #expand(String)
+     */
+    static List<File> expandAll(final List<String> arguments,
+        final boolean firstIsSchema)
+        throws IOException
+    {
+        final List<File> ret = Lists.newArrayList();
+
+        for (final String argument: arguments)
+            if (ret.isEmpty() && firstIsSchema)
+                ret.add(new File(argument).getCanonicalFile());
+            else
+                ret.addAll(expand(argument));
+
+        return ret;
+    }
+
+    /**
+     * Expand one command line argument
+     *
+     * <p>An argument which is neither a directory nor a glob pattern matching
+     * at least one file is returned as is; it is then up to the caller to
+     * report that it does not exist, if it doesn't.</p>
+     *
+     * @param argument the argument
+     * @return the list of files, sorted
+     * @throws IOException failed to walk a directory
+     */
+    static List<File> expand(final String argument)
+        throws IOException
+    {
+        final File file = new File(argument).getAbsoluteFile();
+
+        if (file.isDirectory())
+            return walk(file.getCanonicalFile(), Integer.MAX_VALUE,
+                new PathMatcher()
+                {
+                    @Override
+                    public boolean matches(final Path path)
+                    {
+                        return hasExtension(path.toFile(), EXTENSIONS);
+                    }
+                });
+
+        if (file.exists() || GLOB_CHARS.matchesNoneOf(argument))
+            return ImmutableList.of(file.getCanonicalFile());
+
+        final List<File> ret = glob(file.getPath());
+        return ret.isEmpty() ? ImmutableList.of(file) : ret;
+    }
+
+    /**
+     * Tell whether a file is a stream of JSON records, one per line
+     *
+     * @param file the file
+     * @return true if the file has a {@code .ndjson} or {@code .jsonl}
+     * extension
+     */
+    static boolean isRecordStream(final File file)
+    {
+        return hasExtension(file, RECORD_EXTENSIONS);
+    }
+
+    private static boolean hasExtension(final File file,
+        final Set<String> extensions)
+    {
+        final String name = file.getName();
+        final int index = name.lastIndexOf('.');
+        return index != -1 && extensions.contains(name.substring(index));
+    }
+
+    private static List<File> glob(final String pattern)
+        throws IOException
+    {
+        /*
+         * Only walk from the deepest directory with no glob characters, and
+         * no deeper than the pattern itself unless it contains "**"
+         */
+        final int index = GLOB_CHARS.indexIn(pattern);
+        final int sep = pattern.lastIndexOf(File.separatorChar, index);
+        final File base = new File(pattern.substring(0, sep + 1));
+        final String rest = pattern.substring(sep + 1);
+        final int depth = rest.contains("**") ? Integer.MAX_VALUE
+            : CharMatcher.is(File.separatorChar).countIn(rest) + 1;
+
+        if (!base.isDirectory())
+            return ImmutableList.of();
+
+        return walk(base, depth, FileSystems.getDefault()
+            .getPathMatcher("glob:" + pattern));
+    }
+
+    private static List<File> walk(final File dir, final int depth,
+        final PathMatcher matcher)
+        throws IOException
+    {
+        final List<File> ret = Lists.newArrayList();
+
+        Files.walkFileTree(dir.toPath(), EnumSet.noneOf(FileVisitOption.class),
+            depth, new SimpleFileVisitor<Path>()
+            {
+                @Override
+                public FileVisitResult visitFile(final Path file,
+                    final BasicFileAttributes attrs)
+                {
+                    if (attrs.isRegularFile() && matcher.matches(file))
+                        ret.add(file.toFile());
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+
+        Collections.sort(ret);
+        return ret;
+    }
+}
@@ -19,25 +19,42 @@
 
 package com.github.fge.jsonschema.main.cli;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.fge.jackson.JacksonUtils;
+import com.github.fge.jsonschema.cfg.SchemaBundle;
+import com.github.fge.jsonschema.cfg.ValidationConfiguration;
 import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.load.configuration.LoadingConfiguration;
+import com.github.fge.jsonschema.core.load.configuration.LoadingConfigurationBuilder;
 import com.github.fge.jsonschema.core.load.uri.URITranslatorConfiguration;
 import com.github.fge.jsonschema.core.load.uri.URITranslatorConfigurationBuilder;
 import com.github.fge.jsonschema.core.util.URIUtils;
+import com.github.fge.jsonschema.main.JsonLinesReader;
+import com.github.fge.jsonschema.main.JsonLinesSummary;
+import com.github.fge.jsonschema.main.JsonLinesValidator;
 import com.github.fge.jsonschema.main.JsonSchema;
 import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import com.github.fge.jsonschema.messages.JsonSchemaValidationBundle;
 import com.github.fge.jsonschema.processors.syntax.SyntaxValidator;
-import com.google.common.collect.Lists;
+import com.github.fge.msgsimple.bundle.MessageBundle;
+import com.github.fge.msgsimple.load.MessageBundles;
 import joptsimple.HelpFormatter;
 import joptsimple.OptionException;
 import joptsimple.OptionParser;
 import joptsimple.OptionSet;
 
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.List;
 
@@ -47,8 +64,14 @@ public final class Main
 {
     private static final HelpFormatter HELP = new CustomHelpFormatter();
 
+    private static final MessageBundle BUNDLE
+        = MessageBundles.getBundle(JsonSchemaValidationBundle.class);
+
     private static final ObjectMapper MAPPER = JacksonUtils.newMapper();
 
+    private static final int LINES_BUFFER_SIZE = 1 << 16;
+
+    private final LoadingConfiguration loadingCfg;
     private final JsonSchemaFactory factory;
     private final SyntaxValidator syntaxValidator;
 
@@ -66,14 +89,36 @@ public final class Main
         parser.accepts("fakeroot",
             "pretend that the current directory is absolute URI \"uri\"")
             .withRequiredArg();
+        parser.accepts("bundle", "write the schema given as argument, and all "
+            + "schemas it references, to bundle file \"file\"")
+            .withRequiredArg().describedAs("file");
+        parser.accepts("preload", "load referenced schemas from bundle file "
+            + "\"file\" instead of downloading them (local schemas are "
+            + "looked up relative to the first argument)")
+            .withRequiredArg().describedAs("file");
+        parser.accepts("jobs", "run up to \"N\" validations in parallel "
+            + "(default: 1)").withRequiredArg().ofType(Integer.class)
+            .describedAs("N");
+        parser.accepts("lines", "validate newline delimited JSON file \"file\""
+            + " (\"-\" for standard input) line by line, with one compact "
+            + "result per line and a summary").withRequiredArg()
+            .describedAs("file");
+        parser.accepts("max-errors", "with --lines, report at most \"N\" "
+            + "errors per line (default: 10)").withRequiredArg()
+            .ofType(Integer.class).describedAs("N");
         parser.formatHelpWith(HELP);
 
         final OptionSet optionSet;
         final boolean isSyntax;
+        final boolean isBundle;
+        final boolean isLines;
         final int requiredArgs;
 
         Reporter reporter = Reporters.DEFAULT;
         String fakeRoot = null;
+        File preload = null;
+        int nrJobs = 1;
+        int maxErrors = 10;
 
         try {
             optionSet = parser.parse(args);
@@ -97,11 +142,58 @@ public final class Main
             System.exit(CMD_ERROR.get());
         }
 
+        if (optionSet.has("syntax") && optionSet.has("bundle")) {
+            System.err.println("cannot specify both \"--syntax\" and " +
+                "\"--bundle\"");
+            parser.printHelpOn(System.err);
+            System.exit(CMD_ERROR.get());
+        }
+
+        if (optionSet.has("lines") && (optionSet.has("syntax")
+            || optionSet.has("bundle") || optionSet.has("s")
+            || optionSet.has("q") || optionSet.has("jobs"))) {
+            System.err.println("\"--lines\" cannot be combined with " +
+                "\"--syntax\", \"--bundle\", \"--brief\", \"--quiet\" " +
+                "or \"--jobs\"");
+            parser.printHelpOn(System.err);
+            System.exit(CMD_ERROR.get());
+        }
+
+        if (optionSet.has("max-errors") && !optionSet.has("lines")) {
+            System.err.println("\"--max-errors\" requires \"--lines\"");
+            parser.printHelpOn(System.err);
+            System.exit(CMD_ERROR.get());
+        }
+
+        if (optionSet.has("max-errors")) {
+            maxErrors = (Integer) optionSet.valueOf("max-errors");
+            if (maxErrors < 0) {
+                System.err.println("maximum number of errors cannot be "
+                    + "negative");
+                parser.printHelpOn(System.err);
+                System.exit(CMD_ERROR.get());
+            }
+        }
+
         if (optionSet.has("fakeroot"))
             fakeRoot = (String) optionSet.valueOf("fakeroot");
 
+        if (optionSet.has("preload"))
+            preload = new File((String) optionSet.valueOf("preload"));
+
+        if (optionSet.has("jobs")) {
+            nrJobs = (Integer) optionSet.valueOf("jobs");
+            if (nrJobs < 1) {
+                System.err.println("number of jobs must be at least 1");
+                parser.printHelpOn(System.err);
+                System.exit(CMD_ERROR.get());
+            }
+        }
+
         isSyntax = optionSet.has("syntax");
-        requiredArgs = isSyntax ? 1 : 2;
+        isBundle = optionSet.has("bundle");
+        isLines = optionSet.has("lines");
+        requiredArgs = isSyntax || isBundle || isLines ? 1 : 2;
 
         @SuppressWarnings("unchecked")
         final List<String> arguments
@@ -113,9 +205,24 @@ public final class Main
             System.exit(CMD_ERROR.get());
         }
 
-        final List<File> files = Lists.newArrayList();
-        for (final String target: arguments)
-            files.add(new File(target).getCanonicalFile());
+        if (isLines && arguments.size() > 1) {
+            System.err.println("with \"--lines\", the only argument is the "
+                + "schema");
+            parser.printHelpOn(System.err);
+            System.exit(CMD_ERROR.get());
+        }
+
+        /*
+         * Only inputs are expanded; in validation and bundle modes, the first
+         * argument is the schema.
+         */
+        final List<File> files = Inputs.expandAll(arguments, !isSyntax);
+
+        if (files.size() < requiredArgs) {
+            System.err.println("no input files");
+            parser.printHelpOn(System.err);
+            System.exit(CMD_ERROR.get());
+        }
 
         if (optionSet.has("brief"))
             reporter = Reporters.BRIEF;
@@ -125,10 +232,22 @@ public final class Main
             reporter = Reporters.QUIET;
         }
 
-        new Main(fakeRoot).proceed(reporter, files, isSyntax);
+        final Main main = new Main(fakeRoot, preload, files.get(0));
+
+        if (isBundle) {
+            final File bundle = new File((String) optionSet.valueOf("bundle"));
+            System.exit(main.writeBundle(files.get(0), bundle).get());
+        }
+
+        if (isLines) {
+            final String input = (String) optionSet.valueOf("lines");
+            System.exit(main.doLines(files.get(0), input, maxErrors).get());
+        }
+
+        main.proceed(reporter, files, isSyntax, nrJobs);
     }
 
-    Main(final String fakeRoot)
+    Main(final String fakeRoot, final File preload, final File base)
         throws IOException
     {
         final URITranslatorConfigurationBuilder builder
@@ -136,67 +255,213 @@ public final class Main
                 .setNamespace(getCwd());
         if (fakeRoot != null)
             builder.addPathRedirect(fakeRoot, getCwd());
-        final LoadingConfiguration cfg = LoadingConfiguration.newBuilder()
-            .setURITranslatorConfiguration(builder.freeze()).freeze();
+        final LoadingConfigurationBuilder cfgBuilder
+            = LoadingConfiguration.newBuilder()
+            .setURITranslatorConfiguration(builder.freeze());
+        if (preload != null)
+            SchemaBundle.fromJson(MAPPER.readTree(preload),
+                base.toURI().normalize().toString()).preloadInto(cfgBuilder);
+        loadingCfg = cfgBuilder.freeze();
         factory = JsonSchemaFactory.newBuilder()
-            .setLoadingConfiguration(cfg).freeze();
+            .setLoadingConfiguration(loadingCfg).freeze();
         syntaxValidator = factory.getSyntaxValidator();
     }
 
+    private RetCode writeBundle(final File schemaFile, final File bundleFile)
+        throws IOException, ProcessingException
+    {
+        final String uri = schemaFile.toURI().normalize().toString();
+        final SchemaBundle bundle = SchemaBundle.create(loadingCfg,
+            ValidationConfiguration.byDefault(), uri);
+
+        MAPPER.writerWithDefaultPrettyPrinter().writeValue(bundleFile,
+            bundle.toJson());
+        return ALL_OK;
+    }
+
     private void proceed(final Reporter reporter, final List<File> files,
-        final boolean isSyntax)
+        final boolean isSyntax, final int nrJobs)
         throws IOException, ProcessingException
     {
 
-        final RetCode retCode = isSyntax ? doSyntax(reporter, files)
-            : doValidation(reporter, files);
+        final RetCode retCode = isSyntax ? doSyntax(reporter, files, nrJobs)
+            : doValidation(reporter, files, nrJobs);
         System.exit(retCode.get());
     }
 
-    private RetCode doSyntax(final Reporter reporter, final List<File> files)
-        throws IOException
+    private RetCode doSyntax(final Reporter reporter, final List<File> files,
+        final int nrJobs)
+        throws IOException, ProcessingException
+    {
+        return check(files, nrJobs, new Check()
+        {
+            @Override
+            public RetCode check(final PrintStream out, final String name,
+                final JsonNode node)
+                throws IOException
+            {
+                return reporter.validateSchema(out, syntaxValidator, name,
+                    node);
+            }
+
+            @Override
+            public RetCode invalidJson(final PrintStream out,
+                final String name, final String message)
+            {
+                reporter.reportInvalidJson(out, name, message);
+                return SCHEMA_SYNTAX_ERROR;
+            }
+        });
+    }
+
+    private RetCode doValidation(final Reporter reporter,
+        final List<File> files, final int nrJobs)
+        throws IOException, ProcessingException
+    {
+        final JsonSchema schema = loadSchema(files.remove(0));
+        if (schema == null)
+            return SCHEMA_SYNTAX_ERROR;
+
+        return check(files, nrJobs, new Check()
+        {
+            @Override
+            public RetCode check(final PrintStream out, final String name,
+                final JsonNode node)
+                throws IOException, ProcessingException
+            {
+                return reporter.validateInstance(out, schema, name, node);
+            }
+
+            @Override
+            public RetCode invalidJson(final PrintStream out,
+                final String name, final String message)
+            {
+                reporter.reportInvalidJson(out, name, message);
+                return VALIDATION_FAILURE;
+            }
+        });
+    }
+
+    private RetCode doLines(final File schemaFile, final String input,
+        final int maxErrors)
+        throws IOException, ProcessingException
     {
-        RetCode retcode, ret = ALL_OK;
-        String fileName;
-        JsonNode node;
+        final JsonSchema schema = loadSchema(schemaFile);
+        if (schema == null)
+            return SCHEMA_SYNTAX_ERROR;
+
+        final JsonLinesValidator validator
+            = new JsonLinesValidator(schema, maxErrors);
+        final boolean isStdin = "-".equals(input);
+        final InputStream in = isStdin ? System.in
+            : new FileInputStream(input);
+        final Writer out = new BufferedWriter(new OutputStreamWriter(
+            System.out, StandardCharsets.UTF_8), LINES_BUFFER_SIZE);
+        final JsonLinesSummary summary;
 
-        for (final File file: files) {
-            fileName = file.toString();
-            node = MAPPER.readTree(file);
-            retcode = reporter.validateSchema(syntaxValidator, fileName, node);
-            if (retcode != ALL_OK)
-                ret = retcode;
+        try {
+            summary = validator.validate(in, out);
+        } finally {
+            out.flush();
+            if (!isStdin)
+                in.close();
         }
 
-        return ret;
+        System.err.println(summary);
+        return summary.getInvalid() == 0L ? ALL_OK : VALIDATION_FAILURE;
     }
 
-    private RetCode doValidation(final Reporter reporter,
-        final List<File> files)
+    /*
+     * Return null if the schema is not syntactically valid
+     */
+    private JsonSchema loadSchema(final File schemaFile)
         throws IOException, ProcessingException
     {
-        final File schemaFile = files.remove(0);
         final String uri = schemaFile.toURI().normalize().toString();
-        JsonNode node;
+        final JsonNode node = MAPPER.readTree(schemaFile);
 
-        node = MAPPER.readTree(schemaFile);
         if (!syntaxValidator.schemaIsValid(node)) {
             System.err.println("Schema is invalid! Aborting...");
-            return SCHEMA_SYNTAX_ERROR;
+            return null;
         }
 
-        final JsonSchema schema = factory.getJsonSchema(uri);
+        return factory.getJsonSchema(uri);
+    }
 
-        RetCode ret = ALL_OK, retcode;
+    /*
+     * Run a check over all inputs. Files are read by the job which checks
+     * them; record streams are read by a JsonLinesReader, and each record is
+     * checked by its own job, named after the file and line number. A record
+     * which is not a single JSON value fails its check, but does not stop the
+     * run.
+     */
+    private static RetCode check(final List<File> files, final int nrJobs,
+        final Check check)
+        throws IOException, ProcessingException
+    {
+        final OrderedJobs jobs = new OrderedJobs(nrJobs);
 
-        for (final File file: files) {
-            node = MAPPER.readTree(file);
-            retcode = reporter.validateInstance(schema, file.toString(), node);
-            if (retcode != ALL_OK)
-                ret = retcode;
+        try {
+            for (final File file: files) {
+                if (!Inputs.isRecordStream(file)) {
+                    jobs.submit(new OrderedJobs.Job()
+                    {
+                        @Override
+                        public RetCode run(final PrintStream out)
+                            throws IOException, ProcessingException
+                        {
+                            return check.check(out, file.toString(),
+                                MAPPER.readTree(file));
+                        }
+                    });
+                    continue;
+                }
+                final JsonLinesReader reader = new JsonLinesReader(
+                    Files.newBufferedReader(file.toPath(),
+                        StandardCharsets.UTF_8));
+                try {
+                    String record;
+                    while ((record = reader.nextRecord()) != null)
+                        jobs.submit(recordJob(check,
+                            file + ":" + reader.getLineNumber(), record));
+                } finally {
+                    reader.close();
+                }
+            }
+            return jobs.finish();
+        } finally {
+            jobs.shutdown();
         }
+    }
 
-        return ret;
+    private static OrderedJobs.Job recordJob(final Check check,
+        final String name, final String record)
+    {
+        return new OrderedJobs.Job()
+        {
+            @Override
+            public RetCode run(final PrintStream out)
+                throws IOException, ProcessingException
+            {
+                final JsonNode node;
+                try {
+                    node = JsonLinesReader.parse(record);
+                } catch (JsonProcessingException e) {
+                    return check.invalidJson(out, name, BUNDLE.printf(
+                        "err.lines.invalidJson", e.getOriginalMessage()));
+                }
+                return check.check(out, name, node);
+            }
+        };
+    }
+
+    private interface Check
+    {
+        RetCode check(final PrintStream out, final String name,
+            final JsonNode node)
+            throws IOException, ProcessingException;
+        RetCode invalidJson(final PrintStream out, final String name,
+            final String message);
     }
 
     private static String getCwd()
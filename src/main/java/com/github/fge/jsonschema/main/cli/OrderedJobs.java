@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.main.cli;
+
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.google.common.collect.Queues;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import static com.github.fge.jsonschema.main.cli.RetCode.*;
+
+/**
+ * Run command line checks, possibly in parallel, with ordered output
+ *
+ * <p>With only one job, checks are run as they are submitted and print
+ * directly to {@link System#out}. Otherwise, each check prints to its own
+ * buffer, and buffers are flushed to {@link System#out} in submission order
+ * as checks complete; the output is therefore the same as with a single job.
+ * </p>
+ *
+ * <p>The number of pending checks is bounded so that neither the submission
+ * queue nor the output buffers grow with the number of inputs.</p>
+ */
+final class OrderedJobs
+{
+    private static final ThreadFactory THREAD_FACTORY
+        = new ThreadFactoryBuilder().setDaemon(true)
+        .setNameFormat("jsonschema-cli-%d").build();
+
+    /*
+     * Number of pending checks per job
+     */
+    private static final int WINDOW_PER_JOB = 16;
+
+    interface Job
+    {
+        RetCode run(final PrintStream out)
+            throws IOException, ProcessingException;
+    }
+
+    private final ExecutorService executor;
+    private final int window;
+    private final Queue<Future<Result>> pending = Queues.newArrayDeque();
+
+    private RetCode retCode = ALL_OK;
+
+    OrderedJobs(final int nrJobs)
+    {
+        executor = nrJobs == 1 ? null
+            : Executors.newFixedThreadPool(nrJobs, THREAD_FACTORY);
+        window = nrJobs * WINDOW_PER_JOB;
+    }
+
+    void submit(final Job job)
+        throws IOException, ProcessingException
+    {
+        if (executor == null) {
+            record(job.run(System.out));
+            return;
+        }
+
+        while (pending.size() >= window)
+            flushOne();
+
+        pending.add(executor.submit(new Callable<Result>()
+        {
+            @Override
+            public Result call()
+                throws IOException, ProcessingException
+            {
+                final ByteArrayOutputStream buf = new ByteArrayOutputStream();
+                final PrintStream out = new PrintStream(buf);
+                final RetCode ret = job.run(out);
+                out.flush();
+                return new Result(ret, buf.toByteArray());
+            }
+        }));
+    }
+
+    RetCode finish()
+        throws IOException, ProcessingException
+    {
+        while (!pending.isEmpty())
+            flushOne();
+        return retCode;
+    }
+
+    void shutdown()
+    {
+        if (executor != null)
+            executor.shutdownNow();
+    }
+
+    private void flushOne()
+        throws IOException, ProcessingException
+    {
+        final Result result;
+
+        try {
+            result = pending.remove().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            if (cause instanceof ProcessingException)
+                throw (ProcessingException) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            throw (Error) cause;
+        }
+
+        System.out.write(result.output);
+        System.out.flush();
+        record(result.retCode);
+    }
+
+    private void record(final RetCode ret)
+    {
+        if (ret != ALL_OK)
+            retCode = ret;
+    }
+
+    private static final class Result
+    {
+        private final RetCode retCode;
+        private final byte[] output;
+
+        private Result(final RetCode retCode, final byte[] output)
+        {
+            this.retCode = retCode;
+            this.output = output;
+        }
+    }
+}
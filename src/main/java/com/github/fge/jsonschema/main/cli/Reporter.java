@@ -25,13 +25,17 @@ import com.github.fge.jsonschema.main.JsonSchema;
 import com.github.fge.jsonschema.processors.syntax.SyntaxValidator;
 
 import java.io.IOException;
+import java.io.PrintStream;
 
 interface Reporter
 {
-    RetCode validateSchema(final SyntaxValidator validator,
+    RetCode validateSchema(final PrintStream out,
+        final SyntaxValidator validator,
         final String fileName, final JsonNode node)
         throws IOException;
-    RetCode validateInstance(final JsonSchema schema,
+    RetCode validateInstance(final PrintStream out, final JsonSchema schema,
         final String fileName, final JsonNode node)
         throws IOException, ProcessingException;
+    void reportInvalidJson(final PrintStream out, final String fileName,
+        final String message);
 }
@@ -27,6 +27,7 @@ import com.github.fge.jsonschema.main.JsonSchema;
 import com.github.fge.jsonschema.processors.syntax.SyntaxValidator;
 
 import java.io.IOException;
+import java.io.PrintStream;
 
 import static com.github.fge.jsonschema.main.cli.RetCode.*;
 
@@ -36,78 +37,101 @@ enum Reporters
     DEFAULT
     {
         @Override
-        public RetCode validateSchema(final SyntaxValidator validator,
-            final String fileName, final JsonNode node)
+        public RetCode validateSchema(final PrintStream out,
+            final SyntaxValidator validator, final String fileName, final JsonNode node)
             throws IOException
         {
             final ListProcessingReport report
                 = (ListProcessingReport) validator.validateSchema(node);
             final boolean success = report.isSuccess();
-            System.out.println("--- BEGIN " + fileName + "---");
-            System.out.println("validation: " + (success ? "SUCCESS"
+            out.println("--- BEGIN " + fileName + "---");
+            out.println("validation: " + (success ? "SUCCESS"
                 : "FAILURE"));
             if (!success)
-                System.out.println(JacksonUtils.prettyPrint(report.asJson()));
-            System.out.println("--- END " + fileName + "---");
+                out.println(JacksonUtils.prettyPrint(report.asJson()));
+            out.println("--- END " + fileName + "---");
             return success ? ALL_OK : SCHEMA_SYNTAX_ERROR;
         }
 
         @Override
-        public RetCode validateInstance(final JsonSchema schema,
-            final String fileName, final JsonNode node)
+        public RetCode validateInstance(final PrintStream out,
+            final JsonSchema schema, final String fileName, final JsonNode node)
             throws IOException, ProcessingException
         {
             final ListProcessingReport report
                 = (ListProcessingReport) schema.validate(node, true);
             final boolean success = report.isSuccess();
-            System.out.println("--- BEGIN " + fileName + "---");
-            System.out.println("validation: " + (success ? "SUCCESS"
+            out.println("--- BEGIN " + fileName + "---");
+            out.println("validation: " + (success ? "SUCCESS"
                 : "FAILURE"));
             if (!success)
-                System.out.println(JacksonUtils.prettyPrint(report
+                out.println(JacksonUtils.prettyPrint(report
                     .asJson()));
-            System.out.println("--- END " + fileName + "---");
+            out.println("--- END " + fileName + "---");
             return success ? ALL_OK : VALIDATION_FAILURE;
         }
+
+        @Override
+        public void reportInvalidJson(final PrintStream out,
+            final String fileName, final String message)
+        {
+            out.println("--- BEGIN " + fileName + "---");
+            out.println("validation: FAILURE");
+            out.println(message);
+            out.println("--- END " + fileName + "---");
+        }
     },
     BRIEF
     {
         @Override
-        public RetCode validateSchema(final SyntaxValidator validator,
-            final String fileName, final JsonNode node)
+        public RetCode validateSchema(final PrintStream out,
+            final SyntaxValidator validator, final String fileName, final JsonNode node)
             throws IOException
         {
             final boolean valid = validator.schemaIsValid(node);
-            System.out.printf("%s: %s\n", fileName, valid ? "OK": "NOT OK");
+            out.printf("%s: %s\n", fileName, valid ? "OK": "NOT OK");
             return valid ? ALL_OK : SCHEMA_SYNTAX_ERROR;
         }
 
         @Override
-        public RetCode validateInstance(final JsonSchema schema,
-            final String fileName, final JsonNode node)
+        public RetCode validateInstance(final PrintStream out,
+            final JsonSchema schema, final String fileName, final JsonNode node)
             throws IOException, ProcessingException
         {
             final boolean valid = schema.validInstance(node);
-            System.out.printf("%s: %s\n", fileName, valid ? "OK": "NOT OK");
+            out.printf("%s: %s\n", fileName, valid ? "OK": "NOT OK");
             return valid ? ALL_OK : VALIDATION_FAILURE;
         }
+
+        @Override
+        public void reportInvalidJson(final PrintStream out,
+            final String fileName, final String message)
+        {
+            out.printf("%s: %s\n", fileName, "NOT OK");
+        }
     },
     QUIET
     {
         @Override
-        public RetCode validateSchema(final SyntaxValidator validator,
-            final String fileName, final JsonNode node)
+        public RetCode validateSchema(final PrintStream out,
+            final SyntaxValidator validator, final String fileName, final JsonNode node)
             throws IOException
         {
             return validator.schemaIsValid(node) ? ALL_OK : SCHEMA_SYNTAX_ERROR;
         }
 
         @Override
-        public RetCode validateInstance(final JsonSchema schema,
-            final String fileName, final JsonNode node)
+        public RetCode validateInstance(final PrintStream out,
+            final JsonSchema schema, final String fileName, final JsonNode node)
             throws IOException, ProcessingException
         {
             return schema.validInstance(node) ? ALL_OK : VALIDATION_FAILURE;
         }
+
+        @Override
+        public void reportInvalidJson(final PrintStream out,
+            final String fileName, final String message)
+        {
+        }
     }
 }
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.metrics;
+
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.LogLevel;
+import com.github.fge.jsonschema.core.report.ProcessingMessage;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+
+import java.util.Iterator;
+
+/**
+ * A report delegating to another report, and recording whether errors were
+ * reported to it
+ *
+ * <p>The delegate report may already contain errors, which is why we cannot
+ * rely on its {@link ProcessingReport#isSuccess()} method.</p>
+ */
+final class FailureTrackingReport
+    implements ProcessingReport
+{
+    private final ProcessingReport report;
+    private boolean failed = false;
+
+    FailureTrackingReport(final ProcessingReport report)
+    {
+        this.report = report;
+    }
+
+    boolean hasFailed()
+    {
+        return failed;
+    }
+
+    @Override
+    public LogLevel getLogLevel()
+    {
+        return report.getLogLevel();
+    }
+
+    @Override
+    public LogLevel getExceptionThreshold()
+    {
+        return report.getExceptionThreshold();
+    }
+
+    @Override
+    public void debug(final ProcessingMessage message)
+        throws ProcessingException
+    {
+        report.debug(message);
+    }
+
+    @Override
+    public void info(final ProcessingMessage message)
+        throws ProcessingException
+    {
+        report.info(message);
+    }
+
+    @Override
+    public void warn(final ProcessingMessage message)
+        throws ProcessingException
+    {
+        report.warn(message);
+    }
+
+    @Override
+    public void error(final ProcessingMessage message)
+        throws ProcessingException
+    {
+        failed = true;
+        report.error(message);
+    }
+
+    @Override
+    public void fatal(final ProcessingMessage message)
+        throws ProcessingException
+    {
+        failed = true;
+        report.fatal(message);
+    }
+
+    @Override
+    public boolean isSuccess()
+    {
+        return report.isSuccess();
+    }
+
+    @Override
+    public void mergeWith(final ProcessingReport other)
+        throws ProcessingException
+    {
+        if (!other.isSuccess())
+            failed = true;
+        report.mergeWith(other);
+    }
+
+    @Override
+    public Iterator<ProcessingMessage> iterator()
+    {
+        return report.iterator();
+    }
+}
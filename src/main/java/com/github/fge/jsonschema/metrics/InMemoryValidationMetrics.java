@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.metrics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.fge.jackson.JacksonUtils;
+import com.github.fge.jsonschema.core.tree.SchemaTree;
+import com.github.fge.jsonschema.core.util.AsJson;
+import com.github.fge.jsonschema.processors.data.FullData;
+import com.google.common.collect.ImmutableSortedMap;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link ValidationMetrics} implementation keeping all metrics in memory
+ *
+ * <p>Metrics can be exported at any time as JSON using {@link #asJson()}. The
+ * output is an object with the following members:</p>
+ *
+ * <ul>
+ *     <li>{@code keywords}: for each keyword, the number of runs, the number
+ *     of failures and a latency histogram;</li>
+ *     <li>{@code schemas}: for each schema URI, the number of validations,
+ *     the number of failures and a latency histogram;</li>
+ *     <li>{@code caches}: for each validation cache ({@code validators}, then
+ *     {@code resolver} and {@code builder} for each validation chain), the
+ *     number of lookups, the number of misses and the hit rate;</li>
+ *     <li>{@code refs}: for each resolved JSON Reference, a histogram of its
+ *     resolution time.</li>
+ * </ul>
+ *
+ * <p>Subschema validations are not accounted for; use a {@link
+ * ValidationProfiler} for this.</p>
+ *
+ * @see LatencyHistogram
+ */
+@ThreadSafe
+public final class InMemoryValidationMetrics
+    implements ValidationMetrics, AsJson
+{
+    private static final JsonNodeFactory FACTORY = JacksonUtils.nodeFactory();
+
+    private final ConcurrentMap<String, Counters> keywords
+        = new ConcurrentHashMap<String, Counters>();
+    private final ConcurrentMap<String, Counters> schemas
+        = new ConcurrentHashMap<String, Counters>();
+    private final ConcurrentMap<String, AtomicLong> lookups
+        = new ConcurrentHashMap<String, AtomicLong>();
+    private final ConcurrentMap<String, AtomicLong> misses
+        = new ConcurrentHashMap<String, AtomicLong>();
+    private final ConcurrentMap<String, LatencyHistogram> refs
+        = new ConcurrentHashMap<String, LatencyHistogram>();
+
+    @Override
+    public void keywordStarted(final String keyword)
+    {
+    }
+
+    @Override
+    public void keywordValidated(final String keyword, final long nanos,
+        final boolean success)
+    {
+        counters(keywords, keyword).record(nanos, success);
+    }
+
+    @Override
+    public void subschemaStarted(final FullData data)
+    {
+    }
+
+    @Override
+    public void subschemaValidated(final FullData data, final long nanos)
+    {
+    }
+
+    @Override
+    public void schemaValidated(final SchemaTree schema, final long nanos,
+        final boolean success)
+    {
+        final String uri = schema.getLoadingRef().toString();
+        counters(schemas, uri).record(nanos, success);
+    }
+
+    @Override
+    public void cacheLookup(final String cache)
+    {
+        counter(lookups, cache).incrementAndGet();
+    }
+
+    @Override
+    public void cacheMiss(final String cache)
+    {
+        counter(misses, cache).incrementAndGet();
+    }
+
+    @Override
+    public void refResolved(final SchemaTree target, final long nanos)
+    {
+        final String ref = target.getLoadingRef().getLocator().toString()
+            + target.getPointer();
+        histogram(refs, ref).record(nanos);
+    }
+
+    /**
+     * Return the number of lookups performed in a cache
+     *
+     * @param cache the cache name
+     * @return the number of lookups
+     */
+    public long getCacheLookups(final String cache)
+    {
+        final AtomicLong value = lookups.get(cache);
+        return value == null ? 0L : value.get();
+    }
+
+    /**
+     * Return the number of misses of a cache
+     *
+     * @param cache the cache name
+     * @return the number of misses
+     */
+    public long getCacheMisses(final String cache)
+    {
+        final AtomicLong value = misses.get(cache);
+        return value == null ? 0L : value.get();
+    }
+
+    /**
+     * Return the hit rate of a cache
+     *
+     * @param cache the cache name
+     * @return the hit rate, between 0 and 1; 0 if no lookups were performed
+     */
+    public double getCacheHitRate(final String cache)
+    {
+        final long nrLookups = getCacheLookups(cache);
+        if (nrLookups == 0L)
+            return 0.0;
+        final long hits = Math.max(nrLookups - getCacheMisses(cache), 0L);
+        return (double) hits / nrLookups;
+    }
+
+    @Override
+    public JsonNode asJson()
+    {
+        final ObjectNode ret = FACTORY.objectNode();
+
+        ret.set("keywords", countersAsJson(keywords));
+        ret.set("schemas", countersAsJson(schemas));
+
+        final ObjectNode caches = FACTORY.objectNode();
+        ObjectNode node;
+        for (final String cache: ImmutableSortedMap.copyOf(lookups).keySet()) {
+            node = FACTORY.objectNode();
+            node.put("lookups", getCacheLookups(cache));
+            node.put("misses", getCacheMisses(cache));
+            node.put("hitRate", getCacheHitRate(cache));
+            caches.set(cache, node);
+        }
+        ret.set("caches", caches);
+
+        final ObjectNode refNodes = FACTORY.objectNode();
+        for (final Map.Entry<String, LatencyHistogram> entry:
+            ImmutableSortedMap.copyOf(refs).entrySet())
+            refNodes.set(entry.getKey(), entry.getValue().asJson());
+        ret.set("refs", refNodes);
+
+        return ret;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "in-memory metrics";
+    }
+
+    private static Counters counters(final ConcurrentMap<String, Counters> map,
+        final String key)
+    {
+        final Counters ret = map.get(key);
+        if (ret != null)
+            return ret;
+        final Counters newCounters = new Counters();
+        final Counters old = map.putIfAbsent(key, newCounters);
+        return old == null ? newCounters : old;
+    }
+
+    private static AtomicLong counter(final ConcurrentMap<String, AtomicLong> map,
+        final String key)
+    {
+        final AtomicLong ret = map.get(key);
+        if (ret != null)
+            return ret;
+        final AtomicLong newCounter = new AtomicLong();
+        final AtomicLong old = map.putIfAbsent(key, newCounter);
+        return old == null ? newCounter : old;
+    }
+
+    private static LatencyHistogram histogram(
+        final ConcurrentMap<String, LatencyHistogram> map, final String key)
+    {
+        final LatencyHistogram ret = map.get(key);
+        if (ret != null)
+            return ret;
+        final LatencyHistogram newHistogram = new LatencyHistogram();
+        final LatencyHistogram old = map.putIfAbsent(key, newHistogram);
+        return old == null ? newHistogram : old;
+    }
+
+    private static JsonNode countersAsJson(
+        final ConcurrentMap<String, Counters> map)
+    {
+        final ObjectNode ret = FACTORY.objectNode();
+        for (final Map.Entry<String, Counters> entry:
+            ImmutableSortedMap.copyOf(map).entrySet())
+            ret.set(entry.getKey(), entry.getValue().asJson());
+        return ret;
+    }
+
+    private static final class Counters
+        implements AsJson
+    {
+        private final AtomicLong failures = new AtomicLong();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private void record(final long nanos, final boolean success)
+        {
+            if (!success)
+                failures.incrementAndGet();
+            latency.record(nanos);
+        }
+
+        @Override
+        public JsonNode asJson()
+        {
+            final ObjectNode ret = FACTORY.objectNode();
+            ret.put("count", latency.getCount());
+            ret.put("failures", failures.get());
+            ret.set("latency", latency.asJson());
+            return ret;
+        }
+    }
+}
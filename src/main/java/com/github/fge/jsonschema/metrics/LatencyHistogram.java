@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.metrics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.fge.jackson.JacksonUtils;
+import com.github.fge.jsonschema.core.util.AsJson;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free latency histogram
+ *
+ * <p>Durations are recorded in nanoseconds into power-of-two buckets: bucket
+ * {@code n} holds durations {@code d} such that {@code 2^(n-1) <= d < 2^n}
+ * (bucket 0 holds zero durations).</p>
+ */
+@ThreadSafe
+public final class LatencyHistogram
+    implements AsJson
+{
+    private static final JsonNodeFactory FACTORY = JacksonUtils.nodeFactory();
+
+    private static final int NR_BUCKETS = Long.SIZE;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(NR_BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record a duration
+     *
+     * @param nanos the duration, in nanoseconds; negative values are treated
+     * as 0
+     */
+    public void record(final long nanos)
+    {
+        final long value = Math.max(nanos, 0L);
+        buckets.incrementAndGet(NR_BUCKETS - Long.numberOfLeadingZeros(value));
+        count.incrementAndGet();
+        total.addAndGet(value);
+
+        long current;
+        do {
+            current = max.get();
+        } while (value > current && !max.compareAndSet(current, value));
+    }
+
+    /**
+     * Return the number of recorded durations
+     *
+     * @return the count
+     */
+    public long getCount()
+    {
+        return count.get();
+    }
+
+    /**
+     * Return the sum of all recorded durations
+     *
+     * @return the total, in nanoseconds
+     */
+    public long getTotalNanos()
+    {
+        return total.get();
+    }
+
+    /**
+     * Return the longest recorded duration
+     *
+     * @return the maximum, in nanoseconds
+     */
+    public long getMaxNanos()
+    {
+        return max.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Only non empty buckets are output; the upper bound of a bucket is
+     * exclusive.</p>
+     */
+    @Override
+    public JsonNode asJson()
+    {
+        final ObjectNode ret = FACTORY.objectNode();
+        final long n = count.get();
+        final long sum = total.get();
+
+        ret.put("count", n);
+        ret.put("totalNanos", sum);
+        ret.put("meanNanos", n == 0L ? 0L : sum / n);
+        ret.put("maxNanos", max.get());
+
+        final ArrayNode array = FACTORY.arrayNode();
+        long value;
+        ObjectNode node;
+
+        for (int index = 0; index < NR_BUCKETS; index++) {
+            value = buckets.get(index);
+            if (value == 0L)
+                continue;
+            node = FACTORY.objectNode();
+            node.put("upperBoundNanos", upperBound(index));
+            node.put("count", value);
+            array.add(node);
+        }
+
+        ret.set("buckets", array);
+        return ret;
+    }
+
+    private static long upperBound(final int index)
+    {
+        return index == NR_BUCKETS - 1 ? Long.MAX_VALUE : 1L << index;
+    }
+}
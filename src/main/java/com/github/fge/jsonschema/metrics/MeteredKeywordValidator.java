@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.metrics;
+
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.processing.Processor;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.keyword.validator.KeywordValidator;
+import com.github.fge.jsonschema.processors.data.FullData;
+import com.github.fge.msgsimple.bundle.MessageBundle;
+
+/**
+ * A keyword validator reporting its runs to a {@link ValidationMetrics}
+ *
+ * <p>Validators are only wrapped into this class if metrics are enabled.</p>
+ */
+public final class MeteredKeywordValidator
+    implements KeywordValidator
+{
+    private final String keyword;
+    private final KeywordValidator validator;
+    private final ValidationMetrics metrics;
+
+    public MeteredKeywordValidator(final String keyword,
+        final KeywordValidator validator, final ValidationMetrics metrics)
+    {
+        this.keyword = keyword;
+        this.validator = validator;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void validate(final Processor<FullData, FullData> processor,
+        final ProcessingReport report, final MessageBundle bundle,
+        final FullData data)
+        throws ProcessingException
+    {
+        final FailureTrackingReport tracking
+            = new FailureTrackingReport(report);
+        metrics.keywordStarted(keyword);
+        final long start = System.nanoTime();
+        try {
+            validator.validate(processor, tracking, bundle, data);
+        } finally {
+            metrics.keywordValidated(keyword, System.nanoTime() - start,
+                !tracking.hasFailed());
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return validator.toString();
+    }
+}
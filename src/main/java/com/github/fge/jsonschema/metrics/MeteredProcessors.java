@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.metrics;
+
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.processing.CachingProcessor;
+import com.github.fge.jsonschema.core.processing.Processor;
+import com.github.fge.jsonschema.core.report.MessageProvider;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+
+/**
+ * Utility methods to report cache accesses to a {@link ValidationMetrics}
+ *
+ * <p>To measure the efficiency of a {@link CachingProcessor}, wrap the
+ * processor it caches using {@link #countMisses(Processor, String,
+ * ValidationMetrics)}, and the caching processor itself using {@link
+ * #countLookups(Processor, String, ValidationMetrics)}.</p>
+ */
+public final class MeteredProcessors
+{
+    private MeteredProcessors()
+    {
+    }
+
+    /**
+     * Report each call to a processor as a cache lookup
+     *
+     * @param processor the caching processor
+     * @param cache the cache name
+     * @param metrics the metrics collector
+     * @param <IN> input type of the processor
+     * @param <OUT> output type of the processor
+     * @return a new processor
+     */
+    public static <IN extends MessageProvider, OUT extends MessageProvider>
+        Processor<IN, OUT> countLookups(final Processor<IN, OUT> processor,
+        final String cache, final ValidationMetrics metrics)
+    {
+        return new Processor<IN, OUT>()
+        {
+            @Override
+            public OUT process(final ProcessingReport report, final IN input)
+                throws ProcessingException
+            {
+                metrics.cacheLookup(cache);
+                return processor.process(report, input);
+            }
+
+            @Override
+            public String toString()
+            {
+                return processor.toString();
+            }
+        };
+    }
+
+    /**
+     * Report each call to a processor as a cache miss
+     *
+     * @param processor the processor being cached
+     * @param cache the cache name
+     * @param metrics the metrics collector
+     * @param <IN> input type of the processor
+     * @param <OUT> output type of the processor
+     * @return a new processor
+     */
+    public static <IN extends MessageProvider, OUT extends MessageProvider>
+        Processor<IN, OUT> countMisses(final Processor<IN, OUT> processor,
+        final String cache, final ValidationMetrics metrics)
+    {
+        return new Processor<IN, OUT>()
+        {
+            @Override
+            public OUT process(final ProcessingReport report, final IN input)
+                throws ProcessingException
+            {
+                metrics.cacheMiss(cache);
+                return processor.process(report, input);
+            }
+
+            @Override
+            public String toString()
+            {
+                return processor.toString();
+            }
+        };
+    }
+}
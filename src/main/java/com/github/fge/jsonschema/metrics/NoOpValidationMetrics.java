@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.metrics;
+
+import com.github.fge.jsonschema.core.tree.SchemaTree;
+import com.github.fge.jsonschema.processors.data.FullData;
+
+/**
+ * A {@link ValidationMetrics} implementation which does nothing
+ *
+ * <p>This is the default. When this implementation is configured, validation
+ * processors are not instrumented at all.</p>
+ */
+public final class NoOpValidationMetrics
+    implements ValidationMetrics
+{
+    private static final ValidationMetrics INSTANCE
+        = new NoOpValidationMetrics();
+
+    public static ValidationMetrics getInstance()
+    {
+        return INSTANCE;
+    }
+
+    private NoOpValidationMetrics()
+    {
+    }
+
+    @Override
+    public void keywordStarted(final String keyword)
+    {
+    }
+
+    @Override
+    public void keywordValidated(final String keyword, final long nanos,
+        final boolean success)
+    {
+    }
+
+    @Override
+    public void subschemaStarted(final FullData data)
+    {
+    }
+
+    @Override
+    public void subschemaValidated(final FullData data, final long nanos)
+    {
+    }
+
+    @Override
+    public void schemaValidated(final SchemaTree schema, final long nanos,
+        final boolean success)
+    {
+    }
+
+    @Override
+    public void cacheLookup(final String cache)
+    {
+    }
+
+    @Override
+    public void cacheMiss(final String cache)
+    {
+    }
+
+    @Override
+    public void refResolved(final SchemaTree target, final long nanos)
+    {
+    }
+
+    @Override
+    public String toString()
+    {
+        return "no metrics";
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.metrics;
+
+import com.github.fge.jsonschema.cfg.ValidationConfigurationBuilder;
+import com.github.fge.jsonschema.core.tree.SchemaTree;
+import com.github.fge.jsonschema.processors.data.FullData;
+
+/**
+ * Validation metrics collector (service provider interface)
+ *
+ * <p>An implementation of this interface can be registered using {@link
+ * ValidationConfigurationBuilder#setValidationMetrics(ValidationMetrics)}. It
+ * is then notified of the following events:</p>
+ *
+ * <ul>
+ *     <li>each run of a keyword validator, along with its duration and
+ *     outcome;</li>
+ *     <li>each validation of an instance (or part of an instance) against a
+ *     schema (or a subschema);</li>
+ *     <li>each complete validation of an instance against a schema;</li>
+ *     <li>each lookup in, and each miss of, the caches of a validation
+ *     chain;</li>
+ *     <li>each resolution of a JSON Reference.</li>
+ * </ul>
+ *
+ * <p>The default implementation, {@link NoOpValidationMetrics}, does nothing;
+ * when it is in use, no instrumentation code is installed at all, and
+ * validation carries no extra cost.</p>
+ *
+ * <p>Implementations are shared by all validations performed by a factory and
+ * must therefore be thread safe. Within a thread, "started" and "validated"
+ * events are always properly nested.</p>
+ *
+ * @see InMemoryValidationMetrics
+ * @see ValidationProfiler
+ */
+public interface ValidationMetrics
+{
+    /**
+     * Called before a keyword validator runs
+     *
+     * @param keyword the keyword name
+     */
+    void keywordStarted(String keyword);
+
+    /**
+     * Called after a keyword validator has run
+     *
+     * <p>Note that the duration of validators calling back into the validation
+     * process (such as {@code anyOf}) includes the duration of the subschema
+     * validations.</p>
+     *
+     * @param keyword the keyword name
+     * @param nanos the duration of the validation, in nanoseconds
+     * @param success false if this validator reported at least one error
+     */
+    void keywordValidated(String keyword, long nanos, boolean success);
+
+    /**
+     * Called before validating an instance against a subschema
+     *
+     * <p>The schema tree in the data has all references resolved.</p>
+     *
+     * @param data the subschema and instance
+     */
+    void subschemaStarted(FullData data);
+
+    /**
+     * Called after validating an instance against a subschema
+     *
+     * <p>This includes the validation of the children of the instance, if
+     * any.</p>
+     *
+     * @param data the subschema and instance
+     * @param nanos the duration of the validation, in nanoseconds
+     */
+    void subschemaValidated(FullData data, long nanos);
+
+    /**
+     * Called after an instance has been fully validated against a schema
+     *
+     * @param schema the schema
+     * @param nanos the duration of the validation, in nanoseconds
+     * @param success whether the instance is valid
+     */
+    void schemaValidated(SchemaTree schema, long nanos, boolean success);
+
+    /**
+     * Called on each lookup in one of the validation caches
+     *
+     * @param cache the cache name
+     */
+    void cacheLookup(String cache);
+
+    /**
+     * Called on each cache miss
+     *
+     * <p>The number of cache hits is the number of lookups minus the number
+     * of misses.</p>
+     *
+     * @param cache the cache name
+     */
+    void cacheMiss(String cache);
+
+    /**
+     * Called after a JSON Reference has been resolved
+     *
+     * <p>This includes the time necessary to load the target schema, if it
+     * was not loaded yet.</p>
+     *
+     * @param target the schema tree pointing to the resolved reference
+     * @param nanos the duration of the resolution, in nanoseconds
+     */
+    void refResolved(SchemaTree target, long nanos);
+}
@@ -0,0 +1,518 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.metrics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.fge.jackson.JacksonUtils;
+import com.github.fge.jsonschema.cfg.ValidationConfigurationBuilder;
+import com.github.fge.jsonschema.core.tree.SchemaTree;
+import com.github.fge.jsonschema.core.util.AsJson;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.messages.JsonSchemaConfigurationBundle;
+import com.github.fge.jsonschema.processors.data.FullData;
+import com.github.fge.msgsimple.bundle.MessageBundle;
+import com.github.fge.msgsimple.load.MessageBundles;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Queues;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A tracing validation profiler
+ *
+ * <p>Register an instance of this class as the validation metrics collector
+ * of a factory (see {@link
+ * ValidationConfigurationBuilder#setValidationMetrics(ValidationMetrics)});
+ * all {@link JsonSchema} instances built by this factory will then run in
+ * profiling mode. After a run over a corpus of instances, this profiler
+ * can produce:</p>
+ *
+ * <ul>
+ *     <li>a report ({@link #asJson()}, {@link #getReport(int)}) ranking
+ *     schema pointers, keywords and instance pointers by the time spent
+ *     in them;</li>
+ *     <li>folded stacks, suitable as an input for flame graph tools ({@link
+ *     #getFoldedStacks()}, {@link #getFoldedAllocationStacks()}).</li>
+ * </ul>
+ *
+ * <p>Both "self" and "total" figures are collected; "self" excludes time
+ * spent validating subschemas, and for schemas, time spent in keywords.
+ * Stack frames are schema pointers (with all references resolved) and
+ * keywords; for instance, a pathological {@code pattern} in a definition
+ * used by a {@code oneOf} shows as:</p>
+ *
+ * <pre>
+ *     #;oneOf;#/definitions/address;#/definitions/address/properties/zip;pattern
+ * </pre>
+ *
+ * <p>Allocations are measured per thread, when the JVM supports it; they
+ * include a small overhead due to the profiler itself. If allocations cannot
+ * be measured, the report says so (see {@link #asJson()}) and all figures in
+ * bytes are zero.</p>
+ */
+@ThreadSafe
+public final class ValidationProfiler
+    implements ValidationMetrics, AsJson
+{
+    private static final MessageBundle BUNDLE
+        = MessageBundles.getBundle(JsonSchemaConfigurationBundle.class);
+    private static final JsonNodeFactory FACTORY = JacksonUtils.nodeFactory();
+
+    private static final Comparator<Map.Entry<?, Stats>> BY_SELF_TIME
+        = new Comparator<Map.Entry<?, Stats>>()
+    {
+        @Override
+        public int compare(final Map.Entry<?, Stats> o1,
+            final Map.Entry<?, Stats> o2)
+        {
+            final long self1 = o1.getValue().selfNanos.get();
+            final long self2 = o2.getValue().selfNanos.get();
+            return self1 == self2 ? 0 : self1 > self2 ? -1 : 1;
+        }
+    };
+
+    private final AllocationCounter allocations = AllocationCounter.create();
+
+    private final ThreadLocal<Deque<Frame>> frames
+        = new ThreadLocal<Deque<Frame>>()
+    {
+        @Override
+        protected Deque<Frame> initialValue()
+        {
+            return Queues.newArrayDeque();
+        }
+    };
+
+    private final AtomicLong validations = new AtomicLong();
+    private final ConcurrentMap<String, Stats> schemas
+        = new ConcurrentHashMap<String, Stats>();
+    private final ConcurrentMap<Map.Entry<String, String>, Stats> keywords
+        = new ConcurrentHashMap<Map.Entry<String, String>, Stats>();
+    private final ConcurrentMap<String, Stats> instances
+        = new ConcurrentHashMap<String, Stats>();
+    private final ConcurrentMap<String, Stats> stacks
+        = new ConcurrentHashMap<String, Stats>();
+
+    @Override
+    public void keywordStarted(final String keyword)
+    {
+        final Deque<Frame> deque = frames.get();
+        final Frame parent = deque.peek();
+        final String schema = parent == null ? "" : parent.schema;
+        final Stats stats = stats(keywords,
+            Maps.immutableEntry(schema, keyword));
+        deque.push(new Frame(parent, schema, keyword, stats, null,
+            allocations.get()));
+    }
+
+    @Override
+    public void keywordValidated(final String keyword, final long nanos,
+        final boolean success)
+    {
+        exitFrame(nanos);
+    }
+
+    @Override
+    public void subschemaStarted(final FullData data)
+    {
+        final Deque<Frame> deque = frames.get();
+        final String schema = schemaPointer(data.getSchema());
+        final String instance = data.getInstance().getPointer().toString();
+        deque.push(new Frame(deque.peek(), schema, schema,
+            stats(schemas, schema), stats(instances, instance),
+            allocations.get()));
+    }
+
+    @Override
+    public void subschemaValidated(final FullData data, final long nanos)
+    {
+        exitFrame(nanos);
+    }
+
+    @Override
+    public void schemaValidated(final SchemaTree schema, final long nanos,
+        final boolean success)
+    {
+        validations.incrementAndGet();
+    }
+
+    @Override
+    public void cacheLookup(final String cache)
+    {
+    }
+
+    @Override
+    public void cacheMiss(final String cache)
+    {
+    }
+
+    @Override
+    public void refResolved(final SchemaTree target, final long nanos)
+    {
+    }
+
+    /**
+     * Return a ranked report, limiting the number of entries in each ranking
+     *
+     * @param limit the maximum number of entries per ranking
+     * @return the report, as JSON
+     * @throws IllegalArgumentException limit is not strictly positive
+     */
+    public JsonNode getReport(final int limit)
+    {
+        BUNDLE.checkArgument(limit > 0, "invalidReportLimit");
+
+        final ObjectNode ret = FACTORY.objectNode();
+        ret.put("validations", validations.get());
+        ret.put("allocations", allocations.isAvailable());
+
+        ArrayNode array;
+        ObjectNode node;
+
+        array = FACTORY.arrayNode();
+        for (final Map.Entry<String, Stats> entry: ranked(schemas, limit)) {
+            node = array.addObject();
+            node.put("schema", entry.getKey());
+            entry.getValue().fill(node);
+        }
+        ret.set("schemas", array);
+
+        array = FACTORY.arrayNode();
+        for (final Map.Entry<Map.Entry<String, String>, Stats> entry:
+            ranked(keywords, limit)) {
+            node = array.addObject();
+            node.put("schema", entry.getKey().getKey());
+            node.put("keyword", entry.getKey().getValue());
+            entry.getValue().fill(node);
+        }
+        ret.set("keywords", array);
+
+        array = FACTORY.arrayNode();
+        for (final Map.Entry<String, Stats> entry: ranked(instances, limit)) {
+            node = array.addObject();
+            node.put("instance", entry.getKey());
+            entry.getValue().fill(node);
+        }
+        ret.set("instances", array);
+
+        return ret;
+    }
+
+    /**
+     * Return the full ranked report
+     *
+     * <p>The report is an object with five members: {@code validations} (the
+     * number of validations run), {@code allocations} (a boolean telling
+     * whether allocations could be measured), and {@code schemas}, {@code
+     * keywords} and {@code instances}, which are arrays of entries sorted by
+     * decreasing self time.</p>
+     *
+     * @return the report, as JSON
+     * @see #getReport(int)
+     */
+    @Override
+    public JsonNode asJson()
+    {
+        return getReport(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Return the folded stacks, weighted by self time in nanoseconds
+     *
+     * @return the folded stacks, one per line
+     */
+    public String getFoldedStacks()
+    {
+        return foldedStacks(false);
+    }
+
+    /**
+     * Return the folded stacks, weighted by self allocated bytes
+     *
+     * @return the folded stacks, one per line
+     */
+    public String getFoldedAllocationStacks()
+    {
+        return foldedStacks(true);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "validation profiler";
+    }
+
+    private void exitFrame(final long nanos)
+    {
+        final long bytes = allocations.get();
+        final Deque<Frame> deque = frames.get();
+        final Frame frame = deque.pop();
+        final long totalBytes = bytes - frame.startBytes;
+        final long selfNanos = nanos - frame.childNanos;
+        final long selfBytes = totalBytes - frame.childBytes;
+
+        frame.stats.record(nanos, selfNanos, totalBytes, selfBytes);
+        if (frame.instanceStats != null)
+            frame.instanceStats.record(nanos, selfNanos, totalBytes,
+                selfBytes);
+        stats(stacks, frame.path).record(nanos, selfNanos, totalBytes,
+            selfBytes);
+
+        final Frame parent = deque.peek();
+        if (parent != null) {
+            parent.childNanos += nanos;
+            parent.childBytes += totalBytes;
+        }
+    }
+
+    private String foldedStacks(final boolean bytes)
+    {
+        final StringBuilder sb = new StringBuilder();
+        Stats stats;
+        long value;
+
+        for (final Map.Entry<String, Stats> entry:
+            ImmutableSortedMap.copyOf(stacks).entrySet()) {
+            stats = entry.getValue();
+            value = bytes ? stats.selfBytes.get() : stats.selfNanos.get();
+            if (value > 0L)
+                sb.append(entry.getKey()).append(' ').append(value)
+                    .append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static String schemaPointer(final SchemaTree tree)
+    {
+        return tree.getLoadingRef().getLocator().toString()
+            + tree.getPointer();
+    }
+
+    private static <K> Stats stats(final ConcurrentMap<K, Stats> map,
+        final K key)
+    {
+        final Stats ret = map.get(key);
+        if (ret != null)
+            return ret;
+        final Stats newStats = new Stats();
+        final Stats old = map.putIfAbsent(key, newStats);
+        return old == null ? newStats : old;
+    }
+
+    private static <K> List<Map.Entry<K, Stats>> ranked(
+        final ConcurrentMap<K, Stats> map, final int limit)
+    {
+        final List<Map.Entry<K, Stats>> list
+            = Lists.newArrayList(map.entrySet());
+        Collections.sort(list, BY_SELF_TIME);
+        return list.size() <= limit ? list : list.subList(0, limit);
+    }
+
+    /*
+     * Characters which would break the folded stacks format
+     */
+    private static String frameName(final String name)
+    {
+        return name.replace(";", "%3B").replace("\n", "%0A");
+    }
+
+    private static final class Frame
+    {
+        private final String schema;
+        private final String path;
+        private final Stats stats;
+        private final Stats instanceStats;
+        private final long startBytes;
+        private long childNanos = 0L;
+        private long childBytes = 0L;
+
+        private Frame(final Frame parent, final String schema,
+            final String name, final Stats stats, final Stats instanceStats,
+            final long startBytes)
+        {
+            this.schema = schema;
+            path = parent == null ? frameName(name)
+                : parent.path + ';' + frameName(name);
+            this.stats = stats;
+            this.instanceStats = instanceStats;
+            this.startBytes = startBytes;
+        }
+    }
+
+    private static final class Stats
+    {
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong selfNanos = new AtomicLong();
+        private final AtomicLong totalBytes = new AtomicLong();
+        private final AtomicLong selfBytes = new AtomicLong();
+
+        private void record(final long nanos, final long self,
+            final long bytes, final long ownBytes)
+        {
+            calls.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            selfNanos.addAndGet(self);
+            totalBytes.addAndGet(bytes);
+            selfBytes.addAndGet(ownBytes);
+        }
+
+        private void fill(final ObjectNode node)
+        {
+            node.put("calls", calls.get());
+            node.put("selfNanos", selfNanos.get());
+            node.put("totalNanos", totalNanos.get());
+            node.put("selfBytes", selfBytes.get());
+            node.put("totalBytes", totalBytes.get());
+        }
+    }
+
+    /*
+     * Per thread allocation counter; returns 0 if not supported by the JVM.
+     *
+     * The allocation methods are not part of java.lang.management, they are
+     * defined by com.sun.management.ThreadMXBean in HotSpot based JVMs. They
+     * are looked up by reflection so that this class does not depend on this
+     * interface, which may not be present or visible (for instance, from an
+     * OSGi bundle). They are looked up in the interfaces of the platform
+     * bean, as its implementation class may not be accessible.
+     */
+    private abstract static class AllocationCounter
+    {
+        private static final AllocationCounter UNAVAILABLE
+            = new AllocationCounter()
+        {
+            @Override
+            boolean isAvailable()
+            {
+                return false;
+            }
+
+            @Override
+            long get()
+            {
+                return 0L;
+            }
+        };
+
+        abstract boolean isAvailable();
+
+        abstract long get();
+
+        private static AllocationCounter create()
+        {
+            final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            final Method supported = findMethod(bean.getClass(),
+                "isThreadAllocatedMemorySupported");
+            final Method enabled = findMethod(bean.getClass(),
+                "isThreadAllocatedMemoryEnabled");
+            final Method bytes = findMethod(bean.getClass(),
+                "getThreadAllocatedBytes", long.class);
+
+            if (supported == null || enabled == null || bytes == null)
+                return UNAVAILABLE;
+
+            try {
+                if (!((Boolean) supported.invoke(bean)
+                    && (Boolean) enabled.invoke(bean)))
+                    return UNAVAILABLE;
+                bytes.invoke(bean, Thread.currentThread().getId());
+            } catch (Exception ignored) {
+                return UNAVAILABLE;
+            }
+
+            return new AllocationCounter()
+            {
+                @Override
+                boolean isAvailable()
+                {
+                    return true;
+                }
+
+                @Override
+                long get()
+                {
+                    try {
+                        return (Long) bytes.invoke(bean,
+                            Thread.currentThread().getId());
+                    } catch (Exception ignored) {
+                        return 0L;
+                    }
+                }
+            };
+        }
+
+        /*
+         * Find a public method declared by a public interface implemented by
+         * a class, or null if there is none
+         */
+        private static Method findMethod(final Class<?> c, final String name,
+            final Class<?>... types)
+        {
+            Method method;
+
+            for (Class<?> k = c; k != null; k = k.getSuperclass())
+                for (final Class<?> iface: k.getInterfaces()) {
+                    method = findInInterface(iface, name, types);
+                    if (method != null)
+                        return method;
+                }
+
+            return null;
+        }
+
+        private static Method findInInterface(final Class<?> iface,
+            final String name, final Class<?>... types)
+        {
+            if (Modifier.isPublic(iface.getModifiers()))
+                try {
+                    return iface.getDeclaredMethod(name, types);
+                } catch (NoSuchMethodException ignored) {
+                    // try superinterfaces
+                }
+
+            Method method;
+            for (final Class<?> parent: iface.getInterfaces()) {
+                method = findInInterface(parent, name, types);
+                if (method != null)
+                    return method;
+            }
+
+            return null;
+        }
+    }
+}
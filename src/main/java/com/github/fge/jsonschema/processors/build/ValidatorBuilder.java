@@ -23,6 +23,7 @@ import java.util.Map;
 import java.util.SortedMap;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jackson.NodeType;
 import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.processing.Processor;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
@@ -30,6 +31,10 @@ import com.github.fge.jsonschema.core.util.Dictionary;
 import com.github.fge.jsonschema.keyword.validator.KeywordValidator;
 import com.github.fge.jsonschema.keyword.validator.KeywordValidatorFactory;
 import com.github.fge.jsonschema.library.Library;
+import com.github.fge.jsonschema.metrics.MeteredKeywordValidator;
+import com.github.fge.jsonschema.metrics.NoOpValidationMetrics;
+import com.github.fge.jsonschema.metrics.ValidationMetrics;
+import com.github.fge.jsonschema.processors.data.SchemaContext;
 import com.github.fge.jsonschema.processors.data.SchemaDigest;
 import com.github.fge.jsonschema.processors.data.ValidatorList;
 import com.github.fge.jsonschema.processors.validation.ValidationProcessor;
@@ -42,6 +47,13 @@ import com.google.common.collect.Maps;
  * ValidatorList}. The main processor, {@link ValidationProcessor}, then uses
  * this validator list to perform actual instance validation.</p>
  *
+ * <p>Validators are shared between equal digests (see {@link
+ * ValidatorPool}).</p>
+ *
+ * <p>If validation metrics are enabled, each validator is wrapped so that its
+ * runs are reported to the metrics collector. Otherwise, validators are
+ * optimized for the instance type (see {@link ValidatorFuser}).</p>
+ *
  * @see ValidationProcessor
  */
 public final class ValidatorBuilder
@@ -49,16 +61,26 @@ public final class ValidatorBuilder
 {
     private final Map<String, KeywordValidatorFactory>
         factories;
+    private final ValidationMetrics metrics;
+    private final ValidatorPool pool = new ValidatorPool();
 
     public ValidatorBuilder(final Library library)
+    {
+        this(library, NoOpValidationMetrics.getInstance());
+    }
+
+    public ValidatorBuilder(final Library library,
+        final ValidationMetrics metrics)
     {
         factories = library.getValidators().entries();
+        this.metrics = metrics;
     }
 
     public ValidatorBuilder(
         final Dictionary<KeywordValidatorFactory> dict)
     {
         factories = dict.entries();
+        metrics = NoOpValidationMetrics.getInstance();
     }
 
     /**
@@ -80,16 +102,33 @@ public final class ValidatorBuilder
         JsonNode digest;
         KeywordValidator validator;
         KeywordValidatorFactory factory;
+        final boolean metered
+            = metrics != NoOpValidationMetrics.getInstance();
 
         for (final Map.Entry<String, JsonNode> entry:
             input.getDigests().entrySet()) {
             keyword = entry.getKey();
             digest = entry.getValue();
             factory = factories.get(keyword);
-            validator = factory.getKeywordValidator(digest);
+            validator = pool.getValidator(keyword, digest, factory);
+            if (metered)
+                validator = new MeteredKeywordValidator(keyword, validator,
+                    metrics);
             map.put(keyword, validator);
         }
-        return new ValidatorList(input.getContext(), map.values());
+
+        /*
+         * Metered validators are kept as is, so that each keyword is accounted
+         * for
+         */
+        final SchemaContext context = input.getContext();
+        if (metered)
+            return new ValidatorList(context, map.values());
+
+        final NodeType type = context == null ? null
+            : context.getInstanceType();
+        return new ValidatorList(context,
+            ValidatorFuser.fuse(type, map.values()));
     }
 
     @Override
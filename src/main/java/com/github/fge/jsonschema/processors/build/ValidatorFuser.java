@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.processors.build;
+
+import com.github.fge.jackson.NodeType;
+import com.github.fge.jsonschema.keyword.validator.KeywordValidator;
+import com.github.fge.jsonschema.keyword.validator.common.MaxLengthValidator;
+import com.github.fge.jsonschema.keyword.validator.common.MinLengthValidator;
+import com.github.fge.jsonschema.keyword.validator.common.StringLengthValidator;
+import com.github.fge.jsonschema.keyword.validator.draftv3.DraftV3TypeValidator;
+import com.github.fge.jsonschema.keyword.validator.draftv4.DraftV4TypeValidator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Optimization pass over the validators built for one instance type
+ *
+ * <p>Validator lists are built for a given instance type; this pass uses
+ * this knowledge:</p>
+ *
+ * <ul>
+ *     <li>{@code type} validators which accept the instance type are removed,
+ *     since they always succeed;</li>
+ *     <li>{@code maxLength} and {@code minLength} validators are replaced with
+ *     a single {@link StringLengthValidator}.</li>
+ * </ul>
+ *
+ * <p>Only validators of this package's libraries are considered, and fusion
+ * only happens for validators which are adjacent in the list, so that the
+ * order of messages is unchanged.</p>
+ */
+final class ValidatorFuser
+{
+    private ValidatorFuser()
+    {
+    }
+
+    static Collection<KeywordValidator> fuse(@Nullable final NodeType type,
+        final Collection<KeywordValidator> validators)
+    {
+        final List<KeywordValidator> list = ImmutableList.copyOf(validators);
+        final int size = list.size();
+        final List<KeywordValidator> ret
+            = Lists.newArrayListWithCapacity(size);
+
+        KeywordValidator validator;
+
+        for (int index = 0; index < size; index++) {
+            validator = list.get(index);
+            if (type != null && acceptsType(validator, type))
+                continue;
+            if (validator instanceof MaxLengthValidator && index + 1 < size
+                && list.get(index + 1) instanceof MinLengthValidator) {
+                ret.add(new StringLengthValidator(
+                    (MaxLengthValidator) validator,
+                    (MinLengthValidator) list.get(++index)));
+                continue;
+            }
+            ret.add(validator);
+        }
+
+        return ret;
+    }
+
+    private static boolean acceptsType(final KeywordValidator validator,
+        final NodeType type)
+    {
+        if (validator instanceof DraftV4TypeValidator)
+            return ((DraftV4TypeValidator) validator).acceptsType(type);
+        if (validator instanceof DraftV3TypeValidator)
+            return ((DraftV3TypeValidator) validator).acceptsType(type);
+        return false;
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.processors.build;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.keyword.validator.KeywordValidator;
+import com.github.fge.jsonschema.keyword.validator.KeywordValidatorFactory;
+import com.github.fge.jsonschema.keyword.validator.helpers.BranchSelector;
+import com.google.common.collect.MapMaker;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Pool of keyword validators, shared between equal digests
+ *
+ * <p>Keyword validators only depend on their digest. Large sets of schemas
+ * tend to repeat the same keywords with the same values over and over
+ * ({@code "type": "string"}, {@code "minimum": 0}, lists of required
+ * properties...); this pool makes all validator lists built for such keywords
+ * share a single validator instance, along with what this validator
+ * retains from its digest.</p>
+ *
+ * <p>Digests are considered equal only if they are written the same: unlike
+ * with {@link JsonNode#equals(Object)}, numeric nodes must be of the same
+ * class, and object members must appear in the same order. This ensures that
+ * messages from shared validators do not differ in any way.</p>
+ *
+ * <p>As a consequence, validators must not retain anything about the schemas
+ * they are used with: a validator shared by two schemas would otherwise keep
+ * replacing what it computed for one schema with what it computed for the
+ * other. Validators which need per schema data, such as {@link
+ * BranchSelector}s, must look it up from the schema instead.</p>
+ *
+ * <p>Validators are only weakly retained by the pool.</p>
+ */
+@ThreadSafe
+final class ValidatorPool
+{
+    private final ConcurrentMap<PoolKey, KeywordValidator> validators
+        = new MapMaker().weakValues().makeMap();
+
+    /**
+     * Return a validator for a keyword and digest
+     *
+     * @param keyword the keyword name
+     * @param digest the digest
+     * @param factory the validator factory for this keyword
+     * @return a validator, possibly shared
+     * @throws ProcessingException failed to build the validator
+     */
+    KeywordValidator getValidator(final String keyword, final JsonNode digest,
+        final KeywordValidatorFactory factory)
+        throws ProcessingException
+    {
+        final PoolKey key = new PoolKey(keyword, digest);
+        final KeywordValidator validator = validators.get(key);
+        if (validator != null)
+            return validator;
+
+        final KeywordValidator ret = factory.getKeywordValidator(digest);
+        final KeywordValidator previous = validators.putIfAbsent(key, ret);
+        return previous == null ? ret : previous;
+    }
+
+    /**
+     * Return the number of validators in this pool
+     *
+     * @return the number of validators
+     */
+    int size()
+    {
+        return validators.size();
+    }
+
+    /**
+     * Tell whether two JSON values are written the same
+     *
+     * @param a the first value
+     * @param b the second value
+     * @return true if both values are written the same
+     */
+    static boolean sameWriting(final JsonNode a, final JsonNode b)
+    {
+        if (a.getClass() != b.getClass() || a.size() != b.size())
+            return false;
+
+        if (a.isArray()) {
+            final int size = a.size();
+            for (int i = 0; i < size; i++)
+                if (!sameWriting(a.get(i), b.get(i)))
+                    return false;
+            return true;
+        }
+
+        if (!a.isObject())
+            return a.equals(b);
+
+        final Iterator<Map.Entry<String, JsonNode>> i1 = a.fields();
+        final Iterator<Map.Entry<String, JsonNode>> i2 = b.fields();
+
+        Map.Entry<String, JsonNode> e1, e2;
+
+        while (i1.hasNext()) {
+            e1 = i1.next();
+            e2 = i2.next();
+            if (!e1.getKey().equals(e2.getKey()))
+                return false;
+            if (!sameWriting(e1.getValue(), e2.getValue()))
+                return false;
+        }
+        return true;
+    }
+
+    private static final class PoolKey
+    {
+        private final String keyword;
+        private final JsonNode digest;
+        private final int hashCode;
+
+        private PoolKey(final String keyword, final JsonNode digest)
+        {
+            this.keyword = keyword;
+            this.digest = digest;
+            hashCode = 31 * keyword.hashCode() + digest.hashCode();
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(@Nullable final Object obj)
+        {
+            if (obj == null || getClass() != obj.getClass())
+                return false;
+            final PoolKey other = (PoolKey) obj;
+            return hashCode == other.hashCode
+                && keyword.equals(other.keyword)
+                && sameWriting(digest, other.digest);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.processors.digest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jackson.NodeType;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.processing.Processor;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.keyword.validator.KeywordValidatorFactory;
+import com.github.fge.jsonschema.library.Library;
+import com.github.fge.jsonschema.library.validator.DraftV3ValidatorDictionary;
+import com.github.fge.jsonschema.library.validator.DraftV4ValidatorDictionary;
+import com.github.fge.jsonschema.processors.data.SchemaContext;
+import com.github.fge.jsonschema.processors.data.SchemaDigest;
+import com.github.fge.jsonschema.processors.validation.ValidationChain;
+import com.github.fge.msgsimple.bundle.MessageBundle;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Static analysis of schema digests
+ *
+ * <p>This processor is called by a {@link ValidationChain} after the {@link
+ * SchemaDigester}. It removes from the digests the keywords which cannot fail
+ * for any instance of the type of the digest, so that no validator is built
+ * for them:</p>
+ *
+ * <ul>
+ *     <li>{@code additionalItems} and {@code additionalProperties} when
+ *     they allow all additional elements or members;</li>
+ *     <li>{@code minItems}, {@code minLength} and {@code minProperties} when
+ *     they are 0;</li>
+ *     <li>{@code uniqueItems} when it is false;</li>
+ *     <li>draft v3's {@code properties} when no property is required;</li>
+ *     <li>{@code allOf} and draft v3's {@code extends} when all their
+ *     schemas are empty;</li>
+ *     <li>{@code multipleOf} and draft v3's {@code divisibleBy} for integer
+ *     instances, when all integers are multiples of the divisor (for
+ *     instance, 1 or 0.5).</li>
+ * </ul>
+ *
+ * <p>This is only done if the library uses the standard validators for these
+ * keywords.</p>
+ *
+ * <p>Pairs of keywords which no instance can satisfy at the same time (for
+ * instance, {@code minLength} greater than {@code maxLength}) are reported as
+ * debug messages. So are keywords which no instance of the type can satisfy
+ * at all: {@code not} with an empty schema, and draft v3's {@code disallow}
+ * with all types. Validators are still built for them, since they produce
+ * the validation messages.</p>
+ */
+public final class SchemaAnalyzer
+    implements Processor<SchemaDigest, SchemaDigest>
+{
+    private static final Map<String, KeywordValidatorFactory> STANDARD
+        = Maps.newHashMap();
+
+    private static final Set<String> PRUNABLE = ImmutableSet.of(
+        "additionalItems", "additionalProperties", "minItems", "minLength",
+        "minProperties", "uniqueItems", "properties", "allOf", "extends",
+        "multipleOf", "divisibleBy"
+    );
+
+    static {
+        STANDARD.putAll(DraftV3ValidatorDictionary.get().entries());
+        STANDARD.putAll(DraftV4ValidatorDictionary.get().entries());
+    }
+
+    private final Set<String> prunable = Sets.newHashSet();
+    private final MessageBundle bundle;
+
+    public SchemaAnalyzer(final Library library, final MessageBundle bundle)
+    {
+        final Map<String, KeywordValidatorFactory> factories
+            = library.getValidators().entries();
+
+        for (final String keyword: PRUNABLE)
+            if (factories.get(keyword) == STANDARD.get(keyword))
+                prunable.add(keyword);
+        this.bundle = bundle;
+    }
+
+    @Override
+    public SchemaDigest process(final ProcessingReport report,
+        final SchemaDigest input)
+        throws ProcessingException
+    {
+        final Map<String, JsonNode> digests = input.getDigests();
+
+        checkBounds(report, input, "minLength", "maxLength");
+        checkBounds(report, input, "minItems", "maxItems");
+        checkBounds(report, input, "minProperties", "maxProperties");
+        checkNumericBounds(report, input);
+        checkAlwaysFalse(report, input);
+
+        final SchemaContext context = input.getContext();
+        final Map<String, JsonNode> map = Maps.newHashMap();
+        final JsonNode schema = context.getSchema().getNode();
+        final NodeType type = context.getInstanceType();
+
+        String keyword;
+        boolean pruned = false;
+
+        for (final Map.Entry<String, JsonNode> entry: digests.entrySet()) {
+            keyword = entry.getKey();
+            if (prunable.contains(keyword)
+                && alwaysValid(keyword, entry.getValue(), schema, type)) {
+                pruned = true;
+                continue;
+            }
+            map.put(keyword, entry.getValue());
+        }
+
+        return pruned ? new SchemaDigest(input.getContext(), map) : input;
+    }
+
+    private static boolean alwaysValid(final String keyword,
+        final JsonNode digest, final JsonNode schema, final NodeType type)
+    {
+        switch (keyword) {
+            case "additionalItems":
+            case "additionalProperties":
+                return digest.get(keyword).booleanValue();
+            case "minItems":
+            case "minLength":
+            case "minProperties":
+                return digest.get(keyword).intValue() == 0;
+            case "uniqueItems":
+                return !digest.get(keyword).booleanValue();
+            case "properties":
+                return digest.get("required").size() == 0;
+            case "allOf":
+            case "extends":
+                return allEmpty(schema.get(keyword));
+            case "multipleOf":
+            case "divisibleBy":
+                return type == NodeType.INTEGER && BigDecimal.ONE.remainder(
+                    digest.get(keyword).decimalValue()).signum() == 0;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean allEmpty(final JsonNode node)
+    {
+        if (node.isObject())
+            return node.size() == 0;
+        for (final JsonNode element: node)
+            if (!(element.isObject() && element.size() == 0))
+                return false;
+        return true;
+    }
+
+    private void checkBounds(final ProcessingReport report,
+        final SchemaDigest input, final String minKeyword,
+        final String maxKeyword)
+        throws ProcessingException
+    {
+        final Map<String, JsonNode> digests = input.getDigests();
+        final JsonNode min = digests.get(minKeyword);
+        final JsonNode max = digests.get(maxKeyword);
+
+        if (min == null || max == null)
+            return;
+
+        if (min.get(minKeyword).intValue() > max.get(maxKeyword).intValue())
+            reportUnsatisfiable(report, input, minKeyword, maxKeyword);
+    }
+
+    private void checkNumericBounds(final ProcessingReport report,
+        final SchemaDigest input)
+        throws ProcessingException
+    {
+        final Map<String, JsonNode> digests = input.getDigests();
+        final JsonNode min = digests.get("minimum");
+        final JsonNode max = digests.get("maximum");
+
+        if (min == null || max == null)
+            return;
+
+        final int cmp = min.get("minimum").decimalValue()
+            .compareTo(max.get("maximum").decimalValue());
+
+        if (cmp > 0 || cmp == 0 && (min.get("exclusive").booleanValue()
+            || max.get("exclusive").booleanValue()))
+            reportUnsatisfiable(report, input, "minimum", "maximum");
+    }
+
+    private void checkAlwaysFalse(final ProcessingReport report,
+        final SchemaDigest input)
+        throws ProcessingException
+    {
+        final Map<String, JsonNode> digests = input.getDigests();
+        final JsonNode schema = input.getContext().getSchema().getNode();
+
+        if (digests.containsKey("not") && allEmpty(schema.get("not")))
+            reportAlwaysFalse(report, input, "not");
+
+        final JsonNode disallow = digests.get("disallow");
+        if (disallow != null
+            && disallow.get("disallow").size() == NodeType.values().length)
+            reportAlwaysFalse(report, input, "disallow");
+    }
+
+    private void reportAlwaysFalse(final ProcessingReport report,
+        final SchemaDigest input, final String keyword)
+        throws ProcessingException
+    {
+        final SchemaContext context = input.getContext();
+        report.debug(input.newMessage().put("domain", "validation")
+            .setMessage(bundle.getMessage("debug.analysis.alwaysFalse"))
+            .putArgument("keyword", keyword)
+            .putArgument("instanceType", context.getInstanceType()));
+    }
+
+    private void reportUnsatisfiable(final ProcessingReport report,
+        final SchemaDigest input, final String first, final String second)
+        throws ProcessingException
+    {
+        final SchemaContext context = input.getContext();
+        report.debug(input.newMessage().put("domain", "validation")
+            .setMessage(bundle.getMessage("debug.analysis.unsatisfiable"))
+            .putArgument("first", first).putArgument("second", second)
+            .putArgument("instanceType", context.getInstanceType()));
+    }
+
+    @Override
+    public String toString()
+    {
+        return "schema analyzer";
+    }
+}
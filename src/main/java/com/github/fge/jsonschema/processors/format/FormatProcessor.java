@@ -24,12 +24,17 @@ import com.github.fge.jackson.NodeType;
 import com.github.fge.jsonschema.cfg.ValidationConfiguration;
 import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.processing.Processor;
+import com.github.fge.jsonschema.core.report.ListProcessingReport;
+import com.github.fge.jsonschema.core.report.LogLevel;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
 import com.github.fge.jsonschema.core.util.Dictionary;
 import com.github.fge.jsonschema.format.FormatAttribute;
 import com.github.fge.jsonschema.keyword.validator.KeywordValidator;
 import com.github.fge.jsonschema.library.Library;
 import com.github.fge.jsonschema.messages.JsonSchemaValidationBundle;
+import com.github.fge.jsonschema.metrics.MeteredKeywordValidator;
+import com.github.fge.jsonschema.metrics.NoOpValidationMetrics;
+import com.github.fge.jsonschema.metrics.ValidationMetrics;
 import com.github.fge.jsonschema.processors.build.ValidatorBuilder;
 import com.github.fge.jsonschema.processors.data.FullData;
 import com.github.fge.jsonschema.processors.data.SchemaContext;
@@ -37,7 +42,10 @@ import com.github.fge.jsonschema.processors.data.ValidatorList;
 import com.github.fge.msgsimple.bundle.MessageBundle;
 import com.github.fge.msgsimple.load.MessageBundles;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
 import java.util.List;
 import java.util.Map;
@@ -59,18 +67,38 @@ import java.util.Map;
  * </ul>
  *
  * <p>Note that it will warn if the format attribute is not recognized.</p>
+ *
+ * <p>If a format cache size is configured, the string values for which a
+ * format attribute yields no message at all are cached along with the format
+ * attribute name, and are not validated again. Values longer than {@link
+ * #MAX_CACHED_LENGTH} characters are always validated and never cached, so
+ * that the cache size bounds the memory it retains.</p>
+ *
+ * @see ValidationConfiguration#getFormatCacheSize()
  */
 public final class FormatProcessor
     implements Processor<ValidatorList, ValidatorList>
 {
+    /**
+     * Maximum length of string values kept in the format cache
+     */
+    public static final int MAX_CACHED_LENGTH = 1024;
+
     private final Map<String, FormatAttribute> attributes;
     private final MessageBundle bundle;
+    private final ValidationMetrics metrics;
+    private final Cache<Map.Entry<String, String>, Boolean> cache;
 
     public FormatProcessor(final Library library,
         final ValidationConfiguration cfg)
     {
         attributes = library.getFormatAttributes().entries();
         bundle = cfg.getValidationMessages();
+        metrics = cfg.getValidationMetrics();
+        final int cacheSize = cfg.getFormatCacheSize();
+        cache = cacheSize == 0 ? null
+            : CacheBuilder.newBuilder().maximumSize(cacheSize)
+                .<Map.Entry<String, String>, Boolean>build();
     }
 
     @VisibleForTesting
@@ -78,6 +106,8 @@ public final class FormatProcessor
     {
         attributes = dict.entries();
         bundle = MessageBundles.getBundle(JsonSchemaValidationBundle.class);
+        metrics = NoOpValidationMetrics.getInstance();
+        cache = null;
     }
 
     @Override
@@ -108,7 +138,11 @@ public final class FormatProcessor
             return input;
 
         final List<KeywordValidator> validators = Lists.newArrayList(input);
-        validators.add(formatValidator(attr));
+        final KeywordValidator validator = cache == null
+            ? formatValidator(attr) : cachingFormatValidator(fmt, attr);
+        validators.add(metrics == NoOpValidationMetrics.getInstance()
+            ? validator
+            : new MeteredKeywordValidator("format", validator, metrics));
 
         return new ValidatorList(context, validators);
     }
@@ -129,6 +163,50 @@ public final class FormatProcessor
         };
     }
 
+    private KeywordValidator cachingFormatValidator(final String fmt,
+        final FormatAttribute attr)
+    {
+        final boolean metered = metrics != NoOpValidationMetrics.getInstance();
+
+        return new KeywordValidator()
+        {
+            @Override
+            public void validate(
+                final Processor<FullData, FullData> processor,
+                final ProcessingReport report, final MessageBundle bundle,
+                final FullData data)
+                throws ProcessingException
+            {
+                final JsonNode instance = data.getInstance().getNode();
+                if (!instance.isTextual()
+                    || instance.textValue().length() > MAX_CACHED_LENGTH) {
+                    attr.validate(report, bundle, data);
+                    return;
+                }
+
+                final Map.Entry<String, String> key
+                    = Maps.immutableEntry(fmt, instance.textValue());
+                if (metered)
+                    metrics.cacheLookup("format");
+                if (cache.getIfPresent(key) != null)
+                    return;
+                if (metered)
+                    metrics.cacheMiss("format");
+
+                /*
+                 * Capture all messages, whatever their level, and never throw
+                 * from here: the report we merge into will
+                 */
+                final ListProcessingReport result
+                    = new ListProcessingReport(LogLevel.DEBUG, LogLevel.NONE);
+                attr.validate(result, bundle, data);
+                if (result.isSuccess() && !result.iterator().hasNext())
+                    cache.put(key, Boolean.TRUE);
+                report.mergeWith(result);
+            }
+        };
+    }
+
     @Override
     public String toString()
     {
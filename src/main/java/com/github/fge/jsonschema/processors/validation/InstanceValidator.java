@@ -22,26 +22,34 @@ package com.github.fge.jsonschema.processors.validation;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.github.fge.jackson.JacksonUtils;
+import com.github.fge.jackson.NodeType;
 import com.github.fge.jackson.jsonpointer.JsonPointer;
 import com.github.fge.jsonschema.core.exceptions.InvalidSchemaException;
 import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.processing.Processor;
+import com.github.fge.jsonschema.core.report.ListProcessingReport;
 import com.github.fge.jsonschema.core.report.ProcessingMessage;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
 import com.github.fge.jsonschema.core.tree.JsonTree;
 import com.github.fge.jsonschema.core.tree.SchemaTree;
 import com.github.fge.jsonschema.keyword.validator.KeywordValidator;
 import com.github.fge.jsonschema.main.JsonValidator;
+import com.github.fge.jsonschema.metrics.NoOpValidationMetrics;
+import com.github.fge.jsonschema.metrics.ValidationMetrics;
 import com.github.fge.jsonschema.processors.data.FullData;
 import com.github.fge.jsonschema.processors.data.SchemaContext;
 import com.github.fge.jsonschema.processors.data.ValidatorList;
+import com.github.fge.jsonschema.processors.validation.ValidatorTable.SchemaEntry;
 import com.github.fge.msgsimple.bundle.MessageBundle;
 import com.google.common.collect.Lists;
 
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import javax.annotation.concurrent.NotThreadSafe;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Processor for validating one schema/instance pair
@@ -54,6 +62,23 @@ import java.util.List;
  * precisely, this is instantiated by {@link
  * ValidationProcessor#process(ProcessingReport, FullData)}.</p>
  *
+ * <p>If a memo size is configured, the report of each subschema/instance
+ * pointer pair is memoized, and reused if the same pair is seen again during
+ * this validation. Note that results are only memoized if the report is successful
+ * when validation of the pair starts (or if this is a deep check), since a
+ * failure otherwise prevents children from being validated.</p>
+ *
+ * <p>If a {@link ValidationMemo} is provided instead, the reports of container
+ * instances are recorded into it, by pointer of the instance, and reused from
+ * it; see {@link ValidationMemo} for details.</p>
+ *
+ * <p>Schemas which validate all instances without any message, such as the
+ * empty schema, are skipped altogether; see {@link TrivialSchemas}.</p>
+ *
+ * <p>If a validator table is provided, the keyword validators of subschemas,
+ * and the subschemas applying to children of instances, are obtained from
+ * it.</p>
+ *
  */
 @NotThreadSafe
 @ParametersAreNonnullByDefault
@@ -63,8 +88,19 @@ final class InstanceValidator
     private final MessageBundle syntaxMessages;
     private final MessageBundle validationMessages;
     private final Processor<SchemaContext, ValidatorList> keywordBuilder;
+    private final ValidationMetrics metrics;
+    private final boolean metered;
 
     private final ValidationStack stack;
+    @Nullable
+    private final Map<MemoKey, ListProcessingReport> memo;
+    private final boolean memoByPointer;
+    @Nullable
+    private final ValidatorTable table;
+    @Nullable
+    private final TrivialSchemas trivialSchemas;
+    @Nullable
+    private final LinkedRefs links;
 
     /**
      * Constructor -- do not use directly!
@@ -72,18 +108,40 @@ final class InstanceValidator
      * @param syntaxMessages the syntax message bundle
      * @param validationMessages the validation message bundle
      * @param keywordBuilder the keyword builder
+     * @param metrics the validation metrics collector
+     * @param memoSize the memo size; 0 disables memoization
+     * @param validationMemo the memo to record results into, if any (in which
+     * case the memo size is ignored)
+     * @param table the validator table, if any
+     * @param trivialSchemas the detector of trivially true schemas, if any
+     * @param links the linked JSON References, if any
      */
     InstanceValidator(final MessageBundle syntaxMessages,
         final MessageBundle validationMessages,
-        final Processor<SchemaContext, ValidatorList> keywordBuilder)
+        final Processor<SchemaContext, ValidatorList> keywordBuilder,
+        final ValidationMetrics metrics, final int memoSize,
+        @Nullable final ValidationMemo validationMemo,
+        @Nullable final ValidatorTable table,
+        @Nullable final TrivialSchemas trivialSchemas,
+        @Nullable final LinkedRefs links)
     {
         this.syntaxMessages = syntaxMessages;
         this.validationMessages = validationMessages;
         this.keywordBuilder = keywordBuilder;
+        this.metrics = metrics;
+        metered = metrics != NoOpValidationMetrics.getInstance();
 
         final String errmsg
             = validationMessages.getMessage("err.common.validationLoop");
         stack = new ValidationStack(errmsg);
+        memoByPointer = validationMemo != null;
+        if (memoByPointer)
+            memo = validationMemo.getEntries();
+        else
+            memo = memoSize == 0 ? null : newMemo(memoSize);
+        this.table = table;
+        this.trivialSchemas = trivialSchemas;
+        this.links = links;
     }
 
     @Override
@@ -92,22 +150,31 @@ final class InstanceValidator
         throws ProcessingException
     {
         /*
-         * We don't want the same validation context to appear twice, see above
+         * A trivially true schema validates all instances without any
+         * message: there is nothing to do
          */
-        stack.push(input);
-
+        if (isTrivial(input.getSchema()))
+            return input;
 
         /*
-         * Build a validation context, attach a report to it
+         * We don't want the same validation context to appear twice, see above
          */
-        final SchemaContext context = new SchemaContext(input);
+        stack.push(input);
 
         /*
-         * Get the full context from the cache. Inject the messages into the
-         * main report.
+         * Get the full context, either from the validator table or from the
+         * cache. Inject the messages into the main report. If the schema is a
+         * linked reference, start from its target.
          */
-        final ValidatorList fullContext = keywordBuilder.process(report,
-            context);
+        final SchemaTree schema = links == null ? input.getSchema()
+            : links.resolve(input.getSchema());
+        final NodeType type
+            = NodeType.getNodeType(input.getInstance().getNode());
+        final SchemaEntry entry = table == null ? null
+            : table.get(schema);
+        final ValidatorList fullContext = entry == null
+            ? keywordBuilder.process(report, new SchemaContext(schema, type))
+            : entry.getValidators(report, type);
 
         if (fullContext == null) {
             final ProcessingMessage message = collectSyntaxErrors(report);
@@ -121,10 +188,34 @@ final class InstanceValidator
         final FullData data = new FullData(newContext.getSchema(),
             input.getInstance(), input.isDeepCheck());
 
+        /*
+         * Memos recorded by pointer only keep results for containers: others
+         * are cheap to validate again
+         */
+        if (memo == null || memoByPointer
+            && !data.getInstance().getNode().isContainerNode())
+            validateChecked(report, fullContext, data);
+        else
+            validateMemoized(report, fullContext, data);
+
+        stack.pop();
+        return input;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "instance validator";
+    }
+
+    private void validate(final ProcessingReport report,
+        final ValidatorList validators, final FullData data)
+        throws ProcessingException
+    {
         /*
          * Validate against all keywords.
          */
-        for (final KeywordValidator validator: fullContext)
+        for (final KeywordValidator validator: validators)
             validator.validate(this, report, validationMessages, data);
 
         /*
@@ -132,10 +223,8 @@ final class InstanceValidator
          * reason to go any further. Unless the user has asked to continue even
          * in this case.
          */
-        if (!(report.isSuccess() || data.isDeepCheck())) {
-            stack.pop();
-            return input;
-        }
+        if (!(report.isSuccess() || data.isDeepCheck()))
+            return;
 
         /*
          * Now check whether this is a container node with a size greater than
@@ -149,15 +238,64 @@ final class InstanceValidator
             else
                 processObject(report, data);
         }
+    }
 
-        stack.pop();
-        return input;
+    private void validateChecked(final ProcessingReport report,
+        final ValidatorList validators, final FullData data)
+        throws ProcessingException
+    {
+        if (metered)
+            validateMetered(report, validators, data);
+        else
+            validate(report, validators, data);
     }
 
-    @Override
-    public String toString()
+    private void validateMemoized(final ProcessingReport report,
+        final ValidatorList validators, final FullData data)
+        throws ProcessingException
     {
-        return "instance validator";
+        /*
+         * If the report is already a failure, children are not explored: the
+         * result would differ from the one in a fresh report.
+         */
+        if (!(report.isSuccess() || data.isDeepCheck())) {
+            validateChecked(report, validators, data);
+            return;
+        }
+
+        final MemoKey key = new MemoKey(data);
+        if (metered)
+            metrics.cacheLookup("memo");
+
+        ListProcessingReport result = memo.get(key);
+
+        if (result == null) {
+            if (metered)
+                metrics.cacheMiss("memo");
+            /*
+             * Same exception threshold: if an exception should be thrown, it
+             * is thrown from here and nothing is memoized.
+             */
+            result = new ListProcessingReport(report.getLogLevel(),
+                report.getExceptionThreshold());
+            validateChecked(result, validators, data);
+            memo.put(key, result);
+        }
+
+        report.mergeWith(result);
+    }
+
+    private void validateMetered(final ProcessingReport report,
+        final ValidatorList validators, final FullData data)
+        throws ProcessingException
+    {
+        metrics.subschemaStarted(data);
+        final long start = System.nanoTime();
+        try {
+            validate(report, validators, data);
+        } finally {
+            metrics.subschemaValidated(data, System.nanoTime() - start);
+        }
     }
 
     private void processArray(final ProcessingReport report,
@@ -170,9 +308,13 @@ final class InstanceValidator
         final JsonNode schema = tree.getNode();
         final JsonNode node = instance.getNode();
 
-        final JsonNode digest = ArraySchemaDigester.getInstance()
-            .digest(schema);
-        final ArraySchemaSelector selector = new ArraySchemaSelector(digest);
+        final SchemaEntry entry = table == null ? null
+            : table.get(tree);
+
+        final ArraySchemaSelector selector = entry != null
+            ? entry.getArraySelector()
+            : new ArraySchemaSelector(ArraySchemaDigester.getInstance()
+                .digest(schema));
 
         final int size = node.size();
 
@@ -183,7 +325,8 @@ final class InstanceValidator
             newInstance = instance.append(JsonPointer.of(index));
             data = input.withInstance(newInstance);
             for (final JsonPointer ptr: selector.selectSchemas(index)) {
-                data = data.withSchema(tree.append(ptr));
+                data = data.withSchema(entry != null
+                    ? entry.getChild(ptr) : tree.append(ptr));
                 process(report, data);
             }
         }
@@ -199,16 +342,32 @@ final class InstanceValidator
         final JsonNode schema = tree.getNode();
         final JsonNode node = instance.getNode();
 
-        final JsonNode digest = ObjectSchemaDigester.getInstance()
-            .digest(schema);
-        final ObjectSchemaSelector selector = new ObjectSchemaSelector(digest);
-
         final List<String> fields = Lists.newArrayList(node.fieldNames());
         Collections.sort(fields);
 
+        final SchemaEntry entry = table == null ? null
+            : table.get(tree);
+
         FullData data;
         JsonTree newInstance;
 
+        if (entry != null) {
+            for (final String field: fields) {
+                newInstance = instance.append(JsonPointer.of(field));
+                data = input.withInstance(newInstance);
+                for (final SchemaTree child:
+                    entry.getMemberSchemas(field)) {
+                    data = data.withSchema(child);
+                    process(report, data);
+                }
+            }
+            return;
+        }
+
+        final JsonNode digest = ObjectSchemaDigester.getInstance()
+            .digest(schema);
+        final ObjectSchemaSelector selector = new ObjectSchemaSelector(digest);
+
         for (final String field: fields) {
             newInstance = instance.append(JsonPointer.of(field));
             data = input.withInstance(newInstance);
@@ -219,6 +378,29 @@ final class InstanceValidator
         }
     }
 
+    private boolean isTrivial(final SchemaTree tree)
+    {
+        if (trivialSchemas != null)
+            return trivialSchemas.isTrivial(tree);
+        final JsonNode node = tree.getNode();
+        return node.isObject() && node.size() == 0;
+    }
+
+    private static Map<MemoKey, ListProcessingReport> newMemo(
+        final int memoSize)
+    {
+        return new LinkedHashMap<MemoKey, ListProcessingReport>(16, 0.75f,
+            true)
+        {
+            @Override
+            protected boolean removeEldestEntry(
+                final Map.Entry<MemoKey, ListProcessingReport> eldest)
+            {
+                return size() > memoSize;
+            }
+        };
+    }
+
     private ProcessingMessage collectSyntaxErrors(final ProcessingReport report)
     {
         /*
@@ -239,4 +421,48 @@ final class InstanceValidator
         sb.append(JacksonUtils.prettyPrint(arrayNode));
         return new ProcessingMessage().setMessage(sb.toString());
     }
+
+    /*
+     * Memo key: the (resolved) schema node by identity, and the instance
+     * pointer. Instance nodes cannot be used instead, not even by identity:
+     * Jackson shares nodes for some values (booleans, null, small integers...)
+     * and pointers appear in reports, so different instances at different
+     * pointers must not share results.
+     */
+    static final class MemoKey
+    {
+        private final JsonNode schema;
+        private final String pointer;
+
+        private MemoKey(final FullData data)
+        {
+            schema = data.getSchema().getNode();
+            pointer = data.getInstance().getPointer().toString();
+        }
+
+        /**
+         * Return the instance pointer
+         *
+         * @return the pointer, as a string
+         */
+        String getPointer()
+        {
+            return pointer;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * System.identityHashCode(schema) + pointer.hashCode();
+        }
+
+        @Override
+        public boolean equals(@Nullable final Object obj)
+        {
+            if (obj == null || getClass() != obj.getClass())
+                return false;
+            final MemoKey other = (MemoKey) obj;
+            return schema == other.schema && pointer.equals(other.pointer);
+        }
+    }
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.processors.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jsonschema.core.ref.JsonRef;
+import com.github.fge.jsonschema.core.tree.SchemaTree;
+import com.google.common.collect.ImmutableMap;
+
+import javax.annotation.concurrent.Immutable;
+import java.net.URI;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * JSON References of a schema, linked to their final targets
+ *
+ * <p>Instances of this class are produced by {@link SchemaLinker}. References
+ * are looked up by identity of their JSON node; references pointing to other
+ * references are linked to the final target.</p>
+ *
+ * @see ValidationProcessor#newSchemaProcessor(LinkedRefs)
+ */
+@Immutable
+public final class LinkedRefs
+{
+    private final Map<JsonNode, Link> links;
+    private final Map<URI, JsonNode> documents;
+
+    LinkedRefs(final Map<JsonNode, Link> links,
+        final Map<URI, JsonNode> documents)
+    {
+        this.links = new IdentityHashMap<JsonNode, Link>(links);
+        this.documents = ImmutableMap.copyOf(documents);
+    }
+
+    /**
+     * Return the documents loaded when linking references
+     *
+     * <p>This includes the document of the schema itself, if it was loaded
+     * from a URI. Keys are the URIs of the documents, without fragments; they
+     * are in the order in which documents were loaded.</p>
+     *
+     * @return an immutable map of documents
+     */
+    public Map<URI, JsonNode> getDocuments()
+    {
+        return documents;
+    }
+
+    /**
+     * Return the number of linked references
+     *
+     * @return the number of references
+     */
+    public int size()
+    {
+        return links.size();
+    }
+
+    /**
+     * Return the target of a schema tree
+     *
+     * @param tree the schema tree
+     * @return the target if the tree is a linked reference, the tree otherwise
+     */
+    SchemaTree resolve(final SchemaTree tree)
+    {
+        final Link link = links.get(tree.getNode());
+        return link == null || !link.isFor(tree) ? tree : link.target;
+    }
+
+    static final class Link
+    {
+        private final SchemaTree site;
+        private final SchemaTree target;
+
+        Link(final SchemaTree site, final SchemaTree target)
+        {
+            this.site = site;
+            this.target = target;
+        }
+
+        /*
+         * The same JSON node may be found in several trees: only link the
+         * tree the reference was found in
+         */
+        private boolean isFor(final SchemaTree tree)
+        {
+            if (tree == site)
+                return true;
+            final JsonRef ref = tree.getLoadingRef();
+            return tree.getBaseNode() == site.getBaseNode()
+                && tree.getPointer().equals(site.getPointer())
+                && (ref == site.getLoadingRef()
+                || ref.equals(site.getLoadingRef()));
+        }
+    }
+}
@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.processors.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jackson.jsonpointer.JsonPointer;
+import com.github.fge.jsonschema.cfg.ValidationConfiguration;
+import com.github.fge.jsonschema.core.exceptions.JsonReferenceException;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.keyword.syntax.checkers.SyntaxChecker;
+import com.github.fge.jsonschema.core.load.RefResolver;
+import com.github.fge.jsonschema.core.load.SchemaLoader;
+import com.github.fge.jsonschema.core.messages.JsonSchemaCoreMessageBundle;
+import com.github.fge.jsonschema.core.ref.JsonRef;
+import com.github.fge.jsonschema.core.report.ListProcessingReport;
+import com.github.fge.jsonschema.core.report.LogLevel;
+import com.github.fge.jsonschema.core.report.ProcessingMessage;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.core.tree.SchemaTree;
+import com.github.fge.jsonschema.library.Library;
+import com.github.fge.jsonschema.messages.JsonSchemaConfigurationBundle;
+import com.github.fge.jsonschema.processors.validation.LinkedRefs.Link;
+import com.github.fge.msgsimple.bundle.MessageBundle;
+import com.github.fge.msgsimple.load.MessageBundles;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Eager JSON Reference resolution
+ *
+ * <p>During validation, JSON References are resolved by a {@link RefResolver}
+ * when they are met, and the schemas they point to are loaded at that time.
+ * This class does all of this ahead of time, for all JSON References which
+ * can be reached from a schema:</p>
+ *
+ * <ul>
+ *     <li>all subschemas are walked, following JSON References, in order to
+ *     discover the documents the schema depends on;</li>
+ *     <li>at each step, the documents not yet loaded are loaded in parallel,
+ *     using the {@link SchemaLoader} which validation uses;</li>
+ *     <li>once all documents are loaded, reference loops are detected, and
+ *     each reference is linked to its final target.</li>
+ * </ul>
+ *
+ * <p>The documents which have been loaded are available from the result (see
+ * {@link LinkedRefs#getDocuments()}).</p>
+ *
+ * <p>Dangling references, reference loops and loading errors raise the same
+ * exceptions as they would during validation.</p>
+ *
+ * <p>Subschemas are found using the syntax checkers of the libraries of the
+ * configuration; syntax errors are not reported at this point.</p>
+ */
+@ThreadSafe
+public final class SchemaLinker
+{
+    private static final MessageBundle BUNDLE
+        = MessageBundles.getBundle(JsonSchemaCoreMessageBundle.class);
+    private static final MessageBundle CONFIG_BUNDLE
+        = MessageBundles.getBundle(JsonSchemaConfigurationBundle.class);
+
+    private static final ThreadFactory THREAD_FACTORY
+        = new ThreadFactoryBuilder().setDaemon(true)
+        .setNameFormat("schema-linker-%d").build();
+
+    private final SchemaLoader loader;
+    private final Map<JsonRef, Map<String, SyntaxChecker>> checkers;
+    private final Map<String, SyntaxChecker> defaultCheckers;
+    private final MessageBundle syntaxMessages;
+    private final int threads;
+
+    public SchemaLinker(final SchemaLoader loader,
+        final ValidationConfiguration cfg)
+    {
+        this.loader = loader;
+        final ImmutableMap.Builder<JsonRef, Map<String, SyntaxChecker>> builder
+            = ImmutableMap.builder();
+        for (final Map.Entry<JsonRef, Library> entry:
+            cfg.getLibraries().entrySet())
+            builder.put(entry.getKey(),
+                entry.getValue().getSyntaxCheckers().entries());
+        checkers = builder.build();
+        defaultCheckers = cfg.getDefaultLibrary().getSyntaxCheckers()
+            .entries();
+        syntaxMessages = cfg.getSyntaxMessages();
+        threads = Math.max(1, cfg.getRefLinkingThreads());
+    }
+
+    /**
+     * Link all JSON References reachable from a schema
+     *
+     * @param tree the schema
+     * @return the linked references
+     * @throws ProcessingException a referenced schema failed to load, a
+     * reference is dangling, or there is a reference loop
+     */
+    public LinkedRefs link(final SchemaTree tree)
+        throws ProcessingException
+    {
+        final Linking linking = new Linking();
+        linking.pending.add(tree);
+        final JsonRef loadingRef = tree.getLoadingRef();
+        if (loadingRef.isAbsolute())
+            linking.documents.put(loadingRef.getLocator(), tree.getBaseNode());
+
+        List<Site> unresolved;
+        Map<URI, SchemaTree> documents;
+
+        while (true) {
+            while (!linking.pending.isEmpty())
+                linking.walk(linking.pending.removeFirst());
+            unresolved = linking.unresolved;
+            if (unresolved.isEmpty())
+                break;
+            linking.unresolved = Lists.newArrayList();
+            documents = load(unresolved);
+            for (final SchemaTree document: documents.values())
+                linking.documents.put(document.getLoadingRef().getLocator(),
+                    document.getBaseNode());
+            for (final Site site: unresolved)
+                linking.setTarget(site,
+                    documents.get(site.ref.getLocator()));
+        }
+
+        return linking.link();
+    }
+
+    private Map<URI, SchemaTree> load(final List<Site> sites)
+        throws ProcessingException
+    {
+        final Set<URI> uris = Sets.newLinkedHashSet();
+        for (final Site site: sites)
+            uris.add(site.ref.getLocator());
+
+        final Map<URI, SchemaTree> ret = Maps.newHashMap();
+
+        if (threads == 1 || uris.size() == 1) {
+            for (final URI uri: uris)
+                ret.put(uri, loader.get(uri));
+            return ret;
+        }
+
+        final Map<URI, Future<SchemaTree>> futures = Maps.newLinkedHashMap();
+        final ExecutorService executor = Executors.newFixedThreadPool(
+            Math.min(threads, uris.size()), THREAD_FACTORY);
+
+        try {
+            for (final URI uri: uris)
+                futures.put(uri, executor.submit(new Callable<SchemaTree>()
+                {
+                    @Override
+                    public SchemaTree call()
+                        throws ProcessingException
+                    {
+                        return loader.get(uri);
+                    }
+                }));
+            /*
+             * Wait for documents in order, so that the error reported is
+             * always the same
+             */
+            for (final Map.Entry<URI, Future<SchemaTree>> entry:
+                futures.entrySet())
+                ret.put(entry.getKey(), entry.getValue().get());
+            return ret;
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+            throw new ProcessingException(
+                CONFIG_BUNDLE.getMessage("refLinkingInterrupted"));
+        } catch (ExecutionException e) {
+            Throwables.propagateIfPossible(e.getCause(),
+                ProcessingException.class);
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Map<String, SyntaxChecker> checkersFor(final SchemaTree tree)
+    {
+        final Map<String, SyntaxChecker> ret
+            = checkers.get(tree.getDollarSchema());
+        return ret == null ? defaultCheckers : ret;
+    }
+
+    /*
+     * As in RefResolver: only textual, valid references are references
+     */
+    private static JsonRef nodeAsRef(final JsonNode node)
+    {
+        final JsonNode refNode = node.path("$ref");
+        if (!refNode.isTextual())
+            return null;
+        try {
+            return JsonRef.fromString(refNode.textValue());
+        } catch (JsonReferenceException ignored) {
+            return null;
+        }
+    }
+
+    /*
+     * A reference found in a schema, and its target once known
+     */
+    private static final class Site
+    {
+        private final SchemaTree tree;
+        private final JsonRef ref;
+        private SchemaTree target;
+
+        private Site(final SchemaTree tree, final JsonRef ref)
+        {
+            this.tree = tree;
+            this.ref = ref;
+        }
+    }
+
+    /*
+     * The state of one linking
+     */
+    private final class Linking
+    {
+        private final Deque<SchemaTree> pending = new ArrayDeque<SchemaTree>();
+        private final Set<JsonNode> walked = Collections.newSetFromMap(
+            new IdentityHashMap<JsonNode, Boolean>());
+        private final Map<JsonNode, Site> sites
+            = new IdentityHashMap<JsonNode, Site>();
+        private final List<Site> siteList = Lists.newArrayList();
+        private List<Site> unresolved = Lists.newArrayList();
+        private final Map<URI, JsonNode> documents = Maps.newLinkedHashMap();
+
+        private void walk(final SchemaTree tree)
+            throws ProcessingException
+        {
+            final JsonNode node = tree.getNode();
+            if (!node.isObject() || !walked.add(node))
+                return;
+
+            final JsonRef ref = nodeAsRef(node);
+
+            if (ref != null) {
+                final Site site = new Site(tree, tree.resolve(ref));
+                sites.put(node, site);
+                siteList.add(site);
+                if (tree.containsRef(site.ref))
+                    setTarget(site, tree);
+                else
+                    unresolved.add(site);
+                return;
+            }
+
+            final ProcessingReport report
+                = new ListProcessingReport(LogLevel.NONE, LogLevel.NONE);
+            final List<JsonPointer> pointers = Lists.newArrayList();
+
+            for (final Map.Entry<String, SyntaxChecker> entry:
+                checkersFor(tree).entrySet())
+                if (node.has(entry.getKey()))
+                    entry.getValue().checkSyntax(pointers, syntaxMessages,
+                        report, tree);
+
+            for (final JsonPointer pointer: pointers)
+                pending.add(tree.append(pointer));
+        }
+
+        private void setTarget(final Site site, final SchemaTree document)
+            throws ProcessingException
+        {
+            final JsonPointer ptr = document.matchingPointer(site.ref);
+            if (ptr == null)
+                throw new ProcessingException(new ProcessingMessage()
+                    .setMessage(BUNDLE.getMessage("refProcessing.danglingRef"))
+                    .put("schema", document).putArgument("ref", site.ref));
+            site.target = document.setPointer(ptr);
+            pending.add(site.target);
+        }
+
+        private LinkedRefs link()
+            throws ProcessingException
+        {
+            final Map<JsonNode, Link> links = Maps.newIdentityHashMap();
+
+            Set<JsonRef> refs;
+            Site site;
+            Site next;
+
+            for (final Site start: siteList) {
+                refs = Sets.newLinkedHashSet();
+                site = start;
+                while (true) {
+                    if (!refs.add(site.ref))
+                        throw new ProcessingException(new ProcessingMessage()
+                            .setMessage(BUNDLE.getMessage(
+                                "refProcessing.refLoop"))
+                            .put("schema", site.tree)
+                            .putArgument("ref", site.ref).put("path", refs));
+                    next = sites.get(site.target.getNode());
+                    if (next == null)
+                        break;
+                    site = next;
+                }
+                links.put(start.tree.getNode(),
+                    new Link(start.tree, site.target));
+            }
+
+            return new LinkedRefs(links, documents);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.processors.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jackson.NodeType;
+import com.github.fge.jackson.jsonpointer.JsonPointer;
+import com.github.fge.jsonschema.cfg.ValidationConfiguration;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.keyword.syntax.SyntaxProcessor;
+import com.github.fge.jsonschema.core.ref.JsonRef;
+import com.github.fge.jsonschema.core.report.ListProcessingReport;
+import com.github.fge.jsonschema.core.report.LogLevel;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.core.tree.SchemaTree;
+import com.github.fge.jsonschema.library.Library;
+import com.github.fge.jsonschema.processors.build.ValidatorBuilder;
+import com.github.fge.jsonschema.processors.data.SchemaContext;
+import com.github.fge.jsonschema.processors.data.SchemaDigest;
+import com.github.fge.jsonschema.processors.digest.SchemaAnalyzer;
+import com.github.fge.jsonschema.processors.digest.SchemaDigester;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Detection of schemas which validate all instances
+ *
+ * <p>A schema is trivially true if it is syntactically valid without any
+ * warning, if, for all instance types, its digests yield no keyword
+ * validators, and if all of its child schemas ({@code items}, {@code
+ * properties}...) are trivially true as well. Validating an instance against
+ * such a schema has no effect at all, whatever the instance: {@link
+ * InstanceValidator} skips it entirely.</p>
+ *
+ * <p>Detection uses its own syntax processor, digester and analyzer for each
+ * library; it does not go through the validator cache, which is therefore
+ * left untouched.</p>
+ *
+ * <p>Schemas with a JSON Reference are never considered trivially true. The
+ * empty schema always is. For other schemas, the result is computed on first
+ * use and kept for the library of the schema's {@code $schema}; schemas are
+ * looked up by identity of their JSON node.</p>
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+final class TrivialSchemas
+{
+    private static final NodeType[] TYPES = NodeType.values();
+
+    private final Map<JsonRef, Detector> detectors;
+    private final Detector defaultDetector;
+
+    TrivialSchemas(final ValidationConfiguration cfg)
+    {
+        final ImmutableMap.Builder<JsonRef, Detector> builder
+            = ImmutableMap.builder();
+
+        for (final Map.Entry<JsonRef, Library> entry:
+            cfg.getLibraries().entrySet())
+            builder.put(entry.getKey(), new Detector(entry.getValue(), cfg));
+
+        detectors = builder.build();
+        defaultDetector = new Detector(cfg.getDefaultLibrary(), cfg);
+    }
+
+    /**
+     * Tell whether the schema at the current pointer of a tree is trivially
+     * true
+     *
+     * @param tree the schema tree
+     * @return true if this is the case
+     */
+    boolean isTrivial(final SchemaTree tree)
+    {
+        final JsonNode node = tree.getNode();
+
+        if (!node.isObject())
+            return false;
+        if (node.size() == 0)
+            return true;
+        if (node.has("$ref"))
+            return false;
+
+        final Detector detector = detectors.get(tree.getDollarSchema());
+        return (detector == null ? defaultDetector : detector).isTrivial(tree);
+    }
+
+    private static List<JsonPointer> childPointers(final JsonNode schema)
+    {
+        final List<JsonPointer> ret = Lists.newArrayList();
+
+        JsonNode node;
+
+        node = schema.path("items");
+        if (node.isObject())
+            ret.add(JsonPointer.of("items"));
+        else
+            for (int index = 0; index < node.size(); index++)
+                ret.add(JsonPointer.of("items", index));
+
+        if (schema.path("additionalItems").isObject())
+            ret.add(JsonPointer.of("additionalItems"));
+
+        for (final String keyword: new String[] { "properties",
+            "patternProperties" }) {
+            node = schema.path(keyword);
+            final Iterator<String> names = node.fieldNames();
+            while (names.hasNext())
+                ret.add(JsonPointer.of(keyword, names.next()));
+        }
+
+        if (schema.path("additionalProperties").isObject())
+            ret.add(JsonPointer.of("additionalProperties"));
+
+        return ret;
+    }
+
+    private static ProcessingReport newReport()
+    {
+        return new ListProcessingReport(LogLevel.DEBUG, LogLevel.NONE);
+    }
+
+    private static boolean isEmpty(final ProcessingReport report)
+    {
+        return report.isSuccess() && !report.iterator().hasNext();
+    }
+
+    /*
+     * Detection for one library
+     */
+    private final class Detector
+    {
+        private final SyntaxProcessor syntax;
+        private final SchemaDigester digester;
+        private final SchemaAnalyzer analyzer;
+        private final ValidatorBuilder builder;
+        private final boolean useFormat;
+
+        /*
+         * Weak keys mean keys are compared by identity, which is what we want
+         */
+        private final ConcurrentMap<JsonNode, Boolean> results
+            = new MapMaker().weakKeys().makeMap();
+
+        private Detector(final Library library,
+            final ValidationConfiguration cfg)
+        {
+            syntax = new SyntaxProcessor(cfg.getSyntaxMessages(),
+                library.getSyntaxCheckers());
+            digester = new SchemaDigester(library);
+            analyzer = new SchemaAnalyzer(library,
+                cfg.getValidationMessages());
+            builder = new ValidatorBuilder(library);
+            useFormat = cfg.getUseFormat();
+        }
+
+        private boolean isTrivial(final SchemaTree tree)
+        {
+            final JsonNode node = tree.getNode();
+            final Boolean result = results.get(node);
+
+            if (result != null)
+                return result;
+
+            final boolean trivial = compute(tree);
+            results.putIfAbsent(node, trivial);
+            return trivial;
+        }
+
+        private boolean compute(final SchemaTree tree)
+        {
+            if (useFormat && tree.getNode().has("format"))
+                return false;
+
+            try {
+                if (!isSyntacticallyNeutral(tree))
+                    return false;
+                for (final NodeType type: TYPES)
+                    if (!hasNoValidators(new SchemaContext(tree, type)))
+                        return false;
+            } catch (ProcessingException ignored) {
+                return false;
+            }
+
+            for (final JsonPointer ptr: childPointers(tree.getNode()))
+                if (!TrivialSchemas.this.isTrivial(tree.append(ptr)))
+                    return false;
+
+            return true;
+        }
+
+        private boolean isSyntacticallyNeutral(final SchemaTree tree)
+            throws ProcessingException
+        {
+            final ProcessingReport report = newReport();
+            syntax.rawProcess(report, tree);
+            return isEmpty(report);
+        }
+
+        private boolean hasNoValidators(final SchemaContext context)
+            throws ProcessingException
+        {
+            final ProcessingReport report = newReport();
+            final SchemaDigest digest = analyzer.process(report,
+                digester.process(report, context));
+            final Map<String, JsonNode> digests = digest.getDigests();
+
+            if (!isEmpty(report))
+                return false;
+            if (digests.isEmpty())
+                return true;
+
+            /*
+             * Type validators accepting the instance type are removed once
+             * built, and only them; other keywords always yield a validator
+             */
+            if (digests.size() > 1 || !digests.containsKey("type"))
+                return false;
+            return !builder.process(report, digest).iterator().hasNext();
+        }
+    }
+}
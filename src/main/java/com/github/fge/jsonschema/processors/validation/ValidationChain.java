@@ -31,9 +31,13 @@ import com.github.fge.jsonschema.core.report.ProcessingReport;
 import com.github.fge.jsonschema.core.tree.SchemaTree;
 import com.github.fge.jsonschema.core.util.ValueHolder;
 import com.github.fge.jsonschema.library.Library;
+import com.github.fge.jsonschema.metrics.MeteredProcessors;
+import com.github.fge.jsonschema.metrics.NoOpValidationMetrics;
+import com.github.fge.jsonschema.metrics.ValidationMetrics;
 import com.github.fge.jsonschema.processors.build.ValidatorBuilder;
 import com.github.fge.jsonschema.processors.data.SchemaContext;
 import com.github.fge.jsonschema.processors.data.ValidatorList;
+import com.github.fge.jsonschema.processors.digest.SchemaAnalyzer;
 import com.github.fge.jsonschema.processors.digest.SchemaDigester;
 import com.github.fge.jsonschema.processors.format.FormatProcessor;
 import com.google.common.base.Equivalence;
@@ -48,11 +52,15 @@ import javax.annotation.ParametersAreNonnullByDefault;
  * <ul>
  *     <li>perform reference lookup then syntax validation;</li>
  *     <li>throw an exception if the previous step fails;</li>
- *     <li>then perform schema digesting and keyword building.</li>
+ *     <li>then perform schema digesting, analysis and keyword building.</li>
  * </ul>
  *
  * <p>A validation chain handles one schema version. Switching schema versions
  * is done by {@link ValidationProcessor}.</p>
+ *
+ * <p>If validation metrics are enabled, lookups and misses of both caches
+ * ({@code resolver} and {@code builder}) are reported, along with the time
+ * taken to resolve JSON References.</p>
  */
 public final class ValidationChain
     implements Processor<SchemaContext, ValidatorList>
@@ -64,30 +72,57 @@ public final class ValidationChain
     public ValidationChain(final RefResolver refResolver,
         final Library library, final ValidationConfiguration cfg)
     {
+        final ValidationMetrics metrics = cfg.getValidationMetrics();
+        final boolean metered
+            = metrics != NoOpValidationMetrics.getInstance();
+
         final SyntaxProcessor syntaxProcessor = new SyntaxProcessor(
             cfg.getSyntaxMessages(), library.getSyntaxCheckers());
         final ProcessorChain<ValueHolder<SchemaTree>, ValueHolder<SchemaTree>>
-            chain1
-            = ProcessorChain.startWith(refResolver).chainWith(syntaxProcessor);
-
-        resolver = new CachingProcessor<ValueHolder<SchemaTree>, ValueHolder<SchemaTree>>(
-            chain1.getProcessor(), SchemaHolderEquivalence.INSTANCE, cfg.getCacheSize()
+            chain1 = ProcessorChain.startWith(metered
+                ? timeRefResolution(refResolver, metrics)
+                : refResolver)
+            .chainWith(syntaxProcessor);
+
+        Processor<ValueHolder<SchemaTree>, ValueHolder<SchemaTree>> processor1
+            = chain1.getProcessor();
+        if (metered)
+            processor1 = MeteredProcessors.countMisses(processor1, "resolver",
+                metrics);
+        processor1
+            = new CachingProcessor<ValueHolder<SchemaTree>, ValueHolder<SchemaTree>>(
+            processor1, SchemaHolderEquivalence.INSTANCE, cfg.getCacheSize()
         );
+        resolver = metered
+            ? MeteredProcessors.countLookups(processor1, "resolver", metrics)
+            : processor1;
 
         final SchemaDigester digester = new SchemaDigester(library);
-        final ValidatorBuilder keywordBuilder = new ValidatorBuilder(library);
+        final SchemaAnalyzer analyzer
+            = new SchemaAnalyzer(library, cfg.getValidationMessages());
+        final ValidatorBuilder keywordBuilder
+            = new ValidatorBuilder(library, metrics);
 
         ProcessorChain<SchemaContext, ValidatorList> chain2
-            = ProcessorChain.startWith(digester).chainWith(keywordBuilder);
+            = ProcessorChain.startWith(digester).chainWith(analyzer)
+            .chainWith(keywordBuilder);
 
         if (cfg.getUseFormat()) {
             final FormatProcessor format = new FormatProcessor(library, cfg);
             chain2 = chain2.chainWith(format);
         }
 
-        builder = new CachingProcessor<SchemaContext, ValidatorList>(
-            chain2.getProcessor(), SchemaContextEquivalence.getInstance(), cfg.getCacheSize()
+        Processor<SchemaContext, ValidatorList> processor2
+            = chain2.getProcessor();
+        if (metered)
+            processor2 = MeteredProcessors.countMisses(processor2, "builder",
+                metrics);
+        processor2 = new CachingProcessor<SchemaContext, ValidatorList>(
+            processor2, SchemaContextEquivalence.getInstance(), cfg.getCacheSize()
         );
+        builder = metered
+            ? MeteredProcessors.countLookups(processor2, "builder", metrics)
+            : processor2;
     }
 
     @Override
@@ -120,6 +155,38 @@ public final class ValidationChain
         return resolver + " -> " + builder;
     }
 
+    private static Processor<ValueHolder<SchemaTree>, ValueHolder<SchemaTree>>
+        timeRefResolution(final RefResolver refResolver,
+        final ValidationMetrics metrics)
+    {
+        return new Processor<ValueHolder<SchemaTree>, ValueHolder<SchemaTree>>()
+        {
+            @Override
+            public ValueHolder<SchemaTree> process(
+                final ProcessingReport report,
+                final ValueHolder<SchemaTree> input)
+                throws ProcessingException
+            {
+                /*
+                 * Only account for schemas which actually are references
+                 */
+                if (!input.getValue().getNode().path("$ref").isTextual())
+                    return refResolver.process(report, input);
+                final long start = System.nanoTime();
+                final ValueHolder<SchemaTree> ret
+                    = refResolver.process(report, input);
+                metrics.refResolved(ret.getValue(), System.nanoTime() - start);
+                return ret;
+            }
+
+            @Override
+            public String toString()
+            {
+                return refResolver.toString();
+            }
+        };
+    }
+
     @ParametersAreNonnullByDefault
     private static final class SchemaHolderEquivalence
         extends Equivalence<ValueHolder<SchemaTree>>
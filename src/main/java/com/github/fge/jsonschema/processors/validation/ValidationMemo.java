@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.processors.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jackson.jsonpointer.JsonPointer;
+import com.github.fge.jackson.jsonpointer.JsonPointerException;
+import com.github.fge.jsonschema.core.report.ListProcessingReport;
+import com.github.fge.jsonschema.messages.JsonSchemaConfigurationBundle;
+import com.github.fge.jsonschema.processors.validation.InstanceValidator.MemoKey;
+import com.github.fge.msgsimple.bundle.MessageBundle;
+import com.github.fge.msgsimple.load.MessageBundles;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Memo of validation results, by instance pointer
+ *
+ * <p>When a memo is passed to {@link ValidationProcessor#process(
+ * com.github.fge.jsonschema.core.report.ProcessingReport,
+ * com.github.fge.jsonschema.processors.data.FullData, ValidationMemo)}, the
+ * report of each container instance against each subschema is recorded into
+ * it, by pointer of the instance. Validating again with the same memo reuses
+ * these reports instead of walking the instances again.</p>
+ *
+ * <p>This is therefore only correct as long as the values at these pointers
+ * have not changed. When an instance is modified by a JSON Patch (RFC 6902),
+ * {@link #afterPatch(JsonNode, JsonNode)} returns a memo without the results
+ * which the patch may have made stale: those for the pointers the patch
+ * modifies, their parents, their children and, when array elements are added
+ * or removed, the elements which have moved.</p>
+ *
+ * <p>Note that this class does not apply patches: this is the caller's job.</p>
+ */
+@NotThreadSafe
+public final class ValidationMemo
+{
+    private static final MessageBundle BUNDLE
+        = MessageBundles.getBundle(JsonSchemaConfigurationBundle.class);
+
+    private final Map<MemoKey, ListProcessingReport> entries;
+
+    public ValidationMemo()
+    {
+        entries = Maps.newHashMap();
+    }
+
+    private ValidationMemo(final Map<MemoKey, ListProcessingReport> entries)
+    {
+        this.entries = Maps.newHashMap(entries);
+    }
+
+    Map<MemoKey, ListProcessingReport> getEntries()
+    {
+        return entries;
+    }
+
+    /**
+     * Return the number of recorded results
+     *
+     * @return the size of this memo
+     */
+    public int size()
+    {
+        return entries.size();
+    }
+
+    /**
+     * Return a memo usable for validating a patched instance
+     *
+     * <p>This memo is left untouched.</p>
+     *
+     * @param patch the JSON Patch which has been applied
+     * @param instance the instance, after the patch has been applied
+     * @return a new memo
+     * @throws IllegalArgumentException the patch is not a valid JSON Patch
+     */
+    public ValidationMemo afterPatch(final JsonNode patch,
+        final JsonNode instance)
+    {
+        BUNDLE.checkNotNull(patch, "nullPatch");
+        BUNDLE.checkNotNull(instance, "nullInstance");
+        BUNDLE.checkArgument(patch.isArray(), "invalidPatch");
+
+        final List<Change> changes = Lists.newArrayList();
+
+        for (final JsonNode op: patch) {
+            final String name = op.path("op").textValue();
+            BUNDLE.checkArgumentPrintf(name != null, "invalidPatchOperation",
+                op);
+            if ("test".equals(name))
+                continue;
+            if ("replace".equals(name)) {
+                changes.add(Change.at(pointer(op, "path")));
+                continue;
+            }
+            if ("add".equals(name) || "copy".equals(name)
+                || "remove".equals(name)) {
+                changes.add(Change.of(pointer(op, "path"), instance));
+                continue;
+            }
+            BUNDLE.checkArgumentPrintf("move".equals(name),
+                "invalidPatchOperation", op);
+            changes.add(Change.of(pointer(op, "from"), instance));
+            changes.add(Change.of(pointer(op, "path"), instance));
+        }
+
+        final ValidationMemo ret = new ValidationMemo(entries);
+        final Iterator<MemoKey> iterator
+            = ret.entries.keySet().iterator();
+
+        String ptr;
+
+        while (iterator.hasNext()) {
+            ptr = iterator.next().getPointer();
+            for (final Change change: changes)
+                if (change.affects(ptr)) {
+                    iterator.remove();
+                    break;
+                }
+        }
+
+        return ret;
+    }
+
+    private static String pointer(final JsonNode op, final String member)
+    {
+        final String s = op.path(member).textValue();
+        BUNDLE.checkArgumentPrintf(s != null, "invalidPatchOperation", op);
+        try {
+            return new JsonPointer(s).toString();
+        } catch (JsonPointerException ignored) {
+            throw new IllegalArgumentException(
+                BUNDLE.printf("invalidPatchOperation", op));
+        }
+    }
+
+    /*
+     * A change at a pointer in the instance. If the change is made to an
+     * array, the elements from the given index onwards have moved: results
+     * for them are stale as well.
+     */
+    private static final class Change
+    {
+        /*
+         * Nothing moves in the array: the element was appended
+         */
+        private static final int APPEND = Integer.MAX_VALUE;
+
+        private final String pointer;
+        private final boolean inArray;
+        private final int index;
+
+        private Change(final String pointer, final boolean inArray,
+            final int index)
+        {
+            this.pointer = pointer;
+            this.inArray = inArray;
+            this.index = index;
+        }
+
+        private static Change at(final String pointer)
+        {
+            return new Change(pointer, false, 0);
+        }
+
+        /*
+         * Whether the change is made to an array is decided from the patched
+         * instance. If a later operation changed the parent, that operation
+         * makes all results below it stale anyway.
+         */
+        private static Change of(final String pointer, final JsonNode instance)
+        {
+            if (pointer.isEmpty())
+                return at(pointer);
+
+            final int slash = pointer.lastIndexOf('/');
+            final String parent = pointer.substring(0, slash);
+            final String token = pointer.substring(slash + 1);
+
+            if ("-".equals(token))
+                return new Change(parent, true, APPEND);
+
+            final JsonNode node;
+            try {
+                node = new JsonPointer(parent).path(instance);
+            } catch (JsonPointerException e) {
+                throw new IllegalStateException("parent of valid pointer is "
+                    + "not a valid pointer", e);
+            }
+
+            if (!node.isArray())
+                return at(pointer);
+
+            final int index = index(token);
+            return new Change(parent, true, index == -1 ? 0 : index);
+        }
+
+        private boolean affects(final String ptr)
+        {
+            /*
+             * Parents of the change, or the change itself
+             */
+            if (pointer.equals(ptr) || pointer.startsWith(ptr + '/'))
+                return true;
+
+            if (!ptr.startsWith(pointer + '/'))
+                return false;
+
+            /*
+             * Children of the change
+             */
+            if (!inArray)
+                return true;
+
+            final String rest = ptr.substring(pointer.length() + 1);
+            final int slash = rest.indexOf('/');
+            final int i = index(slash == -1 ? rest : rest.substring(0, slash));
+            return i == -1 || i >= index;
+        }
+
+        private static int index(final String token)
+        {
+            if (token.isEmpty() || token.length() > 9)
+                return -1;
+            for (int i = 0; i < token.length(); i++)
+                if (token.charAt(i) < '0' || token.charAt(i) > '9')
+                    return -1;
+            return Integer.parseInt(token);
+        }
+    }
+}
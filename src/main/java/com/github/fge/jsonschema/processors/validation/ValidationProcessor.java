@@ -23,13 +23,35 @@ import com.github.fge.jsonschema.cfg.ValidationConfiguration;
 import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.processing.Processor;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.metrics.NoOpValidationMetrics;
+import com.github.fge.jsonschema.metrics.ValidationMetrics;
 import com.github.fge.jsonschema.processors.data.FullData;
 import com.github.fge.jsonschema.processors.data.SchemaContext;
 import com.github.fge.jsonschema.processors.data.ValidatorList;
 import com.github.fge.msgsimple.bundle.MessageBundle;
 
+import javax.annotation.Nullable;
+
 /**
  * Main validation processor
+ *
+ * <p>If validation metrics are enabled, each validation is reported to the
+ * metrics collector.</p>
+ *
+ * <p>If memoization is enabled, each validation uses its own memo of
+ * subschema results. A {@link ValidationMemo} can also be kept from one
+ * validation to the next.</p>
+ *
+ * <p>If validator tables are enabled, {@link #newSchemaProcessor()} returns
+ * processors keeping a table of the validators of the subschemas they
+ * meet.</p>
+ *
+ * <p>Processors returned by {@link #newSchemaProcessor(LinkedRefs)} go
+ * directly from JSON References to their targets.</p>
+ *
+ * @see ValidationConfiguration#getMemoSize()
+ * @see ValidationConfiguration#getUseValidatorTables()
+ * @see ValidationConfiguration#getRefLinkingThreads()
  */
 public final class ValidationProcessor
     implements Processor<FullData, FullData>
@@ -37,6 +59,14 @@ public final class ValidationProcessor
     private final MessageBundle syntaxMessages;
     private final MessageBundle validationMessages;
     private final Processor<SchemaContext, ValidatorList> processor;
+    private final ValidationMetrics metrics;
+    private final int memoSize;
+    private final boolean useValidatorTables;
+    @Nullable
+    private final ValidatorTable table;
+    private final TrivialSchemas trivialSchemas;
+    @Nullable
+    private final LinkedRefs links;
 
     public ValidationProcessor(final ValidationConfiguration cfg,
         final Processor<SchemaContext, ValidatorList> processor)
@@ -44,16 +74,108 @@ public final class ValidationProcessor
         syntaxMessages = cfg.getSyntaxMessages();
         validationMessages = cfg.getValidationMessages();
         this.processor = processor;
+        metrics = cfg.getValidationMetrics();
+        memoSize = cfg.getMemoSize();
+        useValidatorTables = cfg.getUseValidatorTables();
+        table = null;
+        trivialSchemas = new TrivialSchemas(cfg);
+        links = null;
+    }
+
+    private ValidationProcessor(final ValidationProcessor other,
+        @Nullable final LinkedRefs links)
+    {
+        syntaxMessages = other.syntaxMessages;
+        validationMessages = other.validationMessages;
+        processor = other.processor;
+        metrics = other.metrics;
+        memoSize = other.memoSize;
+        useValidatorTables = other.useValidatorTables;
+        table = useValidatorTables ? new ValidatorTable(processor) : null;
+        trivialSchemas = other.trivialSchemas;
+        this.links = links;
+    }
+
+    /**
+     * Return a processor for validating instances against one schema
+     *
+     * <p>If validator tables are enabled, this returns a new processor which
+     * records the validators of the subschemas it meets in its own table, and
+     * keeps them for all subsequent validations; it should therefore only be
+     * used for one schema. Otherwise, this processor is returned.</p>
+     *
+     * @return a processor
+     * @see ValidationConfiguration#getUseValidatorTables()
+     */
+    public ValidationProcessor newSchemaProcessor()
+    {
+        return useValidatorTables ? new ValidationProcessor(this, null) : this;
+    }
+
+    /**
+     * Return a processor for validating instances against one schema, with
+     * linked JSON References
+     *
+     * <p>As with {@link #newSchemaProcessor()}, the returned processor should
+     * only be used for the schema the references were linked for.</p>
+     *
+     * @param links the linked references of the schema
+     * @return a new processor
+     * @see SchemaLinker
+     */
+    public ValidationProcessor newSchemaProcessor(final LinkedRefs links)
+    {
+        return new ValidationProcessor(this, links);
     }
 
     @Override
     public FullData process(final ProcessingReport report,
         final FullData input)
         throws ProcessingException
+    {
+        return doProcess(report, input, null);
+    }
+
+    /**
+     * Validate, recording results into, and reusing results from, a memo
+     *
+     * <p>The memo size of the configuration does not apply: the memo records
+     * all results for containers of the instance.</p>
+     *
+     * @param report the report to use
+     * @param input the input to validate
+     * @param memo the memo
+     * @return the input
+     * @throws ProcessingException processing failed
+     * @see ValidationMemo
+     */
+    public FullData process(final ProcessingReport report,
+        final FullData input, final ValidationMemo memo)
+        throws ProcessingException
+    {
+        return doProcess(report, input, memo);
+    }
+
+    private FullData doProcess(final ProcessingReport report,
+        final FullData input, @Nullable final ValidationMemo memo)
+        throws ProcessingException
     {
         final InstanceValidator validator = new InstanceValidator(
-            syntaxMessages, validationMessages, processor);
-        return validator.process(report, input);
+            syntaxMessages, validationMessages, processor, metrics, memoSize,
+            memo, table, trivialSchemas, links);
+        if (metrics == NoOpValidationMetrics.getInstance())
+            return validator.process(report, input);
+
+        final long start = System.nanoTime();
+        boolean success = false;
+        try {
+            final FullData ret = validator.process(report, input);
+            success = report.isSuccess();
+            return ret;
+        } finally {
+            metrics.schemaValidated(input.getSchema(),
+                System.nanoTime() - start, success);
+        }
     }
 
     @Override
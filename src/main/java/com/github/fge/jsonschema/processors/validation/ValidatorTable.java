@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.processors.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jackson.NodeType;
+import com.github.fge.jackson.jsonpointer.JsonPointer;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.processing.Processor;
+import com.github.fge.jsonschema.core.ref.JsonRef;
+import com.github.fge.jsonschema.core.report.ListProcessingReport;
+import com.github.fge.jsonschema.core.report.LogLevel;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.core.tree.SchemaTree;
+import com.github.fge.jsonschema.processors.data.SchemaContext;
+import com.github.fge.jsonschema.processors.data.ValidatorList;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Maps;
+
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Per schema table of the validators of the subschemas met by validations
+ *
+ * <p>Without such a table, {@link InstanceValidator} looks up the keyword
+ * validators of each subschema in caches shared by all validations (which
+ * requires hashing, and comparing, whole subschemas), and digests object and
+ * array subschemas again each time it needs to find the subschemas applying
+ * to children of an instance.</p>
+ *
+ * <p>Here, each subschema gets a {@link SchemaEntry} in the table,
+ * which holds all of this: the keyword validators for each instance type
+ * (along with the messages their construction produced, which are replayed
+ * each time, as a caching processor would), the selectors for children of
+ * array and object instances, and the schema trees of children. Subschemas
+ * are looked up by identity of their JSON node, which is far cheaper.</p>
+ *
+ * <p>Entries are filled lazily: the validators of a subschema are built the
+ * first time it is met for a given instance type.</p>
+ *
+ * <p>This is only a lookup table: no code is generated, and keyword
+ * validators are invoked as usual. What this class removes is the cost of
+ * finding them.</p>
+ *
+ * @see ValidationProcessor#newSchemaProcessor()
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+final class ValidatorTable
+{
+    private static final int NODE_TYPES = NodeType.values().length;
+
+    private final Processor<SchemaContext, ValidatorList> keywordBuilder;
+
+    /*
+     * Weak keys mean keys are compared by identity, which is what we want
+     */
+    private final ConcurrentMap<JsonNode, SchemaEntry> schemas
+        = new MapMaker().weakKeys().makeMap();
+
+    ValidatorTable(
+        final Processor<SchemaContext, ValidatorList> keywordBuilder)
+    {
+        this.keywordBuilder = keywordBuilder;
+    }
+
+    /**
+     * Return the table entry of a schema tree
+     *
+     * <p>The same JSON node may be found in several trees (for instance, if a
+     * schema is built with the same node at two different places). Only the
+     * tree which was met first has an entry, for other trees this method
+     * returns null: they are validated the regular way.</p>
+     *
+     * @param tree the schema tree
+     * @return the entry, or null
+     */
+    @Nullable
+    SchemaEntry get(final SchemaTree tree)
+    {
+        final JsonNode node = tree.getNode();
+
+        SchemaEntry ret = schemas.get(node);
+
+        if (ret == null) {
+            ret = new SchemaEntry(tree);
+            final SchemaEntry old = schemas.putIfAbsent(node, ret);
+            if (old != null)
+                ret = old;
+        }
+
+        return ret.isFor(tree) ? ret : null;
+    }
+
+    final class SchemaEntry
+    {
+        private final SchemaTree tree;
+
+        private final AtomicReferenceArray<BuiltValidators> validators
+            = new AtomicReferenceArray<BuiltValidators>(NODE_TYPES);
+
+        private final ConcurrentMap<JsonPointer, SchemaTree> children
+            = Maps.newConcurrentMap();
+
+        private final ConcurrentMap<String, List<SchemaTree>> members
+            = Maps.newConcurrentMap();
+
+        /*
+         * Built lazily; both are immutable
+         */
+        private volatile ArraySchemaSelector arraySelector;
+        private volatile ObjectSchemaSelector objectSelector;
+        private volatile JsonNode declaredProperties;
+
+        private SchemaEntry(final SchemaTree tree)
+        {
+            this.tree = tree;
+        }
+
+        private boolean isFor(final SchemaTree other)
+        {
+            if (other == tree)
+                return true;
+            final JsonRef ref = other.getLoadingRef();
+            return other.getBaseNode() == tree.getBaseNode()
+                && other.getPointer().equals(tree.getPointer())
+                && (ref == tree.getLoadingRef()
+                || ref.equals(tree.getLoadingRef()));
+        }
+
+        /**
+         * Return the keyword validators of this schema for an instance type
+         *
+         * <p>Messages issued when building these validators, if any, are
+         * merged into the report.</p>
+         *
+         * @param report the report
+         * @param type the instance type
+         * @return the validators, or null if the schema is invalid
+         * @throws ProcessingException building the validators failed
+         */
+        @Nullable
+        ValidatorList getValidators(final ProcessingReport report,
+            final NodeType type)
+            throws ProcessingException
+        {
+            final int index = type.ordinal();
+            BuiltValidators built = validators.get(index);
+
+            if (built == null) {
+                final ListProcessingReport messages
+                    = new ListProcessingReport(LogLevel.DEBUG, LogLevel.NONE);
+                final ValidatorList list = keywordBuilder.process(messages,
+                    new SchemaContext(tree, type));
+                built = new BuiltValidators(list, messages);
+                /*
+                 * Do not keep invalid schemas: the regular path will report
+                 * the errors again
+                 */
+                if (list == null) {
+                    report.mergeWith(messages);
+                    return null;
+                }
+                validators.compareAndSet(index, null, built);
+            }
+
+            if (built.replay)
+                report.mergeWith(built.messages);
+
+            return built.list;
+        }
+
+        ArraySchemaSelector getArraySelector()
+        {
+            ArraySchemaSelector ret = arraySelector;
+            if (ret == null) {
+                ret = new ArraySchemaSelector(ArraySchemaDigester
+                    .getInstance().digest(tree.getNode()));
+                arraySelector = ret;
+            }
+            return ret;
+        }
+
+        /**
+         * Return the schema trees applying to a member of an object instance
+         *
+         * <p>Results are kept for member names declared in {@code properties}
+         * only, as other names are arbitrary.</p>
+         *
+         * @param memberName the member name
+         * @return the list of schema trees
+         */
+        List<SchemaTree> getMemberSchemas(final String memberName)
+        {
+            ObjectSchemaSelector selector = objectSelector;
+            JsonNode declared = declaredProperties;
+
+            if (selector == null) {
+                declared = tree.getNode().path("properties");
+                declaredProperties = declared;
+                selector = new ObjectSchemaSelector(ObjectSchemaDigester
+                    .getInstance().digest(tree.getNode()));
+                objectSelector = selector;
+            }
+
+            List<SchemaTree> ret = members.get(memberName);
+            if (ret != null)
+                return ret;
+
+            final ImmutableList.Builder<SchemaTree> builder
+                = ImmutableList.builder();
+            for (final JsonPointer ptr: selector.selectSchemas(memberName))
+                builder.add(getChild(ptr));
+            ret = builder.build();
+
+            if (declared.has(memberName))
+                members.putIfAbsent(memberName, ret);
+
+            return ret;
+        }
+
+        SchemaTree getChild(final JsonPointer ptr)
+        {
+            SchemaTree ret = children.get(ptr);
+            if (ret == null) {
+                ret = tree.append(ptr);
+                final SchemaTree old = children.putIfAbsent(ptr, ret);
+                if (old != null)
+                    ret = old;
+            }
+            return ret;
+        }
+    }
+
+    private static final class BuiltValidators
+    {
+        private final ValidatorList list;
+        private final ListProcessingReport messages;
+        private final boolean replay;
+
+        private BuiltValidators(final ValidatorList list,
+            final ListProcessingReport messages)
+        {
+            this.list = list;
+            this.messages = messages;
+            replay = !messages.isSuccess() || messages.iterator().hasNext();
+        }
+    }
+}
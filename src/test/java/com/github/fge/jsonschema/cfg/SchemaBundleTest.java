@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.cfg;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.fge.jackson.JacksonUtils;
+import com.github.fge.jackson.JsonLoader;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.load.configuration.LoadingConfiguration;
+import com.github.fge.jsonschema.core.load.download.URIDownloader;
+import com.github.fge.jsonschema.core.report.ListProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import com.github.fge.jsonschema.messages.JsonSchemaConfigurationBundle;
+import com.github.fge.msgsimple.bundle.MessageBundle;
+import com.github.fge.msgsimple.load.MessageBundles;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+public final class SchemaBundleTest
+{
+    private static final MessageBundle BUNDLE
+        = MessageBundles.getBundle(JsonSchemaConfigurationBundle.class);
+
+    private static final String ROOT = "mem:/schemas/root.json";
+    private static final String MOVED_ROOT = "mem:/moved/schemas/root.json";
+
+    private static final Map<String, String> DOCUMENTS
+        = ImmutableMap.of(
+        ROOT, "{\"properties\":{"
+            + "\"a\":{\"$ref\":\"../common/a.json#/definitions/pos\"},"
+            + "\"b\":{\"$ref\":\"b.json\"},"
+            + "\"meta\":{\"$ref\":\"http://json-schema.org/draft-04/schema#\"}"
+            + "}}",
+        "mem:/common/a.json", "{\"definitions\":{"
+            + "\"pos\":{\"type\":\"integer\",\"minimum\":0}}}",
+        "mem:/schemas/b.json", "{\"items\":"
+            + "{\"$ref\":\"../common/a.json#/definitions/pos\"}}",
+        "mem:/schemas/unused.json", "{}"
+    );
+
+    private AtomicInteger fetches;
+    private LoadingConfiguration loadingCfg;
+
+    @BeforeMethod
+    public void init()
+    {
+        fetches = new AtomicInteger();
+        loadingCfg = LoadingConfiguration.newBuilder()
+            .addScheme("mem", new URIDownloader()
+            {
+                @Override
+                public InputStream fetch(final URI source)
+                    throws IOException
+                {
+                    final String s = DOCUMENTS.get(source.getScheme() + ':'
+                        + source.getSchemeSpecificPart());
+                    if (s == null)
+                        throw new FileNotFoundException(source.toString());
+                    fetches.incrementAndGet();
+                    return new ByteArrayInputStream(
+                        s.getBytes(StandardCharsets.UTF_8));
+                }
+            }).freeze();
+    }
+
+    @Test
+    public void bundleHoldsAllReferencedDocuments()
+        throws ProcessingException
+    {
+        final SchemaBundle bundle = SchemaBundle.create(loadingCfg,
+            ValidationConfiguration.byDefault(), ROOT);
+
+        assertEquals(bundle.getRoot(), ROOT);
+        // Preloaded meta-schemas are not part of the bundle
+        assertEquals(bundle.getDocuments().keySet(), ImmutableMap.of(
+            URI.create(ROOT + '#'), 0, URI.create("mem:/common/a.json#"), 0,
+            URI.create("mem:/schemas/b.json#"), 0).keySet());
+    }
+
+    @Test
+    public void bundleSurvivesJsonRoundTrip()
+        throws IOException, ProcessingException
+    {
+        final SchemaBundle bundle = SchemaBundle.create(loadingCfg,
+            ValidationConfiguration.byDefault(), ROOT);
+        final JsonNode json = JsonLoader.fromString(bundle.toJson()
+            .toString());
+        final SchemaBundle read = SchemaBundle.fromJson(json, ROOT);
+
+        assertEquals(read.getRoot(), bundle.getRoot());
+        assertEquals(read.getDocuments(), bundle.getDocuments());
+    }
+
+    @Test
+    public void localDocumentsAreWrittenRelativeToTheSchema()
+        throws ProcessingException
+    {
+        final JsonNode json = SchemaBundle.create(loadingCfg,
+            ValidationConfiguration.byDefault(), ROOT).toJson();
+
+        assertEquals(json.get("root").textValue(), "root.json");
+        assertEquals(Sets.newHashSet(json.get("documents").fieldNames()),
+            ImmutableSet.of("root.json#", "../common/a.json#", "b.json#"));
+    }
+
+    @Test
+    public void movedBundleIsReadAgainstItsNewBase()
+        throws ProcessingException
+    {
+        final SchemaBundle bundle = SchemaBundle.fromJson(SchemaBundle
+            .create(loadingCfg, ValidationConfiguration.byDefault(), ROOT)
+            .toJson(), MOVED_ROOT);
+
+        assertEquals(bundle.getRoot(), MOVED_ROOT);
+        assertEquals(bundle.getDocuments().keySet(), ImmutableSet.of(
+            URI.create(MOVED_ROOT + '#'),
+            URI.create("mem:/moved/common/a.json#"),
+            URI.create("mem:/moved/schemas/b.json#")));
+
+        /*
+         * No downloader for "mem" here: all documents must be preloaded
+         */
+        final JsonSchemaFactory factory = JsonSchemaFactory.newBuilder()
+            .setLoadingConfiguration(bundle.preloadInto(LoadingConfiguration
+                .newBuilder()).freeze()).freeze();
+        final JsonNode instance
+            = JacksonUtils.nodeFactory().objectNode().put("a", -1);
+
+        assertFalse(factory.getJsonSchema(MOVED_ROOT).validInstance(instance));
+    }
+
+    @Test
+    public void preloadedBundleAvoidsDownloads()
+        throws IOException, ProcessingException
+    {
+        final SchemaBundle bundle = SchemaBundle.fromJson(SchemaBundle
+            .create(loadingCfg, ValidationConfiguration.byDefault(), ROOT)
+            .toJson(), ROOT);
+        fetches.set(0);
+
+        final JsonSchemaFactory factory = JsonSchemaFactory.newBuilder()
+            .setLoadingConfiguration(bundle.preloadInto(LoadingConfiguration
+                .newBuilder()).freeze()).freeze();
+        final JsonSchemaFactory reference = JsonSchemaFactory.newBuilder()
+            .setLoadingConfiguration(loadingCfg).freeze();
+        final JsonNode instance
+            = JsonLoader.fromString("{\"a\":-1,\"b\":[1,\"x\"],\"meta\":{}}");
+
+        final ListProcessingReport actual = (ListProcessingReport) factory
+            .getJsonSchema(ROOT).validate(instance);
+        final ListProcessingReport expected = (ListProcessingReport)
+            reference.getJsonSchema(ROOT).validate(instance);
+
+        assertEquals(actual.asJson(), expected.asJson());
+        assertFalse(actual.isSuccess());
+        assertEquals(fetches.get(), 3);
+    }
+
+    @Test
+    public void tamperedDocumentsAreDetected()
+        throws ProcessingException
+    {
+        final ObjectNode json = (ObjectNode) SchemaBundle.create(loadingCfg,
+            ValidationConfiguration.byDefault(), ROOT).toJson();
+        ((ObjectNode) json.get("documents").get("../common/a.json#")
+            .get("schema").get("definitions").get("pos")).put("minimum", -1);
+
+        try {
+            SchemaBundle.fromJson(json, ROOT);
+            fail("No exception thrown!");
+        } catch (IllegalArgumentException e) {
+            assertEquals(e.getMessage(),
+                BUNDLE.printf("schemaBundleChecksum", "../common/a.json#"));
+        }
+    }
+
+    @Test
+    public void checksumsDoNotDependOnMemberOrderOrNumberForms()
+        throws ProcessingException
+    {
+        final ObjectNode json = (ObjectNode) SchemaBundle.create(loadingCfg,
+            ValidationConfiguration.byDefault(), ROOT).toJson();
+        final ObjectNode pos = JacksonUtils.nodeFactory().objectNode();
+        pos.put("minimum", 0.0).put("type", "integer");
+        ((ObjectNode) json.get("documents").get("../common/a.json#")
+            .get("schema").get("definitions")).set("pos", pos);
+
+        final JsonNode schema = SchemaBundle.fromJson(json, ROOT)
+            .getDocuments().get(URI.create("mem:/common/a.json#"));
+        assertEquals(schema.get("definitions").get("pos").toString(),
+            "{\"minimum\":0.0,\"type\":\"integer\"}");
+    }
+
+    @Test
+    public void preloadingDoesNotOverwriteExistingDocuments()
+        throws IOException, ProcessingException
+    {
+        final SchemaBundle bundle = SchemaBundle.create(loadingCfg,
+            ValidationConfiguration.byDefault(), ROOT);
+
+        try {
+            bundle.preloadInto(LoadingConfiguration.newBuilder()
+                .preloadSchema("mem:/schemas/b.json", JsonLoader
+                    .fromString("{}")));
+            fail("No exception thrown!");
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    @Test
+    public void relativeBaseIsRejected()
+        throws ProcessingException
+    {
+        final JsonNode json = SchemaBundle.create(loadingCfg,
+            ValidationConfiguration.byDefault(), ROOT).toJson();
+
+        try {
+            SchemaBundle.fromJson(json, "root.json");
+            fail("No exception thrown!");
+        } catch (IllegalArgumentException e) {
+            assertEquals(e.getMessage(),
+                BUNDLE.printf("relativeSchemaBundleBase", "root.json"));
+        }
+    }
+
+    @Test
+    public void nonBundlesAreRejected()
+        throws IOException
+    {
+        try {
+            SchemaBundle.fromJson(JsonLoader.fromString("{\"root\":1}"),
+                ROOT);
+            fail("No exception thrown!");
+        } catch (IllegalArgumentException e) {
+            assertEquals(e.getMessage(),
+                BUNDLE.getMessage("invalidSchemaBundle"));
+        }
+    }
+}
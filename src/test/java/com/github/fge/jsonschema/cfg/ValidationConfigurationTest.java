@@ -115,6 +115,40 @@ public final class ValidationConfigurationTest
         }
     }
 
+    @Test
+    public void cannotPutNegativeMemoSize()
+    {
+        try {
+            cfg.setMemoSize(-1);
+            fail("No exception thrown!!");
+        } catch (IllegalArgumentException e) {
+            assertEquals(e.getMessage(), BUNDLE.getMessage("invalidMemoSize"));
+        }
+    }
+
+    @Test
+    public void cannotPutNegativeFormatCacheSize()
+    {
+        try {
+            cfg.setFormatCacheSize(-1);
+            fail("No exception thrown!!");
+        } catch (IllegalArgumentException e) {
+            assertEquals(e.getMessage(),
+                BUNDLE.getMessage("invalidFormatCacheSize"));
+        }
+    }
+
+    @Test
+    public void cannotPutNullValidationMetrics()
+    {
+        try {
+            cfg.setValidationMetrics(null);
+            fail("No exception thrown!!");
+        } catch (NullPointerException e) {
+            assertEquals(e.getMessage(), BUNDLE.getMessage("nullMetrics"));
+        }
+    }
+
     @Test
     public void defaultLibraryIsDraftV4()
     {
@@ -132,4 +166,41 @@ public final class ValidationConfigurationTest
         cfg.setDefaultLibrary(ref, library);
         assertSame(cfg.freeze().getDefaultLibrary(), library);
     }
+
+    @Test
+    public void validatorTablesAreDisabledByDefault()
+    {
+        assertFalse(ValidationConfiguration.byDefault()
+            .getUseValidatorTables());
+    }
+
+    @Test
+    public void validatorTablesSettingSurvivesThawing()
+    {
+        final ValidationConfiguration frozen
+            = cfg.setUseValidatorTables(true).freeze();
+        assertTrue(frozen.getUseValidatorTables());
+        assertTrue(frozen.thaw().freeze().getUseValidatorTables());
+    }
+
+    @Test
+    public void cannotPutNegativeRefLinkingThreads()
+    {
+        try {
+            cfg.setRefLinkingThreads(-1);
+            fail("No exception thrown!!");
+        } catch (IllegalArgumentException e) {
+            assertEquals(e.getMessage(),
+                BUNDLE.getMessage("invalidRefLinkingThreads"));
+        }
+    }
+
+    @Test
+    public void refLinkingThreadsSurviveThawing()
+    {
+        final ValidationConfiguration frozen
+            = cfg.setRefLinkingThreads(4).freeze();
+        assertEquals(frozen.getRefLinkingThreads(), 4);
+        assertEquals(frozen.thaw().freeze().getRefLinkingThreads(), 4);
+    }
 }
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.format;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jackson.JacksonUtils;
+import com.github.fge.jackson.JsonLoader;
+import com.github.fge.jackson.NodeType;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.ListProcessingReport;
+import com.github.fge.jsonschema.core.report.LogLevel;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.core.tree.CanonicalSchemaTree;
+import com.github.fge.jsonschema.core.tree.SchemaTree;
+import com.github.fge.jsonschema.core.tree.SimpleJsonTree;
+import com.github.fge.jsonschema.core.tree.key.SchemaKey;
+import com.github.fge.jsonschema.core.util.Dictionary;
+import com.github.fge.jsonschema.library.format.CommonFormatAttributesDictionary;
+import com.github.fge.jsonschema.library.format.DraftV3FormatAttributesDictionary;
+import com.github.fge.jsonschema.library.format.DraftV4FormatAttributesDictionary;
+import com.github.fge.jsonschema.library.format.ExtraFormatsDictionary;
+import com.github.fge.jsonschema.messages.JsonSchemaValidationBundle;
+import com.github.fge.jsonschema.processors.data.FullData;
+import com.github.fge.msgsimple.bundle.MessageBundle;
+import com.github.fge.msgsimple.load.MessageBundles;
+import com.google.common.collect.Lists;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.*;
+
+public final class BulkFormatCheckerTest
+{
+    private static final MessageBundle BUNDLE
+        = MessageBundles.getBundle(JsonSchemaValidationBundle.class);
+    private static final SchemaTree SCHEMA_TREE = new CanonicalSchemaTree(
+        SchemaKey.anonymousKey(), JacksonUtils.nodeFactory().objectNode());
+
+    @DataProvider
+    public Iterator<Object[]> stringAttributes()
+        throws IOException
+    {
+        final List<Object[]> list = Lists.newArrayList();
+
+        addAttributes(list, "common", CommonFormatAttributesDictionary.get());
+        addAttributes(list, "draftv3", DraftV3FormatAttributesDictionary.get());
+        addAttributes(list, "draftv4", DraftV4FormatAttributesDictionary.get());
+        addAttributes(list, "extra", ExtraFormatsDictionary.get());
+
+        return list.iterator();
+    }
+
+    @Test(dataProvider = "stringAttributes")
+    public void bulkCheckAgreesWithRegularValidation(final String fmt,
+        final FormatAttribute attribute, final String[] values)
+        throws ProcessingException
+    {
+        assertTrue(attribute instanceof StringFormatAttribute,
+            "format attribute " + fmt + " does not check strings on its own");
+
+        final BitSet expected = new BitSet();
+        for (int i = 0; i < values.length; i++)
+            if (!validate(attribute, values[i]).isSuccess())
+                expected.set(i);
+
+        final BulkFormatChecker checker
+            = BulkFormatChecker.forAttribute(attribute);
+
+        assertEquals(checker.failures(values), expected);
+        assertEquals(checker.failures(Arrays.asList(values)), expected);
+    }
+
+    @Test
+    public void attributesWhichDoNotCheckStringsOnTheirOwnAreSupported()
+        throws ProcessingException
+    {
+        final FormatAttribute uuid
+            = ExtraFormatsDictionary.get().entries().get("uuid");
+        final FormatAttribute attribute = new AbstractFormatAttribute("uuid",
+            NodeType.STRING)
+        {
+            @Override
+            public void validate(final ProcessingReport report,
+                final MessageBundle bundle, final FullData data)
+                throws ProcessingException
+            {
+                uuid.validate(report, bundle, data);
+            }
+        };
+
+        final BitSet failures = BulkFormatChecker.forAttribute(attribute)
+            .failures("00000000-0000-0000-0000-000000000000", "foo", null,
+                "bar");
+
+        final BitSet expected = new BitSet();
+        expected.set(1);
+        expected.set(3);
+
+        assertEquals(failures, expected);
+    }
+
+    @Test
+    public void nullValuesAreNotFailures()
+        throws ProcessingException
+    {
+        final BulkFormatChecker checker = BulkFormatChecker.forAttribute(
+            DraftV4FormatAttributesDictionary.get().entries().get("ipv4"));
+        final List<StringBuilder> values = Lists.newArrayList(null,
+            new StringBuilder("127.0.0.1"), new StringBuilder("1.2.3"));
+
+        final BitSet expected = new BitSet();
+        expected.set(2);
+
+        assertEquals(checker.failures(values), expected);
+    }
+
+    @Test
+    public void cannotBuildCheckerForNonStringAttribute()
+    {
+        final FormatAttribute attribute
+            = DraftV3FormatAttributesDictionary.get().entries()
+                .get("utc-millisec");
+
+        try {
+            BulkFormatChecker.forAttribute(attribute);
+            fail("No exception thrown!!");
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    private static void addAttributes(final List<Object[]> list,
+        final String prefix, final Dictionary<FormatAttribute> dict)
+        throws IOException
+    {
+        String resourceName;
+        JsonNode node;
+        List<String> values;
+
+        for (final Map.Entry<String, FormatAttribute> entry:
+            dict.entries().entrySet()) {
+            if (!entry.getValue().supportedTypes().contains(NodeType.STRING))
+                continue;
+            resourceName = String.format("/format/%s/%s.json", prefix,
+                entry.getKey());
+            if (BulkFormatCheckerTest.class.getResource(resourceName) == null)
+                continue;
+            node = JsonLoader.fromResource(resourceName);
+            values = Lists.newArrayList();
+            for (final JsonNode element: node)
+                if (element.get("data").isTextual())
+                    values.add(element.get("data").textValue());
+            list.add(new Object[] { entry.getKey(), entry.getValue(),
+                values.toArray(new String[values.size()]) });
+        }
+    }
+
+    private static ProcessingReport validate(final FormatAttribute attribute,
+        final String value)
+        throws ProcessingException
+    {
+        final FullData data = new FullData(SCHEMA_TREE,
+            new SimpleJsonTree(JacksonUtils.nodeFactory().textNode(value)));
+        final ProcessingReport report
+            = new ListProcessingReport(LogLevel.DEBUG, LogLevel.NONE);
+        attribute.validate(report, BUNDLE, data);
+        return report;
+    }
+}
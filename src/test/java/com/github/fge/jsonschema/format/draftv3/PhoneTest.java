@@ -19,8 +19,20 @@
 
 package com.github.fge.jsonschema.format.draftv3;
 
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.ProcessingMessage;
+import com.github.fge.jsonschema.core.tree.SimpleJsonTree;
+import com.github.fge.jsonschema.format.FormatAttribute;
+import com.github.fge.jsonschema.processors.data.FullData;
+import com.google.common.base.Strings;
+import org.testng.annotations.Test;
+
 import java.io.IOException;
 
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
 public final class PhoneTest
     extends DraftV3FormatAttributeTest
 {
@@ -29,4 +41,62 @@ public final class PhoneTest
     {
         super("phone");
     }
+
+    @Test
+    public void cannotBuildAttributeForNullRegion()
+    {
+        try {
+            PhoneAttribute.forRegion(null);
+            fail("No exception thrown!!");
+        } catch (NullPointerException e) {
+            assertEquals(e.getMessage(), "phone number region cannot be null");
+        }
+    }
+
+    @Test
+    public void cannotBuildAttributeForUnsupportedRegion()
+    {
+        try {
+            PhoneAttribute.forRegion("ZZ");
+            fail("No exception thrown!!");
+        } catch (IllegalArgumentException e) {
+            assertEquals(e.getMessage(),
+                "region \"ZZ\" is not supported for phone numbers");
+        }
+    }
+
+    @Test
+    public void nationalNumbersAreParsedForTheConfiguredRegion()
+        throws ProcessingException
+    {
+        /*
+         * 011 is the international call prefix in the US, not in France
+         */
+        final FormatAttribute us = PhoneAttribute.forRegion("US");
+        final FullData data = new FullData(SCHEMA_TREE,
+            new SimpleJsonTree(JsonNodeFactory.instance.textNode("011 1")));
+
+        attribute.validate(report, BUNDLE, data);
+        verifyZeroInteractions(report);
+
+        us.validate(report, BUNDLE, data);
+        us.validate(report, BUNDLE, data);
+        verify(report, times(2)).error(any(ProcessingMessage.class));
+    }
+
+    @Test
+    public void onlyParsedOutcomesAreCached()
+    {
+        final PhoneAttribute phone
+            = (PhoneAttribute) PhoneAttribute.forRegion("US");
+
+        assertFalse(phone.isValid("no digit"));
+        assertFalse(phone.isValid("only 1 digit"));
+        assertFalse(phone.isValid(Strings.repeat("1", 251)));
+        assertEquals(phone.cachedOutcomes(), 0L);
+
+        assertTrue(phone.isValid("+33 1 23 45 67 89"));
+        assertFalse(phone.isValid("12 apples"));
+        assertEquals(phone.cachedOutcomes(), 2L);
+    }
 }
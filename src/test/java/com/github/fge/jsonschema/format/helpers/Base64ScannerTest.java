@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.format.helpers;
+
+import com.google.common.base.CharMatcher;
+import com.google.common.base.Predicate;
+import org.testng.annotations.Test;
+
+import java.nio.CharBuffer;
+import java.util.regex.Pattern;
+
+import static org.testng.Assert.*;
+
+/**
+ * Differential tests of {@link Base64Scanner} against the regex and {@link
+ * CharMatcher} it replaces
+ */
+public final class Base64ScannerTest
+{
+    private static final ScannerFuzzer FUZZER
+        = new ScannerFuzzer("aZ09+/-_=\n\u00e9");
+
+    private static final Pattern PATTERN = Pattern.compile("==?$");
+    private static final CharMatcher NOT_BASE64
+        = CharMatcher.inRange('a', 'z').or(CharMatcher.inRange('A', 'Z'))
+            .or(CharMatcher.inRange('0', '9')).or(CharMatcher.anyOf("+/"))
+            .negate();
+
+    @Test
+    public void base64MatchesCharMatcher()
+    {
+        final Predicate<String> scanner = new Predicate<String>()
+        {
+            @Override
+            public boolean apply(final String input)
+            {
+                return Base64Scanner.illegalBase64Index(input) == -1;
+            }
+        };
+        final Predicate<String> reference = new Predicate<String>()
+        {
+            @Override
+            public boolean apply(final String input)
+            {
+                return NOT_BASE64.indexIn(PATTERN.matcher(input)
+                    .replaceFirst("")) == -1;
+            }
+        };
+
+        FUZZER.fuzz(scanner, reference, "", "dGVzdA==", "YWJj", "+/+/ab=",
+            "Zm9vYmFy");
+    }
+
+    @Test
+    public void illegalCharactersAreReportedAtTheirIndex()
+    {
+        assertEquals(Base64Scanner.illegalBase64Index("ab=="), -1);
+        assertEquals(Base64Scanner.illegalBase64Index("a==="), 1);
+        assertEquals(Base64Scanner.illegalBase64Index("a-b_"), 1);
+        assertEquals(Base64Scanner.illegalBase64UrlIndex("a-b_"), -1);
+        assertEquals(Base64Scanner.illegalBase64UrlIndex("a+b/"), 1);
+        assertEquals(Base64Scanner.illegalBase64UrlIndex("ab\u00e9="), 2);
+    }
+
+    @Test
+    public void characterBuffersCanBeScannedInPlace()
+    {
+        final char[] buf = "\"dGVz,dA==\"".toCharArray();
+
+        assertEquals(Base64Scanner.illegalBase64Index(
+            CharBuffer.wrap(buf, 1, 4)), -1);
+        assertEquals(Base64Scanner.illegalBase64Index(
+            CharBuffer.wrap(buf, 6, 4)), -1);
+        assertEquals(Base64Scanner.illegalBase64Index(
+            CharBuffer.wrap(buf, 1, 9)), 4);
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.format.helpers;
+
+import com.google.common.base.Predicate;
+import org.joda.time.format.DateTimeFormatter;
+import org.joda.time.format.DateTimeFormatterBuilder;
+import org.joda.time.format.DateTimeParser;
+import org.testng.annotations.Test;
+
+import static org.joda.time.DateTimeFieldType.*;
+import static org.testng.Assert.*;
+
+/**
+ * Differential tests of {@link DateTimeScanner} against the Joda Time
+ * formatters it replaces
+ */
+public final class DateTimeScannerTest
+{
+    private static final ScannerFuzzer FUZZER = new ScannerFuzzer(
+        "0123456789-+:.,TtZz \u0661", new Predicate<String>()
+        {
+            @Override
+            public boolean apply(final String input)
+            {
+                return isOutOfRange(input);
+            }
+        });
+
+    private static final DateTimeFormatter DATE_TIME;
+    private static final DateTimeFormatter RFC3339_DATE_TIME;
+    private static final DateTimeFormatter DATE;
+    private static final DateTimeFormatter TIME;
+
+    static {
+        final DateTimeParser secFracsParser = new DateTimeFormatterBuilder()
+            .appendLiteral('.').appendFractionOfSecond(1, 12)
+            .toParser();
+
+        DATE_TIME = new DateTimeFormatterBuilder()
+            .appendFixedDecimal(year(), 4).appendLiteral('-')
+            .appendFixedDecimal(monthOfYear(), 2).appendLiteral('-')
+            .appendFixedDecimal(dayOfMonth(), 2).appendLiteral('T')
+            .appendFixedDecimal(hourOfDay(), 2).appendLiteral(':')
+            .appendFixedDecimal(minuteOfHour(), 2).appendLiteral(':')
+            .appendFixedDecimal(secondOfMinute(), 2)
+            .appendOptional(secFracsParser)
+            .appendTimeZoneOffset("Z", false, 2, 2)
+            .toFormatter();
+
+        RFC3339_DATE_TIME = new DateTimeFormatterBuilder()
+            .appendPattern("yyyy-MM-dd'T'HH:mm:ss")
+            .appendOptional(secFracsParser)
+            .appendTimeZoneOffset("Z", true, 2, 2)
+            .toFormatter();
+
+        DATE = new DateTimeFormatterBuilder()
+            .appendFixedDecimal(year(), 4).appendLiteral('-')
+            .appendFixedDecimal(monthOfYear(), 2).appendLiteral('-')
+            .appendFixedDecimal(dayOfMonth(), 2)
+            .toFormatter();
+
+        TIME = new DateTimeFormatterBuilder()
+            .appendFixedDecimal(hourOfDay(), 2).appendLiteral(':')
+            .appendFixedDecimal(minuteOfHour(), 2).appendLiteral(':')
+            .appendFixedDecimal(secondOfMinute(), 2)
+            .toFormatter();
+    }
+
+    @Test
+    public void dateTimeMatchesJoda()
+    {
+        final Predicate<String> scanner = new Predicate<String>()
+        {
+            @Override
+            public boolean apply(final String input)
+            {
+                return DateTimeScanner.isDateTime(input);
+            }
+        };
+        final Predicate<String> reference = new Predicate<String>()
+        {
+            @Override
+            public boolean apply(final String input)
+            {
+                try {
+                    DATE_TIME.parseDateTime(input);
+                    return true;
+                } catch (IllegalArgumentException ignored) {
+                    return false;
+                }
+            }
+        };
+
+        FUZZER.fuzz(scanner, reference, "2012-08-07T20:42:32.123+01:00:00.5",
+            "2012-02-29t00:00:00z", "2013-12-31T23:59:59-0130");
+    }
+
+    @Test
+    public void rfc3339DateTimeMatchesJoda()
+    {
+        final Predicate<String> scanner = new Predicate<String>()
+        {
+            @Override
+            public boolean apply(final String input)
+            {
+                return DateTimeScanner.isRFC3339DateTime(input);
+            }
+        };
+        final Predicate<String> reference = new Predicate<String>()
+        {
+            @Override
+            public boolean apply(final String input)
+            {
+                return rfc3339Reference(input);
+            }
+        };
+
+        FUZZER.fuzz(scanner, reference, "2012-08-07T20:42:32.123+01:00",
+            "+292278993-12-31T23:59:59Z", "-2000-2-29T1:2:3.4Z",
+            "1-1-1T1:1:1.12-05:30");
+    }
+
+    @Test
+    public void dateMatchesJoda()
+    {
+        final Predicate<String> scanner = new Predicate<String>()
+        {
+            @Override
+            public boolean apply(final String input)
+            {
+                return DateTimeScanner.isDate(input);
+            }
+        };
+        final Predicate<String> reference = new Predicate<String>()
+        {
+            @Override
+            public boolean apply(final String input)
+            {
+                try {
+                    DATE.parseLocalDate(input);
+                    return true;
+                } catch (IllegalArgumentException ignored) {
+                    return false;
+                }
+            }
+        };
+
+        FUZZER.fuzz(scanner, reference, "2000-02-29", "1900-02-28",
+            "0000-12-31");
+    }
+
+    @Test
+    public void timeMatchesJoda()
+    {
+        final Predicate<String> scanner = new Predicate<String>()
+        {
+            @Override
+            public boolean apply(final String input)
+            {
+                return DateTimeScanner.isTime(input);
+            }
+        };
+        final Predicate<String> reference = new Predicate<String>()
+        {
+            @Override
+            public boolean apply(final String input)
+            {
+                try {
+                    TIME.parseLocalDate(input);
+                    return true;
+                } catch (IllegalArgumentException ignored) {
+                    return false;
+                }
+            }
+        };
+
+        FUZZER.fuzz(scanner, reference, "23:59:59", "00:00:00", "19:09:29");
+    }
+
+    @Test
+    public void yearsAreLimitedToTheISOChronologyRange()
+    {
+        assertTrue(DateTimeScanner.isRFC3339DateTime(
+            "-292275054-01-01T00:00:00Z"));
+        assertFalse(DateTimeScanner.isRFC3339DateTime(
+            "-292275055-01-01T00:00:00Z"));
+        assertFalse(DateTimeScanner.isRFC3339DateTime(
+            "+292278994-01-01T00:00:00Z"));
+    }
+
+    @Test
+    public void leapYearsFollowTheGregorianCalendar()
+    {
+        assertTrue(DateTimeScanner.isDate("2000-02-29"));
+        assertTrue(DateTimeScanner.isDate("2012-02-29"));
+        assertFalse(DateTimeScanner.isDate("1900-02-29"));
+        assertFalse(DateTimeScanner.isDate("2013-02-29"));
+        assertTrue(DateTimeScanner.isRFC3339DateTime("-0004-02-29T00:00:00Z"));
+        assertFalse(DateTimeScanner.isRFC3339DateTime(
+            "-0100-02-29T00:00:00Z"));
+    }
+
+    /*
+     * This is what RFC3339DateTimeAttribute used to do. A few values accepted
+     * by the formatter made it fail with an unchecked exception other than
+     * IllegalArgumentException; these are considered invalid.
+     */
+    private static boolean rfc3339Reference(final String value)
+    {
+        try {
+            RFC3339_DATE_TIME.parseDateTime(value);
+
+            final String secFracsAndOffset
+                = value.substring("yyyy-MM-ddTHH:mm:ss".length());
+            final String offset;
+            if (!secFracsAndOffset.startsWith("."))
+                offset = secFracsAndOffset;
+            else if (secFracsAndOffset.contains("Z"))
+                offset = secFracsAndOffset.substring(
+                    secFracsAndOffset.indexOf("Z"));
+            else if (secFracsAndOffset.contains("+"))
+                offset = secFracsAndOffset.substring(
+                    secFracsAndOffset.indexOf("+"));
+            else
+                offset = secFracsAndOffset.substring(
+                    secFracsAndOffset.indexOf("-"));
+            return offset.endsWith("Z")
+                || offset.length() == 6 && offset.contains(":");
+        } catch (IllegalArgumentException ignored) {
+            return false;
+        } catch (IndexOutOfBoundsException ignored) {
+            return false;
+        }
+    }
+
+    /*
+     * Joda Time's behaviour for years outside of its ISO chronology range
+     * depends on arithmetic overflows; DateTimeScanner rejects them.
+     */
+    private static boolean isOutOfRange(final String input)
+    {
+        final int end = input.indexOf('-', 1);
+        if (end == -1)
+            return false;
+        try {
+            final long year = Long.parseLong(input.substring(0, end));
+            return year < -292275054L || year > 292278993L;
+        } catch (NumberFormatException ignored) {
+            return false;
+        }
+    }
+}
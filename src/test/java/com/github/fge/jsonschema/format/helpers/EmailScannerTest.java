@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.format.helpers;
+
+import com.google.common.base.Predicate;
+import org.testng.annotations.Test;
+
+import javax.mail.internet.AddressException;
+import javax.mail.internet.InternetAddress;
+
+/**
+ * Differential tests of {@link EmailScanner} against a strict {@link
+ * InternetAddress}
+ */
+public final class EmailScannerTest
+{
+    private static final ScannerFuzzer FUZZER
+        = new ScannerFuzzer("az09.@-_+ \t\u007f\u00e9()<>\",;:[]\\");
+
+    @Test
+    public void emailMatchesJavaMail()
+    {
+        final Predicate<String> scanner = new Predicate<String>()
+        {
+            @Override
+            public boolean apply(final String input)
+            {
+                return EmailScanner.isEmail(input);
+            }
+        };
+        final Predicate<String> reference = new Predicate<String>()
+        {
+            @Override
+            public boolean apply(final String input)
+            {
+                try {
+                    new InternetAddress(input, true);
+                    return true;
+                } catch (AddressException ignored) {
+                    return false;
+                }
+            }
+        };
+
+        FUZZER.fuzz(scanner, reference, "foo@bar.com", "a.b-c+d@x-y.z",
+            " me@host ", "caf\u00e9@\u00e9t\u00e9.fr",
+            "John Doe <john@doe.com>", "\"a b\"@c.d", "g:a@b.c;",
+            "a@[127.0.0.1]", "foo");
+    }
+}
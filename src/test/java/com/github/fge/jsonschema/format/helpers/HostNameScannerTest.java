@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.format.helpers;
+
+import com.google.common.base.Predicate;
+import com.google.common.base.Strings;
+import com.google.common.net.InternetDomainName;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * Differential tests of {@link HostNameScanner} against Guava's {@link
+ * InternetDomainName}
+ */
+public final class HostNameScannerTest
+{
+    private static final ScannerFuzzer FUZZER
+        = new ScannerFuzzer("az09.-_:@ \u3002\uff0e\u00e9\u0661");
+
+    @Test
+    public void hostNameMatchesGuava()
+    {
+        final Predicate<String> scanner = new Predicate<String>()
+        {
+            @Override
+            public boolean apply(final String input)
+            {
+                return HostNameScanner.isHostName(input);
+            }
+        };
+        final Predicate<String> reference = new Predicate<String>()
+        {
+            @Override
+            public boolean apply(final String input)
+            {
+                try {
+                    InternetDomainName.from(input);
+                    return true;
+                } catch (IllegalArgumentException ignored) {
+                    return false;
+                }
+            }
+        };
+
+        FUZZER.fuzz(scanner, reference, "www.example.com", "foo", "3com.com.",
+            "a-b_c.d", "caf\u00e9.fr", "x\u3002y\uff61z", "1.2.3.4");
+    }
+
+    @Test
+    public void lengthsAreLimited()
+    {
+        final String part = Strings.repeat("a", 63);
+        final String name = Strings.repeat(part + '.', 3) + part.substring(2);
+
+        assertTrue(HostNameScanner.isHostName(part));
+        assertFalse(HostNameScanner.isHostName(part + 'a'));
+        assertTrue(HostNameScanner.isHostName(name));
+        assertTrue(HostNameScanner.isHostName(name + '.'));
+        assertFalse(HostNameScanner.isHostName(name + 'a'));
+        assertTrue(HostNameScanner.isHostName(Strings.repeat("a.", 126) + 'a'));
+        assertFalse(HostNameScanner.isHostName(Strings.repeat("a.", 127)
+            + 'a'));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.format.helpers;
+
+import com.google.common.base.Predicate;
+import com.google.common.net.InetAddresses;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * Differential tests of {@link InetAddressScanner} against Guava's {@link
+ * InetAddresses}
+ */
+public final class InetAddressScannerTest
+{
+    private static final ScannerFuzzer FUZZER
+        = new ScannerFuzzer("0123456789abcdefAF.:%g \u0661\u0660");
+
+    @Test
+    public void ipv4MatchesGuava()
+    {
+        final Predicate<String> scanner = new Predicate<String>()
+        {
+            @Override
+            public boolean apply(final String input)
+            {
+                return InetAddressScanner.isIPv4(input);
+            }
+        };
+
+        FUZZER.fuzz(scanner, reference(4), "127.0.0.1", "255.255.255.255",
+            "0.10.200.9", "\u0661.\u0660.\u0660.\u0661");
+    }
+
+    @Test
+    public void ipv6MatchesGuava()
+    {
+        final Predicate<String> scanner = new Predicate<String>()
+        {
+            @Override
+            public boolean apply(final String input)
+            {
+                return InetAddressScanner.isIPv6(input);
+            }
+        };
+
+        FUZZER.fuzz(scanner, reference(16), "::1", "::", "1::",
+            "fe80::1%eth0", "2001:db8:0:0:0:ff00:42:8329",
+            "::ffff:192.168.1.1", "1:2:3:4:5:6:1.2.3.4", "0000ffff::0001",
+            "::ffff:c0a8:101", "0:0:0:0:0:ffff::", "::1.2.3.4");
+    }
+
+    @Test
+    public void ipv6ScopeIdentifiersAreIgnored()
+    {
+        assertTrue(InetAddressScanner.isIPv6("fe80::1%"));
+        assertTrue(InetAddressScanner.isIPv6("fe80::1%[ whatever ]"));
+        assertFalse(InetAddressScanner.isIPv6("::1.2.3.4%eth0"));
+    }
+
+    @Test
+    public void ipv4MappedAddressesAreNotIPv6Addresses()
+    {
+        assertFalse(InetAddressScanner.isIPv6("::ffff:192.168.1.1"));
+        assertFalse(InetAddressScanner.isIPv6("::ffff:c0a8:101"));
+        assertTrue(InetAddressScanner.isIPv6("::fffe:c0a8:101"));
+        assertTrue(InetAddressScanner.isIPv6("::192.168.1.1"));
+    }
+
+    /*
+     * This is what the format attributes used to do
+     */
+    private static Predicate<String> reference(final int length)
+    {
+        return new Predicate<String>()
+        {
+            @Override
+            public boolean apply(final String input)
+            {
+                return InetAddresses.isInetAddress(input) && InetAddresses
+                    .forString(input).getAddress().length == length;
+            }
+        };
+    }
+}
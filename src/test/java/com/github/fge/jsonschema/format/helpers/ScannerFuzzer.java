@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.format.helpers;
+
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
+
+import java.util.Random;
+
+import static org.testng.Assert.*;
+
+/**
+ * Differential tester of a format scanner against the implementation it
+ * replaces
+ *
+ * <p>The seeds are compared first, then random mutations of the seeds:
+ * character replacements, insertions and deletions, from an alphabet of
+ * characters meaningful to the parsers. The random seed is fixed so that
+ * failures can be reproduced.</p>
+ */
+final class ScannerFuzzer
+{
+    private static final int ITERATIONS = 100000;
+
+    private final String alphabet;
+    private final Predicate<String> excluded;
+
+    ScannerFuzzer(final String alphabet)
+    {
+        this(alphabet, Predicates.<String>alwaysFalse());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param alphabet the characters used to mutate the seeds
+     * @param excluded inputs for which no comparison is done
+     */
+    ScannerFuzzer(final String alphabet, final Predicate<String> excluded)
+    {
+        this.alphabet = alphabet;
+        this.excluded = excluded;
+    }
+
+    void fuzz(final Predicate<String> scanner,
+        final Predicate<String> reference, final String... seeds)
+    {
+        final Random random = new Random(0L);
+        final StringBuilder sb = new StringBuilder();
+        String input;
+
+        for (final String seed: seeds)
+            assertEquals(scanner.apply(seed), reference.apply(seed), seed);
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            sb.setLength(0);
+            sb.append(seeds[random.nextInt(seeds.length)]);
+            for (int n = random.nextInt(4); n >= 0; n--)
+                mutate(random, sb);
+            input = sb.toString();
+            if (excluded.apply(input))
+                continue;
+            assertEquals(scanner.apply(input), reference.apply(input),
+                "discrepancy for input \"" + input + '"');
+        }
+    }
+
+    private void mutate(final Random random, final StringBuilder sb)
+    {
+        final int length = sb.length();
+        final char c = alphabet.charAt(random.nextInt(alphabet.length()));
+
+        switch (random.nextInt(3)) {
+            case 0:
+                if (length > 0)
+                    sb.setCharAt(random.nextInt(length), c);
+                break;
+            case 1:
+                sb.insert(random.nextInt(length + 1), c);
+                break;
+            default:
+                if (length > 0)
+                    sb.deleteCharAt(random.nextInt(length));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.format.helpers;
+
+import com.google.common.base.Predicate;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+
+/**
+ * Differential tests of {@link URIScanner} against {@link URI}
+ */
+public final class URIScannerTest
+{
+    private static final ScannerFuzzer FUZZER = new ScannerFuzzer(
+        "az09+-.:/?#%@[]!$&'()*,;=_~ \"<>\\^`{|}\u00e9\u00a0\u0085");
+
+    @Test
+    public void uriMatchesJavaNet()
+    {
+        final Predicate<String> scanner = new Predicate<String>()
+        {
+            @Override
+            public boolean apply(final String input)
+            {
+                return URIScanner.isURI(input);
+            }
+        };
+        final Predicate<String> reference = new Predicate<String>()
+        {
+            @Override
+            public boolean apply(final String input)
+            {
+                try {
+                    new URI(input);
+                    return true;
+                } catch (URISyntaxException ignored) {
+                    return false;
+                }
+            }
+        };
+
+        FUZZER.fuzz(scanner, reference, "http://slashdot.org",
+            "foo://user@a.b.c:80/d/e?f=g#h", "mailto:a@b.c", "../a/b%20c",
+            "#frag", "", "file:///tmp", "http://[::1]:8080/",
+            "urn:isbn:096139210x", "//host?q", "caf\u00e9:/x");
+    }
+}
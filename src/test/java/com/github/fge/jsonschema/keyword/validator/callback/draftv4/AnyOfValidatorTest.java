@@ -40,6 +40,12 @@ public final class AnyOfValidatorTest
         super("anyOf", JsonPointer.of("anyOf", 0), JsonPointer.of("anyOf", 1));
     }
 
+    @Override
+    protected boolean stopsAtFirstSuccess()
+    {
+        return true;
+    }
+
     @Override
     protected void checkOkOk(final ProcessingReport report)
         throws ProcessingException
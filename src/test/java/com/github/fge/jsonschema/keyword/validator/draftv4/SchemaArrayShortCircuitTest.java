@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.keyword.validator.draftv4;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jackson.JsonLoader;
+import com.github.fge.jsonschema.exceptions.InvalidInstanceException;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.processing.Processor;
+import com.github.fge.jsonschema.core.report.ListProcessingReport;
+import com.github.fge.jsonschema.core.report.LogLevel;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.core.tree.CanonicalSchemaTree;
+import com.github.fge.jsonschema.core.tree.SimpleJsonTree;
+import com.github.fge.jsonschema.core.tree.key.SchemaKey;
+import com.github.fge.jsonschema.keyword.validator.KeywordValidator;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import com.github.fge.jsonschema.messages.JsonSchemaValidationBundle;
+import com.github.fge.jsonschema.processors.data.FullData;
+import com.github.fge.msgsimple.bundle.MessageBundle;
+import com.github.fge.msgsimple.load.MessageBundles;
+import com.google.common.collect.Lists;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+public final class SchemaArrayShortCircuitTest
+{
+    private static final MessageBundle BUNDLE
+        = MessageBundles.getBundle(JsonSchemaValidationBundle.class);
+
+    private final List<String> visited = Lists.newArrayList();
+    private Processor<FullData, FullData> processor;
+
+    @BeforeMethod
+    public void init()
+    {
+        final Processor<FullData, FullData> delegate
+            = JsonSchemaFactory.byDefault().getProcessor();
+        visited.clear();
+        processor = new Processor<FullData, FullData>()
+        {
+            @Override
+            public FullData process(final ProcessingReport report,
+                final FullData input)
+                throws ProcessingException
+            {
+                visited.add(input.getSchema().getPointer().toString());
+                return delegate.process(report, input);
+            }
+        };
+    }
+
+    @Test
+    public void oneOfOnlyTriesDiscriminatedBranch()
+        throws IOException, ProcessingException
+    {
+        final FullData data = data("oneOf", "{ \"kind\": \"c\" }");
+        final ProcessingReport report = new ListProcessingReport();
+
+        new OneOfValidator(null).validate(processor, report, BUNDLE, data);
+
+        assertTrue(report.isSuccess());
+        assertEquals(visited, Lists.newArrayList("/oneOf/2"));
+    }
+
+    @Test
+    public void oneOfReportsAllBranchesOnFailure()
+        throws IOException, ProcessingException
+    {
+        final FullData data = data("oneOf", "{ \"kind\": \"z\" }");
+        final ProcessingReport report = new ListProcessingReport();
+
+        new OneOfValidator(null).validate(processor, report, BUNDLE, data);
+
+        assertFalse(report.isSuccess());
+        final JsonNode reports = report.iterator().next().asJson()
+            .get("reports");
+        assertEquals(Lists.newArrayList(reports.fieldNames()),
+            Lists.newArrayList("/oneOf/0", "/oneOf/1", "/oneOf/2",
+                "/oneOf/3"));
+        assertEquals(reports.get("/oneOf/0").size(), 1);
+    }
+
+    @Test
+    public void anyOfStopsAtFirstSuccess()
+        throws IOException, ProcessingException
+    {
+        final FullData data = data("anyOf", "{ \"kind\": \"b\" }");
+        final ProcessingReport report = new ListProcessingReport();
+
+        new AnyOfValidator(null).validate(processor, report, BUNDLE, data);
+
+        assertTrue(report.isSuccess());
+        assertEquals(visited, Lists.newArrayList("/anyOf/1"));
+    }
+
+    @Test
+    public void allOfStopsAtFirstFailureInFailFastMode()
+        throws IOException, ProcessingException
+    {
+        final FullData data = data("allOf", "{ \"kind\": \"b\" }");
+        final ProcessingReport report
+            = new ListProcessingReport(LogLevel.INFO, LogLevel.ERROR);
+        final KeywordValidator validator = new AllOfValidator(null);
+
+        try {
+            validator.validate(processor, report, BUNDLE, data);
+            fail("No exception thrown!!");
+        } catch (InvalidInstanceException e) {
+            final JsonNode message = e.getProcessingMessage().asJson();
+            assertEquals(message.get("matched").intValue(), 0);
+            assertEquals(message.get("nrSchemas").intValue(), 4);
+            assertEquals(Lists.newArrayList(message.get("reports")
+                .fieldNames()), Lists.newArrayList("/allOf/0"));
+        }
+        assertEquals(visited, Lists.newArrayList("/allOf/0"));
+    }
+
+    @Test
+    public void allOfReportsAllBranchesOtherwise()
+        throws IOException, ProcessingException
+    {
+        final FullData data = data("allOf", "{ \"kind\": \"b\" }");
+        final ProcessingReport report = new ListProcessingReport();
+
+        new AllOfValidator(null).validate(processor, report, BUNDLE, data);
+
+        assertFalse(report.isSuccess());
+        final JsonNode message = report.iterator().next().asJson();
+        assertEquals(message.get("matched").intValue(), 1);
+        assertEquals(Lists.newArrayList(message.get("reports").fieldNames()),
+            Lists.newArrayList("/allOf/0", "/allOf/1", "/allOf/2",
+                "/allOf/3"));
+        assertEquals(visited.size(), 4);
+    }
+
+    @Test
+    public void branchesNotAdmittingInstanceTypeAreNeverTried()
+        throws IOException, ProcessingException
+    {
+        final JsonNode schema = JsonLoader.fromString("{"
+            + "\"definitions\": { \"s\": { \"type\": \"string\" } },"
+            + "\"anyOf\": ["
+            + "  { \"$ref\": \"#/definitions/s\" },"
+            + "  { \"enum\": [ true, false ] }"
+            + "] }");
+        final FullData data = new FullData(
+            new CanonicalSchemaTree(SchemaKey.anonymousKey(), schema),
+            new SimpleJsonTree(JsonLoader.fromString("2")));
+        final ProcessingReport report = new ListProcessingReport();
+
+        new AnyOfValidator(null).validate(processor, report, BUNDLE, data);
+
+        assertFalse(report.isSuccess());
+        assertTrue(visited.isEmpty());
+
+        final JsonNode reports = report.iterator().next().asJson()
+            .get("reports");
+        final JsonNode message = reports.get("/anyOf/0").get(0);
+        assertEquals(message.get("keyword").textValue(), "type");
+        assertEquals(message.get("found").textValue(), "integer");
+        assertEquals(message.get("schema").get("pointer").textValue(),
+            "/definitions/s");
+        assertEquals(reports.get("/anyOf/1").get(0).get("expected"),
+            JsonLoader.fromString("[ \"boolean\" ]"));
+    }
+
+    @Test
+    public void notSkipsSubschemaWhichCannotMatch()
+        throws IOException, ProcessingException
+    {
+        final JsonNode schema = JsonLoader.fromString(
+            "{ \"not\": { \"enum\": [ 1 ] } }");
+        final FullData data = new FullData(
+            new CanonicalSchemaTree(SchemaKey.anonymousKey(), schema),
+            new SimpleJsonTree(JsonLoader.fromString("2")));
+        final ProcessingReport report = new ListProcessingReport();
+
+        new NotValidator(null).validate(processor, report, BUNDLE, data);
+
+        assertTrue(report.isSuccess());
+        assertTrue(visited.isEmpty());
+    }
+
+    private static FullData data(final String keyword, final String instance)
+        throws IOException
+    {
+        final StringBuilder sb = new StringBuilder("{ \"").append(keyword)
+            .append("\": [");
+        for (final char c: "abcd".toCharArray()) {
+            if (c != 'a')
+                sb.append(", ");
+            sb.append("{ \"required\": [ \"kind\" ], \"properties\": {")
+                .append(" \"kind\": { \"enum\": [ \"").append(c)
+                .append("\" ] } } }");
+        }
+        sb.append("] }");
+        final JsonNode schema = JsonLoader.fromString(sb.toString());
+        return new FullData(
+            new CanonicalSchemaTree(SchemaKey.anonymousKey(), schema),
+            new SimpleJsonTree(JsonLoader.fromString(instance)));
+    }
+}
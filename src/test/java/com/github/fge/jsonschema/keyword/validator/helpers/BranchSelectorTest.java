@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.keyword.validator.helpers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jackson.JsonLoader;
+import com.github.fge.jackson.NodeType;
+import com.github.fge.jsonschema.core.tree.CanonicalSchemaTree;
+import com.github.fge.jsonschema.core.tree.SchemaTree;
+import com.github.fge.jsonschema.core.tree.key.SchemaKey;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.testng.Assert.*;
+
+public final class BranchSelectorTest
+{
+    private SchemaTree tree;
+    private BranchSelector selector;
+
+    @BeforeMethod
+    public void init()
+        throws IOException
+    {
+        final JsonNode schema = JsonLoader.fromString("{"
+            + "\"definitions\": {"
+            + "  \"kind\": { \"enum\": [ \"b\" ] },"
+            + "  \"b\": { \"required\": [ \"kind\", \"b\" ],"
+            + "    \"properties\": { \"kind\": { \"$ref\": \"#/definitions/kind\" } }"
+            + "  }"
+            + "},"
+            + "\"oneOf\": ["
+            + "  { \"properties\": { \"kind\": { \"enum\": [ \"a\" ] } } },"
+            + "  { \"$ref\": \"#/definitions/b\" },"
+            + "  { \"type\": \"string\" },"
+            + "  { \"$ref\": \"other#/foo\" },"
+            + "  { \"enum\": [ 1, 2 ] }"
+            + "] }");
+        tree = new CanonicalSchemaTree(SchemaKey.anonymousKey(), schema);
+        selector = BranchSelector.forSchemaArray(tree, "oneOf");
+    }
+
+    @Test
+    public void selectorIsBoundToItsSchema()
+        throws IOException
+    {
+        assertTrue(selector.isFor(tree));
+        assertTrue(selector.isFor(tree.setPointer(tree.getPointer())));
+        assertFalse(selector.isFor(new CanonicalSchemaTree(
+            SchemaKey.anonymousKey(), JsonLoader.fromString("{}"))));
+        assertEquals(selector.size(), 5);
+        assertEquals(selector.getPointer(3).toString(), "/oneOf/3");
+    }
+
+    @Test
+    public void selectorsAreCachedPerSchema()
+        throws IOException
+    {
+        final SchemaTree other = new CanonicalSchemaTree(
+            SchemaKey.anonymousKey(), JsonLoader.fromString(
+            "{ \"oneOf\": [ {}, {} ] }"));
+        final BranchSelector first = BranchSelector.ofSchemaArray(tree,
+            "oneOf");
+        final BranchSelector second = BranchSelector.ofSchemaArray(other,
+            "oneOf");
+
+        assertTrue(first.isFor(tree));
+        assertTrue(second.isFor(other));
+        assertSame(BranchSelector.ofSchemaArray(tree, "oneOf"), first);
+        assertSame(BranchSelector.ofSchemaArray(other, "oneOf"), second);
+        assertEquals(first.size(), 5);
+        assertEquals(second.size(), 2);
+    }
+
+    @Test
+    public void discriminatorSelectsBranchFirst()
+        throws IOException
+    {
+        final JsonNode instance
+            = JsonLoader.fromString("{ \"kind\": \"b\", \"b\": 0 }");
+        final int[] order = new int[selector.size()];
+
+        assertEquals(selector.sort(instance, order), 2);
+        assertEquals(Arrays.copyOfRange(order, 0, 2), new int[] { 1, 3 });
+        assertTrue(selector.excludes(0, instance));
+        assertTrue(selector.excludes(2, instance));
+        assertTrue(selector.excludes(4, instance));
+    }
+
+    @Test
+    public void missingRequiredPropertiesExcludeBranch()
+        throws IOException
+    {
+        final JsonNode instance = JsonLoader.fromString("{ \"kind\": \"b\" }");
+        assertTrue(selector.excludes(1, instance));
+        assertFalse(selector.excludes(0, JsonLoader.fromString("{}")));
+    }
+
+    @Test
+    public void enumValuesUseNumericEquivalence()
+        throws IOException
+    {
+        assertFalse(selector.excludes(4, JsonLoader.fromString("1.0")));
+        assertTrue(selector.excludes(4, JsonLoader.fromString("3")));
+    }
+
+    @Test
+    public void typeMismatchExcludesBranch()
+        throws IOException
+    {
+        final JsonNode instance = JsonLoader.fromString("2");
+        final int[] order = new int[selector.size()];
+
+        assertEquals(selector.sort(instance, order), 4);
+        assertEquals(order, new int[] { 0, 1, 3, 4, 2 });
+        assertFalse(selector.admits(2, NodeType.INTEGER));
+        assertTrue(selector.admits(3, NodeType.INTEGER));
+    }
+
+    @Test
+    public void admittedTypesAreComputedFromTypeAndEnum()
+        throws IOException
+    {
+        final JsonNode schema = JsonLoader.fromString("{ \"anyOf\": ["
+            + "  { \"type\": [ \"number\", \"string\" ] },"
+            + "  { \"enum\": [ 1.5, null ] },"
+            + "  { \"type\": \"string\", \"enum\": [ 1 ] },"
+            + "  { \"type\": \"boolean\", \"disallow\": \"boolean\" }"
+            + "] }");
+        final BranchSelector anyOf = BranchSelector.forSchemaArray(
+            new CanonicalSchemaTree(SchemaKey.anonymousKey(), schema), "anyOf");
+
+        assertTrue(anyOf.admits(0, NodeType.INTEGER));
+        assertFalse(anyOf.admits(0, NodeType.BOOLEAN));
+        assertTrue(anyOf.admits(1, NodeType.INTEGER));
+        assertTrue(anyOf.admits(1, NodeType.NULL));
+        assertFalse(anyOf.admits(1, NodeType.STRING));
+        for (final NodeType type: NodeType.values())
+            assertFalse(anyOf.admits(2, type));
+        /*
+         * disallow is not a draft v4 keyword
+         */
+        assertTrue(anyOf.admits(3, NodeType.BOOLEAN));
+    }
+
+    @Test
+    public void draftV3DisallowRemovesTypes()
+        throws IOException
+    {
+        final JsonNode schema = JsonLoader.fromString("{ \"type\": ["
+            + "  \"null\","
+            + "  { \"disallow\": [ \"number\", { \"type\": \"string\" } ] },"
+            + "  { \"disallow\": \"any\" }"
+            + "] }");
+        final BranchSelector type = BranchSelector.forDraftV3Schemas(
+            new CanonicalSchemaTree(SchemaKey.anonymousKey(), schema), "type",
+            Arrays.asList(1, 2));
+
+        assertEquals(type.getPointer(0).toString(), "/type/1");
+        assertFalse(type.admits(0, NodeType.INTEGER));
+        assertTrue(type.admits(0, NodeType.STRING));
+        assertFalse(type.admits(1, NodeType.OBJECT));
+    }
+
+    @Test
+    public void draftV3AndNotSelectorsAreCachedPerKeyword()
+        throws IOException
+    {
+        final SchemaTree v3 = new CanonicalSchemaTree(SchemaKey.anonymousKey(),
+            JsonLoader.fromString("{ \"type\": [ \"null\", {} ],"
+                + " \"disallow\": [ \"string\", {}, {} ] }"));
+        final SchemaTree not = new CanonicalSchemaTree(
+            SchemaKey.anonymousKey(), JsonLoader.fromString(
+            "{ \"not\": { \"type\": \"string\" } }"));
+
+        final BranchSelector type = BranchSelector.ofDraftV3Schemas(v3,
+            "type", Arrays.asList(1));
+        final BranchSelector disallow = BranchSelector.ofDraftV3Schemas(v3,
+            "disallow", Arrays.asList(1, 2));
+        final BranchSelector notSelector = BranchSelector.ofSchema(not, "not");
+
+        assertEquals(type.size(), 1);
+        assertEquals(disallow.size(), 2);
+        assertSame(BranchSelector.ofDraftV3Schemas(v3, "type",
+            Arrays.asList(1)), type);
+        assertSame(BranchSelector.ofDraftV3Schemas(v3, "disallow",
+            Arrays.asList(1, 2)), disallow);
+        assertSame(BranchSelector.ofSchema(not, "not"), notSelector);
+        assertFalse(notSelector.admits(0, NodeType.INTEGER));
+    }
+}
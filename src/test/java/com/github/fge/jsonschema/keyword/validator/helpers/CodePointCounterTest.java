@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.keyword.validator.helpers;
+
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+import static org.testng.Assert.*;
+
+public final class CodePointCounterTest
+{
+    private static final char[] ALPHABET = { 'a', '\u00e9', '\ud83d',
+        '\udca9', '\udbff', '\udc00' };
+
+    private static final int ROUNDS = 50000;
+
+    @Test
+    public void countsAgreeWithString()
+    {
+        final Random random = new Random(0L);
+
+        String value;
+        int expected, limit;
+
+        for (int i = 0; i < ROUNDS; i++) {
+            value = randomString(random);
+            expected = value.codePointCount(0, value.length());
+            limit = random.nextInt(value.length() + 2);
+            assertEquals(CodePointCounter.countUpTo(value, limit),
+                Math.min(expected, limit + 1), "wrong count for " + value);
+        }
+    }
+
+    @Test
+    public void incrementalCountsAgreeWithString()
+    {
+        final Random random = new Random(1L);
+
+        String value;
+        char[] buf;
+        CodePointCounter counter;
+        int expected, limit, offset, length;
+
+        for (int i = 0; i < ROUNDS; i++) {
+            value = randomString(random);
+            buf = value.toCharArray();
+            expected = value.codePointCount(0, value.length());
+            limit = random.nextInt(value.length() + 2);
+            counter = new CodePointCounter(limit);
+            offset = 0;
+            while (offset < buf.length) {
+                length = random.nextInt(buf.length - offset + 1);
+                if (!counter.append(buf, offset, length))
+                    break;
+                offset += length;
+            }
+            assertEquals(counter.limitExceeded(), expected > limit);
+            assertEquals(counter.getCount(), Math.min(expected, limit + 1),
+                "wrong count for " + value);
+        }
+    }
+
+    private static String randomString(final Random random)
+    {
+        final int length = random.nextInt(12);
+        final StringBuilder sb = new StringBuilder(length);
+
+        for (int i = 0; i < length; i++)
+            sb.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.keyword.validator.helpers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.fge.jackson.JacksonUtils;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.processing.Processor;
+import com.github.fge.jsonschema.core.report.ListProcessingReport;
+import com.github.fge.jsonschema.core.report.LogLevel;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.core.tree.CanonicalSchemaTree;
+import com.github.fge.jsonschema.core.tree.SchemaTree;
+import com.github.fge.jsonschema.core.tree.SimpleJsonTree;
+import com.github.fge.jsonschema.core.tree.key.SchemaKey;
+import com.github.fge.jsonschema.keyword.digest.draftv4.MultipleOfDigester;
+import com.github.fge.jsonschema.keyword.validator.KeywordValidator;
+import com.github.fge.jsonschema.keyword.validator.draftv4.MultipleOfValidator;
+import com.github.fge.jsonschema.messages.JsonSchemaValidationBundle;
+import com.github.fge.jsonschema.processors.data.FullData;
+import com.github.fge.msgsimple.bundle.MessageBundle;
+import com.github.fge.msgsimple.load.MessageBundles;
+import com.google.common.collect.Lists;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+public final class DivisorValidatorTest
+{
+    private static final MessageBundle BUNDLE
+        = MessageBundles.getBundle(JsonSchemaValidationBundle.class);
+    private static final JsonNodeFactory FACTORY = JacksonUtils.nodeFactory();
+    private static final SchemaTree SCHEMA_TREE = new CanonicalSchemaTree(
+        SchemaKey.anonymousKey(), FACTORY.objectNode());
+
+    private static final int ROUNDS = 20000;
+
+    @DataProvider
+    public Iterator<Object[]> divisors()
+    {
+        final List<Object[]> list = Lists.newArrayList();
+
+        for (final String divisor: new String[] { "0.01", "0.05", "0.1",
+            "0.25", "0.3", "1.5", "0.001", "2", "7", "0.0000000001" })
+            list.add(new Object[] { new BigDecimal(divisor) });
+
+        return list.iterator();
+    }
+
+    @Test(dataProvider = "divisors")
+    public void scaledArithmeticAgreesWithBigDecimal(final BigDecimal divisor)
+        throws ProcessingException
+    {
+        final ObjectNode schema = FACTORY.objectNode();
+        schema.put("multipleOf", divisor);
+        final KeywordValidator validator = new MultipleOfValidator(
+            MultipleOfDigester.getInstance().digest(schema));
+
+        final Random random = new Random(divisor.hashCode());
+        JsonNode instance;
+
+        for (int i = 0; i < ROUNDS; i++) {
+            instance = randomInstance(random, divisor);
+            assertEquals(isValid(validator, instance),
+                isMultiple(instance, divisor),
+                "wrong result for " + instance + " / " + divisor);
+        }
+    }
+
+    private static JsonNode randomInstance(final Random random,
+        final BigDecimal divisor)
+    {
+        final BigDecimal multiple
+            = divisor.multiply(BigDecimal.valueOf(random.nextInt()));
+        final BigDecimal value = random.nextBoolean() ? multiple
+            : multiple.add(BigDecimal.valueOf(random.nextInt(1000),
+                random.nextInt(6)));
+
+        switch (random.nextInt(4)) {
+            case 0:
+                return FACTORY.numberNode(value.doubleValue());
+            case 1:
+                return FACTORY.numberNode(value.floatValue());
+            case 2:
+                return FACTORY.numberNode(value.setScale(value.scale()
+                    + random.nextInt(3)));
+            default:
+                return FACTORY.numberNode(value.longValue());
+        }
+    }
+
+    private static boolean isMultiple(final JsonNode instance,
+        final BigDecimal divisor)
+    {
+        return instance.decimalValue().remainder(divisor)
+            .compareTo(BigDecimal.ZERO) == 0;
+    }
+
+    private static boolean isValid(final KeywordValidator validator,
+        final JsonNode instance)
+        throws ProcessingException
+    {
+        final FullData data
+            = new FullData(SCHEMA_TREE, new SimpleJsonTree(instance));
+        final ProcessingReport report
+            = new ListProcessingReport(LogLevel.DEBUG, LogLevel.NONE);
+        @SuppressWarnings("unchecked")
+        final Processor<FullData, FullData> processor = mock(Processor.class);
+
+        validator.validate(processor, report, BUNDLE, data);
+        return report.isSuccess();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.keyword.validator.helpers;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+import java.util.Set;
+
+import static org.testng.Assert.*;
+
+public final class NameSetTest
+{
+    private static final int ROUNDS = 200;
+    private static final int PROBES = 100;
+
+    @Test
+    public void emptySetContainsNothing()
+    {
+        final NameSet set = NameSet.of(ImmutableList.<String>of());
+
+        assertFalse(set.contains(""));
+        assertFalse(set.contains("foo"));
+        assertTrue(set.asSet().isEmpty());
+    }
+
+    @Test
+    public void namesWithTheSameHashCodeAreSupported()
+    {
+        // "Aa" and "BB" have the same hash code
+        final NameSet set = NameSet.of(ImmutableList.of("Aa", "BB", "Aa"));
+
+        assertTrue(set.contains("Aa"));
+        assertTrue(set.contains("BB"));
+        assertFalse(set.contains("AaBB"));
+        assertEquals(set.asSet(), ImmutableSet.of("Aa", "BB"));
+    }
+
+    @Test
+    public void lookupsAgreeWithHashSet()
+    {
+        final Random random = new Random(0L);
+
+        Set<String> names;
+        NameSet set;
+        String probe;
+        int size;
+
+        for (int i = 0; i < ROUNDS; i++) {
+            size = random.nextInt(i + 1);
+            names = Sets.newHashSet();
+            for (int j = 0; j < size; j++)
+                names.add(randomName(random));
+            set = NameSet.of(names);
+            assertEquals(set.asSet(), names);
+            for (final String name: names)
+                assertTrue(set.contains(name), "name " + name + " not found");
+            for (int j = 0; j < PROBES; j++) {
+                probe = randomName(random);
+                assertEquals(set.contains(probe), names.contains(probe),
+                    "wrong result for " + probe);
+            }
+        }
+    }
+
+    private static String randomName(final Random random)
+    {
+        final int length = random.nextInt(6);
+        final StringBuilder sb = new StringBuilder(length);
+
+        for (int i = 0; i < length; i++)
+            sb.append((char) ('a' + random.nextInt(4)));
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.keyword.validator.helpers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.fge.jackson.JacksonUtils;
+import com.github.fge.jsonschema.keyword.digest.common.MinimumDigester;
+import com.github.fge.jsonschema.keyword.validator.common.MinimumValidator;
+import com.google.common.collect.Lists;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.testng.Assert.*;
+
+public final class NumericValidatorTest
+{
+    private static final JsonNodeFactory FACTORY = JacksonUtils.nodeFactory();
+
+    private static final int ROUNDS = 20000;
+
+    @DataProvider
+    public Iterator<Object[]> bounds()
+    {
+        final List<Object[]> list = Lists.newArrayList();
+
+        for (final String bound: new String[] { "0", "0.1", "-2.5", "3",
+            "9.31322574615478515625E-10", "1e400", "-1e400", "1e-400",
+            "9007199254740993", "123456789012345678901234567890" })
+            list.add(new Object[] { new BigDecimal(bound) });
+
+        return list.iterator();
+    }
+
+    @Test(dataProvider = "bounds")
+    public void comparisonAgreesWithBigDecimal(final BigDecimal bound)
+    {
+        final ObjectNode schema = FACTORY.objectNode();
+        schema.put("minimum", bound);
+        final NumericValidator validator = new MinimumValidator(
+            MinimumDigester.getInstance().digest(schema));
+
+        final Random random = new Random(bound.hashCode());
+        JsonNode instance;
+
+        for (int i = 0; i < ROUNDS; i++) {
+            instance = randomInstance(random, bound);
+            // NaN and infinite values cannot be converted to BigDecimal
+            if (instance.isFloatingPointNumber() && !instance.isBigDecimal()
+                && (Double.isNaN(instance.doubleValue())
+                || Double.isInfinite(instance.doubleValue())))
+                continue;
+            assertEquals(Integer.signum(validator.compareWith(instance)),
+                instance.decimalValue().compareTo(bound),
+                "wrong result for " + instance + " vs " + bound);
+        }
+    }
+
+    private static JsonNode randomInstance(final Random random,
+        final BigDecimal bound)
+    {
+        final double nearest = bound.doubleValue();
+
+        switch (random.nextInt(7)) {
+            case 0:
+                return FACTORY.numberNode(nearest);
+            case 1:
+                return FACTORY.numberNode(random.nextBoolean()
+                    ? Math.nextUp(nearest) : Math.nextAfter(nearest,
+                    Double.NEGATIVE_INFINITY));
+            case 2:
+                return FACTORY.numberNode((float) nearest);
+            case 3:
+                return FACTORY.numberNode(nearest
+                    + random.nextGaussian() * Math.max(1.0, Math.abs(nearest)));
+            case 4:
+                return FACTORY.numberNode(bound.longValue()
+                    + random.nextInt(5) - 2);
+            case 5:
+                return FACTORY.numberNode(bound.toBigInteger()
+                    .add(BigInteger.valueOf(random.nextInt(5) - 2)));
+            default:
+                return FACTORY.numberNode(bound.add(
+                    BigDecimal.valueOf(random.nextInt(5) - 2,
+                        random.nextInt(4))));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.main;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import static org.testng.Assert.*;
+
+public final class JsonLinesReaderTest
+{
+    @Test
+    public void blankLinesAreSkippedButCounted()
+        throws IOException
+    {
+        final JsonLinesReader reader = new JsonLinesReader(
+            new StringReader("1\n\n  \r\n[]\r\n\n"));
+
+        assertEquals(reader.getLineNumber(), 0L);
+        assertEquals(reader.nextRecord(), "1");
+        assertEquals(reader.getLineNumber(), 1L);
+        assertEquals(reader.nextRecord(), "[]");
+        assertEquals(reader.getLineNumber(), 4L);
+        assertNull(reader.nextRecord());
+    }
+
+    @DataProvider
+    public Iterator<Object[]> invalidRecords()
+    {
+        return Arrays.asList(
+            new Object[] { "{\"a\":1} garbage" },
+            new Object[] { "{\"a\":1} {\"b\":2}" },
+            new Object[] { "1 2" },
+            new Object[] { "[] ]" },
+            new Object[] { "{\"a\":" }
+        ).iterator();
+    }
+
+    @Test(dataProvider = "invalidRecords")
+    public void recordsMustBeASingleJsonValue(final String record)
+    {
+        try {
+            JsonLinesReader.parse(record);
+            fail("No exception thrown!");
+        } catch (JsonProcessingException ignored) {
+        }
+    }
+
+    @Test
+    public void surroundingWhitespaceIsAccepted()
+        throws JsonProcessingException
+    {
+        assertEquals(JsonLinesReader.parse("  {\"a\":[1]} \t").toString(),
+            "{\"a\":[1]}");
+    }
+}
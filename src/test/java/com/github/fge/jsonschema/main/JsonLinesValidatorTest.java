@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.main;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jackson.JsonLoader;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.messages.JsonSchemaConfigurationBundle;
+import com.github.fge.msgsimple.bundle.MessageBundle;
+import com.github.fge.msgsimple.load.MessageBundles;
+import com.google.common.base.Splitter;
+import com.google.common.collect.Lists;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+public final class JsonLinesValidatorTest
+{
+    private static final MessageBundle BUNDLE
+        = MessageBundles.getBundle(JsonSchemaConfigurationBundle.class);
+
+    private static final String INPUT = "{\"a\":1}\n"
+        + "\n"
+        + "{\"a\":\"x\",\"b\":[]}\n"
+        + "{\"a\":\n"
+        + "[]\r\n"
+        + "{\"a\":2} {\"a\":3}\n";
+
+    private JsonSchema schema;
+
+    @BeforeClass
+    public void loadSchema()
+        throws IOException, ProcessingException
+    {
+        schema = JsonSchemaFactory.byDefault().getJsonSchema(JsonLoader
+            .fromString("{\"type\":\"object\",\"properties\":{"
+                + "\"a\":{\"type\":\"integer\"},\"b\":{\"type\":\"string\"}}}"));
+    }
+
+    @Test
+    public void eachLineIsReportedWithItsLineNumber()
+        throws IOException, ProcessingException
+    {
+        final List<JsonNode> results = run(new JsonLinesValidator(schema, 10));
+
+        assertEquals(results.size(), 5);
+        assertEquals(results.get(0).toString(),
+            "{\"line\":1,\"valid\":true,\"errors\":[]}");
+
+        JsonNode result = results.get(1);
+        assertEquals(result.get("line").intValue(), 3);
+        assertFalse(result.get("valid").booleanValue());
+        assertEquals(result.get("errors").size(), 2);
+
+        result = results.get(2);
+        assertEquals(result.get("line").intValue(), 4);
+        assertFalse(result.get("valid").booleanValue());
+        assertEquals(result.get("errors").get(0).get("level").textValue(),
+            "fatal");
+
+        result = results.get(3);
+        assertEquals(result.get("line").intValue(), 5);
+        assertEquals(result.get("errors").get(0).get("keyword").textValue(),
+            "type");
+        result = results.get(4);
+        assertEquals(result.get("line").intValue(), 6);
+        assertEquals(result.get("errors").get(0).get("level").textValue(),
+            "fatal");
+    }
+
+    @Test
+    public void numberOfReportedErrorsIsBounded()
+        throws IOException, ProcessingException
+    {
+        final List<JsonNode> results = run(new JsonLinesValidator(schema, 1));
+        assertEquals(results.get(1).get("errors").size(), 1);
+
+        for (final JsonNode result: run(new JsonLinesValidator(schema, 0)))
+            assertEquals(result.get("errors").size(), 0);
+    }
+
+    @Test
+    public void summaryCountsRecords()
+        throws IOException, ProcessingException
+    {
+        final JsonLinesSummary summary = new JsonLinesValidator(schema, 1)
+            .validate(new ByteArrayInputStream(INPUT.getBytes(
+                StandardCharsets.UTF_8)), new StringBuilder());
+
+        assertEquals(summary.getRecords(), 5L);
+        assertEquals(summary.getValid(), 1L);
+        assertEquals(summary.getInvalid(), 4L);
+        assertTrue(summary.getRecordsPerSecond() >= 0.0);
+        assertEquals(summary.asJson().get("invalid").longValue(), 4L);
+    }
+
+    @Test
+    public void negativeErrorCountIsRejected()
+    {
+        try {
+            new JsonLinesValidator(schema, -1);
+            fail("No exception thrown!");
+        } catch (IllegalArgumentException e) {
+            assertEquals(e.getMessage(),
+                BUNDLE.getMessage("invalidMaxErrors"));
+        }
+    }
+
+    private static List<JsonNode> run(final JsonLinesValidator validator)
+        throws IOException, ProcessingException
+    {
+        final StringBuilder sb = new StringBuilder();
+        validator.validate(new StringReader(INPUT), sb);
+
+        final List<JsonNode> ret = Lists.newArrayList();
+        for (final String line: Splitter.on('\n').omitEmptyStrings()
+            .split(sb))
+            ret.add(JsonLoader.fromString(line));
+        return ret;
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.main;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.fge.jackson.JacksonUtils;
+import com.github.fge.jackson.JsonLoader;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.ListProcessingReport;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.messages.JsonSchemaConfigurationBundle;
+import com.github.fge.msgsimple.bundle.MessageBundle;
+import com.github.fge.msgsimple.load.MessageBundles;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.testng.Assert.*;
+
+/*
+ * Revalidating after random patches must produce the same reports as full
+ * validations of the patched instances
+ */
+public final class RevalidationTest
+{
+    private static final MessageBundle BUNDLE
+        = MessageBundles.getBundle(JsonSchemaConfigurationBundle.class);
+    private static final JsonNodeFactory FACTORY = JacksonUtils.nodeFactory();
+    private static final int STEPS = 500;
+
+    private RevalidatingJsonSchema schema;
+
+    @BeforeClass
+    public void initSchema()
+        throws IOException, ProcessingException
+    {
+        final JsonNode node = JsonLoader.fromString("{"
+            + "\"type\": \"object\", \"required\": [ \"list\" ],"
+            + "\"minProperties\": 2,"
+            + "\"properties\": {"
+            + "  \"list\": {"
+            + "    \"type\": \"array\", \"uniqueItems\": true,"
+            + "    \"items\": { \"anyOf\": ["
+            + "      { \"type\": \"integer\", \"minimum\": 0 },"
+            + "      { \"type\": \"object\", \"required\": [ \"id\" ],"
+            + "        \"properties\": { \"id\": { \"type\": \"string\" } } }"
+            + "    ] }"
+            + "  },"
+            + "  \"tags\": {"
+            + "    \"type\": \"array\","
+            + "    \"items\": { \"type\": \"string\", \"maxLength\": 3 }"
+            + "  }"
+            + "},"
+            + "\"additionalProperties\": { \"type\": \"object\" }"
+            + "}");
+        schema = (RevalidatingJsonSchema) JsonSchemaFactory.byDefault()
+            .getJsonSchema(node);
+    }
+
+    @Test
+    public void revalidationMatchesFullValidation()
+        throws ProcessingException
+    {
+        final Random random = new Random(0L);
+
+        for (final boolean deepCheck: new boolean[] { false, true }) {
+            JsonNode instance = initialInstance();
+            ValidationState state
+                = schema.validateWithState(instance, deepCheck);
+            assertSameReport(state.getReport(),
+                schema.validate(instance, deepCheck));
+
+            for (int i = 0; i < STEPS; i++) {
+                final ObjectNode patched = (ObjectNode) instance.deepCopy();
+                final ArrayNode patch = FACTORY.arrayNode();
+                final int nrOps = 1 + random.nextInt(3);
+                for (int j = 0; j < nrOps; j++)
+                    patch.add(applyRandomOperation(random, patched));
+                state = schema.revalidate(state, patched, patch);
+                assertSameReport(state.getReport(),
+                    schema.validate(patched, deepCheck));
+                instance = patched;
+            }
+        }
+    }
+
+    @Test
+    public void statesFromOtherSchemasAreRejected()
+        throws ProcessingException
+    {
+        final RevalidatingJsonSchema other = (RevalidatingJsonSchema)
+            JsonSchemaFactory.byDefault().getJsonSchema(FACTORY.objectNode());
+        final JsonNode instance = initialInstance();
+        final ValidationState state = other.validateWithState(instance, false);
+
+        try {
+            schema.revalidate(state, instance, FACTORY.arrayNode());
+            fail("No exception thrown!");
+        } catch (IllegalArgumentException e) {
+            assertEquals(e.getMessage(),
+                BUNDLE.getMessage("foreignValidationState"));
+        }
+    }
+
+    private static void assertSameReport(final ProcessingReport actual,
+        final ProcessingReport expected)
+    {
+        assertEquals(actual.isSuccess(), expected.isSuccess());
+        assertEquals(((ListProcessingReport) actual).asJson(),
+            ((ListProcessingReport) expected).asJson());
+    }
+
+    private static JsonNode initialInstance()
+    {
+        final ObjectNode ret = FACTORY.objectNode();
+        final ArrayNode list = ret.putArray("list");
+        list.add(1);
+        list.add(FACTORY.objectNode().put("id", "a"));
+        list.add(2);
+        ret.putArray("tags").add("x");
+        return ret;
+    }
+
+    private static JsonNode randomValue(final Random random)
+    {
+        switch (random.nextInt(5)) {
+            case 0:
+                return FACTORY.numberNode(random.nextInt(5) - 1);
+            case 1:
+                return FACTORY.objectNode().put("id",
+                    random.nextBoolean() ? "a" : "abcd");
+            case 2:
+                return FACTORY.objectNode().put("id", random.nextInt(2));
+            case 3:
+                return FACTORY.objectNode();
+            default:
+                return FACTORY.textNode(random.nextBoolean() ? "x" : "xyzt");
+        }
+    }
+
+    /*
+     * Apply a random operation to the instance, and return it
+     */
+    private static JsonNode applyRandomOperation(final Random random,
+        final ObjectNode instance)
+    {
+        final ObjectNode op = FACTORY.objectNode();
+        final String name = random.nextBoolean() ? "list" : "tags";
+        final JsonNode target = instance.path(name);
+
+        if (!target.isArray()) {
+            final ArrayNode array = FACTORY.arrayNode();
+            array.add(randomValue(random));
+            instance.set(name, array);
+            return op.put("op", "add").put("path", '/' + name)
+                .set("value", array.deepCopy());
+        }
+
+        final ArrayNode array = (ArrayNode) target;
+        final int size = array.size();
+        final int index = size == 0 ? 0 : random.nextInt(size);
+        final String path = '/' + name + '/' + index;
+        final JsonNode value = randomValue(random);
+
+        switch (random.nextInt(size == 0 ? 2 : 8)) {
+            case 0:
+                array.add(value);
+                return op.put("op", "add").put("path", '/' + name + "/-")
+                    .set("value", value.deepCopy());
+            case 1:
+                instance.put("extra", random.nextInt(2));
+                return op.put("op", "add").put("path", "/extra")
+                    .put("value", instance.get("extra").intValue());
+            case 2:
+                array.insert(index, value);
+                return op.put("op", "add").put("path", path)
+                    .set("value", value.deepCopy());
+            case 3:
+                array.remove(index);
+                return op.put("op", "remove").put("path", path);
+            case 4:
+                array.set(index, value);
+                return op.put("op", "replace").put("path", path)
+                    .set("value", value.deepCopy());
+            case 5:
+                final JsonNode moved = array.remove(index);
+                final int to = random.nextInt(size);
+                array.insert(to, moved);
+                return op.put("op", "move").put("from", path)
+                    .put("path", '/' + name + '/' + to);
+            case 6:
+                final JsonNode element = array.get(index);
+                if (!element.isObject()) {
+                    instance.remove(name);
+                    return op.put("op", "remove").put("path", '/' + name);
+                }
+                ((ObjectNode) element).put("id", "b");
+                return op.put("op", "add").put("path", path + "/id")
+                    .put("value", "b");
+            default:
+                final String other = "list".equals(name) ? "tags" : "list";
+                final JsonNode otherArray = instance.path(other);
+                if (!otherArray.isArray())
+                    return op.put("op", "test").put("path", path)
+                        .set("value", array.get(index).deepCopy());
+                ((ArrayNode) otherArray).add(array.get(index).deepCopy());
+                return op.put("op", "copy").put("from", path)
+                    .put("path", '/' + other + "/-");
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.main.cli;
+
+import com.google.common.collect.ImmutableList;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+public final class InputsTest
+{
+    private File dir;
+
+    @BeforeClass
+    public void initDir()
+        throws IOException
+    {
+        dir = Files.createTempDirectory("inputs").toFile().getCanonicalFile();
+        for (final String name: ImmutableList.of("b.json", "a.json",
+            "c.ndjson", "d.txt", "sub/e.jsonl", "sub/f.json"))
+            touch(name);
+    }
+
+    @AfterClass
+    public void deleteDir()
+        throws IOException
+    {
+        Files.walkFileTree(dir.toPath(), new SimpleFileVisitor<Path>()
+        {
+            @Override
+            public FileVisitResult visitFile(final Path file,
+                final BasicFileAttributes attrs)
+                throws IOException
+            {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(final Path d,
+                final IOException exc)
+                throws IOException
+            {
+                Files.delete(d);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    @Test
+    public void directoriesAreWalkedRecursivelyInOrder()
+        throws IOException
+    {
+        assertEquals(Inputs.expand(dir.getPath()), files("a.json", "b.json",
+            "c.ndjson", "sub/e.jsonl", "sub/f.json"));
+    }
+
+    @Test
+    public void globsOnlyDescendAsDeepAsThePattern()
+        throws IOException
+    {
+        assertEquals(Inputs.expand(dir.getPath() + "/*.json"),
+            files("a.json", "b.json"));
+        assertEquals(Inputs.expand(dir.getPath() + "/**.json"),
+            files("a.json", "b.json", "sub/f.json"));
+        assertEquals(Inputs.expand(dir.getPath() + "/*/*.{json,jsonl}"),
+            files("sub/e.jsonl", "sub/f.json"));
+    }
+
+    @Test
+    public void plainAndUnmatchedArgumentsAreReturnedAsIs()
+        throws IOException
+    {
+        assertEquals(Inputs.expand(dir.getPath() + "/d.txt"), files("d.txt"));
+        assertEquals(Inputs.expand(dir.getPath() + "/*.yaml"),
+            files("*.yaml"));
+        assertEquals(Inputs.expand(dir.getPath() + "/nope.json"),
+            files("nope.json"));
+    }
+
+    @Test
+    public void firstArgumentIsOnlyExpandedIfNotASchema()
+        throws IOException
+    {
+        final List<String> arguments
+            = ImmutableList.of(dir.getPath(), dir.getPath() + "/*.json");
+
+        assertEquals(Inputs.expandAll(arguments, true),
+            ImmutableList.of(dir, new File(dir, "a.json"),
+                new File(dir, "b.json")));
+        assertEquals(Inputs.expandAll(arguments, false).size(), 7);
+    }
+
+    @Test
+    public void emptyDirectoriesYieldNoInput()
+        throws IOException
+    {
+        final File empty = new File(dir, "empty");
+        assertTrue(empty.mkdir());
+
+        try {
+            assertEquals(Inputs.expandAll(ImmutableList.of(empty.getPath()),
+                false), ImmutableList.of());
+            assertEquals(Inputs.expandAll(ImmutableList.of("schema.json",
+                empty.getPath()), true).size(), 1);
+        } finally {
+            assertTrue(empty.delete());
+        }
+    }
+
+    @Test
+    public void recordStreamsAreDetectedByExtension()
+    {
+        assertTrue(Inputs.isRecordStream(new File("x.ndjson")));
+        assertTrue(Inputs.isRecordStream(new File("x.jsonl")));
+        assertFalse(Inputs.isRecordStream(new File("x.json")));
+        assertFalse(Inputs.isRecordStream(new File("ndjson")));
+    }
+
+    private void touch(final String name)
+        throws IOException
+    {
+        final File file = new File(dir, name);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), "{}".getBytes("UTF-8"));
+    }
+
+    private List<File> files(final String... names)
+    {
+        final ImmutableList.Builder<File> builder = ImmutableList.builder();
+        for (final String name: names)
+            builder.add(new File(dir, name));
+        return builder.build();
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.metrics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jackson.JsonLoader;
+import com.github.fge.jsonschema.cfg.ValidationConfiguration;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+
+import static org.testng.Assert.*;
+
+public final class InMemoryValidationMetricsTest
+{
+    private InMemoryValidationMetrics metrics;
+    private JsonSchema schema;
+
+    @BeforeMethod
+    public void init()
+        throws IOException, ProcessingException
+    {
+        metrics = new InMemoryValidationMetrics();
+        final ValidationConfiguration cfg = ValidationConfiguration
+            .newBuilder().setValidationMetrics(metrics).freeze();
+        final JsonSchemaFactory factory = JsonSchemaFactory.newBuilder()
+            .setValidationConfiguration(cfg).freeze();
+        final JsonNode node = JsonLoader.fromString("{"
+            + "\"definitions\": { \"s\": { \"type\": \"string\" } },"
+            + "\"anyOf\": [ { \"$ref\": \"#/definitions/s\" },"
+            + "{ \"type\": \"integer\", \"minimum\": 0 } ] }");
+        schema = factory.getJsonSchema(node);
+    }
+
+    @Test
+    public void keywordRunsAndFailuresAreCounted()
+        throws IOException, ProcessingException
+    {
+        assertTrue(schema.validInstance(JsonLoader.fromString("\"foo\"")));
+        assertFalse(schema.validInstance(JsonLoader.fromString("-1")));
+
+        final JsonNode node = metrics.asJson();
+        final JsonNode anyOf = node.path("keywords").path("anyOf");
+        assertEquals(anyOf.path("count").longValue(), 2L);
+        assertEquals(anyOf.path("failures").longValue(), 1L);
+        assertEquals(anyOf.path("latency").path("count").longValue(), 2L);
+
+        final JsonNode minimum = node.path("keywords").path("minimum");
+        assertEquals(minimum.path("count").longValue(), 1L);
+        assertEquals(minimum.path("failures").longValue(), 1L);
+    }
+
+    @Test
+    public void validationsAreCountedPerSchema()
+        throws IOException, ProcessingException
+    {
+        schema.validInstance(JsonLoader.fromString("\"foo\""));
+        schema.validInstance(JsonLoader.fromString("null"));
+        schema.validInstance(JsonLoader.fromString("1"));
+
+        final JsonNode node = metrics.asJson().path("schemas").path("#");
+        assertEquals(node.path("count").longValue(), 3L);
+        assertEquals(node.path("failures").longValue(), 1L);
+    }
+
+    @Test
+    public void cacheHitsAreAccountedFor()
+        throws IOException, ProcessingException
+    {
+        final JsonNode instance = JsonLoader.fromString("\"foo\"");
+        schema.validInstance(instance);
+        final long misses = metrics.getCacheMisses("validators");
+        assertTrue(misses > 0L);
+        assertEquals(metrics.getCacheMisses("builder"), misses);
+
+        schema.validInstance(instance);
+        assertEquals(metrics.getCacheMisses("validators"), misses);
+        assertEquals(metrics.getCacheLookups("validators"), 2 * misses);
+        assertEquals(metrics.getCacheHitRate("validators"), 0.5);
+    }
+
+    @Test
+    public void referenceResolutionIsTimed()
+        throws IOException, ProcessingException
+    {
+        schema.validInstance(JsonLoader.fromString("\"foo\""));
+        final JsonNode node = metrics.asJson().path("refs")
+            .path("#/definitions/s");
+        assertEquals(node.path("count").longValue(), 1L);
+    }
+
+    @Test
+    public void histogramBucketsArePowersOfTwo()
+    {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(0L);
+        histogram.record(3L);
+        histogram.record(2L);
+
+        final JsonNode node = histogram.asJson();
+        assertEquals(node.path("count").longValue(), 3L);
+        assertEquals(node.path("maxNanos").longValue(), 3L);
+        final JsonNode buckets = node.path("buckets");
+        assertEquals(buckets.size(), 2);
+        assertEquals(buckets.get(0).path("upperBoundNanos").longValue(), 1L);
+        assertEquals(buckets.get(1).path("upperBoundNanos").longValue(), 4L);
+        assertEquals(buckets.get(1).path("count").longValue(), 2L);
+    }
+}
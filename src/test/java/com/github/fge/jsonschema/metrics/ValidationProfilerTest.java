@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.metrics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jackson.JsonLoader;
+import com.github.fge.jsonschema.cfg.ValidationConfiguration;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import com.github.fge.jsonschema.messages.JsonSchemaConfigurationBundle;
+import com.github.fge.msgsimple.bundle.MessageBundle;
+import com.github.fge.msgsimple.load.MessageBundles;
+import com.google.common.collect.Sets;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Set;
+
+import static org.testng.Assert.*;
+
+public final class ValidationProfilerTest
+{
+    private static final MessageBundle BUNDLE
+        = MessageBundles.getBundle(JsonSchemaConfigurationBundle.class);
+
+    private ValidationProfiler profiler;
+    private JsonSchema schema;
+
+    @BeforeMethod
+    public void init()
+        throws IOException, ProcessingException
+    {
+        profiler = new ValidationProfiler();
+        final ValidationConfiguration cfg = ValidationConfiguration
+            .newBuilder().setValidationMetrics(profiler).freeze();
+        final JsonSchemaFactory factory = JsonSchemaFactory.newBuilder()
+            .setValidationConfiguration(cfg).freeze();
+        final JsonNode node = JsonLoader.fromString("{"
+            + "\"definitions\": { \"zip\": { \"pattern\": \"^[0-9]+$\" } },"
+            + "\"properties\": { \"a\": { \"oneOf\": ["
+            + "{ \"$ref\": \"#/definitions/zip\" }, { \"maxLength\": 3 }"
+            + "] } } }");
+        schema = factory.getJsonSchema(node);
+    }
+
+    @Test
+    public void schemaPointersAndKeywordsAreRanked()
+        throws IOException, ProcessingException
+    {
+        schema.validate(JsonLoader.fromString("{ \"a\": \"75001\" }"));
+        schema.validate(JsonLoader.fromString("{ \"a\": \"foo\" }"));
+
+        final JsonNode report = profiler.asJson();
+        assertEquals(report.path("validations").longValue(), 2L);
+
+        final Set<String> schemas = Sets.newHashSet();
+        for (final JsonNode node: report.path("schemas")) {
+            schemas.add(node.path("schema").textValue());
+            assertTrue(node.path("totalNanos").longValue()
+                >= node.path("selfNanos").longValue());
+        }
+        assertEquals(schemas, Sets.newHashSet("#", "#/properties/a",
+            "#/definitions/zip", "#/properties/a/oneOf/1"));
+
+        boolean found = false;
+        for (final JsonNode node: report.path("keywords"))
+            if ("pattern".equals(node.path("keyword").textValue())) {
+                assertEquals(node.path("schema").textValue(),
+                    "#/definitions/zip");
+                assertEquals(node.path("calls").longValue(), 2L);
+                found = true;
+            }
+        assertTrue(found);
+
+        final Set<String> instances = Sets.newHashSet();
+        for (final JsonNode node: report.path("instances"))
+            instances.add(node.path("instance").textValue());
+        assertEquals(instances, Sets.newHashSet("", "/a"));
+    }
+
+    @Test
+    public void rankingsAreSortedAndLimited()
+        throws IOException, ProcessingException
+    {
+        schema.validate(JsonLoader.fromString("{ \"a\": \"75001\" }"));
+
+        final JsonNode schemas = profiler.getReport(2).path("schemas");
+        assertEquals(schemas.size(), 2);
+        assertTrue(schemas.get(0).path("selfNanos").longValue()
+            >= schemas.get(1).path("selfNanos").longValue());
+    }
+
+    @Test
+    public void foldedStacksFollowTheValidationPath()
+        throws IOException, ProcessingException
+    {
+        schema.validate(JsonLoader.fromString("{ \"a\": \"75001\" }"));
+
+        final String expected = "#;#/properties/a;oneOf;#/definitions/zip;"
+            + "pattern ";
+        boolean found = false;
+        for (final String line: profiler.getFoldedStacks().split("\n"))
+            if (line.startsWith(expected)) {
+                Long.parseLong(line.substring(expected.length()));
+                found = true;
+            }
+        assertTrue(found);
+    }
+
+    @Test
+    public void reportTellsWhetherAllocationsAreMeasured()
+        throws IOException, ProcessingException
+    {
+        schema.validate(JsonLoader.fromString("{ \"a\": \"75001\" }"));
+
+        final JsonNode report = profiler.asJson();
+        final JsonNode allocations = report.path("allocations");
+        assertTrue(allocations.isBoolean());
+
+        long bytes = 0L;
+        for (final JsonNode node: report.path("schemas"))
+            bytes += node.path("totalBytes").longValue();
+        if (allocations.booleanValue())
+            assertTrue(bytes > 0L);
+        else
+            assertEquals(bytes, 0L);
+    }
+
+    @Test
+    public void reportLimitMustBePositive()
+    {
+        try {
+            profiler.getReport(0);
+            fail("No exception thrown!!");
+        } catch (IllegalArgumentException e) {
+            assertEquals(e.getMessage(),
+                BUNDLE.getMessage("invalidReportLimit"));
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.processors.build;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.fge.jackson.JacksonUtils;
+import com.github.fge.jackson.NodeType;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.processing.Processor;
+import com.github.fge.jsonschema.core.report.ListProcessingReport;
+import com.github.fge.jsonschema.core.report.LogLevel;
+import com.github.fge.jsonschema.core.tree.CanonicalSchemaTree;
+import com.github.fge.jsonschema.core.tree.SchemaTree;
+import com.github.fge.jsonschema.core.tree.SimpleJsonTree;
+import com.github.fge.jsonschema.core.tree.key.SchemaKey;
+import com.github.fge.jsonschema.keyword.validator.KeywordValidator;
+import com.github.fge.jsonschema.keyword.validator.common.EnumValidator;
+import com.github.fge.jsonschema.keyword.validator.common.MaxLengthValidator;
+import com.github.fge.jsonschema.keyword.validator.common.MinLengthValidator;
+import com.github.fge.jsonschema.keyword.validator.common.StringLengthValidator;
+import com.github.fge.jsonschema.keyword.validator.draftv4.DraftV4TypeValidator;
+import com.github.fge.jsonschema.messages.JsonSchemaValidationBundle;
+import com.github.fge.jsonschema.processors.data.FullData;
+import com.github.fge.msgsimple.bundle.MessageBundle;
+import com.github.fge.msgsimple.load.MessageBundles;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+public final class ValidatorFuserTest
+{
+    private static final MessageBundle BUNDLE
+        = MessageBundles.getBundle(JsonSchemaValidationBundle.class);
+    private static final JsonNodeFactory FACTORY = JacksonUtils.nodeFactory();
+    private static final SchemaTree SCHEMA_TREE = new CanonicalSchemaTree(
+        SchemaKey.anonymousKey(), FACTORY.objectNode());
+
+    private static final int ROUNDS = 20000;
+
+    @Test
+    public void acceptingTypeValidatorIsRemoved()
+    {
+        final KeywordValidator type = typeValidator("string");
+
+        assertTrue(fuse(NodeType.STRING, type).isEmpty());
+        assertEquals(fuse(NodeType.NUMBER, type),
+            ImmutableList.of(type));
+        assertEquals(fuse(null, type), ImmutableList.of(type));
+    }
+
+    @Test
+    public void adjacentLengthValidatorsAreFused()
+    {
+        final List<KeywordValidator> list = fuse(NodeType.STRING,
+            maxLength(3), minLength(1), typeValidator("string"));
+
+        assertEquals(list.size(), 1);
+        assertSame(list.get(0).getClass(), StringLengthValidator.class);
+    }
+
+    @Test
+    public void nonAdjacentLengthValidatorsAreNotFused()
+        throws ProcessingException
+    {
+        final ObjectNode digest = FACTORY.objectNode();
+        digest.set("enum", FACTORY.arrayNode().add("a"));
+
+        final KeywordValidator max = maxLength(3);
+        final KeywordValidator other = new EnumValidator(digest);
+        final KeywordValidator min = minLength(1);
+
+        assertEquals(fuse(NodeType.STRING, max, other, min),
+            ImmutableList.of(max, other, min));
+    }
+
+    @Test
+    public void fusedLengthValidatorReportsLikeSeparateValidators()
+        throws ProcessingException
+    {
+        final Random random = new Random(0L);
+        final StringBuilder sb = new StringBuilder();
+
+        KeywordValidator max, min, fused;
+        int length;
+
+        for (int i = 0; i < ROUNDS; i++) {
+            max = maxLength(random.nextInt(8));
+            min = minLength(random.nextInt(8));
+            fused = fuse(NodeType.STRING, max, min).get(0);
+
+            sb.setLength(0);
+            length = random.nextInt(12);
+            for (int j = 0; j < length; j++)
+                if (random.nextBoolean())
+                    sb.append('a');
+                else
+                    sb.appendCodePoint(0x1f600);
+
+            final JsonNode instance = FACTORY.textNode(sb.toString());
+            assertEquals(validate(instance, fused),
+                validate(instance, max, min),
+                "wrong report for " + fused + " and " + instance);
+        }
+    }
+
+    private static List<KeywordValidator> fuse(final NodeType type,
+        final KeywordValidator... validators)
+    {
+        return Lists.newArrayList(ValidatorFuser.fuse(type,
+            ImmutableList.copyOf(validators)));
+    }
+
+    private static KeywordValidator typeValidator(final String type)
+    {
+        final ObjectNode digest = FACTORY.objectNode();
+        digest.set("type", FACTORY.arrayNode().add(type));
+        return new DraftV4TypeValidator(digest);
+    }
+
+    private static MaxLengthValidator maxLength(final int value)
+    {
+        return new MaxLengthValidator(FACTORY.objectNode()
+            .put("maxLength", value));
+    }
+
+    private static MinLengthValidator minLength(final int value)
+    {
+        return new MinLengthValidator(FACTORY.objectNode()
+            .put("minLength", value));
+    }
+
+    private static JsonNode validate(final JsonNode instance,
+        final KeywordValidator... validators)
+        throws ProcessingException
+    {
+        final FullData data
+            = new FullData(SCHEMA_TREE, new SimpleJsonTree(instance));
+        final ListProcessingReport report
+            = new ListProcessingReport(LogLevel.DEBUG, LogLevel.NONE);
+        @SuppressWarnings("unchecked")
+        final Processor<FullData, FullData> processor = mock(Processor.class);
+
+        for (final KeywordValidator validator: validators)
+            validator.validate(processor, report, BUNDLE, data);
+        return report.asJson();
+    }
+}
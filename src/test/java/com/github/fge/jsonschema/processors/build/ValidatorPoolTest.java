@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.processors.build;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.fge.jackson.JacksonUtils;
+import com.github.fge.jackson.JsonLoader;
+import com.github.fge.jackson.NodeType;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.ListProcessingReport;
+import com.github.fge.jsonschema.core.tree.CanonicalSchemaTree;
+import com.github.fge.jsonschema.core.tree.key.SchemaKey;
+import com.github.fge.jsonschema.keyword.validator.KeywordValidator;
+import com.github.fge.jsonschema.keyword.validator.KeywordValidatorFactory;
+import com.github.fge.jsonschema.keyword.validator.ReflectionKeywordValidatorFactory;
+import com.github.fge.jsonschema.library.DraftV3Library;
+import com.github.fge.jsonschema.library.DraftV4HyperSchemaLibrary;
+import com.github.fge.jsonschema.library.DraftV4Library;
+import com.github.fge.jsonschema.library.Library;
+import com.github.fge.jsonschema.processors.data.SchemaContext;
+import com.github.fge.jsonschema.processors.data.SchemaDigest;
+import com.github.fge.jsonschema.processors.digest.SchemaDigester;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import static org.testng.Assert.*;
+
+public final class ValidatorPoolTest
+{
+    private static final JsonNodeFactory FACTORY = JacksonUtils.nodeFactory();
+
+    /*
+     * Number of schemas in the registry, and number of distinct values for
+     * each keyword
+     */
+    private static final int SCHEMAS = 3000;
+    private static final int VALUES = 5;
+
+    @DataProvider
+    public Iterator<Object[]> writings()
+    {
+        final List<Object[]> list = Lists.newArrayList();
+
+        list.add(new Object[] { "1", "1", true });
+        list.add(new Object[] { "1", "1.0", false });
+        list.add(new Object[] { "[1,{\"a\":\"b\"}]", "[1,{\"a\":\"b\"}]",
+            true });
+        list.add(new Object[] { "[1,2]", "[2,1]", false });
+        list.add(new Object[] { "[1,2]", "[1,2,3]", false });
+        list.add(new Object[] { "{\"a\":1,\"b\":[]}", "{\"a\":1,\"b\":[]}",
+            true });
+        list.add(new Object[] { "{\"a\":1,\"b\":[]}", "{\"b\":[],\"a\":1}",
+            false });
+        list.add(new Object[] { "{\"a\":1}", "{\"b\":1}", false });
+
+        return list.iterator();
+    }
+
+    @Test(dataProvider = "writings")
+    public void sameWritingIsDetected(final String a, final String b,
+        final boolean expected)
+        throws IOException
+    {
+        assertEquals(ValidatorPool.sameWriting(JsonLoader.fromString(a),
+            JsonLoader.fromString(b)), expected);
+    }
+
+    @Test
+    public void integralNodesOfDifferentClassesAreNotShared()
+        throws ProcessingException
+    {
+        final ValidatorPool pool = new ValidatorPool();
+        final ObjectNode digest1 = FACTORY.objectNode().put("minLength", 1);
+        final ObjectNode digest2 = FACTORY.objectNode().put("minLength", 1L);
+
+        assertNotSame(validator(pool, digest1), validator(pool, digest2));
+        assertSame(validator(pool, digest1), validator(pool,
+            digest1.deepCopy()));
+        assertEquals(pool.size(), 2);
+    }
+
+    /*
+     * Footprint check: a registry of schemas repeating the same keyword
+     * values only retains one validator per distinct value
+     */
+    @Test
+    public void validatorsAreSharedAcrossSchemas()
+        throws ProcessingException
+    {
+        final SchemaDigester digester
+            = new SchemaDigester(DraftV4Library.get());
+        final ValidatorBuilder builder
+            = new ValidatorBuilder(DraftV4Library.get());
+        final Set<KeywordValidator> validators
+            = Collections.newSetFromMap(
+                new IdentityHashMap<KeywordValidator, Boolean>());
+
+        ObjectNode schema;
+        SchemaDigest digest;
+
+        for (int i = 0; i < SCHEMAS; i++) {
+            schema = FACTORY.objectNode();
+            schema.put("minProperties", i % VALUES)
+                .put("maxProperties", 10 + i % VALUES)
+                .set("required", FACTORY.arrayNode().add("id")
+                .add("v" + i % VALUES));
+            digest = digester.process(new ListProcessingReport(),
+                new SchemaContext(new CanonicalSchemaTree(
+                    SchemaKey.anonymousKey(), schema), NodeType.OBJECT));
+            Iterables.addAll(validators,
+                builder.process(new ListProcessingReport(), digest));
+        }
+
+        assertEquals(validators.size(), 3 * VALUES);
+    }
+
+    /*
+     * Pooled validators are shared by all schemas with equal digests: they
+     * must not retain anything about the schemas they are used with (for
+     * instance, branch selectors). Check that no validator of the builtin
+     * libraries has a mutable instance field.
+     */
+    @DataProvider
+    public Iterator<Object[]> libraries()
+    {
+        return ImmutableList.of(new Object[] { DraftV3Library.get() },
+            new Object[] { DraftV4Library.get() },
+            new Object[] { DraftV4HyperSchemaLibrary.get() }).iterator();
+    }
+
+    @Test(dataProvider = "libraries")
+    public void pooledValidatorsHaveNoMutableFields(final Library library)
+        throws NoSuchFieldException, IllegalAccessException
+    {
+        final Field field = ReflectionKeywordValidatorFactory.class
+            .getDeclaredField("constructor");
+        field.setAccessible(true);
+
+        Class<?> c;
+        for (final KeywordValidatorFactory factory:
+            library.getValidators().entries().values()) {
+            if (!(factory instanceof ReflectionKeywordValidatorFactory))
+                continue;
+            c = ((Constructor<?>) field.get(factory)).getDeclaringClass();
+            for (; c != Object.class; c = c.getSuperclass())
+                for (final Field f: c.getDeclaredFields()) {
+                    if (Modifier.isStatic(f.getModifiers()))
+                        continue;
+                    assertTrue(Modifier.isFinal(f.getModifiers()),
+                        c.getName() + '.' + f.getName() + " is not final");
+                }
+        }
+    }
+
+    private static KeywordValidator validator(final ValidatorPool pool,
+        final JsonNode digest)
+        throws ProcessingException
+    {
+        return pool.getValidator("minLength", digest,
+            DraftV4Library.get().getValidators().entries().get("minLength"));
+    }
+}
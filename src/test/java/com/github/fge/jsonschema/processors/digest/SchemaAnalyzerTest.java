@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.processors.digest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jackson.JsonLoader;
+import com.github.fge.jackson.NodeType;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.keyword.syntax.checkers.SyntaxChecker;
+import com.github.fge.jsonschema.core.report.ListProcessingReport;
+import com.github.fge.jsonschema.core.report.LogLevel;
+import com.github.fge.jsonschema.core.report.ProcessingMessage;
+import com.github.fge.jsonschema.core.tree.CanonicalSchemaTree;
+import com.github.fge.jsonschema.core.tree.key.SchemaKey;
+import com.github.fge.jsonschema.keyword.validator.common.MinLengthValidator;
+import com.github.fge.jsonschema.library.DraftV3Library;
+import com.github.fge.jsonschema.library.DraftV4Library;
+import com.github.fge.jsonschema.library.Keyword;
+import com.github.fge.jsonschema.library.Library;
+import com.github.fge.jsonschema.messages.JsonSchemaValidationBundle;
+import com.github.fge.jsonschema.processors.data.SchemaContext;
+import com.github.fge.jsonschema.processors.data.SchemaDigest;
+import com.github.fge.msgsimple.bundle.MessageBundle;
+import com.github.fge.msgsimple.load.MessageBundles;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+public final class SchemaAnalyzerTest
+{
+    private static final MessageBundle BUNDLE
+        = MessageBundles.getBundle(JsonSchemaValidationBundle.class);
+
+    @DataProvider
+    public Iterator<Object[]> prunedKeywords()
+    {
+        final List<Object[]> list = Lists.newArrayList();
+
+        list.add(new Object[] { DraftV4Library.get(),
+            "{\"additionalItems\":true,\"items\":[{}],\"minItems\":0,"
+            + "\"uniqueItems\":false,\"maxItems\":2}",
+            NodeType.ARRAY, ImmutableSet.of("maxItems") });
+        list.add(new Object[] { DraftV4Library.get(),
+            "{\"additionalProperties\":{},\"minProperties\":0,"
+            + "\"allOf\":[{},{}]}",
+            NodeType.OBJECT, ImmutableSet.of() });
+        list.add(new Object[] { DraftV4Library.get(),
+            "{\"minLength\":0,\"allOf\":[{},{\"maxLength\":2}]}",
+            NodeType.STRING, ImmutableSet.of("allOf") });
+        list.add(new Object[] { DraftV3Library.get(),
+            "{\"properties\":{\"p\":{}},\"extends\":{}}",
+            NodeType.OBJECT, ImmutableSet.of() });
+        list.add(new Object[] { DraftV3Library.get(),
+            "{\"properties\":{\"p\":{\"required\":true}},\"extends\":[{}]}",
+            NodeType.OBJECT, ImmutableSet.of("properties") });
+        list.add(new Object[] { DraftV4Library.get(),
+            "{\"multipleOf\":1,\"minimum\":0}",
+            NodeType.INTEGER, ImmutableSet.of("minimum") });
+        list.add(new Object[] { DraftV4Library.get(),
+            "{\"multipleOf\":1,\"minimum\":0}",
+            NodeType.NUMBER, ImmutableSet.of("multipleOf", "minimum") });
+        list.add(new Object[] { DraftV4Library.get(), "{\"multipleOf\":0.5}",
+            NodeType.INTEGER, ImmutableSet.of() });
+        list.add(new Object[] { DraftV4Library.get(), "{\"multipleOf\":2}",
+            NodeType.INTEGER, ImmutableSet.of("multipleOf") });
+        list.add(new Object[] { DraftV3Library.get(), "{\"divisibleBy\":1}",
+            NodeType.INTEGER, ImmutableSet.of() });
+
+        return list.iterator();
+    }
+
+    @Test(dataProvider = "prunedKeywords")
+    public void keywordsWhichCannotFailArePruned(final Library library,
+        final String input, final NodeType type, final Set<String> expected)
+        throws IOException, ProcessingException
+    {
+        final SchemaDigest digest = analyze(library, input, type,
+            new ListProcessingReport());
+
+        assertEquals(digest.getDigests().keySet(), expected);
+    }
+
+    @Test
+    public void keywordsWithCustomValidatorsAreNotPruned()
+        throws IOException, ProcessingException
+    {
+        final Keyword keyword = Keyword.newBuilder("minLength")
+            .withSyntaxChecker(mock(SyntaxChecker.class))
+            .withSimpleDigester(NodeType.STRING)
+            .withValidatorClass(MinLengthValidator.class).freeze();
+        final Library library = DraftV4Library.get().thaw()
+            .addKeyword(keyword).freeze();
+
+        final SchemaDigest digest = analyze(library, "{\"minLength\":0}",
+            NodeType.STRING, new ListProcessingReport());
+
+        assertEquals(digest.getDigests().keySet(),
+            ImmutableSet.of("minLength"));
+    }
+
+    @DataProvider
+    public Iterator<Object[]> bounds()
+    {
+        final List<Object[]> list = Lists.newArrayList();
+
+        list.add(new Object[] { "{\"minLength\":3,\"maxLength\":2}",
+            NodeType.STRING, true });
+        list.add(new Object[] { "{\"minLength\":2,\"maxLength\":2}",
+            NodeType.STRING, false });
+        list.add(new Object[] { "{\"minItems\":3,\"maxItems\":1}",
+            NodeType.ARRAY, true });
+        list.add(new Object[] { "{\"minProperties\":1,\"maxProperties\":0}",
+            NodeType.OBJECT, true });
+        list.add(new Object[] { "{\"minimum\":2.5,\"maximum\":2}",
+            NodeType.NUMBER, true });
+        list.add(new Object[] { "{\"minimum\":2,\"maximum\":2}",
+            NodeType.INTEGER, false });
+        list.add(new Object[] { "{\"minimum\":2,\"maximum\":2.0,"
+            + "\"exclusiveMaximum\":true}", NodeType.NUMBER, true });
+
+        return list.iterator();
+    }
+
+    @Test(dataProvider = "bounds")
+    public void unsatisfiableBoundsAreReported(final String input,
+        final NodeType type, final boolean unsatisfiable)
+        throws IOException, ProcessingException
+    {
+        final ListProcessingReport report
+            = new ListProcessingReport(LogLevel.DEBUG, LogLevel.NONE);
+
+        final SchemaDigest digest
+            = analyze(DraftV4Library.get(), input, type, report);
+        final List<ProcessingMessage> messages = Lists.newArrayList(report);
+
+        assertTrue(report.isSuccess());
+        assertEquals(messages.size(), unsatisfiable ? 1 : 0);
+        // Validators are still built
+        assertEquals(digest.getDigests().size(), 2);
+    }
+
+    @DataProvider
+    public Iterator<Object[]> alwaysFalse()
+    {
+        final List<Object[]> list = Lists.newArrayList();
+
+        list.add(new Object[] { DraftV4Library.get(), "{\"not\":{}}",
+            "not" });
+        list.add(new Object[] { DraftV4Library.get(),
+            "{\"not\":{\"type\":\"string\"}}", null });
+        list.add(new Object[] { DraftV3Library.get(), "{\"disallow\":\"any\"}",
+            "disallow" });
+        list.add(new Object[] { DraftV3Library.get(),
+            "{\"disallow\":[\"string\",\"null\"]}", null });
+
+        return list.iterator();
+    }
+
+    @Test(dataProvider = "alwaysFalse")
+    public void alwaysFalseKeywordsAreReported(final Library library,
+        final String input, final String keyword)
+        throws IOException, ProcessingException
+    {
+        final ListProcessingReport report
+            = new ListProcessingReport(LogLevel.DEBUG, LogLevel.NONE);
+
+        final SchemaDigest digest
+            = analyze(library, input, NodeType.STRING, report);
+        final List<ProcessingMessage> messages = Lists.newArrayList(report);
+
+        assertTrue(report.isSuccess());
+        if (keyword == null)
+            assertTrue(messages.isEmpty());
+        else {
+            assertEquals(messages.size(), 1);
+            assertEquals(messages.get(0).asJson().get("keyword").textValue(),
+                keyword);
+        }
+        // Validators are still built
+        assertEquals(digest.getDigests().size(), 1);
+    }
+
+    private static SchemaDigest analyze(final Library library,
+        final String input, final NodeType type,
+        final ListProcessingReport report)
+        throws IOException, ProcessingException
+    {
+        final JsonNode schema = JsonLoader.fromString(input);
+        final SchemaContext context = new SchemaContext(
+            new CanonicalSchemaTree(SchemaKey.anonymousKey(), schema), type);
+        final SchemaDigest digest
+            = new SchemaDigester(library).process(report, context);
+        return new SchemaAnalyzer(library, BUNDLE).process(report, digest);
+    }
+}
@@ -25,8 +25,10 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.github.fge.jackson.JacksonUtils;
 import com.github.fge.jackson.NodeType;
 import com.github.fge.jsonschema.SampleNodeProvider;
+import com.github.fge.jsonschema.cfg.ValidationConfiguration;
 import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.processing.Processor;
+import com.github.fge.jsonschema.core.report.ListProcessingReport;
 import com.github.fge.jsonschema.core.report.ProcessingMessage;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
 import com.github.fge.jsonschema.core.tree.CanonicalSchemaTree;
@@ -35,14 +37,19 @@ import com.github.fge.jsonschema.core.tree.SchemaTree;
 import com.github.fge.jsonschema.core.tree.SimpleJsonTree;
 import com.github.fge.jsonschema.core.tree.key.SchemaKey;
 import com.github.fge.jsonschema.core.util.Dictionary;
+import com.github.fge.jsonschema.format.AbstractFormatAttribute;
 import com.github.fge.jsonschema.format.FormatAttribute;
 import com.github.fge.jsonschema.keyword.validator.KeywordValidator;
+import com.github.fge.jsonschema.library.DraftV4Library;
+import com.github.fge.jsonschema.library.Library;
 import com.github.fge.jsonschema.messages.JsonSchemaValidationBundle;
+import com.github.fge.jsonschema.metrics.ValidationMetrics;
 import com.github.fge.jsonschema.processors.data.FullData;
 import com.github.fge.jsonschema.processors.data.SchemaContext;
 import com.github.fge.jsonschema.processors.data.ValidatorList;
 import com.github.fge.msgsimple.bundle.MessageBundle;
 import com.github.fge.msgsimple.load.MessageBundles;
+import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
 import org.mockito.ArgumentCaptor;
 import org.testng.annotations.BeforeMethod;
@@ -210,4 +217,107 @@ public final class FormatProcessorTest
 
         assertTrue(validators.isEmpty());
     }
+
+    @Test
+    public void stringValuesWithoutMessagesAreCached()
+        throws ProcessingException
+    {
+        final CountingAttribute counting = new CountingAttribute();
+        final Library library = DraftV4Library.get().thaw()
+            .addFormatAttribute(FMT, counting).freeze();
+        final ValidationMetrics metrics = mock(ValidationMetrics.class);
+        final ValidationConfiguration cfg = ValidationConfiguration
+            .newBuilder().setFormatCacheSize(16)
+            .setValidationMetrics(metrics).freeze();
+        final FormatProcessor cached = new FormatProcessor(library, cfg);
+
+        for (final String value: new String[] { "good", "bad", "good", "bad" })
+            assertEquals(validate(cached, value).isSuccess(),
+                value.equals("good"));
+
+        assertEquals(counting.validations, 3);
+        verify(metrics, times(4)).cacheLookup("format");
+        verify(metrics, times(3)).cacheMiss("format");
+    }
+
+    @Test
+    public void longStringValuesAreNotCached()
+        throws ProcessingException
+    {
+        final CountingAttribute counting = new CountingAttribute();
+        final Library library = DraftV4Library.get().thaw()
+            .addFormatAttribute(FMT, counting).freeze();
+        final ValidationMetrics metrics = mock(ValidationMetrics.class);
+        final ValidationConfiguration cfg = ValidationConfiguration
+            .newBuilder().setFormatCacheSize(16)
+            .setValidationMetrics(metrics).freeze();
+        final FormatProcessor cached = new FormatProcessor(library, cfg);
+        final String value = Strings.repeat("x",
+            FormatProcessor.MAX_CACHED_LENGTH + 1);
+
+        assertTrue(validate(cached, value).isSuccess());
+        assertTrue(validate(cached, value).isSuccess());
+
+        assertEquals(counting.validations, 2);
+        verify(metrics, never()).cacheLookup("format");
+    }
+
+    @Test
+    public void formatCacheIsDisabledByDefault()
+        throws ProcessingException
+    {
+        final CountingAttribute counting = new CountingAttribute();
+        final Library library = DraftV4Library.get().thaw()
+            .addFormatAttribute(FMT, counting).freeze();
+        final FormatProcessor uncached = new FormatProcessor(library,
+            ValidationConfiguration.byDefault());
+
+        validate(uncached, "good");
+        validate(uncached, "good");
+
+        assertEquals(counting.validations, 2);
+    }
+
+    private static ProcessingReport validate(final FormatProcessor processor,
+        final String value)
+        throws ProcessingException
+    {
+        final ObjectNode schema = FACTORY.objectNode();
+        schema.put("format", FMT);
+        final SchemaTree tree
+            = new CanonicalSchemaTree(SchemaKey.anonymousKey(), schema);
+        final FullData data = new FullData(tree,
+            new SimpleJsonTree(FACTORY.textNode(value)));
+        final ValidatorList in = new ValidatorList(new SchemaContext(data),
+            Collections.<KeywordValidator>emptyList());
+        final ProcessingReport ret = new ListProcessingReport();
+
+        @SuppressWarnings("unchecked")
+        final Processor<FullData, FullData> p = mock(Processor.class);
+
+        for (final KeywordValidator validator: processor.process(ret, in))
+            validator.validate(p, ret, BUNDLE, data);
+        return ret;
+    }
+
+    private static final class CountingAttribute
+        extends AbstractFormatAttribute
+    {
+        private int validations = 0;
+
+        private CountingAttribute()
+        {
+            super(FMT, NodeType.STRING);
+        }
+
+        @Override
+        public void validate(final ProcessingReport report,
+            final MessageBundle bundle, final FullData data)
+            throws ProcessingException
+        {
+            validations++;
+            if (data.getInstance().getNode().textValue().equals("bad"))
+                report.error(newMsg(data, bundle, "err.format.invalidURI"));
+        }
+    }
 }
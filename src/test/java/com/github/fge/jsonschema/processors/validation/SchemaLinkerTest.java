@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.processors.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jackson.JsonLoader;
+import com.github.fge.jsonschema.cfg.ValidationConfiguration;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.load.SchemaLoader;
+import com.github.fge.jsonschema.core.load.configuration.LoadingConfiguration;
+import com.github.fge.jsonschema.core.load.download.URIDownloader;
+import com.github.fge.jsonschema.core.messages.JsonSchemaCoreMessageBundle;
+import com.github.fge.jsonschema.core.report.ListProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import com.github.fge.msgsimple.bundle.MessageBundle;
+import com.github.fge.msgsimple.load.MessageBundles;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+public final class SchemaLinkerTest
+{
+    private static final MessageBundle BUNDLE
+        = MessageBundles.getBundle(JsonSchemaCoreMessageBundle.class);
+
+    /*
+     * Referenced documents, served by an in-memory downloader
+     */
+    private static final Map<String, String> DOCUMENTS
+        = ImmutableMap.of(
+        "mem://a.json", "{\"definitions\":{"
+            + "\"pos\":{\"type\":\"integer\",\"minimum\":0},"
+            + "\"alias\":{\"$ref\":\"#/definitions/pos\"},"
+            + "\"toB\":{\"$ref\":\"mem://b.json#/definitions/name\"}}}",
+        "mem://b.json", "{\"definitions\":{"
+            + "\"name\":{\"type\":\"string\",\"minLength\":2},"
+            + "\"node\":{\"type\":\"object\",\"properties\":{"
+            + "\"next\":{\"$ref\":\"#/definitions/node\"},"
+            + "\"v\":{\"$ref\":\"mem://a.json#/definitions/alias\"}}}}}",
+        "mem://c.json", "{\"type\":\"array\",\"maxItems\":1}"
+    );
+
+    private static final String SCHEMA = "{\"type\":\"object\","
+        + "\"properties\":{"
+        + "\"p\":{\"$ref\":\"mem://a.json#/definitions/alias\"},"
+        + "\"n\":{\"$ref\":\"mem://a.json#/definitions/toB\"},"
+        + "\"tree\":{\"$ref\":\"mem://b.json#/definitions/node\"},"
+        + "\"arr\":{\"$ref\":\"mem://c.json\"}}}";
+
+    private AtomicInteger fetches;
+    private LoadingConfiguration loadingCfg;
+
+    @BeforeMethod
+    public void init()
+    {
+        fetches = new AtomicInteger();
+        loadingCfg = LoadingConfiguration.newBuilder()
+            .addScheme("mem", new URIDownloader()
+            {
+                @Override
+                public InputStream fetch(final URI source)
+                    throws IOException
+                {
+                    final String s = DOCUMENTS.get(source.getScheme() + ':'
+                        + source.getSchemeSpecificPart());
+                    if (s == null)
+                        throw new FileNotFoundException(source.toString());
+                    fetches.incrementAndGet();
+                    return new ByteArrayInputStream(
+                        s.getBytes(StandardCharsets.UTF_8));
+                }
+            }).freeze();
+    }
+
+    @Test
+    public void allReachableReferencesAreLinked()
+        throws IOException, ProcessingException
+    {
+        final SchemaLinker linker = new SchemaLinker(
+            new SchemaLoader(loadingCfg), linkingCfg());
+        final LinkedRefs links = linker.link(new SchemaLoader(loadingCfg)
+            .load(JsonLoader.fromString(SCHEMA)));
+
+        assertEquals(links.size(), 8);
+        assertEquals(fetches.get(), 3);
+    }
+
+    @Test
+    public void documentsAreLoadedWhenSchemaIsBuilt()
+        throws IOException, ProcessingException
+    {
+        final JsonSchema schema = factory(true)
+            .getJsonSchema(JsonLoader.fromString(SCHEMA));
+
+        assertEquals(fetches.get(), 3);
+        schema.validate(JsonLoader.fromString("{\"p\":1,\"arr\":[]}"));
+        assertEquals(fetches.get(), 3);
+    }
+
+    @DataProvider
+    public Iterator<Object[]> instances()
+    {
+        final List<Object[]> list = Lists.newArrayList();
+
+        list.add(new Object[] { "{\"p\":1,\"n\":\"ab\"}" });
+        list.add(new Object[] { "{\"p\":-1,\"n\":\"a\"}" });
+        list.add(new Object[] { "{\"p\":\"x\",\"arr\":[1,2]}" });
+        list.add(new Object[] { "{\"tree\":{\"v\":-2,\"next\":{\"v\":3,"
+            + "\"next\":{\"v\":\"x\",\"next\":[]}}}}" });
+        list.add(new Object[] { "[]" });
+
+        return list.iterator();
+    }
+
+    @Test(dataProvider = "instances")
+    public void linkedReferencesYieldTheSameReports(final String input)
+        throws IOException, ProcessingException
+    {
+        final JsonNode schema = JsonLoader.fromString(SCHEMA);
+        final JsonNode instance = JsonLoader.fromString(input);
+        final ListProcessingReport expected = (ListProcessingReport)
+            factory(false).getJsonSchema(schema).validate(instance, true);
+        final ListProcessingReport actual = (ListProcessingReport)
+            factory(true).getJsonSchema(schema).validate(instance, true);
+
+        assertEquals(actual.asJson(), expected.asJson());
+    }
+
+    @DataProvider
+    public Iterator<Object[]> brokenSchemas()
+    {
+        final List<Object[]> list = Lists.newArrayList();
+
+        list.add(new Object[] {
+            "{\"properties\":{\"p\":{\"$ref\":\"mem://a.json#/nope\"}}}",
+            "refProcessing.danglingRef", "mem://a.json#/nope"
+        });
+        list.add(new Object[] {
+            "{\"definitions\":{\"x\":{\"$ref\":\"#/definitions/y\"},"
+            + "\"y\":{\"$ref\":\"#/definitions/x\"}},"
+            + "\"items\":{\"$ref\":\"#/definitions/x\"}}",
+            "refProcessing.refLoop", "#/definitions/y"
+        });
+
+        return list.iterator();
+    }
+
+    @Test(dataProvider = "brokenSchemas")
+    public void brokenReferencesAreReportedWhenSchemaIsBuilt(
+        final String input, final String key, final String ref)
+        throws IOException, ProcessingException
+    {
+        final JsonNode schema = JsonLoader.fromString(input);
+
+        factory(false).getJsonSchema(schema);
+        try {
+            factory(true).getJsonSchema(schema);
+            fail("No exception thrown!");
+        } catch (ProcessingException e) {
+            assertEquals(e.getProcessingMessage().getMessage(),
+                BUNDLE.printf(key, ref));
+        }
+    }
+
+    @Test
+    public void unreachableDocumentsAreReportedWhenSchemaIsBuilt()
+        throws IOException, ProcessingException
+    {
+        final JsonNode schema = JsonLoader.fromString("{\"anyOf\":["
+            + "{\"$ref\":\"mem://a.json#/definitions/pos\"},"
+            + "{\"$ref\":\"mem://missing.json\"}]}");
+
+        factory(false).getJsonSchema(schema);
+        try {
+            factory(true).getJsonSchema(schema);
+            fail("No exception thrown!");
+        } catch (ProcessingException ignored) {
+            assertTrue(true);
+        }
+    }
+
+    @Test
+    public void recursiveSchemasAreNotLoops()
+        throws IOException, ProcessingException
+    {
+        final JsonSchema schema = factory(true).getJsonSchema(JsonLoader
+            .fromString("{\"properties\":{\"self\":{\"$ref\":\"#\"}},"
+                + "\"required\":[\"self\"]}"));
+
+        assertFalse(schema.validInstance(JsonLoader
+            .fromString("{\"self\":{\"self\":{}}}")));
+    }
+
+    private static ValidationConfiguration linkingCfg()
+    {
+        return ValidationConfiguration.newBuilder().setRefLinkingThreads(4)
+            .freeze();
+    }
+
+    private JsonSchemaFactory factory(final boolean link)
+    {
+        return JsonSchemaFactory.newBuilder()
+            .setLoadingConfiguration(loadingCfg)
+            .setValidationConfiguration(link ? linkingCfg()
+                : ValidationConfiguration.byDefault())
+            .freeze();
+    }
+}
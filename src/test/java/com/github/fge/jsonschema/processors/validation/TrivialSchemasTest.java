@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.processors.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.fge.jackson.JacksonUtils;
+import com.github.fge.jackson.JsonLoader;
+import com.github.fge.jackson.jsonpointer.JsonPointer;
+import com.github.fge.jsonschema.cfg.ValidationConfiguration;
+import com.github.fge.jsonschema.core.tree.CanonicalSchemaTree;
+import com.github.fge.jsonschema.core.tree.SchemaTree;
+import com.github.fge.jsonschema.core.tree.key.SchemaKey;
+import com.google.common.collect.Lists;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+public final class TrivialSchemasTest
+{
+    private final TrivialSchemas trivialSchemas
+        = new TrivialSchemas(ValidationConfiguration.byDefault());
+
+    @DataProvider
+    public Iterator<Object[]> schemas()
+    {
+        final List<Object[]> list = Lists.newArrayList();
+
+        list.add(new Object[] { "{}", true });
+        list.add(new Object[] { "{\"title\":\"t\",\"description\":\"d\"}",
+            true });
+        list.add(new Object[] { "{\"additionalProperties\":{}}", true });
+        list.add(new Object[] { "{\"additionalProperties\":true,"
+            + "\"minLength\":0}", true });
+        list.add(new Object[] { "{\"items\":[{},{\"default\":1}],"
+            + "\"additionalItems\":{}}", true });
+        list.add(new Object[] { "{\"properties\":{\"p\":{\"title\":\"t\"}},"
+            + "\"patternProperties\":{\"^x\":{}}}", true });
+        list.add(new Object[] { "{\"type\":[\"array\",\"boolean\","
+            + "\"integer\",\"null\",\"number\",\"object\",\"string\"]}",
+            true });
+
+        list.add(new Object[] { "{\"type\":\"string\"}", false });
+        list.add(new Object[] { "{\"additionalProperties\":false}", false });
+        list.add(new Object[] { "{\"properties\":{\"p\":{\"minimum\":1}}}",
+            false });
+        list.add(new Object[] { "{\"items\":[{},{\"enum\":[1]}]}", false });
+        // Unknown keywords raise a warning
+        list.add(new Object[] { "{\"x-extension\":{}}", false });
+        list.add(new Object[] { "{\"$ref\":\"#/definitions/d\","
+            + "\"definitions\":{\"d\":{}}}", false });
+        list.add(new Object[] { "{\"format\":\"email\"}", false });
+
+        return list.iterator();
+    }
+
+    @Test(dataProvider = "schemas")
+    public void trivialSchemasAreDetected(final String input,
+        final boolean trivial)
+        throws IOException
+    {
+        final SchemaTree tree = new CanonicalSchemaTree(
+            SchemaKey.anonymousKey(), JsonLoader.fromString(input));
+
+        assertEquals(trivialSchemas.isTrivial(tree), trivial);
+        // Second lookup uses the stored result
+        assertEquals(trivialSchemas.isTrivial(tree), trivial);
+    }
+
+    @Test
+    public void resultsDependOnSchemaVersion()
+        throws IOException
+    {
+        /*
+         * "required" is an annotation in draft v3, but must be an array in
+         * draft v4
+         */
+        final JsonNode schema = JsonLoader.fromString("{\"required\":true}");
+        final JsonPointer ptr = JsonPointer.of("properties", "p");
+
+        assertTrue(trivialSchemas.isTrivial(treeOf(schema,
+            "http://json-schema.org/draft-03/schema#").append(ptr)));
+        assertFalse(trivialSchemas.isTrivial(treeOf(schema,
+            "http://json-schema.org/draft-04/schema#").append(ptr)));
+        assertTrue(trivialSchemas.isTrivial(treeOf(schema,
+            "http://json-schema.org/draft-03/schema#").append(ptr)));
+    }
+
+    private static SchemaTree treeOf(final JsonNode schema,
+        final String dollarSchema)
+    {
+        final ObjectNode root = JacksonUtils.nodeFactory().objectNode();
+        root.put("$schema", dollarSchema);
+        root.putObject("properties").set("p", schema);
+        return new CanonicalSchemaTree(SchemaKey.anonymousKey(), root);
+    }
+}
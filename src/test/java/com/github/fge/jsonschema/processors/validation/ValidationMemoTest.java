@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.processors.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jackson.JsonLoader;
+import com.github.fge.jsonschema.cfg.ValidationConfiguration;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.load.RefResolver;
+import com.github.fge.jsonschema.core.load.SchemaLoader;
+import com.github.fge.jsonschema.core.report.ListProcessingReport;
+import com.github.fge.jsonschema.core.tree.CanonicalSchemaTree;
+import com.github.fge.jsonschema.core.tree.SimpleJsonTree;
+import com.github.fge.jsonschema.core.tree.key.SchemaKey;
+import com.github.fge.jsonschema.library.DraftV4Library;
+import com.github.fge.jsonschema.processors.data.FullData;
+import com.google.common.collect.Lists;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+public final class ValidationMemoTest
+{
+    private static final String SCHEMA = "{\"items\":{\"properties\":"
+        + "{\"a\":{\"type\":\"integer\"}}}}";
+    private static final String INSTANCE = "[{\"a\":1},{\"a\":2},{\"a\":3}]";
+
+    private ValidationMemo memo;
+
+    @BeforeMethod
+    public void init()
+        throws IOException, ProcessingException
+    {
+        final ValidationConfiguration cfg = ValidationConfiguration.byDefault();
+        final ValidationProcessor processor = new ValidationProcessor(cfg,
+            new ValidationChain(new RefResolver(new SchemaLoader()),
+                DraftV4Library.get(), cfg));
+        final FullData data = new FullData(
+            new CanonicalSchemaTree(SchemaKey.anonymousKey(),
+                JsonLoader.fromString(SCHEMA)),
+            new SimpleJsonTree(JsonLoader.fromString(INSTANCE)));
+
+        memo = new ValidationMemo();
+        processor.process(new ListProcessingReport(), data, memo);
+    }
+
+    @Test
+    public void resultsForContainersAreRecorded()
+    {
+        // The array and its three elements
+        assertEquals(memo.size(), 4);
+    }
+
+    @DataProvider
+    public Iterator<Object[]> patches()
+    {
+        final List<Object[]> list = Lists.newArrayList();
+
+        list.add(new Object[] {
+            "[{\"op\":\"test\",\"path\":\"/0/a\",\"value\":1}]", INSTANCE, 4
+        });
+        list.add(new Object[] {
+            "[{\"op\":\"replace\",\"path\":\"/1/a\",\"value\":0}]",
+            "[{\"a\":1},{\"a\":0},{\"a\":3}]", 2
+        });
+        list.add(new Object[] {
+            "[{\"op\":\"add\",\"path\":\"/-\",\"value\":{}}]",
+            "[{\"a\":1},{\"a\":2},{\"a\":3},{}]", 3
+        });
+        list.add(new Object[] {
+            "[{\"op\":\"add\",\"path\":\"/2\",\"value\":{}}]",
+            "[{\"a\":1},{\"a\":2},{},{\"a\":3}]", 2
+        });
+        list.add(new Object[] {
+            "[{\"op\":\"remove\",\"path\":\"/0\"}]",
+            "[{\"a\":2},{\"a\":3}]", 0
+        });
+        list.add(new Object[] {
+            "[{\"op\":\"move\",\"from\":\"/0/a\",\"path\":\"/2/b\"}]",
+            "[{},{\"a\":2},{\"a\":3,\"b\":1}]", 1
+        });
+        list.add(new Object[] {
+            "[{\"op\":\"replace\",\"path\":\"\",\"value\":[]}]", "[]", 0
+        });
+
+        return list.iterator();
+    }
+
+    @Test(dataProvider = "patches")
+    public void resultsMadeStaleByPatchesAreDropped(final String patch,
+        final String instance, final int size)
+        throws IOException
+    {
+        final ValidationMemo after = memo.afterPatch(
+            JsonLoader.fromString(patch), JsonLoader.fromString(instance));
+        assertEquals(after.size(), size);
+        assertEquals(memo.size(), 4);
+    }
+
+    @DataProvider
+    public Iterator<Object[]> invalidPatches()
+    {
+        final List<Object[]> list = Lists.newArrayList();
+
+        list.add(new Object[] { "{}" });
+        list.add(new Object[] { "[{\"path\":\"/0\"}]" });
+        list.add(new Object[] { "[{\"op\":\"remove\"}]" });
+        list.add(new Object[] { "[{\"op\":\"remove\",\"path\":\"0\"}]" });
+        list.add(new Object[] { "[{\"op\":\"move\",\"path\":\"/0\"}]" });
+        list.add(new Object[] { "[{\"op\":\"merge\",\"path\":\"/0\"}]" });
+
+        return list.iterator();
+    }
+
+    @Test(dataProvider = "invalidPatches")
+    public void invalidPatchesAreRejected(final String patch)
+        throws IOException
+    {
+        final JsonNode node = JsonLoader.fromString(patch);
+        try {
+            memo.afterPatch(node, JsonLoader.fromString(INSTANCE));
+            fail("No exception thrown!");
+        } catch (IllegalArgumentException ignored) {
+            assertTrue(true);
+        }
+    }
+}
@@ -32,6 +32,7 @@ import com.github.fge.jsonschema.cfg.ValidationConfiguration;
 import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.keyword.syntax.checkers.SyntaxChecker;
 import com.github.fge.jsonschema.core.processing.Processor;
+import com.github.fge.jsonschema.core.report.ListProcessingReport;
 import com.github.fge.jsonschema.core.report.ProcessingMessage;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
 import com.github.fge.jsonschema.core.tree.CanonicalSchemaTree;
@@ -49,17 +50,20 @@ import com.github.fge.jsonschema.messages.JsonSchemaValidationBundle;
 import com.github.fge.jsonschema.processors.data.FullData;
 import com.github.fge.msgsimple.bundle.MessageBundle;
 import com.github.fge.msgsimple.load.MessageBundles;
+import com.google.common.collect.Lists;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.io.IOException;
 import java.net.URI;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.github.fge.jsonschema.matchers.ProcessingMessageAssert.assertMessage;
 import static org.mockito.Mockito.mock;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
@@ -81,6 +85,7 @@ public final class ValidationProcessorTest
         RAWINSTANCE.add(1);
     }
 
+    private Library library;
     private Processor<FullData, FullData> processor;
 
     @BeforeMethod
@@ -91,13 +96,8 @@ public final class ValidationProcessorTest
             .withIdentityDigester(NodeType.ARRAY, NodeType.values())
             .withValidatorClass(K1Validator.class)
             .freeze();
-        final Library library = DraftV4Library.get().thaw()
-            .addKeyword(keyword).freeze();
-        final ValidationConfiguration cfg = ValidationConfiguration.newBuilder()
-            .setDefaultLibrary("foo://bar#", library).freeze();
-        final JsonSchemaFactory factory = JsonSchemaFactory.newBuilder()
-            .setValidationConfiguration(cfg).freeze();
-        processor = factory.getProcessor();
+        library = DraftV4Library.get().thaw().addKeyword(keyword).freeze();
+        processor = buildProcessor(0);
         COUNT.set(0);
     }
 
@@ -179,6 +179,95 @@ public final class ValidationProcessorTest
         assertTrue(true);
     }
 
+    @Test
+    public void memoizedSubschemasAreValidatedOnlyOnce()
+        throws IOException, ProcessingException
+    {
+        final JsonNode schemaNode = JsonLoader.fromString("{"
+            + "\"definitions\": { \"d\": { \"k1\": 0 } },"
+            + "\"allOf\": [ { \"$ref\": \"#/definitions/d\" },"
+            + "  { \"$ref\": \"#/definitions/d\" } ] }");
+        final SchemaTree schema
+            = new CanonicalSchemaTree(SchemaKey.anonymousKey(), schemaNode);
+        final JsonTree instance
+            = new SimpleJsonTree(JacksonUtils.nodeFactory().nullNode());
+        final FullData data = new FullData(schema, instance);
+
+        processor.process(new ListProcessingReport(), data);
+        assertEquals(COUNT.get(), 2);
+
+        COUNT.set(0);
+        buildProcessor(16).process(new ListProcessingReport(), data);
+        assertEquals(COUNT.get(), 1);
+    }
+
+    @Test
+    public void memoizationDoesNotChangeReports()
+        throws IOException, ProcessingException
+    {
+        final JsonNode node = JsonLoader.fromString("{"
+            + "\"definitions\": {"
+            + "  \"node\": { \"type\": \"object\", \"required\": [ \"v\" ],"
+            + "    \"properties\": { \"v\": { \"minimum\": 0 },"
+            + "      \"children\": { \"items\": { \"anyOf\": ["
+            + "        { \"$ref\": \"#/definitions/node\" },"
+            + "        { \"allOf\": [ { \"$ref\": \"#/definitions/node\" } ] }"
+            + "      ] } } } }"
+            + "},"
+            + "\"$ref\": \"#/definitions/node\" }");
+        final SchemaTree schema
+            = new CanonicalSchemaTree(SchemaKey.anonymousKey(), node);
+        final JsonTree instance = new SimpleJsonTree(JsonLoader.fromString(
+            "{ \"v\": 1, \"children\": [ { \"v\": -1 },"
+            + "{ \"v\": 2, \"children\": [ {} ] } ] }"));
+        final FullData data = new FullData(schema, instance);
+
+        final ListProcessingReport expected = new ListProcessingReport();
+        processor.process(expected, data);
+        final ListProcessingReport actual = new ListProcessingReport();
+        buildProcessor(2).process(actual, data);
+
+        assertFalse(expected.isSuccess());
+        assertEquals(actual.asJson(), expected.asJson());
+    }
+
+    @Test
+    public void memoizationDoesNotMixUpRepeatedValues()
+        throws IOException, ProcessingException
+    {
+        /*
+         * Jackson shares the nodes of some values, such as booleans and small
+         * integers: each occurrence must still be reported at its own pointer
+         */
+        final JsonNode schemaNode
+            = JsonLoader.fromString("{\"items\":{\"type\":\"string\"}}");
+        final JsonNode instanceNode
+            = JsonLoader.fromString("[true,true,3,3,null,null]");
+        final JsonValidator validator = JsonSchemaFactory.newBuilder()
+            .setValidationConfiguration(ValidationConfiguration.newBuilder()
+                .setMemoSize(100).freeze()).freeze().getValidator();
+
+        final ListProcessingReport report = (ListProcessingReport) validator
+            .validate(schemaNode, instanceNode, true);
+        final List<String> pointers = Lists.newArrayList();
+        for (final ProcessingMessage message: report)
+            pointers.add(message.asJson().get("instance").get("pointer")
+                .textValue());
+
+        assertEquals(pointers,
+            Arrays.asList("/0", "/1", "/2", "/3", "/4", "/5"));
+    }
+
+    private Processor<FullData, FullData> buildProcessor(final int memoSize)
+    {
+        final ValidationConfiguration cfg = ValidationConfiguration.newBuilder()
+            .setDefaultLibrary("foo://bar#", library).setMemoSize(memoSize)
+            .freeze();
+        final JsonSchemaFactory factory = JsonSchemaFactory.newBuilder()
+            .setValidationConfiguration(cfg).freeze();
+        return factory.getProcessor();
+    }
+
     public static final class K1Validator
         extends AbstractKeywordValidator
     {
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2014, Francis Galiegue (fgaliegue@gmail.com)
+ *
+ * This software is dual-licensed under:
+ *
+ * - the Lesser General Public License (LGPL) version 3.0 or, at your option, any
+ *   later version;
+ * - the Apache Software License (ASL) version 2.0.
+ *
+ * The text of this file and of both licenses is available at the root of this
+ * project or, if you have the jar distribution, in directory META-INF/, under
+ * the names LGPL-3.0.txt and ASL-2.0.txt respectively.
+ *
+ * Direct link to the sources:
+ *
+ * - LGPL 3.0: https://www.gnu.org/licenses/lgpl-3.0.txt
+ * - ASL 2.0: http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+
+package com.github.fge.jsonschema.testsuite;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jackson.JsonLoader;
+import com.github.fge.jsonschema.SchemaVersion;
+import com.github.fge.jsonschema.cfg.ValidationConfiguration;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.ListProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import com.google.common.collect.Lists;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+public final class ValidatorTableTest
+{
+    @DataProvider
+    public Iterator<Object[]> getAllTests()
+        throws IOException
+    {
+        final List<Object[]> list = Lists.newArrayList();
+
+        addTests(list, SchemaVersion.DRAFTV3, "draftv3");
+        addTests(list, SchemaVersion.DRAFTV4, "draftv4");
+
+        return list.iterator();
+    }
+
+    private static void addTests(final List<Object[]> list,
+        final SchemaVersion version, final String fileName)
+        throws IOException
+    {
+        final JsonNode testSuite
+            = JsonLoader.fromResource("/testsuite/" + fileName + ".json");
+
+        for (final JsonNode test: testSuite)
+            list.add(new Object[]{
+                version,
+                test.get("description").textValue(),
+                test.get("schema"),
+                test.get("data"),
+                test.get("valid").booleanValue()
+            });
+    }
+
+    @Test(dataProvider = "getAllTests")
+    public void validatorTablesValidateLikeRegularSchemas(
+        final SchemaVersion version, final String description,
+        final JsonNode schema, final JsonNode data, final boolean valid)
+        throws ProcessingException
+    {
+        final JsonSchema regular = factory(version, false)
+            .getJsonSchema(schema);
+        final JsonSchema tabled = factory(version, true)
+            .getJsonSchema(schema);
+
+        final ListProcessingReport expected
+            = (ListProcessingReport) regular.validate(data);
+
+        ListProcessingReport actual;
+
+        /*
+         * Validate twice, so that table entries are reused
+         */
+        for (int i = 0; i < 2; i++) {
+            actual = (ListProcessingReport) tabled.validate(data);
+            assertEquals(actual.isSuccess(), valid,
+                "test failed (description: " + description + ')');
+            assertEquals(actual.asJson(), expected.asJson(),
+                "reports differ (description: " + description + ')');
+        }
+    }
+
+    private static JsonSchemaFactory factory(final SchemaVersion version,
+        final boolean useValidatorTables)
+    {
+        final ValidationConfiguration cfg = ValidationConfiguration.newBuilder()
+            .setDefaultVersion(version)
+            .setUseValidatorTables(useValidatorTables).freeze();
+        return JsonSchemaFactory.newBuilder()
+            .setValidationConfiguration(cfg).freeze();
+    }
+}